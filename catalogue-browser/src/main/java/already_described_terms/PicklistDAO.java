@@ -12,6 +12,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import catalogue.Catalogue;
+import catalogue_browser_dao.BulkInsert;
 import catalogue_browser_dao.CatalogueEntityDAO;
 import catalogue_object.Term;
 
@@ -64,6 +65,9 @@ public class PicklistDAO implements CatalogueEntityDAO<Picklist> {
 
 		// insert into the database all the new picklist terms
 		insertPicklistTerms(picklist);
+
+		// index the new picklist terms for the searches
+		catalogue.getPicklistIndex().build(picklist, picklist.getTerms());
 	}
 
 	/**
@@ -116,27 +120,25 @@ public class PicklistDAO implements CatalogueEntityDAO<Picklist> {
 		String query = "insert into APP.PICKLIST_TERM (PICKLIST_TERM_LEVEL, " + "PICKLIST_TERM_CODE, "
 				+ "PICKLIST_BASETERM_CODE, " + "PICKLIST_TERM_LABEL, " + "PICKLIST_ID) values (?, ?, ?, ?, ?)";
 
-		try (Connection con = catalogue.getConnection(); PreparedStatement stmt = con.prepareStatement(query);) {
-
-			// for each picklist term add it into the database
-			for (PicklistTerm term : picklist.getTerms()) {
+		final int picklistId = picklist.getId();
 
-				stmt.clearParameters();
+		BulkInsert<PicklistTerm> bulk = new BulkInsert<>(catalogue, query, new BulkInsert.Binder<PicklistTerm>() {
+			@Override
+			public void bind(PreparedStatement stmt, PicklistTerm term) throws SQLException {
 
 				stmt.setInt(1, term.getLevel());
 				stmt.setString(2, term.getCode());
 				// get the base term code
 				stmt.setString(3, term.getCode().split("#")[0]);
 				stmt.setString(4, term.getLabel());
-				stmt.setInt(5, picklist.getId());
-
-				stmt.addBatch();
+				stmt.setInt(5, picklistId);
 			}
+		}, false);
 
-			stmt.executeBatch();
+		try {
 
-			stmt.close();
-			con.close();
+			// for each picklist term add it into the database
+			bulk.insert(picklist.getTerms());
 
 		} catch (SQLException e) {
 			LOGGER.error("DB error", e);
@@ -417,68 +419,28 @@ public class PicklistDAO implements CatalogueEntityDAO<Picklist> {
 
 	/**
 	 * This method returns all the picklist terms which contains the "term" as base
-	 * term, implicit facet or explicit facet
+	 * term, implicit facet or explicit facet. The terms are retrieved from the
+	 * {@link PicklistFacetIndex} of the catalogue, the picklist is indexed the
+	 * first time it is searched.
 	 * 
 	 * @param term
 	 * @return
 	 */
 	public ArrayList<PicklistTerm> searchTermInPicklist(Picklist picklist, Term term) {
 
-		// output array
-		ArrayList<PicklistTerm> terms = new ArrayList<>();
-
-		// first get the base term information using the base term codes
-		// then get the implicit facets string related to the base term
-		// then select all the terms which contains in their implicit facets or explicit
-		// facets the
-		// term passed in input.
-		// TA.ATTR_VALUE contains the implicit facet string (baseTerm#F01.A05T6$...)
-		// PT.PICKLIST_TERM_CODE contains the explicit facet string in the same format
-		// of the implicit ones
-		String query = "select PT.PICKLIST_TERM_LEVEL, PT.PICKLIST_TERM_CODE, PT.PICKLIST_TERM_LABEL "
-				+ "from APP.PICKLIST_TERM as PT "
-				+ "inner join APP.TERM as T on PT.PICKLIST_BASETERM_CODE = T.TERM_CODE "
-				+ "inner join APP.TERM_ATTRIBUTE as TA on TA.TERM_ID = T.TERM_ID "
-				+ "inner join APP.ATTRIBUTE as A on A.ATTR_ID = TA.ATTR_ID "
-				+ "where PT.PICKLIST_ID = ? and A.ATTR_NAME = ? and ( TA.ATTR_VALUE like ? or PT.PICKLIST_TERM_CODE like ? )";
-
-		try (Connection con = catalogue.getConnection(); PreparedStatement stmt = con.prepareStatement(query);) {
-
-			stmt.clearParameters();
-
-			stmt.setInt(1, picklist.getId());
-
-			// we search in all the implicit facets of the term (inherited included)
-			stmt.setString(2, "allFacets");
-			stmt.setString(3, "%" + term.getCode() + "%");
-			stmt.setString(4, "%" + term.getCode() + "%");
-
-			try (ResultSet rs = stmt.executeQuery();) {
-
-				// for each picklist term
-				while (rs.next()) {
-
-					int level = rs.getInt("PICKLIST_TERM_LEVEL");
-					String code = rs.getString("PICKLIST_TERM_CODE");
-					String label = rs.getString("PICKLIST_TERM_LABEL");
+		PicklistFacetIndex index = catalogue.getPicklistIndex();
 
-					// add the current term to the output list
-					PicklistTerm picklistTerm = new PicklistTerm(catalogue, level, code, label);
-					terms.add(picklistTerm);
-				}
+		if (!index.contains(picklist)) {
 
-				rs.close();
-			}
+			ArrayList<PicklistTerm> terms = picklist.getTerms();
 
-			stmt.close();
-			con.close();
+			if (terms == null)
+				terms = getPicklistTerms(picklist);
 
-		} catch (SQLException e) {
-			LOGGER.error("DB error", e);
-			e.printStackTrace();
+			index.build(picklist, terms);
 		}
 
-		return terms;
+		return index.search(picklist, term);
 	}
 
 	@Override
@@ -488,6 +450,8 @@ public class PicklistDAO implements CatalogueEntityDAO<Picklist> {
 		// to remove dependencies
 		deletePicklistTerms(picklist);
 
+		catalogue.getPicklistIndex().remove(picklist);
+
 		String query = "delete from APP.PICKLIST where PICKLIST_ID = ?";
 
 		try (Connection con = catalogue.getConnection(); PreparedStatement stmt = con.prepareStatement(query);) {
@@ -0,0 +1,169 @@
+package already_described_terms;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import catalogue.Catalogue;
+import catalogue_object.Term;
+import ui_implicit_facet.FacetDescriptor;
+
+/**
+ * In memory reverse index of the picklists of a catalogue: for each picklist
+ * it contains the picklist terms related to each term code. A picklist term is
+ * related to the code of its base term, to the codes of its explicit facets
+ * and to the codes of the implicit facets (inherited included) of its base
+ * term. In this way the picklist terms which contain a term (see
+ * {@link PicklistDAO#searchTermInPicklist(Picklist, Term)}) are found without
+ * scanning all the picklist terms.
+ *
+ * The index of a picklist is built when the picklist is imported or the first
+ * time it is searched, and it is discarded when the picklist is removed or the
+ * catalogue data are reloaded.
+ *
+ * @author shahaal
+ *
+ */
+public class PicklistFacetIndex {
+
+	private static final Logger LOGGER = LogManager.getLogger(PicklistFacetIndex.class);
+
+	private final Catalogue catalogue;
+
+	// picklist id => term code => picklist terms
+	private final Map<Integer, Map<String, List<PicklistTerm>>> index = new HashMap<>();
+
+	public PicklistFacetIndex(Catalogue catalogue) {
+		this.catalogue = catalogue;
+	}
+
+	/**
+	 * Check if the picklist was already indexed
+	 *
+	 * @param picklist
+	 * @return
+	 */
+	public synchronized boolean contains(Picklist picklist) {
+		return index.containsKey(picklist.getId());
+	}
+
+	/**
+	 * Index the terms of the picklist, replacing the previous index of the
+	 * picklist if present
+	 *
+	 * @param picklist
+	 * @param terms    the picklist terms
+	 */
+	public synchronized void build(Picklist picklist, Collection<PicklistTerm> terms) {
+
+		long start = System.currentTimeMillis();
+
+		Map<String, List<PicklistTerm>> byCode = new HashMap<>();
+
+		for (PicklistTerm term : terms) {
+
+			for (String code : getCodes(term)) {
+
+				List<PicklistTerm> related = byCode.get(code);
+
+				if (related == null) {
+					related = new ArrayList<>(1);
+					byCode.put(code, related);
+				}
+
+				related.add(term);
+			}
+		}
+
+		index.put(picklist.getId(), byCode);
+
+		LOGGER.info("Indexed " + terms.size() + " terms of picklist " + picklist.getCode() + " with " + byCode.size()
+				+ " codes in " + (System.currentTimeMillis() - start) + " ms");
+	}
+
+	/**
+	 * Get the terms of the picklist which contain the term as base term, explicit
+	 * facet or implicit facet. The picklist must be already indexed.
+	 *
+	 * @param picklist
+	 * @param term
+	 * @return the related picklist terms in the picklist order
+	 */
+	public synchronized ArrayList<PicklistTerm> search(Picklist picklist, Term term) {
+
+		ArrayList<PicklistTerm> terms = new ArrayList<>();
+
+		Map<String, List<PicklistTerm>> byCode = index.get(picklist.getId());
+
+		if (byCode == null)
+			return terms;
+
+		List<PicklistTerm> related = byCode.get(term.getCode());
+
+		if (related != null)
+			terms.addAll(related);
+
+		return terms;
+	}
+
+	/**
+	 * Remove the index of the picklist
+	 *
+	 * @param picklist
+	 */
+	public synchronized void remove(Picklist picklist) {
+		index.remove(picklist.getId());
+	}
+
+	/**
+	 * Remove the index of all the picklists
+	 */
+	public synchronized void clear() {
+		index.clear();
+	}
+
+	/**
+	 * Get the codes of the terms contained in the picklist term
+	 *
+	 * @param term
+	 * @return the codes or an empty set if the base term is not in the catalogue
+	 */
+	private Set<String> getCodes(PicklistTerm term) {
+
+		Set<String> codes = new LinkedHashSet<>();
+
+		String baseTermCode = term.getBaseTermCode();
+
+		Term baseTerm = baseTermCode == null ? null : catalogue.getTermByCodeIgnoreCase(baseTermCode);
+
+		// as the join with the terms of the catalogue, skip unknown base terms
+		if (baseTerm == null || !baseTerm.getCode().equals(baseTermCode))
+			return codes;
+
+		codes.add(baseTermCode);
+
+		// explicit facets (facetHeader.facetCode)
+		for (String facetFullCode : term.getFullFacetCodes()) {
+
+			int dot = facetFullCode.indexOf('.');
+
+			if (dot >= 0)
+				codes.add(facetFullCode.substring(dot + 1));
+		}
+
+		// implicit facets of the base term, inherited included
+		for (FacetDescriptor descriptor : baseTerm.getFacets(true)) {
+			if (descriptor.getFacetCode() != null)
+				codes.add(descriptor.getFacetCode());
+		}
+
+		return codes;
+	}
+}
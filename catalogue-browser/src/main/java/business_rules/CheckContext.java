@@ -0,0 +1,61 @@
+package business_rules;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import business_rules.TermRules.WarningEvent;
+
+/**
+ * State of the evaluation of a single code. A new context is created for each
+ * code, so that the rules can be evaluated by more threads at the same time.
+ *
+ * @author shahaal
+ *
+ */
+class CheckContext {
+
+	private final TermRulesModel model;
+	private final String fullCode;
+	private final List<CheckResult.Warning> warnings = new ArrayList<>();
+
+	CheckContext(TermRulesModel model, String fullCode) {
+		this.model = model;
+		this.fullCode = fullCode;
+	}
+
+	/**
+	 * Raise a warning
+	 *
+	 * @param event
+	 * @param postMessageString string between brackets after the warning
+	 * @param attachDatetime
+	 */
+	void warn(WarningEvent event, String postMessageString, boolean attachDatetime) {
+		warnings.add(new CheckResult.Warning(event, model.createMessage(event, postMessageString, attachDatetime),
+				model.getSemaphoreLevel(event), model.getTextLevel(event)));
+	}
+
+	/**
+	 * Check if high warnings (or errors) were raised until now
+	 *
+	 * @return
+	 */
+	boolean hasHighWarnings() {
+
+		for (CheckResult.Warning warning : warnings) {
+			if (warning.getSemaphoreLevel().ordinal() > TermRules.WarningLevel.LOW.ordinal())
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Get the result of the evaluation
+	 *
+	 * @return
+	 */
+	CheckResult getResult() {
+		return new CheckResult(fullCode, warnings);
+	}
+}
@@ -0,0 +1,114 @@
+package business_rules;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import business_rules.TermRules.WarningEvent;
+import business_rules.TermRules.WarningLevel;
+
+/**
+ * Warnings raised by the business rules for a single FoodEx2 code, in the order
+ * in which they were raised. The object is immutable.
+ *
+ * @author shahaal
+ *
+ */
+public final class CheckResult {
+
+	private final String fullCode;
+	private final List<Warning> warnings;
+
+	CheckResult(String fullCode, List<Warning> warnings) {
+		this.fullCode = fullCode;
+		this.warnings = Collections.unmodifiableList(new ArrayList<>(warnings));
+	}
+
+	/**
+	 * Get the checked code
+	 *
+	 * @return
+	 */
+	public String getFullCode() {
+		return fullCode;
+	}
+
+	/**
+	 * Get the raised warnings
+	 *
+	 * @return
+	 */
+	public List<Warning> getWarnings() {
+		return warnings;
+	}
+
+	/**
+	 * Get the highest semaphore level of the warnings
+	 *
+	 * @return {@link WarningLevel#NONE} if no warning was raised
+	 */
+	public WarningLevel getHighestLevel() {
+
+		WarningLevel level = WarningLevel.NONE;
+
+		for (Warning warning : warnings) {
+			if (warning.getSemaphoreLevel().ordinal() > level.ordinal())
+				level = warning.getSemaphoreLevel();
+		}
+
+		return level;
+	}
+
+	/**
+	 * Check if high warnings (or errors) were raised
+	 *
+	 * @return
+	 */
+	public boolean hasHighWarnings() {
+		return getHighestLevel().ordinal() > WarningLevel.LOW.ordinal();
+	}
+
+	@Override
+	public String toString() {
+		return "CHECK RESULT: code=" + fullCode + ";warnings=" + warnings;
+	}
+
+	/**
+	 * A single warning raised by a rule
+	 */
+	public static final class Warning {
+
+		private final WarningEvent event;
+		private final String message;
+		private final WarningLevel semaphoreLevel;
+		private final WarningLevel textLevel;
+
+		Warning(WarningEvent event, String message, WarningLevel semaphoreLevel, WarningLevel textLevel) {
+			this.event = event;
+			this.message = message;
+			this.semaphoreLevel = semaphoreLevel;
+			this.textLevel = textLevel;
+		}
+
+		public WarningEvent getEvent() {
+			return event;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		public WarningLevel getSemaphoreLevel() {
+			return semaphoreLevel;
+		}
+
+		public WarningLevel getTextLevel() {
+			return textLevel;
+		}
+
+		@Override
+		public String toString() {
+			return event + ";" + message + ";" + semaphoreLevel + ";" + textLevel;
+		}
+	}
+}
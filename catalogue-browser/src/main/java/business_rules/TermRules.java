@@ -1,21 +1,13 @@
 package business_rules;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.stream.Collectors;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import catalogue.Catalogue;
 import catalogue_browser_dao.TermDAO;
 import catalogue_object.Attribute;
@@ -33,22 +25,27 @@ import ui_implicit_facet.FacetType;
  * @author shahaal
  *
  */
-public abstract class TermRules {
+public class TermRules {
 
-	private static final Logger LOGGER = LogManager.getLogger(TermRules.class);
+	// read-only data of the rules (shared among threads)
+	protected final TermRulesModel model;
 
-	protected Catalogue currentCat;
+	protected final Catalogue currentCat;
 
 	// list of all the processes which may cause a warning
-	protected ArrayList<ForbiddenProcess> forbiddenProcesses;
+	protected final List<ForbiddenProcess> forbiddenProcesses;
 
-	// load the colour options for the warning console and messages
-	protected WarningOptions warnOptions;
-
-	// load into memory all the warning messages from the text file
-	protected ArrayList<WarningMessage> warningMessages;
-	
-	protected boolean btCorrect = false;
+	/**
+	 * Create the rules. The rules do not keep any state related to the checked
+	 * codes, therefore the same instance can check more codes at the same time.
+	 * 
+	 * @param model
+	 */
+	public TermRules(TermRulesModel model) {
+		this.model = model;
+		this.currentCat = model.getCatalogue();
+		this.forbiddenProcesses = model.getForbiddenProcesses();
+	}
 	
 	/**
 	 * Enum type: identify the warning messages to print
@@ -58,7 +55,7 @@ public abstract class TermRules {
 	 * @author shahaal
 	 *
 	 */	
-	protected static enum WarningEvent {
+	public static enum WarningEvent {
 		BR01, BR02, BR03, BR04, BR05, BR06, BR07, BR08, BR09, BR10, BR11, BR12, BR13, BR14, BR15, BR16, BR17, BR18,
 		BR19, BR20, BR21, BR22, BR23, BR24, BR25, BR26, BR27, BR28, BR29, BR30, BR31
 	}
@@ -69,7 +66,7 @@ public abstract class TermRules {
 	 * @author shahaal
 	 *
 	 */
-	protected enum WarningLevel {
+	public enum WarningLevel {
 		NONE, LOW, HIGH, ERROR
 	}
 	
@@ -79,9 +76,9 @@ public abstract class TermRules {
 	 * 
 	 * @param bt
 	 * @param allFacets
-	 * @param stdOut
+	 * @param ctx
 	 */
-	protected void sourceCommodityRawCheck(Term bt, String allFacets, boolean stdOut) {
+	protected void sourceCommodityRawCheck(Term bt, String allFacets, CheckContext ctx) {
 
 		// if the base term is not a raw commodity no checks have to be done
 		if (!isRawCommodityTerm(bt))
@@ -126,7 +123,7 @@ public abstract class TermRules {
 		StringBuilder sb = new StringBuilder();
 
 		// get the racsource hierarchy
-		Hierarchy hierarchy = currentCat.getHierarchyByCode("racsource");
+		Hierarchy hierarchy = model.getRacSourceHierarchy();
 
 		// restrict if explicit is child of an implicit
 		for (FacetDescriptor fd : explicitFacets) {
@@ -157,7 +154,7 @@ public abstract class TermRules {
 			// remove the last " - " if present (i.e. at least one source c. was added)
 			termsInvolved = termsInvolved.substring(0, termsInvolved.length() - " - ".length());
 			// warn user if adding an explicit facet which is not better specifying the already present implicit one
-			printWarning(WarningEvent.BR01, termsInvolved, false, stdOut);
+			ctx.warn(WarningEvent.BR01, termsInvolved, false);
 		}	
 
 	}
@@ -170,9 +167,9 @@ public abstract class TermRules {
 	 * @param facetIndex
 	 * @param facetCode
 	 */
-	private void sourceInCompositeCheck(Term baseTerm, String facetIndex, String facetCode, boolean stdOut) {
+	private void sourceInCompositeCheck(Term baseTerm, String facetIndex, String facetCode, CheckContext ctx) {
 		if (isCompositeTerm(baseTerm) && isSourceFacet(facetIndex))
-			printWarning(WarningEvent.BR03, facetCode, false, stdOut);
+			ctx.warn(WarningEvent.BR03, facetCode, false);
 	}
 	
 	/**
@@ -184,9 +181,9 @@ public abstract class TermRules {
 	 * @param facetIndex
 	 * @param facetCode
 	 */
-	private void sourceCommodityInCompositeCheck(Term baseTerm, String facetIndex, String facetCode, boolean stdOut) {
+	private void sourceCommodityInCompositeCheck(Term baseTerm, String facetIndex, String facetCode, CheckContext ctx) {
 		if (isCompositeTerm(baseTerm) && isSourceCommodityFacet(facetIndex))
-			printWarning(WarningEvent.BR04, facetCode, false, stdOut);
+			ctx.warn(WarningEvent.BR04, facetCode, false);
 	}
 
 	/**
@@ -200,7 +197,7 @@ public abstract class TermRules {
 	 * @param bt
 	 * @param allFacets
 	 */
-	protected void sourceCommodityDerivativeCheck(Term bt, String allFacets, boolean stdOut) {
+	protected void sourceCommodityDerivativeCheck(Term bt, String allFacets, CheckContext ctx) {
 
 		// rule only applicable to derivatives
 		if (!isDerivativeTerm(bt))
@@ -262,7 +259,7 @@ public abstract class TermRules {
 
 			boolean skip = false;
 
-			Hierarchy hierarchy = currentCat.getHierarchyByCode("racsource");
+			Hierarchy hierarchy = model.getRacSourceHierarchy();
 			for (Term implicit : implicitTerms) {
 				if (fd.getDescriptor().hasAncestor(implicit, hierarchy)) {
 					skip = true;
@@ -309,7 +306,7 @@ public abstract class TermRules {
 
 		// if we have an implicit sc, an explicit sc and not a source
 		if (explicitSourceCommCount > 0 && implicitSourceCommCount > 0)
-			printWarning(WarningEvent.BR05, termsInvolved, false, stdOut);
+			ctx.warn(WarningEvent.BR05, termsInvolved, false);
 
 		int implAndSpecifications = explicitRestrictedSourceCommCount + implicitSourceCommCount;
 		
@@ -318,13 +315,13 @@ public abstract class TermRules {
 			
 			// if source without source commodities
 			if (totalSourceCommCount == 0)
-				printWarning(WarningEvent.BR06, termsInvolved, false, stdOut);
+				ctx.warn(WarningEvent.BR06, termsInvolved, false);
 			
 			// check if user is adding multiple sc (note that specification of already present are treated differently)
 			if((implAndSpecifications==0 && explicitSourceCommCount>1) || 
 					(implAndSpecifications>2 && explicitSourceCommCount == 0) ||
 					(implAndSpecifications>0 && explicitSourceCommCount>0)) {
-				printWarning(WarningEvent.BR07, termsInvolved, false, stdOut);
+				ctx.warn(WarningEvent.BR07, termsInvolved, false);
 			}
 		}
 	}
@@ -334,15 +331,15 @@ public abstract class TermRules {
 	 * Warn user if selected a not reportable term as base term if the term is reportable
 	 * 
 	 * @param term
-	 * @param stdOut
+	 * @param ctx
 	 */
-	protected void isNotReportable(Term term, boolean stdOut) {
+	protected void isNotReportable(Term term, CheckContext ctx) {
 		// skip the rule if the term is dismissed
-		if (term.isDismissed(currentCat.getDefaultHierarchy()))
+		if (term.isDismissed(model.getDefaultHierarchy()))
 			return;
 		
-		if(!term.isReportable(currentCat.getDefaultHierarchy())) {
-			printWarning(WarningEvent.BR08, term.getCode(), false, stdOut);
+		if(!term.isReportable(model.getDefaultHierarchy())) {
+			ctx.warn(WarningEvent.BR08, term.getCode(), false);
 		}
 	}
 	
@@ -351,14 +348,14 @@ public abstract class TermRules {
 	 * Check if a non-specific term is selected
 	 * 
 	 * @param bt
-	 * @param stdOut
+	 * @param ctx
 	 */
-	protected void nonSpecificTermCheck(Term bt, String facetIndex, boolean stdOut) {
+	protected void nonSpecificTermCheck(Term bt, String facetIndex, CheckContext ctx) {
 		if (isNonSpecificTerm(bt)) {
 			if(isSourceFacet(facetIndex)||isSourceCommodityFacet(facetIndex)) {
 				return;
 			} else {
-				printWarning(WarningEvent.BR10, bt.getCode(), false, stdOut);
+				ctx.warn(WarningEvent.BR10, bt.getCode(), false);
 			}
 		}
 	}
@@ -368,11 +365,11 @@ public abstract class TermRules {
 	 * Check if the "processed" facet is generic
 	 * 
 	 * @param facet
-	 * @param stdOut
+	 * @param ctx
 	 */
-	protected void genericProcessedFacetCheck(Term facet, boolean stdOut) {
+	protected void genericProcessedFacetCheck(Term facet, CheckContext ctx) {
 		if (isGenericProcessFacet(facet)) 
-			printWarning(WarningEvent.BR11, facet.getCode(), false, stdOut);
+			ctx.warn(WarningEvent.BR11, facet.getCode(), false);
 		
 	}
 
@@ -384,9 +381,9 @@ public abstract class TermRules {
 	 * @param bt
 	 * @param facetIndex
 	 * @param facet
-	 * @param stdOut
+	 * @param ctx
 	 */
-	protected void minorIngredientCheck(Term bt, String facetIndex, Term facet, boolean stdOut) {
+	protected void minorIngredientCheck(Term bt, String facetIndex, Term facet, CheckContext ctx) {
 
 		// rule valid only for raw commodities or derivatives
 		if (isRawCommodityTerm(bt) || isDerivativeTerm(bt)) {
@@ -406,7 +403,7 @@ public abstract class TermRules {
 				}
 	
 				// otherwise print the warning
-				printWarning(WarningEvent.BR12, facet.getCode(), false, stdOut);
+				ctx.warn(WarningEvent.BR12, facet.getCode(), false);
 			}
 		}
 	}
@@ -417,13 +414,13 @@ public abstract class TermRules {
 	 * 
 	 * @param bt
 	 * @param allFacets
-	 * @param stdOut
+	 * @param ctx
 	 */
-	protected void physicalStateRawCheck(Term bt, String fcIndex, String fcCode, boolean stdOut) {
+	protected void physicalStateRawCheck(Term bt, String fcIndex, String fcCode, CheckContext ctx) {
 		if (isRawCommodityTerm(bt) 
 				&& isPhysicalStateFacet(fcIndex) 
 				&& isForbiddenPhysicalState(fcCode)) {
-			printWarning(WarningEvent.BR13, fcCode, false, stdOut);
+			ctx.warn(WarningEvent.BR13, fcCode, false);
 		}
 	}
 	
@@ -436,7 +433,7 @@ public abstract class TermRules {
 	 * @param fcIndex
 	 * @param fcCode
 	 */
-	protected void checkIfExplicitLessDetailed(Term bt, String facetIndex, Term fc,boolean stdOut) {
+	protected void checkIfExplicitLessDetailed(Term bt, String facetIndex, Term fc,CheckContext ctx) {
 		// get all implicit facets of the base term
 		ArrayList<FacetDescriptor> implicitFacets = bt.getFacets(true);
 		
@@ -455,7 +452,7 @@ public abstract class TermRules {
 			boolean areSiblings = (fc.getParent(h)==implTerm.getParent(h));
 			// if the explicit has not ancestor the implicit and they are not siblings
 			if (implTerm.hasAncestor(fc, h)&&!areSiblings) {
-				printWarning(WarningEvent.BR16, fc.getCode(), false, stdOut);
+				ctx.warn(WarningEvent.BR16, fc.getCode(), false);
 				break;
 			}
 		}
@@ -467,11 +464,11 @@ public abstract class TermRules {
 	 * check if the base term is a facet
 	 * 
 	 * @param bt
-	 * @param stdOut
+	 * @param ctx
 	 */
-	private void isFacet(Term bt, boolean stdOut) {
+	private void isFacet(Term bt, CheckContext ctx) {
 		if (bt.getTermType().getValue().equals("f")) {
-			printWarning(WarningEvent.BR17, bt.getCode(), false, stdOut);
+			ctx.warn(WarningEvent.BR17, bt.getCode(), false);
 		}
 	}
 	
@@ -489,21 +486,21 @@ public abstract class TermRules {
 	 * @param fcIndex
 	 * @param fcCode
 	 */
-	protected void checkFpForRawCommodity(Term bt, String fcIndex, String fcCode, boolean stdOut) {
+	protected void checkFpForRawCommodity(Term bt, String fcIndex, String fcCode, CheckContext ctx) {
 
 		// return if base term is not a raw commodity or if facet is not a process
 		if (!isRawCommodityTerm(bt) || !isProcessFacet(fcIndex))
 			return;
 
 		// get the forbidden processes of the base term
-		ArrayList<ForbiddenProcess> fps = getForbiddenProcesses(bt, forbiddenProcesses, stdOut);
+		ArrayList<ForbiddenProcess> fps = getForbiddenProcesses(bt, forbiddenProcesses, ctx);
 
 		// get all the codes for the forbidden processes
 		ArrayList<String> currentFPCodes = fps.stream().map(fp -> fp.getCode()).collect(Collectors.toCollection(ArrayList::new));
 
 		// print warning if explicit facet is forbidden
 		if (currentFPCodes != null && currentFPCodes.contains(fcCode))
-			printWarning(WarningEvent.BR19, fcCode, false, stdOut);
+			ctx.warn(WarningEvent.BR19, fcCode, false);
 
 	}
 
@@ -512,11 +509,11 @@ public abstract class TermRules {
 	 * check if the base term is deprecated
 	 * 
 	 * @param bt
-	 * @param stdOut
+	 * @param ctx
 	 */
-	private void isDeprecated(Term bt, boolean stdOut) {
+	private void isDeprecated(Term bt, CheckContext ctx) {
 		if (bt.isDeprecated()) {
-			printWarning(WarningEvent.BR20, bt.getCode(), false, stdOut);
+			ctx.warn(WarningEvent.BR20, bt.getCode(), false);
 		}
 	}
 
@@ -525,11 +522,11 @@ public abstract class TermRules {
 	 * check if the base term is dismissed
 	 * 
 	 * @param bt
-	 * @param stdOut
+	 * @param ctx
 	 */
-	private void isDismissed(Term bt, boolean stdOut) {
-		if (bt.isDismissed(currentCat.getDefaultHierarchy()))
-			printWarning(WarningEvent.BR21, bt.getCode(), false, stdOut);
+	private void isDismissed(Term bt, CheckContext ctx) {
+		if (bt.isDismissed(model.getDefaultHierarchy()))
+			ctx.warn(WarningEvent.BR21, bt.getCode(), false);
 	}
 	
 	/**
@@ -539,19 +536,19 @@ public abstract class TermRules {
 	 * hierarchy or not and rise a warning if it is a non exposure hierarchy
 	 * 
 	 * @param bt
-	 * @param stdOut
+	 * @param ctx
 	 */
-	protected void hierarchyAsBasetermCheck(Term bt, boolean stdOut) {
+	protected void hierarchyAsBasetermCheck(Term bt, CheckContext ctx) {
 		// if the base term is a hierarchy
 		if (bt.getDetailLevel().isHierarchyDetailLevel()) {
 			// get the exposure hierarchy
-			Hierarchy expHierarchy = currentCat.getHierarchyByCode("expo");
+			Hierarchy expHierarchy = model.getExposureHierarchy();
 			if (bt.belongsToHierarchy(expHierarchy)) {
 				// print the message related to the hierarchy as base term
-				printWarning(WarningEvent.BR23, bt.getCode(), false, stdOut);
+				ctx.warn(WarningEvent.BR23, bt.getCode(), false);
 			} else {
 				// print warning that you are using a non exposure hierarchy term
-				printWarning(WarningEvent.BR24, bt.getCode(), false, stdOut);
+				ctx.warn(WarningEvent.BR24, bt.getCode(), false);
 			}
 		}
 	}
@@ -563,11 +560,11 @@ public abstract class TermRules {
 	 * @param bt
 	 * @param impProcesses
 	 * @param expProcesses
-	 * @param stdOut
+	 * @param ctx
 	 * @deprecated
 	 */
 	protected void mutuallyExclusiveCheck(Term bt, ArrayList<ForbiddenProcess> impProcesses,
-			ArrayList<ForbiddenProcess> expProcesses, boolean stdOut) {
+			ArrayList<ForbiddenProcess> expProcesses, CheckContext ctx) {
 
 		// Return if null parameters
 		if (expProcesses == null || impProcesses == null)
@@ -640,7 +637,7 @@ public abstract class TermRules {
 				}
 
 				// print the warning
-				printWarning(WarningEvent.BR26, sb.toString(), false, stdOut);
+				ctx.warn(WarningEvent.BR26, sb.toString(), false);
 			}
 		}
 	}
@@ -659,10 +656,10 @@ public abstract class TermRules {
 	 * @param bt
 	 * @param implicitProcesses
 	 * @param explicitProcesses
-	 * @param stdOut
+	 * @param ctx
 	 */
 	protected void decimalOrderCheck(Term bt, ArrayList<ForbiddenProcess> implicitProcesses,
-			ArrayList<ForbiddenProcess> explicitProcesses, boolean stdOut) {
+			ArrayList<ForbiddenProcess> explicitProcesses, CheckContext ctx) {
 
 		// only check for derivatives
 		if (!isDerivativeTerm(bt))
@@ -774,7 +771,7 @@ public abstract class TermRules {
 				}
 
 				// warning: these processes generate a derivative which is already existing
-				printWarning(WarningEvent.BR27, sb.toString(), false, stdOut);
+				ctx.warn(WarningEvent.BR27, sb.toString(), false);
 			}
 		}
 	}
@@ -788,13 +785,13 @@ public abstract class TermRules {
 	 * @param facetIndex
 	 * @param facetCode
 	 */
-	private void reconstitutionCheck(Term bt, String facetIndex, String facetCode, boolean stdOut) {
+	private void reconstitutionCheck(Term bt, String facetIndex, String facetCode, CheckContext ctx) {
 		
 		// if the explicit facet is a process and the baseterm is concentrate or powder
 		if(isProcessFacet(facetIndex) && isConcOrPowdTerm(bt)) {
 			// if the explicit facet is reconstitution(A07MR) or dilution(A07MQ) 
 			if (facetCode.equals("A07MR") || facetCode.equals("A07MQ"))
-				printWarning(WarningEvent.BR28, facetCode, false, stdOut);
+				ctx.warn(WarningEvent.BR28, facetCode, false);
 		}
 	}
 
@@ -959,23 +956,8 @@ public abstract class TermRules {
 	 * @param groupCode
 	 * @return
 	 */
-	protected boolean isWarnGroup(String groupCode, ArrayList<ForbiddenProcess> forbiddenProcesses) {
-
-		// check for security
-		if (forbiddenProcesses == null)
-			return false;
-
-		// get all the warn groups codes
-		ArrayList<String> warnGroupsCodes = new ArrayList<>();
-		for (int i = 0; i < forbiddenProcesses.size(); i++) {
-			warnGroupsCodes.add(forbiddenProcesses.get(i).getGroupCode());
-		}
-
-		// get the unique codes set (delete duplicates)
-		Set<String> uniqueGroupsCodes = new HashSet<String>(warnGroupsCodes);
-
-		// return true if the group is one of the warn groups
-		return uniqueGroupsCodes.contains(groupCode);
+	protected boolean isWarnGroup(String groupCode) {
+		return model.isWarnGroup(groupCode);
 	}
 
 	/**
@@ -984,7 +966,7 @@ public abstract class TermRules {
 	 * @param forbiddenProcesses
 	 * @return
 	 */
-	private ArrayList<Double> getDecimalOrdCodes(ArrayList<ForbiddenProcess> forbiddenProcesses) {
+	private ArrayList<Double> getDecimalOrdCodes(List<ForbiddenProcess> forbiddenProcesses) {
 
 		// if there is no forbidden process
 		if (forbiddenProcesses == null)
@@ -1012,7 +994,7 @@ public abstract class TermRules {
 	 * @param forbiddenProcesses
 	 * @return
 	 */
-	private ArrayList<ForbiddenProcess> getDecimalProcesses(ArrayList<ForbiddenProcess> forbiddenProcesses) {
+	private ArrayList<ForbiddenProcess> getDecimalProcesses(List<ForbiddenProcess> forbiddenProcesses) {
 
 		// if there is no forbidden process
 		if (forbiddenProcesses == null)
@@ -1081,188 +1063,6 @@ public abstract class TermRules {
 		return (new String[] { facetIndex, facetCode });
 	}
 
-	/**
-	 * Open the file filename and retrieve the forbidden processes for hierarchies
-	 * the file must be a CSV file with 5 fields: baseTermGroupCode,
-	 * baseTermGroupName, forbiddenProcessCode, forbiddenProcessName, ordCode
-	 * 
-	 * @param filename, the csv filename
-	 * @return an array list of forbidden processes
-	 */
-	protected ArrayList<ForbiddenProcess> loadForbiddenProcesses(String filename) {
-
-		try {
-			// initialize the array of forbidden processes
-			ArrayList<ForbiddenProcess> forbiddenProcesses = new ArrayList<>();
-
-			// read the file
-			BufferedReader bufferedReader = new BufferedReader(new FileReader(filename));
-
-			// skip the header
-			boolean skipFirstLine = true;
-
-			// while there is a line to be red
-			String line;
-			while ((line = bufferedReader.readLine()) != null) {
-
-				// Skip the header
-				if (skipFirstLine) {
-					skipFirstLine=false;
-					continue;
-				}
-
-				// analyze the line tokens
-				StringTokenizer st = new StringTokenizer(line, ";");
-
-				// parse the string, get the base term group code
-				String baseTermGroupCode = st.nextToken();
-
-				// token related to the base term group name, it is useless for the checks
-				st.nextToken();
-
-				// get the process code related to the base term group
-				String forbiddenProcessCode = st.nextToken();
-
-				// token related to the forbidden process name, it is useless for the checks
-				st.nextToken();
-
-				// get the ordCode (ordCode could be also decimals useful for particular situations)
-				double ordCode = Double.parseDouble(st.nextToken());
-				
-				// create the forbidden process with the retrieved information
-				forbiddenProcesses.add(new ForbiddenProcess(baseTermGroupCode, forbiddenProcessCode, ordCode));
-
-			}
-
-			// close the connection and return the array
-			bufferedReader.close();
-			return forbiddenProcesses;
-
-		} catch (Exception e) {
-			// print error and return null if error occurred
-			LOGGER.error(filename + " not found or parsing errors.", e);
-			e.printStackTrace();
-			return null;
-		}
-	}
-
-	/**
-	 * Open the file filename and retrieve the warning messages (ID and message) the
-	 * file must be a CSV file with 3 fields: idMessage, description of the warning
-	 * event, message
-	 * 
-	 * @param filename
-	 * @return an array list of warning messages (the private class defined below)
-	 */
-	protected ArrayList<WarningMessage> loadWarningMessages(String filename) {
-		try {
-
-			File file = new File(filename);
-			if (!file.exists())
-				WarningMessage.createDefaultWarningMessagesFile(filename);
-
-			ArrayList<WarningMessage> warningMessages = new ArrayList<>();
-
-			// FileReader reads text files in the default encoding.
-			FileReader fileReader = new FileReader(filename);
-
-			// Always wrap FileReader in BufferedReader.
-			BufferedReader bufferedReader = new BufferedReader(fileReader);
-
-			// skip the header
-			boolean skipFirstLine = true;
-
-			// while there is a line to be red
-			String line;
-			while ((line = bufferedReader.readLine()) != null) {
-
-				// Skip the header
-				if (skipFirstLine) {
-					skipFirstLine=false;
-					continue;
-				}
-
-				// Analyze the line tokens
-				StringTokenizer st = new StringTokenizer(line, ";");
-
-				// parse the string, get the message id
-				int messageId = Integer.parseInt(st.nextToken());
-
-				// token related to the message description, it is useless
-				st.nextToken();
-
-				String message = st.nextToken();
-
-				WarningLevel warningLevel;
-				WarningLevel textWarningLevel;
-
-				// get the warning level related to this message
-				String warningLevelToken = st.nextToken();
-				warningLevelToken = warningLevelToken.toLowerCase().replace(" ", "");
-
-				// if the level is set to HIGH
-				switch (warningLevelToken) {
-				case "high":
-					warningLevel = WarningLevel.HIGH;
-					break;
-				case "low":
-					warningLevel = WarningLevel.LOW;
-					break;
-				case "none":
-					warningLevel = WarningLevel.NONE;
-					break;
-				default:
-					warningLevel = WarningLevel.ERROR;
-				}
-
-				// get the text warning level related to this message
-				String textWarningLevelToken = st.nextToken();
-				textWarningLevelToken = textWarningLevelToken.toLowerCase().replace(" ", "");
-
-				// if the level is set to HIGH
-				switch (textWarningLevelToken) {
-				case "high":
-					textWarningLevel = WarningLevel.HIGH;
-					break;
-				case "low":
-					textWarningLevel = WarningLevel.LOW;
-					break;
-				case "none":
-					textWarningLevel = WarningLevel.NONE;
-					break;
-				default:
-					textWarningLevel = WarningLevel.ERROR;
-				}
-
-				// create a warning message with id and content 
-				warningMessages.add(new WarningMessage(messageId, message, warningLevel, textWarningLevel));
-			}
-
-			// sort the warning messages using their ID
-			Collections.sort(warningMessages, new Comparator<WarningMessage>() {
-				@Override
-				public int compare(WarningMessage wm2, WarningMessage wm1) {
-					if (wm2.getId() > wm1.getId())
-						return 1;
-					else if (wm2.getId() < wm1.getId())
-						return -1;
-					else
-						return 0;
-				}
-			});
-
-			// Close the connection
-			bufferedReader.close();
-			return (warningMessages);
-
-		} catch (Exception e) {
-			LOGGER.error(filename + " not found.", e);
-			e.printStackTrace();
-			return null;
-		}
-	}
-
-	
 	/**
 	 * Get the implicit forbidden processes of a term
 	 * 
@@ -1271,13 +1071,13 @@ public abstract class TermRules {
 	 * @return
 	 */
 	protected ArrayList<ForbiddenProcess> getImplicitForbiddenProcesses(Term bt,
-			ArrayList<ForbiddenProcess> forbiddenProcesses, boolean stdOut) {
+			List<ForbiddenProcess> forbiddenProcesses, CheckContext ctx) {
 
 		// initialize the output array
 		ArrayList<ForbiddenProcess> implicitForbiddenProcesses = new ArrayList<>();
 
 		// get the warn group of the term
-		Term warnGroup = getWarnGroup(bt, stdOut);
+		Term warnGroup = getWarnGroup(bt, ctx);
 
 		// if it is not a warn group => no forbidden processes are defined
 		if (warnGroup == null)
@@ -1306,7 +1106,7 @@ public abstract class TermRules {
 			// if the facet is a process
 			if (implicitFacetIndex.equals("F28")) {
 				// iterate the forbidden processes of the term
-				for (ForbiddenProcess proc : getForbiddenProcesses(bt, forbiddenProcesses, stdOut)) {
+				for (ForbiddenProcess proc : getForbiddenProcesses(bt, forbiddenProcesses, ctx)) {
 					// if there is an implicit facet which is forbidden then add it
 					if (proc.getCode().equals(implicitFacetCode))
 						implicitForbiddenProcesses.add(proc);
@@ -1323,14 +1123,14 @@ public abstract class TermRules {
 	 * 
 	 * @param bt
 	 * @param fps
-	 * @param stdOut
+	 * @param ctx
 	 * @return
 	 */
 	private ArrayList<ForbiddenProcess> getForbiddenProcesses(Term bt,
-			ArrayList<ForbiddenProcess> fps, boolean stdOut) {
+			List<ForbiddenProcess> fps, CheckContext ctx) {
 
 		// get the warnGroup related to the chosen base term
-		Term warnGroup = getWarnGroup(bt, stdOut);
+		Term warnGroup = getWarnGroup(bt, ctx);
 
 		// return if the term is not a warn group or if there are no forbidden processes
 		if (fps == null || warnGroup == null)
@@ -1355,21 +1155,21 @@ public abstract class TermRules {
 	 * raise a warning defined in BR_Data.csv)
 	 * 
 	 * @param bt
-	 * @param stdOut
+	 * @param ctx
 	 * @return
 	 */
-	private Term getWarnGroup(Term bt, boolean stdOut) {
+	private Term getWarnGroup(Term bt, CheckContext ctx) {
 
 		// start to go up in the tree, parent by parent
 		while (bt != null) {
 
 			// if the parent is a warn group => break cycle and return the warn group
-			if (isWarnGroup(bt.getCode(), forbiddenProcesses))
+			if (isWarnGroup(bt.getCode()))
 				return (bt);
 
 			// get the parent of the current term and continue the loop, we use the
 			// reporting hierarchy for warnings
-			bt = bt.getParent(currentCat.getHierarchyByCode("report"));
+			bt = bt.getParent(model.getReportHierarchy());
 		}
 
 		// if no warn group is discovered, then return null
@@ -1377,88 +1177,30 @@ public abstract class TermRules {
 	}
 
 	/**
-	 * Print the warning messages
-	 * 
-	 * @param event
-	 * @param postMessage
-	 * @param dateTime
-	 * @param stdOut
-	 */
-	protected abstract void printWarning(WarningEvent event, String postMessage, boolean dateTime, boolean stdOut);
-	
-	/**
-	 * Check if high warnings are present
-	 */
-	protected abstract boolean highWarningsPresent();
-	
-	
-	/**
-	 * get the warning level of the semaphore
+	 * Check a full code with all the implemented rules. The method can be called
+	 * by more threads at the same time.
 	 * 
-	 * @param event
-	 * @return
+	 * @param fullCode
+	 * @param fromICT
+	 * @return the warnings raised by the code
 	 */
-	protected WarningLevel getSemaphoreLevel(WarningEvent event) {
-		return warningMessages.get(event.ordinal()).getWarningLevel();
-	}
+	public CheckResult check(String fullCode, boolean fromICT) {
 
-	/**
-	 * get the warning level of the text message
-	 * 
-	 * @param event
-	 * @return
-	 */
-	protected WarningLevel getTextLevel(WarningEvent event) {
-		return warningMessages.get(event.ordinal()).getTextWarningLevel();
-	}
+		CheckContext ctx = new CheckContext(model, fullCode);
 
-	/**
-	 * Create the message string to be printed into the console (or to be used in
-	 * excel files for macros)
-	 * 
-	 * @param event
-	 * @param postMessageString, string between brackets after the warning
-	 * @param attachDatetime
-	 * @return
-	 */
-	protected String createMessage(WarningEvent event, String postMessageString, boolean attachDatetime) {
-
-		// get the message from the array list of warning messages
-		// ( it uses the eventID to retrieve the related message which has as ID the
-		// same as the eventID,
-		// we can do this thanks to the pre-sorting action made when the messages are
-		// loaded
-
-		String message = warningMessages.get(event.ordinal()).getMessage();
-
-		// attach title
-		if (postMessageString != null && !postMessageString.equals(""))
-			message = message + "(" + postMessageString + ") ";
-
-		// get the warning level from the message
-		// WarningLevel warningLevel = warningMessages.get( event.ordinal()
-		// ).getWarningLevel();
-
-		// if we want the date time in the message
-		if (attachDatetime) {
-			// append the date time to the message
-			DateFormat dateFormat = new SimpleDateFormat("HH:mm, yyyy/MM/dd");
-			Date date = new Date();
-			message = message + " (time: " + dateFormat.format(date) + ")";
-		}
+		performWarningChecks(fullCode, fromICT, ctx);
 
-		return (message);
+		return ctx.getResult();
 	}
 
 	/**
 	 * Given a full code, perform all the implemented checks
 	 * 
 	 * @param fullCode
-	 * @param stdOut   should be the warnings messages printed in the stdOut? used
-	 *                 with batch checking tool
 	 * @param fromICT
+	 * @param ctx      context where the warnings are collected
 	 */
-	protected void performWarningChecks(String fullCode, boolean stdOut, boolean fromICT) {
+	private void performWarningChecks(String fullCode, boolean fromICT, CheckContext ctx) {
 		
 		// force code to upper case
 		fullCode = fullCode.toUpperCase();
@@ -1478,35 +1220,35 @@ public abstract class TermRules {
 
 		// if the base term is not in the database
 		if (baseTerm == null) {
-			printWarning(WarningEvent.BR29, baseTermCode, false, stdOut);
+			ctx.warn(WarningEvent.BR29, baseTermCode, false);
 			return;
 		}
 
 		////////////////// MAKE SOME WARNING CHECKS AND WARN THE USER IF NECESSARY
 
 		// check if term is not re-portable in dft hierarchy
-		isNotReportable(baseTerm, stdOut);
+		isNotReportable(baseTerm, ctx);
 		
 		// check if an non specific base term is selected
 		if(onlybt) {
-			nonSpecificTermCheck(baseTerm, "", stdOut);
+			nonSpecificTermCheck(baseTerm, "", ctx);
 		}
 		
 		// check if base term type is f
-		isFacet(baseTerm, stdOut);
+		isFacet(baseTerm, ctx);
 		
 		// check if the base term is deprecated
-		isDeprecated(baseTerm, stdOut);
+		isDeprecated(baseTerm, ctx);
 
 		// check if the base term is dismissed
-		isDismissed(baseTerm, stdOut);
+		isDismissed(baseTerm, ctx);
 		
 		// check if the base term is a hierarchy or not
-		hierarchyAsBasetermCheck(baseTerm, stdOut);
+		hierarchyAsBasetermCheck(baseTerm, ctx);
 		
 		// print successful added bt when high warnings are not present
-		if (!fromICT && !highWarningsPresent()) {
-			printWarning(WarningEvent.BR22, baseTermCode, false, stdOut);
+		if (!fromICT && !ctx.hasHighWarnings()) {
+			ctx.warn(WarningEvent.BR22, baseTermCode, false);
 		}
 		
 		// return if there is nothing else to parse (i.e. no facets)
@@ -1517,7 +1259,7 @@ public abstract class TermRules {
 		// get the warnGroup related to the chosen base term
 		// that is, the father which is subjected to restrictions
 		// in term of applicability of processes (they are defined in the BR_Data.csv)
-		boolean warnGroup = getWarnGroup(baseTerm, stdOut) != null;
+		boolean warnGroup = getWarnGroup(baseTerm, ctx) != null;
 
 		// Contains at position i how many processes with ordCode = i
 		// are added by the user in an explicit way
@@ -1528,7 +1270,7 @@ public abstract class TermRules {
 		String fullFacetsCodes = splits[1];
 
 		// implicit facets of the base term
-		ArrayList<ForbiddenProcess> implicit = getImplicitForbiddenProcesses(baseTerm, forbiddenProcesses, stdOut);
+		ArrayList<ForbiddenProcess> implicit = getImplicitForbiddenProcesses(baseTerm, forbiddenProcesses, ctx);
 
 		// tokenise the rest of the full code to get all the facets codes separately
 		StringTokenizer st = new StringTokenizer(fullFacetsCodes, "$");
@@ -1554,7 +1296,7 @@ public abstract class TermRules {
 
 			// if the facet is not present into the database return (for excel macro)
 			if (facet == null) {
-				printWarning(WarningEvent.BR29, facetCode, false, stdOut);
+				ctx.warn(WarningEvent.BR29, facetCode, false);
 				return;
 			}
 
@@ -1564,50 +1306,50 @@ public abstract class TermRules {
 				Attribute facetCategory = currentCat.getAttributeByCode(facetIndex);
 				if (facetCategory == null) {
 					// if the facet category does not exists
-					printWarning(WarningEvent.BR30, facetIndex, false, stdOut);
+					ctx.warn(WarningEvent.BR30, facetIndex, false);
 				} else if(!facet.belongsToHierarchy(facetCategory.getHierarchy())) {
 					// if facet does not belong to facet category
-					printWarning(WarningEvent.BR31, facetCode, false, stdOut);
+					ctx.warn(WarningEvent.BR31, facetCode, false);
 				}
 			}
 
 			if (warnGroup) {
 				// check if a forbidden process is used or raw commodities
-				checkFpForRawCommodity(baseTerm, facetIndex, facetCode, stdOut);
+				checkFpForRawCommodity(baseTerm, facetIndex, facetCode, ctx);
 				// check if the order of processes is violated for derivatives
-				checkIfExplicitLessDetailed(baseTerm, facetIndex, facet, stdOut);
+				checkIfExplicitLessDetailed(baseTerm, facetIndex, facet, ctx);
 			}
 
 			// VALID ONLY FOR BT: check if term is not re-portable in default hierarchy
-			// isNotReportable(facet, stdOut);
+			// isNotReportable(facet, ctx);
 			
 			// check if an non specific base term is selected
-			nonSpecificTermCheck(baseTerm, facetIndex, stdOut);
+			nonSpecificTermCheck(baseTerm, facetIndex, ctx);
 			
 			// check if the generic process facet is selected
-			genericProcessedFacetCheck(facet, stdOut);
+			genericProcessedFacetCheck(facet, ctx);
 
 			// check if the user added an ingredient to a raw commodity or to a derivative
-			minorIngredientCheck(baseTerm, facetIndex, facet, stdOut);
+			minorIngredientCheck(baseTerm, facetIndex, facet, ctx);
 
 			// check if a source is added to a composite term
-			sourceInCompositeCheck(baseTerm, facetIndex, facetCode, stdOut);
+			sourceInCompositeCheck(baseTerm, facetIndex, facetCode, ctx);
 
 			// check if a source commodity is added to a composite term
-			sourceCommodityInCompositeCheck(baseTerm, facetIndex, facetCode, stdOut);
+			sourceCommodityInCompositeCheck(baseTerm, facetIndex, facetCode, ctx);
 
 			// check if reconstitution process is added to concentrate or powder terms
-			reconstitutionCheck(baseTerm, facetIndex, facetCode, stdOut);
+			reconstitutionCheck(baseTerm, facetIndex, facetCode, ctx);
 
 			// check if forbidden physical state facet is added to rpc
-			physicalStateRawCheck(baseTerm, facetIndex, facetCode, stdOut);
+			physicalStateRawCheck(baseTerm, facetIndex, facetCode, ctx);
 			
 			// if it is indeed a warn group
 			if (warnGroup) {
 
 				// get all the forbidden processes related to the base term
 				// (defined in the BR_Data.csv or BR_exceptions.csv)
-				ArrayList<ForbiddenProcess> currentFP = getForbiddenProcesses(baseTerm, forbiddenProcesses, stdOut);
+				ArrayList<ForbiddenProcess> currentFP = getForbiddenProcesses(baseTerm, forbiddenProcesses, ctx);
 
 				// get the forbidden processes codes (NOT ord code!) related to the base term
 				ArrayList<String> currentFPCodes = new ArrayList<>();
@@ -1623,16 +1365,18 @@ public abstract class TermRules {
 
 					boolean isAncestor = false;
 
+					// get the facet term related to the added forbidden process
+					Term descendant = termDao.getByCode(currentFP.get(index).getCode());
+
 					// check if the explicit process is a descendant of some implicit facet
 					for (ForbiddenProcess proc : implicit) {
 
-						// get the facet terms related to the forbidden processes codes
+						// get the facet term related to the implicit forbidden process
 						Term ancestor = termDao.getByCode(proc.getCode());
-						Term descendant = termDao.getByCode(currentFP.get(index).getCode());
 
 						// if the added process is a son of one of the implicit process
 						// add it but remove the implicit, in order to ignore it
-						if (descendant.hasAncestor(ancestor, currentCat.getHierarchyByCode("process"))) {
+						if (descendant.hasAncestor(ancestor, model.getProcessHierarchy())) {
 							isAncestor = true;
 							// add since we want to check only the forbidden processes mutually exclusivity
 							explicit.add(currentFP.get(index));
@@ -1650,18 +1394,18 @@ public abstract class TermRules {
 		}
 
 		// check if the user added only one source commodity to a raw commodity
-		sourceCommodityRawCheck(baseTerm, fullFacetsCodes, stdOut);
+		sourceCommodityRawCheck(baseTerm, fullFacetsCodes, ctx);
 
 		// check if the user added more than one source commodity to a derivative or if
 		// he added a source to a derivative and only one source commodity
-		sourceCommodityDerivativeCheck(baseTerm, fullFacetsCodes, stdOut);
+		sourceCommodityDerivativeCheck(baseTerm, fullFacetsCodes, ctx);
 
 		// check if decimal order of the processes ordCodes is correctly applied
 		if (warnGroup) {
 			// check ord code are correct (no implicit ord code >= explicit ord codes)
-			decimalOrderCheck(baseTerm, implicit, explicit, stdOut);
+			decimalOrderCheck(baseTerm, implicit, explicit, ctx);
 			// check if the mutually exclusive property is violated
-			// mutuallyExclusiveCheck(baseTerm, explicit, implicit, stdOut);
+			// mutuallyExclusiveCheck(baseTerm, explicit, implicit, ctx);
 		}
 	}
 
@@ -0,0 +1,361 @@
+package business_rules;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringTokenizer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import business_rules.TermRules.WarningEvent;
+import business_rules.TermRules.WarningLevel;
+import catalogue.Catalogue;
+import catalogue_object.Hierarchy;
+import utilities.GlobalUtil;
+
+/**
+ * Read-only data used by the business rules: the catalogue, the forbidden
+ * processes, the warning messages and the hierarchies used by the checks. The
+ * model is never modified after its creation and it can be shared among all the
+ * threads which check FoodEx2 codes.
+ *
+ * @author shahaal
+ *
+ */
+public final class TermRulesModel {
+
+	private static final Logger LOGGER = LogManager.getLogger(TermRulesModel.class);
+
+	private final Catalogue catalogue;
+
+	// list of all the processes which may cause a warning
+	private final List<ForbiddenProcess> forbiddenProcesses;
+
+	// codes of the groups which have forbidden processes
+	private final Set<String> warnGroupCodes;
+
+	// warning messages sorted by id (i.e. by warning event)
+	private final List<WarningMessage> warningMessages;
+
+	// hierarchies used by the checks
+	private final Hierarchy defaultHierarchy;
+	private final Hierarchy reportHierarchy;
+	private final Hierarchy racSourceHierarchy;
+	private final Hierarchy exposureHierarchy;
+	private final Hierarchy processHierarchy;
+
+	/**
+	 * Create the model of the rules
+	 *
+	 * @param catalogue          the catalogue (with data already loaded)
+	 * @param forbiddenProcesses the forbidden processes (null if not available)
+	 * @param warningMessages    the warning messages sorted by id
+	 */
+	public TermRulesModel(Catalogue catalogue, List<ForbiddenProcess> forbiddenProcesses,
+			List<WarningMessage> warningMessages) {
+
+		this.catalogue = catalogue;
+
+		this.forbiddenProcesses = forbiddenProcesses == null ? null
+				: Collections.unmodifiableList(new ArrayList<>(forbiddenProcesses));
+
+		Set<String> groups = new HashSet<>();
+		if (forbiddenProcesses != null) {
+			for (ForbiddenProcess fp : forbiddenProcesses)
+				groups.add(fp.getGroupCode());
+		}
+		this.warnGroupCodes = Collections.unmodifiableSet(groups);
+
+		this.warningMessages = warningMessages == null ? Collections.<WarningMessage>emptyList()
+				: Collections.unmodifiableList(new ArrayList<>(warningMessages));
+
+		this.defaultHierarchy = catalogue.getDefaultHierarchy();
+		this.reportHierarchy = catalogue.getHierarchyByCode("report");
+		this.racSourceHierarchy = catalogue.getHierarchyByCode("racsource");
+		this.exposureHierarchy = catalogue.getHierarchyByCode("expo");
+		this.processHierarchy = catalogue.getHierarchyByCode("process");
+	}
+
+	/**
+	 * Create the model of the rules loading the forbidden processes and the
+	 * warning messages from the business rules files
+	 *
+	 * @param catalogue the catalogue (with data already loaded)
+	 * @return
+	 */
+	public static TermRulesModel load(Catalogue catalogue) {
+		return new TermRulesModel(catalogue, loadForbiddenProcesses(GlobalUtil.getBRData()),
+				loadWarningMessages(GlobalUtil.getBRMessages()));
+	}
+
+	public Catalogue getCatalogue() {
+		return catalogue;
+	}
+
+	/**
+	 * Get the forbidden processes
+	 *
+	 * @return an unmodifiable list, null if the processes were not loaded
+	 */
+	public List<ForbiddenProcess> getForbiddenProcesses() {
+		return forbiddenProcesses;
+	}
+
+	/**
+	 * Check if the term identified by the groupCode is one of the warn groups (
+	 * i.e. a group which could raise a warning defined in BR_Data.csv or
+	 * BR_Exceptions.csv )
+	 *
+	 * @param groupCode
+	 * @return
+	 */
+	public boolean isWarnGroup(String groupCode) {
+		return warnGroupCodes.contains(groupCode);
+	}
+
+	public Hierarchy getDefaultHierarchy() {
+		return defaultHierarchy;
+	}
+
+	public Hierarchy getReportHierarchy() {
+		return reportHierarchy;
+	}
+
+	public Hierarchy getRacSourceHierarchy() {
+		return racSourceHierarchy;
+	}
+
+	public Hierarchy getExposureHierarchy() {
+		return exposureHierarchy;
+	}
+
+	public Hierarchy getProcessHierarchy() {
+		return processHierarchy;
+	}
+
+	/**
+	 * get the warning level of the semaphore
+	 *
+	 * @param event
+	 * @return
+	 */
+	public WarningLevel getSemaphoreLevel(WarningEvent event) {
+		return warningMessages.get(event.ordinal()).getWarningLevel();
+	}
+
+	/**
+	 * get the warning level of the text message
+	 *
+	 * @param event
+	 * @return
+	 */
+	public WarningLevel getTextLevel(WarningEvent event) {
+		return warningMessages.get(event.ordinal()).getTextWarningLevel();
+	}
+
+	/**
+	 * Create the message string to be printed into the console (or to be used in
+	 * excel files for macros)
+	 *
+	 * @param event
+	 * @param postMessageString, string between brackets after the warning
+	 * @param attachDatetime
+	 * @return
+	 */
+	public String createMessage(WarningEvent event, String postMessageString, boolean attachDatetime) {
+
+		// get the message from the list of warning messages (it uses the eventID to
+		// retrieve the related message which has as ID the same as the eventID, we
+		// can do this thanks to the pre-sorting action made when the messages are
+		// loaded)
+		String message = warningMessages.get(event.ordinal()).getMessage();
+
+		// attach title
+		if (postMessageString != null && !postMessageString.equals(""))
+			message = message + "(" + postMessageString + ") ";
+
+		// if we want the date time in the message
+		if (attachDatetime) {
+			// append the date time to the message
+			DateFormat dateFormat = new SimpleDateFormat("HH:mm, yyyy/MM/dd");
+			Date date = new Date();
+			message = message + " (time: " + dateFormat.format(date) + ")";
+		}
+
+		return (message);
+	}
+
+	/**
+	 * Open the file filename and retrieve the forbidden processes for hierarchies
+	 * the file must be a CSV file with 5 fields: baseTermGroupCode,
+	 * baseTermGroupName, forbiddenProcessCode, forbiddenProcessName, ordCode
+	 *
+	 * @param filename, the csv filename
+	 * @return an array list of forbidden processes
+	 */
+	public static ArrayList<ForbiddenProcess> loadForbiddenProcesses(String filename) {
+
+		try {
+			// initialize the array of forbidden processes
+			ArrayList<ForbiddenProcess> forbiddenProcesses = new ArrayList<>();
+
+			// read the file
+			BufferedReader bufferedReader = new BufferedReader(new FileReader(filename));
+
+			// skip the header
+			boolean skipFirstLine = true;
+
+			// while there is a line to be red
+			String line;
+			while ((line = bufferedReader.readLine()) != null) {
+
+				// Skip the header
+				if (skipFirstLine) {
+					skipFirstLine=false;
+					continue;
+				}
+
+				// analyze the line tokens
+				StringTokenizer st = new StringTokenizer(line, ";");
+
+				// parse the string, get the base term group code
+				String baseTermGroupCode = st.nextToken();
+
+				// token related to the base term group name, it is useless for the checks
+				st.nextToken();
+
+				// get the process code related to the base term group
+				String forbiddenProcessCode = st.nextToken();
+
+				// token related to the forbidden process name, it is useless for the checks
+				st.nextToken();
+
+				// get the ordCode (ordCode could be also decimals useful for particular situations)
+				double ordCode = Double.parseDouble(st.nextToken());
+
+				// create the forbidden process with the retrieved information
+				forbiddenProcesses.add(new ForbiddenProcess(baseTermGroupCode, forbiddenProcessCode, ordCode));
+
+			}
+
+			// close the connection and return the array
+			bufferedReader.close();
+			return forbiddenProcesses;
+
+		} catch (Exception e) {
+			// print error and return null if error occurred
+			LOGGER.error(filename + " not found or parsing errors.", e);
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Open the file filename and retrieve the warning messages (ID and message) the
+	 * file must be a CSV file with 3 fields: idMessage, description of the warning
+	 * event, message
+	 *
+	 * @param filename
+	 * @return an array list of warning messages sorted by id
+	 */
+	public static ArrayList<WarningMessage> loadWarningMessages(String filename) {
+		try {
+
+			File file = new File(filename);
+			if (!file.exists())
+				WarningMessage.createDefaultWarningMessagesFile(filename);
+
+			ArrayList<WarningMessage> warningMessages = new ArrayList<>();
+
+			// FileReader reads text files in the default encoding.
+			FileReader fileReader = new FileReader(filename);
+
+			// Always wrap FileReader in BufferedReader.
+			BufferedReader bufferedReader = new BufferedReader(fileReader);
+
+			// skip the header
+			boolean skipFirstLine = true;
+
+			// while there is a line to be red
+			String line;
+			while ((line = bufferedReader.readLine()) != null) {
+
+				// Skip the header
+				if (skipFirstLine) {
+					skipFirstLine=false;
+					continue;
+				}
+
+				// Analyze the line tokens
+				StringTokenizer st = new StringTokenizer(line, ";");
+
+				// parse the string, get the message id
+				int messageId = Integer.parseInt(st.nextToken());
+
+				// token related to the message description, it is useless
+				st.nextToken();
+
+				String message = st.nextToken();
+
+				// get the warning levels related to this message
+				WarningLevel warningLevel = parseLevel(st.nextToken());
+				WarningLevel textWarningLevel = parseLevel(st.nextToken());
+
+				// create a warning message with id and content
+				warningMessages.add(new WarningMessage(messageId, message, warningLevel, textWarningLevel));
+			}
+
+			// sort the warning messages using their ID
+			Collections.sort(warningMessages, new Comparator<WarningMessage>() {
+				@Override
+				public int compare(WarningMessage wm2, WarningMessage wm1) {
+					if (wm2.getId() > wm1.getId())
+						return 1;
+					else if (wm2.getId() < wm1.getId())
+						return -1;
+					else
+						return 0;
+				}
+			});
+
+			// Close the connection
+			bufferedReader.close();
+			return (warningMessages);
+
+		} catch (Exception e) {
+			LOGGER.error(filename + " not found.", e);
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Parse a warning level token of the warning messages file
+	 *
+	 * @param token
+	 * @return
+	 */
+	private static WarningLevel parseLevel(String token) {
+
+		switch (token.toLowerCase().replace(" ", "")) {
+		case "high":
+			return WarningLevel.HIGH;
+		case "low":
+			return WarningLevel.LOW;
+		case "none":
+			return WarningLevel.NONE;
+		default:
+			return WarningLevel.ERROR;
+		}
+	}
+}
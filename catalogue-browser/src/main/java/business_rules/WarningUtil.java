@@ -46,6 +46,9 @@ public class WarningUtil extends TermRules {
 	// maintain the current warningLevel
 	private WarningLevel currentWarningLevel = WarningLevel.NONE;
 
+	// load the colour options for the warning console and messages
+	private WarningOptions warnOptions;
+
 	/**
 	 * constructor
 	 * 
@@ -54,24 +57,13 @@ public class WarningUtil extends TermRules {
 	 */
 	public WarningUtil(TableViewer warningTable, Canvas semaphore) {
 
+		// use the current catalogue
+		super(TermRulesModel.load(GlobalManager.getInstance().getCurrentCatalogue()));
+
 		this.warningsTable = warningTable;
 		this.semaphore = semaphore;
 
-		// get an instance of the global manager
-		GlobalManager manager = GlobalManager.getInstance();
-
-		// get the current catalogue
-		currentCat = manager.getCurrentCatalogue();
-
-		// TODO load file data only once
-		loadFileData();
-	}
-
-	private void loadFileData() {
-
-		forbiddenProcesses = loadForbiddenProcesses(GlobalUtil.getBRData());
 		warnOptions = loadWarningOptions(GlobalUtil.getBRColors());
-		warningMessages = loadWarningMessages(GlobalUtil.getBRMessages());
 	}
 
 	/**
@@ -92,7 +84,10 @@ public class WarningUtil extends TermRules {
 
 		//////////////////// CHECKS
 		// execute all the warning checks
-		performWarningChecks(fullCode, false, false);
+		CheckResult result = check(fullCode, false);
+
+		for (CheckResult.Warning warning : result.getWarnings())
+			printWarning(warning);
 	}
 
 	/**
@@ -125,24 +120,20 @@ public class WarningUtil extends TermRules {
 	}
 
 	/**
-	 * Print a warning into the warningsTable It appends the date time to the
-	 * message Update the current warning level to the highest retrieved until now
-	 * Update the semaphore and text accordingly to the warning level
+	 * Print a warning into the warningsTable Update the current warning level to
+	 * the highest retrieved until now Update the semaphore and text accordingly to
+	 * the warning level
 	 * 
-	 * @param event:             the event which causes the printWarning
-	 * @param postMessageString: a string which is attached to the end of the
-	 *                           message (used for additional info)
-	 * @param attachDatetime:    should the datetime be attached at the end of the
-	 *                           message?
+	 * @param warning: the warning raised by the checks
 	 */
-	protected void printWarning(WarningEvent event, String postMessageString, boolean attachDatetime, boolean stdOut) {
+	private void printWarning(CheckResult.Warning warning) {
 
-		// create the warning message to be printed
-		String message = createMessage(event, postMessageString, attachDatetime);
+		// get the warning message to be printed
+		String message = warning.getMessage();
 
 		// get the warning levels for making colours
-		WarningLevel semaphoreLevel = getSemaphoreLevel(event);
-		WarningLevel textWarningLevel = getTextLevel(event);
+		WarningLevel semaphoreLevel = warning.getSemaphoreLevel();
+		WarningLevel textWarningLevel = warning.getTextLevel();
 
 		// if graphical object are not used
 		if (warningsTable == null || semaphore == null)
@@ -212,13 +203,6 @@ public class WarningUtil extends TermRules {
 			semaphore.setBackground(warningColor);
 		}
 	}
-	
-	/**
-	 * check if high warnings are present
-	 */
-	protected boolean highWarningsPresent() {
-		return currentWarningLevel.ordinal()>1;
-	}
 
 	/**
 	 * Parse the file of the warning options and load into memory all the color and
@@ -10,11 +10,14 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.xml.soap.SOAPException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import already_described_terms.PicklistFacetIndex;
 import catalogue_browser_dao.AttributeDAO;
 import catalogue_browser_dao.CatalogueDAO;
 import catalogue_browser_dao.DatabaseManager;
@@ -28,6 +31,7 @@ import catalogue_generator.ThreadFinishedListener;
 import catalogue_object.Applicability;
 import catalogue_object.Attribute;
 import catalogue_object.BaseObject;
+import catalogue_object.CompactTermModel;
 import catalogue_object.Hierarchy;
 import catalogue_object.HierarchyBuilder;
 import catalogue_object.Mappable;
@@ -50,6 +54,7 @@ import import_catalogue.CatalogueImporterThread;
 import progress_bar.IProgressBar;
 import property.SorterCatalogueObject;
 import soap.UploadCatalogueFileImpl.ReserveLevel;
+import sql.ConnectionPool;
 import term_code_generator.CodeGenerator;
 import term_code_generator.TermCodeException;
 import term_type.TermType;
@@ -68,6 +73,10 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 
 	private static final Logger LOGGER = LogManager.getLogger(Catalogue.class);
 
+	// connection pools of the catalogues databases, shared by all
+	// the catalogue objects which refer to the same database
+	private static final Map<String, ConnectionPool> CONNECTION_POOLS = new ConcurrentHashMap<>();
+
 	// date format of the catalogues
 	public static final String ISO_8601_24H_FULL_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
 
@@ -96,11 +105,25 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 	// list of terms which are contained in the catalogue
 	private HashMap<Integer, Term> terms;
 
+	// compact storage of the terms, used only while loading the catalogue
+	private CompactTermModel compactModel;
+
 	// cache for term ids to speed up finding
 	// terms ids using term code without
 	// iterating the entire collection of terms
 	private HashMap<String, Integer> termsIds;
 
+	// same as termsIds but the codes are upper case
+	// to find terms ignoring the case of the code
+	private HashMap<String, Integer> termsUpperIds;
+
+	// children of each term in each hierarchy, built
+	// from the applicabilities loaded in memory
+	private final HierarchyChildIndex childIndex = new HierarchyChildIndex(this);
+	private final TermSearchIndex searchIndex = new TermSearchIndex(this);
+	private final InheritedFacetsCache facetsCache = new InheritedFacetsCache();
+	private final PicklistFacetIndex picklistIndex = new PicklistFacetIndex(this);
+
 	// list of the hierarchies contained in the
 	// catalogue (both base and attribute hierarchies)
 	private ArrayList<Hierarchy> hierarchies;
@@ -202,6 +225,7 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 		detailLevels = new ArrayList<>();
 		termTypes = new ArrayList<>();
 		termsIds = new HashMap<>();
+		termsUpperIds = new HashMap<>();
 	}
 
 	/**
@@ -239,6 +263,11 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 	 */
 	public void loadData() {
 
+		compactModel = CompactTermModel.isEnabled() ? new CompactTermModel() : null;
+
+		// terms, applicabilities and term attributes saved at the last opening
+		final CatalogueSnapshot snapshot = CatalogueSnapshot.open(this);
+
 		// thread to load small data
 		Thread baseThread = new Thread(new Runnable() {
 			@Override
@@ -255,7 +284,13 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 		Thread termThread = new Thread(new Runnable() {
 			@Override
 			public void run() {
-				refreshTerms();
+
+				HashMap<Integer, Term> snapshotTerms = snapshot != null ? snapshot.readTerms() : null;
+
+				if (snapshotTerms != null)
+					setTerms(snapshotTerms);
+				else
+					refreshTerms();
 			}
 		});
 
@@ -273,32 +308,57 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 			e1.printStackTrace();
 		}
 
-		// refresh applicabilities and term attributes in parallel
-		Thread applThread = new Thread(new Runnable() {
-			@Override
-			public void run() {
-				refreshApplicabities();
+		// applicabilities and term attributes from the snapshot if possible
+		if (snapshot == null || !snapshot.readRelations()) {
+
+			// refresh applicabilities and term attributes in parallel
+			Thread applThread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					refreshApplicabities();
+				}
+			});
+
+			Thread taThread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					refreshTermAttributes();
+				}
+			});
+
+			applThread.start();
+			taThread.start();
+
+			// wait to finish
+			try {
+				taThread.join();
+				applThread.join();
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+				LOGGER.error("Refresh failed for catalogue=" + this, e);
 			}
-		});
 
-		Thread taThread = new Thread(new Runnable() {
+			// save the loaded data for the next opening
+			if (terms != null)
+				CatalogueSnapshot.write(this);
+		}
+
+		// share the repeated values of the terms and trim their lists
+		if (compactModel != null && terms != null)
+			compactModel.compact(this, terms.values());
+
+		compactModel = null;
+
+		// index the terms for the searches in background
+		Thread indexThread = new Thread(new Runnable() {
 			@Override
 			public void run() {
-				refreshTermAttributes();
+				getSearchIndex().build();
 			}
 		});
 
-		applThread.start();
-		taThread.start();
-
-		// wait to finish
-		try {
-			taThread.join();
-			applThread.join();
-		} catch (InterruptedException e) {
-			e.printStackTrace();
-			LOGGER.error("Refresh failed for catalogue=" + this, e);
-		}
+		indexThread.setDaemon(true);
+		indexThread.start();
 	}
 
 	/**
@@ -319,9 +379,15 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 			terms.clear();
 		}
 
+		childIndex.clear();
+		searchIndex.clear();
+		facetsCache.clear();
+		picklistIndex.clear();
+
 		detailLevels.clear();
 		termTypes.clear();
 		termsIds.clear();
+		termsUpperIds.clear();
 
 		if (releaseNotes != null)
 			releaseNotes.clear();
@@ -373,6 +439,9 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 		if (manager.getCurrentCatalogue() != null)
 			manager.getCurrentCatalogue().closeQuitely();
 
+		// open the connections with the catalogue db
+		getConnectionPool();
+
 		// load the catalogue data into RAM
 		loadData();
 
@@ -394,6 +463,11 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 	 */
 	public void closeConnection() {
 
+		// close the pooled connections before shutting down the db
+		ConnectionPool pool = CONNECTION_POOLS.remove(getDbUrl());
+		if (pool != null)
+			pool.close();
+
 		// shutdown the connection, by default this operation throws an exception
 		// but the command is correct! We close the connection since we close the db
 		try {
@@ -684,6 +758,13 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 	 */
 	public void addTerm(Term term) {
 		terms.put(term.getId(), term);
+
+		// the code could be changed
+		putTermCode(term);
+
+		childIndex.add(term);
+		searchIndex.clear();
+		facetsCache.invalidate(term);
 	}
 
 	/**
@@ -695,6 +776,16 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 		return terms != null && !terms.isEmpty();
 	}
 
+	/**
+	 * Get the compact storage of the terms
+	 * 
+	 * @return the compact model while the catalogue data are loaded in compact
+	 *         mode, null otherwise
+	 */
+	public CompactTermModel getCompactModel() {
+		return compactModel;
+	}
+
 	/**
 	 * Refresh the terms contents
 	 */
@@ -702,15 +793,63 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 
 		TermDAO termDao = new TermDAO(this);
 
-		// initialise the terms
-		terms = termDao.fetchTerms();
+		setTerms(termDao.fetchTerms());
+	}
+
+	/**
+	 * Set the terms of the catalogue and refresh the cache of their ids
+	 * 
+	 * @param terms
+	 */
+	private void setTerms(HashMap<Integer, Term> terms) {
+
+		this.terms = terms;
+
+		childIndex.clear();
+		searchIndex.clear();
+		facetsCache.clear();
+		picklistIndex.clear();
 
 		termsIds = new HashMap<>();
+		termsUpperIds = new HashMap<>();
 
 		// update cache of ids
-		for (Term term : terms.values()) {
-			termsIds.put(term.getCode(), term.getId());
+		for (Term term : terms.values())
+			putTermCode(term);
+	}
+
+	/**
+	 * Update the cache of the ids after the code of a catalogue term was changed
+	 * in memory, so that the term is found only with its new code
+	 * 
+	 * @param term
+	 * @param oldCode the previous code of the term
+	 */
+	public void updateTermCode(Term term, String oldCode) {
+
+		if (oldCode != null) {
+			termsIds.remove(oldCode, term.getId());
+			termsUpperIds.remove(oldCode.toUpperCase(), term.getId());
 		}
+
+		putTermCode(term);
+
+		// the codes are also searched
+		searchIndex.clear();
+	}
+
+	/**
+	 * Add the code of the term to the cache of the ids
+	 * 
+	 * @param term
+	 */
+	private void putTermCode(Term term) {
+
+		if (term.getCode() == null)
+			return;
+
+		termsIds.put(term.getCode(), term.getId());
+		termsUpperIds.put(term.getCode().toUpperCase(), term.getId());
 	}
 
 	/**
@@ -731,6 +870,12 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 			Term term = appl.getChild();
 			term.addApplicability(appl);
 		}
+
+		// children are indexed again when required
+		childIndex.clear();
+		searchIndex.clear();
+		facetsCache.clear();
+		picklistIndex.clear();
 	}
 
 	/**
@@ -753,6 +898,10 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 			Term term = ta.getTerm();
 			term.addAttribute(ta);
 		}
+
+		searchIndex.clear();
+		facetsCache.clear();
+		picklistIndex.clear();
 	}
 
 	/**
@@ -897,6 +1046,42 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 		return terms.values();
 	}
 
+	/**
+	 * Get the in memory index of the children of the terms in each hierarchy
+	 * 
+	 * @return
+	 */
+	public HierarchyChildIndex getChildIndex() {
+		return childIndex;
+	}
+
+	/**
+	 * Get the in memory full text index of the terms used by the searches
+	 * 
+	 * @return
+	 */
+	public TermSearchIndex getSearchIndex() {
+		return searchIndex;
+	}
+
+	/**
+	 * Get the in memory cache of the inherited implicit facets of the terms
+	 * 
+	 * @return
+	 */
+	public InheritedFacetsCache getInheritedFacetsCache() {
+		return facetsCache;
+	}
+
+	/**
+	 * Get the in memory index of the terms of the picklists by term code
+	 * 
+	 * @return
+	 */
+	public PicklistFacetIndex getPicklistIndex() {
+		return picklistIndex;
+	}
+
 	/**
 	 * Get all the catalogue attributes
 	 * 
@@ -1098,9 +1283,11 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 
 		// add the term to the hashmap
 		terms.put(id, child);
+		childIndex.add(child);
+		searchIndex.clear();
 
 		// update also the ids cache
-		termsIds.put(code, id);
+		putTermCode(child);
 
 		return child;
 	}
@@ -1155,9 +1342,11 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 
 		// add the term to the hashmap
 		terms.put(id, child);
+		childIndex.add(child);
+		searchIndex.clear();
 
 		// update also the ids cache
-		termsIds.put(code, id);
+		putTermCode(child);
 
 		return child;
 	}
@@ -1180,6 +1369,17 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 		return term;
 	}
 
+	/**
+	 * Check if the term is one of the catalogue terms, and not a temporary copy
+	 * with the same id (e.g. the terms created to describe a base term)
+	 * 
+	 * @param term
+	 * @return
+	 */
+	public boolean containsTerm(Term term) {
+		return terms != null && terms.get(term.getId()) == term;
+	}
+
 	/**
 	 * Get a term by its code
 	 * 
@@ -1195,6 +1395,29 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 		return getTermById(id);
 	}
 
+	/**
+	 * Get a term by its code ignoring the case of the code. The term is retrieved
+	 * from memory without accessing the database.
+	 * 
+	 * @param code
+	 * @return the term or null if no term has the code
+	 */
+	public Term getTermByCodeIgnoreCase(String code) {
+
+		Integer id = termsUpperIds.get(code.toUpperCase());
+
+		if (id == null)
+			return null;
+
+		Term term = terms.get(id);
+
+		// the code of the term was changed
+		if (term == null || !code.equalsIgnoreCase(term.getCode()))
+			return null;
+
+		return term;
+	}
+
 	/**
 	 * Check if the catalogue has the detail level attribute or not
 	 * 
@@ -2207,9 +2430,29 @@ public class Catalogue extends BaseObject implements Comparable<Catalogue>, Mapp
 	 * @throws SQLException
 	 */
 	public Connection getConnection() throws SQLException {
+		return getConnectionPool().getConnection();
+	}
+
+	/**
+	 * Get the pool of connections with the catalogue db. The pool is created if
+	 * not already present and it is closed by {@link #closeConnection()}
+	 * 
+	 * @return
+	 */
+	public ConnectionPool getConnectionPool() {
+
+		ConnectionPool current = CONNECTION_POOLS.get(getDbUrl());
+
+		if (current != null && !current.isClosed())
+			return current;
 
-		Connection con = DriverManager.getConnection(getDbUrl());
-		return con;
+		return CONNECTION_POOLS.compute(getDbUrl(), (url, pool) -> {
+
+			if (pool == null || pool.isClosed())
+				return new ConnectionPool(url);
+
+			return pool;
+		});
 	}
 
 	/**
@@ -0,0 +1,532 @@
+package catalogue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.HashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import catalogue_object.Applicability;
+import catalogue_object.Attribute;
+import catalogue_object.Hierarchy;
+import catalogue_object.Nameable;
+import catalogue_object.Term;
+import catalogue_object.TermAttribute;
+
+/**
+ * Binary copy of the terms, applicabilities and term attributes (implicit
+ * facets included) of a catalogue, saved in the catalogue database folder
+ * after the data are loaded from the database. The next time the catalogue is
+ * opened the file is read in a single pass and the terms are created from it,
+ * without querying the database tables. The file is not memory mapped and it
+ * is closed as soon as it is read, so that it can be always replaced or
+ * deleted (a mapped file cannot be deleted on Windows until the mapping is
+ * garbage collected).
+ *
+ * The file starts with the format version and with the code, version and last
+ * update of the catalogue: if they do not match the snapshot is ignored (the
+ * header is checked before reading the rest of the file). The
+ * DAOs which modify the terms, the applicabilities, the term attributes, the
+ * hierarchies or the attributes of the catalogue delete the snapshot with
+ * {@link #invalidate(Catalogue)}. If the snapshot cannot be read the catalogue
+ * is loaded from the database as before.
+ *
+ * Hierarchies and attributes are not saved, they are loaded from the database
+ * and the snapshot refers to them by id.
+ *
+ * @author shahaal
+ *
+ */
+public class CatalogueSnapshot {
+
+	private static final Logger LOGGER = LogManager.getLogger(CatalogueSnapshot.class);
+
+	private static final String FILENAME = "catalogue.snapshot";
+
+	// "CBSN", written at the beginning and at the end of the file
+	private static final int MAGIC = 0x4342534E;
+
+	// increment if the content of the file changes
+	private static final int FORMAT_VERSION = 1;
+
+	// kind of parent of an applicability
+	private static final byte PARENT_HIERARCHY = 0;
+	private static final byte PARENT_TERM = 1;
+	private static final byte PARENT_NONE = 2;
+
+	private Catalogue catalogue;
+	private File file;
+	private ByteBuffer buffer;
+
+	// terms read from the snapshot, by id
+	private HashMap<Integer, Term> terms;
+
+	private CatalogueSnapshot(Catalogue catalogue, File file, ByteBuffer buffer) {
+		this.catalogue = catalogue;
+		this.file = file;
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Get the snapshot file of the catalogue, in the folder of the catalogue
+	 * database (so that it is copied and deleted with the database)
+	 *
+	 * @param catalogue
+	 * @return
+	 */
+	public static File getFile(Catalogue catalogue) {
+		return new File(catalogue.getDbPath(), FILENAME);
+	}
+
+	/**
+	 * Open the snapshot of the catalogue
+	 *
+	 * @param catalogue
+	 * @return the snapshot or null if it does not exist or it was created for
+	 *         another version of the catalogue
+	 */
+	public static CatalogueSnapshot open(Catalogue catalogue) {
+
+		File file = getFile(catalogue);
+
+		if (!file.isFile())
+			return null;
+
+		// check the header before reading the whole file
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+
+			if (!isCurrent(in, catalogue)) {
+				LOGGER.info("Outdated snapshot " + file + " ignored");
+				return null;
+			}
+
+		} catch (IOException e) {
+			LOGGER.error("Cannot open the snapshot " + file, e);
+			e.printStackTrace();
+			return null;
+		}
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+
+			if (channel.size() > Integer.MAX_VALUE)
+				throw new IOException("Snapshot too large");
+
+			// read the file in the heap, the file is closed immediately
+			ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0)
+				;
+
+			buffer.flip();
+
+			CatalogueSnapshot snapshot = new CatalogueSnapshot(catalogue, file, buffer);
+
+			if (!snapshot.readHeader()) {
+				LOGGER.info("Outdated snapshot " + file + " ignored");
+				return null;
+			}
+
+			return snapshot;
+
+		} catch (IOException | RuntimeException e) {
+			LOGGER.error("Cannot open the snapshot " + file, e);
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Read the terms of the snapshot
+	 *
+	 * @return the terms by id or null if the snapshot cannot be read
+	 */
+	public HashMap<Integer, Term> readTerms() {
+
+		try {
+
+			int count = buffer.getInt();
+
+			this.terms = new HashMap<>(Math.max(16, (int) (count / 0.75f) + 1));
+
+			for (int i = 0; i < count; ++i) {
+
+				Term term = new Term(catalogue);
+
+				term.setId(buffer.getInt());
+				term.setCode(getString());
+				term.setName(getString());
+				term.setDisplayAs(getString());
+				term.setScopenotes(getString());
+				term.setDeprecated(buffer.get() != 0);
+				term.setLastUpdate(getTimestamp());
+				term.setValidFrom(getTimestamp());
+				term.setValidTo(getTimestamp());
+				term.setStatus(getString());
+				term.setVersion(getString());
+
+				terms.put(term.getId(), term);
+			}
+
+			return terms;
+
+		} catch (RuntimeException e) {
+			LOGGER.error("Cannot read the terms from the snapshot " + file, e);
+			e.printStackTrace();
+			this.terms = null;
+			return null;
+		}
+	}
+
+	/**
+	 * Add the applicabilities and the term attributes of the snapshot to the
+	 * terms. Need to be called after {@link #readTerms()} and after the
+	 * hierarchies and the attributes of the catalogue were loaded.
+	 *
+	 * @return true if the relations were read, false otherwise (some terms could
+	 *         have been modified)
+	 */
+	public boolean readRelations() {
+
+		if (terms == null)
+			return false;
+
+		try {
+
+			int count = buffer.getInt();
+
+			for (int i = 0; i < count; ++i) {
+
+				Term child = getTerm(buffer.getInt());
+
+				Nameable parent;
+				byte parentType = buffer.get();
+				int parentId = buffer.getInt();
+
+				Hierarchy hierarchy = catalogue.getHierarchyById(buffer.getInt());
+
+				if (hierarchy == null)
+					throw new IllegalStateException("Hierarchy not found in the catalogue");
+
+				if (parentType == PARENT_HIERARCHY)
+					parent = hierarchy;
+				else if (parentType == PARENT_TERM)
+					parent = getTerm(parentId);
+				else
+					parent = null;
+
+				int order = buffer.getInt();
+				boolean reportable = buffer.get() != 0;
+
+				child.addApplicability(new Applicability(child, parent, hierarchy, order, reportable));
+			}
+
+			count = buffer.getInt();
+
+			for (int i = 0; i < count; ++i) {
+
+				int id = buffer.getInt();
+				Term term = getTerm(buffer.getInt());
+				Attribute attribute = catalogue.getAttributeById(buffer.getInt());
+
+				if (attribute == null)
+					throw new IllegalStateException("Attribute not found in the catalogue");
+
+				String value = getString();
+
+				if (catalogue.getCompactModel() != null)
+					value = catalogue.getCompactModel().share(value);
+
+				term.addAttribute(new TermAttribute(id, term, attribute, value));
+			}
+
+			if (buffer.getInt() != MAGIC)
+				throw new IllegalStateException("Wrong end of file");
+
+			return true;
+
+		} catch (RuntimeException e) {
+			LOGGER.error("Cannot read the applicabilities and term attributes from the snapshot " + file, e);
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Write the terms of the catalogue, with their applicabilities and term
+	 * attributes, into its snapshot. The catalogue data should be just loaded
+	 * from the database.
+	 *
+	 * @param catalogue
+	 * @return true if the snapshot was written
+	 */
+	public static boolean write(Catalogue catalogue) {
+
+		File file = getFile(catalogue);
+		File temp = new File(file.getPath() + ".tmp");
+
+		long start = System.currentTimeMillis();
+
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(temp), 1 << 16))) {
+
+			Collection<Term> terms = catalogue.getTerms();
+
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			putString(out, catalogue.getCode());
+			putString(out, catalogue.getVersion());
+			putTimestamp(out, catalogue.getLastUpdate());
+
+			out.writeInt(terms.size());
+
+			for (Term term : terms) {
+				out.writeInt(term.getId());
+				putString(out, term.getCode());
+				putString(out, term.getName());
+				putString(out, term.getLabel());
+				putString(out, term.getScopenotes());
+				out.writeByte(term.isDeprecated() ? 1 : 0);
+				putTimestamp(out, term.getLastUpdate());
+				putTimestamp(out, term.getValidFrom());
+				putTimestamp(out, term.getValidTo());
+				putString(out, term.getStatus());
+				putString(out, term.getVersion());
+			}
+
+			int count = 0;
+			for (Term term : terms)
+				count = count + term.getApplicabilities().size();
+
+			out.writeInt(count);
+
+			for (Term term : terms) {
+				for (Applicability appl : term.getApplicabilities()) {
+
+					Nameable parent = appl.getParentTerm();
+
+					out.writeInt(appl.getChild().getId());
+
+					if (parent instanceof Term) {
+						out.writeByte(PARENT_TERM);
+						out.writeInt(((Term) parent).getId());
+					} else if (parent instanceof Hierarchy) {
+						out.writeByte(PARENT_HIERARCHY);
+						out.writeInt(0);
+					} else {
+						out.writeByte(PARENT_NONE);
+						out.writeInt(0);
+					}
+
+					out.writeInt(appl.getHierarchy().getId());
+					out.writeInt(appl.getOrder());
+					out.writeByte(appl.isReportable() ? 1 : 0);
+				}
+			}
+
+			count = 0;
+			for (Term term : terms)
+				count = count + term.getAttributes().size();
+
+			out.writeInt(count);
+
+			for (Term term : terms) {
+				for (TermAttribute ta : term.getAttributes()) {
+					out.writeInt(ta.getId());
+					out.writeInt(ta.getTerm().getId());
+					out.writeInt(ta.getAttribute().getId());
+					putString(out, ta.getValue());
+				}
+			}
+
+			out.writeInt(MAGIC);
+
+		} catch (IOException | RuntimeException e) {
+			LOGGER.error("Cannot write the snapshot " + file, e);
+			e.printStackTrace();
+			temp.delete();
+			return false;
+		}
+
+		// replace the old snapshot
+		if ((file.exists() && !file.delete()) || !temp.renameTo(file)) {
+			LOGGER.warn("Cannot replace the snapshot " + file);
+			temp.delete();
+			return false;
+		}
+
+		LOGGER.info("Snapshot " + file + " written in " + (System.currentTimeMillis() - start) + " ms");
+
+		return true;
+	}
+
+	/**
+	 * Remove the snapshot of the catalogue, since its data were modified. If the
+	 * file cannot be deleted (e.g. it is being read) its header is cleared, so
+	 * that it will not be used anymore.
+	 *
+	 * @param catalogue
+	 */
+	public static void invalidate(Catalogue catalogue) {
+
+		if (catalogue == null)
+			return;
+
+		File file = getFile(catalogue);
+
+		if (!file.exists() || file.delete())
+			return;
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.writeInt(0);
+		} catch (IOException e) {
+			LOGGER.error("Cannot invalidate the snapshot " + file, e);
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Check that the snapshot read by the stream was written for the current
+	 * version of the catalogue
+	 *
+	 * @param in        stream positioned at the beginning of the file
+	 * @param catalogue
+	 * @return
+	 * @throws IOException
+	 */
+	private static boolean isCurrent(DataInputStream in, Catalogue catalogue) throws IOException {
+
+		try {
+
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION)
+				return false;
+
+			return equals(readString(in), catalogue.getCode()) && equals(readString(in), catalogue.getVersion())
+					&& equals(readTimestamp(in), catalogue.getLastUpdate());
+
+		} catch (EOFException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Check that the snapshot was written for the current version of the
+	 * catalogue
+	 *
+	 * @return
+	 */
+	private boolean readHeader() {
+
+		try {
+
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION)
+				return false;
+
+			return equals(getString(), catalogue.getCode()) && equals(getString(), catalogue.getVersion())
+					&& equals(getTimestamp(), catalogue.getLastUpdate());
+
+		} catch (BufferUnderflowException e) {
+			return false;
+		}
+	}
+
+	private Term getTerm(int id) {
+
+		Term term = terms.get(id);
+
+		if (term == null)
+			throw new IllegalStateException("Term with id=" + id + " not found in the snapshot");
+
+		return term;
+	}
+
+	private String getString() {
+
+		int length = buffer.getInt();
+
+		if (length < 0)
+			return null;
+
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+
+		int length = in.readInt();
+
+		if (length < 0)
+			return null;
+
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static Timestamp readTimestamp(DataInputStream in) throws IOException {
+
+		if (in.readByte() == 0)
+			return null;
+
+		Timestamp timestamp = new Timestamp(in.readLong());
+		timestamp.setNanos(in.readInt());
+
+		return timestamp;
+	}
+
+	private Timestamp getTimestamp() {
+
+		if (buffer.get() == 0)
+			return null;
+
+		Timestamp timestamp = new Timestamp(buffer.getLong());
+		timestamp.setNanos(buffer.getInt());
+
+		return timestamp;
+	}
+
+	private static void putString(DataOutputStream out, String value) throws IOException {
+
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static void putTimestamp(DataOutputStream out, Timestamp value) throws IOException {
+
+		if (value == null) {
+			out.writeByte(0);
+			return;
+		}
+
+		out.writeByte(1);
+		out.writeLong(value.getTime());
+		out.writeInt(value.getNanos());
+	}
+
+	private static boolean equals(Object a, Object b) {
+		return a == null ? b == null : a.equals(b);
+	}
+}
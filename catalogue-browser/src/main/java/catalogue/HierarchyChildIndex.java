@@ -0,0 +1,622 @@
+package catalogue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import catalogue_object.Applicability;
+import catalogue_object.Hierarchy;
+import catalogue_object.Nameable;
+import catalogue_object.Term;
+
+/**
+ * In memory index of the children of each term in each hierarchy of the
+ * catalogue. The index is built from the applicabilities already loaded in the
+ * catalogue terms, in order to navigate the hierarchies without querying the
+ * database. Children are sorted by their order in the hierarchy and then by
+ * their name, as the parent term table would return them.
+ *
+ * The index is built the first time it is needed and it is kept in sync each
+ * time an applicability of a catalogue term is changed in memory (see
+ * {@link #update(Term)}).
+ *
+ * For each hierarchy the index can also number the terms in the order of a
+ * depth first visit (enter and exit positions), so that checking if a term is
+ * an ancestor of another one requires only to compare the two intervals. The
+ * numbering is computed when the first ancestor query is made on the
+ * hierarchy and it is discarded when a term of the hierarchy changes parent.
+ *
+ * In the same way, the hierarchy codes of the terms (e.g. Z0001.0003.0002,
+ * see {@link Term#getHierarchyCode(Hierarchy)}) are computed for the whole
+ * hierarchy with a single depth first visit the first time one of them is
+ * required (e.g. by the export), and they are discarded when a term of the
+ * hierarchy changes parent or order.
+ *
+ * The index can be read by several threads at the same time (e.g. the checks
+ * of the ICT workers) without locking: the readers use an immutable view of
+ * each hierarchy (sorted children, intervals and codes), while the changes
+ * are applied under the lock of the index and published as new views of the
+ * hierarchies involved, which share the children lists not changed.
+ *
+ * @author avonva
+ *
+ */
+public class HierarchyChildIndex {
+
+	private static final Logger LOGGER = LogManager.getLogger(HierarchyChildIndex.class);
+
+	// key used for the first level nodes (parent is the hierarchy)
+	private static final int ROOT = 0;
+
+	// minimum length of a level of the hierarchy code
+	private static final int CODE_LEVEL_LENGTH = 4;
+
+	private final Catalogue catalogue;
+
+	// fields below are modified only holding the lock of the index
+	private boolean built;
+
+	// hierarchy id => parent term id => children
+	private final Map<Integer, Map<Integer, List<Term>>> index = new HashMap<>();
+
+	// term => hierarchy id => parent key under which the term is indexed
+	private final Map<Term, Map<Integer, Integer>> positions = new IdentityHashMap<>();
+
+	// hierarchy id => immutable view read without locking
+	private final Map<Integer, HierarchyView> views = new ConcurrentHashMap<>();
+
+	public HierarchyChildIndex(Catalogue catalogue) {
+		this.catalogue = catalogue;
+	}
+
+	/**
+	 * Get the children of a parent in the selected hierarchy, sorted by order and
+	 * name
+	 *
+	 * @param parent    the parent term or the hierarchy itself (or null) for the
+	 *                  first level nodes
+	 * @param hierarchy
+	 * @return a new list which can be freely modified
+	 */
+	public ArrayList<Term> getChildren(Nameable parent, Hierarchy hierarchy) {
+		return new ArrayList<>(getView(hierarchy).getChildren(getKey(parent)));
+	}
+
+	/**
+	 * Check if a parent has at least one child in the selected hierarchy. The
+	 * children list is not copied.
+	 *
+	 * @param parent         the parent term or the hierarchy itself (or null) for
+	 *                       the first level nodes
+	 * @param hierarchy
+	 * @param hideDeprecated skip deprecated children
+	 * @param hideDismissed  skip dismissed children
+	 * @return
+	 */
+	public boolean hasChildren(Nameable parent, Hierarchy hierarchy, boolean hideDeprecated,
+			boolean hideDismissed) {
+
+		for (Term child : getView(hierarchy).getChildren(getKey(parent))) {
+
+			if (hideDeprecated && child.isDeprecated())
+				continue;
+
+			if (hideDismissed && child.isDismissed(hierarchy))
+				continue;
+
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Check if a term is an ancestor of another term in the hierarchy (a term is
+	 * considered ancestor of itself)
+	 *
+	 * @param ancestor
+	 * @param term
+	 * @param hierarchy
+	 * @return the answer, or null if one of the terms is not reachable from the
+	 *         root of the hierarchy (e.g. temporary terms), in which case the
+	 *         caller should go up into the tree parent by parent
+	 */
+	public Boolean isAncestor(Term ancestor, Term term, Hierarchy hierarchy) {
+
+		if (ancestor == null)
+			return false;
+
+		Map<Term, int[]> tour = getView(hierarchy).getTour();
+
+		int[] ancestorPos = tour.get(ancestor);
+		int[] termPos = tour.get(term);
+
+		if (ancestorPos == null || termPos == null)
+			return null;
+
+		return ancestorPos[0] <= termPos[0] && termPos[1] <= ancestorPos[1];
+	}
+
+	/**
+	 * Get the hierarchy code of a term, as a Z followed by the orders of the term
+	 * ancestors and of the term itself (padded with zeros and dot separated)
+	 *
+	 * @param term
+	 * @param hierarchy
+	 * @return the code, or null if the term is not reachable from the root of the
+	 *         hierarchy (e.g. temporary terms), in which case the caller should
+	 *         go up into the tree parent by parent
+	 */
+	public String getHierarchyCode(Term term, Hierarchy hierarchy) {
+		return getView(hierarchy).getCodes().get(term);
+	}
+
+	/**
+	 * Format the order of a term as a level of the hierarchy code
+	 *
+	 * @param order
+	 * @return the order with leading zeros
+	 */
+	public static String formatCodeLevel(int order) {
+
+		String level = String.valueOf(order);
+
+		if (level.length() >= CODE_LEVEL_LENGTH)
+			return level;
+
+		StringBuilder sb = new StringBuilder(CODE_LEVEL_LENGTH);
+
+		for (int i = level.length(); i < CODE_LEVEL_LENGTH; ++i)
+			sb.append('0');
+
+		return sb.append(level).toString();
+	}
+
+	/**
+	 * Align the index with the applicabilities of the term. Nothing is done if the
+	 * term is not indexed (e.g. temporary terms which are not part of the
+	 * catalogue) or if the index was not built yet.
+	 *
+	 * @param term
+	 */
+	public synchronized void update(Term term) {
+
+		if (!built)
+			return;
+
+		Map<Integer, Integer> old = positions.get(term);
+
+		if (old == null)
+			return;
+
+		index(term, old);
+	}
+
+	/**
+	 * Add a new catalogue term to the index
+	 *
+	 * @param term
+	 */
+	public synchronized void add(Term term) {
+
+		if (!built)
+			return;
+
+		Map<Integer, Integer> old = positions.get(term);
+
+		if (old == null)
+			old = new HashMap<>();
+
+		index(term, old);
+	}
+
+	/**
+	 * Remove all the data of the index. The index will be built again from the
+	 * catalogue terms when required.
+	 */
+	public synchronized void clear() {
+		index.clear();
+		positions.clear();
+		views.clear();
+		built = false;
+	}
+
+	/**
+	 * Get the view of the hierarchy. The view is created (and the index built)
+	 * under the lock only the first time, then it is read without locking until
+	 * a change replaces it.
+	 *
+	 * @param hierarchy
+	 * @return
+	 */
+	private HierarchyView getView(Hierarchy hierarchy) {
+
+		HierarchyView view = views.get(hierarchy.getId());
+
+		if (view != null)
+			return view;
+
+		synchronized (this) {
+
+			if (!built)
+				build();
+
+			view = views.get(hierarchy.getId());
+
+			if (view == null) {
+
+				Map<Integer, List<Term>> children = new HashMap<>();
+
+				Map<Integer, List<Term>> hierarchyIndex = index.get(hierarchy.getId());
+
+				if (hierarchyIndex != null) {
+					for (Map.Entry<Integer, List<Term>> entry : hierarchyIndex.entrySet())
+						children.put(entry.getKey(), sort(entry.getValue(), hierarchy));
+				}
+
+				view = new HierarchyView(hierarchy, children);
+				views.put(hierarchy.getId(), view);
+			}
+
+			return view;
+		}
+	}
+
+	/**
+	 * Build the index with all the applicabilities of the catalogue terms
+	 */
+	private void build() {
+
+		long start = System.currentTimeMillis();
+
+		Collection<Term> terms = catalogue.getTerms();
+
+		for (Term term : terms)
+			index(term, new HashMap<>());
+
+		built = true;
+
+		LOGGER.debug("Hierarchy child index built for " + terms.size() + " terms in "
+				+ (System.currentTimeMillis() - start) + " ms");
+	}
+
+	/**
+	 * Move the term in the index from its old positions to the ones defined by its
+	 * applicabilities, then publish the new views of the hierarchies involved
+	 *
+	 * @param term
+	 * @param old  positions where the term is currently indexed
+	 */
+	private void index(Term term, Map<Integer, Integer> old) {
+
+		Map<Integer, Integer> current = new HashMap<>();
+
+		for (Applicability appl : term.getApplicabilities())
+			current.put(appl.getHierarchy().getId(), getKey(appl.getParentTerm()));
+
+		// hierarchy id => parents whose children changed
+		Map<Integer, Set<Integer>> changed = new HashMap<>();
+
+		// hierarchies where the term changed parent
+		Set<Integer> moved = new HashSet<>();
+
+		// remove the term from the parents it does not have anymore
+		for (Map.Entry<Integer, Integer> entry : old.entrySet()) {
+
+			if (entry.getValue().equals(current.get(entry.getKey())))
+				continue;
+
+			List<Term> children = getChildren(entry.getKey(), entry.getValue(), false);
+
+			if (children != null)
+				children.remove(term);
+
+			addChanged(changed, entry.getKey(), entry.getValue());
+			moved.add(entry.getKey());
+		}
+
+		// add the term to the new parents
+		for (Map.Entry<Integer, Integer> entry : current.entrySet()) {
+
+			List<Term> children = getChildren(entry.getKey(), entry.getValue(), true);
+
+			if (!entry.getValue().equals(old.get(entry.getKey()))) {
+				children.add(term);
+				moved.add(entry.getKey());
+			}
+
+			// the order or the name could be changed
+			addChanged(changed, entry.getKey(), entry.getValue());
+		}
+
+		positions.put(term, current);
+
+		// replace the views already created, the others are created when read
+		for (Map.Entry<Integer, Set<Integer>> entry : changed.entrySet()) {
+
+			HierarchyView view = views.get(entry.getKey());
+
+			if (view != null)
+				views.put(entry.getKey(), update(view, entry.getValue(), moved.contains(entry.getKey())));
+		}
+	}
+
+	/**
+	 * Create a copy of the view with the new children of the changed parents. The
+	 * codes are always computed again, since the order of the term could be
+	 * changed, while the intervals only if the term changed parent.
+	 *
+	 * @param view
+	 * @param parents the changed parents
+	 * @param moved   true if the term changed parent
+	 * @return
+	 */
+	private HierarchyView update(HierarchyView view, Set<Integer> parents, boolean moved) {
+
+		Map<Integer, List<Term>> children = new HashMap<>(view.children);
+
+		for (Integer parent : parents) {
+
+			List<Term> terms = getChildren(view.hierarchy.getId(), parent, false);
+
+			if (terms == null || terms.isEmpty())
+				children.remove(parent);
+			else
+				children.put(parent, sort(terms, view.hierarchy));
+		}
+
+		HierarchyView updated = new HierarchyView(view.hierarchy, children);
+
+		if (!moved)
+			updated.tour = view.tour;
+
+		return updated;
+	}
+
+	private static void addChanged(Map<Integer, Set<Integer>> changed, int hierarchyId, int parentKey) {
+
+		Set<Integer> parents = changed.get(hierarchyId);
+
+		if (parents == null) {
+			parents = new HashSet<>();
+			changed.put(hierarchyId, parents);
+		}
+
+		parents.add(parentKey);
+	}
+
+	private List<Term> getChildren(int hierarchyId, int parentKey, boolean create) {
+
+		Map<Integer, List<Term>> hierarchyIndex = index.get(hierarchyId);
+
+		if (hierarchyIndex == null) {
+
+			if (!create)
+				return null;
+
+			hierarchyIndex = new HashMap<>();
+			index.put(hierarchyId, hierarchyIndex);
+		}
+
+		List<Term> children = hierarchyIndex.get(parentKey);
+
+		if (children == null && create) {
+			children = new ArrayList<>();
+			hierarchyIndex.put(parentKey, children);
+		}
+
+		return children;
+	}
+
+	/**
+	 * Get the key of the parent. Hierarchies (and null) are mapped to the root of
+	 * the tree
+	 *
+	 * @param parent
+	 * @return
+	 */
+	private static int getKey(Nameable parent) {
+
+		if (parent instanceof Term)
+			return ((Term) parent).getId();
+
+		return ROOT;
+	}
+
+	/**
+	 * Get a sorted and unmodifiable copy of the children, sorted by their order in
+	 * the hierarchy and then by name
+	 *
+	 * @param terms
+	 * @param hierarchy
+	 * @return
+	 */
+	private static List<Term> sort(List<Term> terms, final Hierarchy hierarchy) {
+
+		List<Term> sorted = new ArrayList<>(terms);
+
+		Collections.sort(sorted, new Comparator<Term>() {
+			public int compare(Term t1, Term t2) {
+
+				int comp = Integer.compare(t1.getOrder(hierarchy), t2.getOrder(hierarchy));
+
+				if (comp != 0)
+					return comp;
+
+				String n1 = t1.getName() == null ? "" : t1.getName();
+				String n2 = t2.getName() == null ? "" : t2.getName();
+
+				return n1.compareTo(n2);
+			};
+		});
+
+		return Collections.unmodifiableList(sorted);
+	}
+
+	/**
+	 * Immutable view of the children of a hierarchy. The intervals and the codes
+	 * are computed from the children the first time they are required; two
+	 * threads can compute them at the same time, but with the same result.
+	 */
+	private static class HierarchyView {
+
+		private final Hierarchy hierarchy;
+
+		// parent key => sorted children
+		private final Map<Integer, List<Term>> children;
+
+		// term => enter/exit positions in the depth first visit
+		private volatile Map<Term, int[]> tour;
+
+		// term => hierarchy code
+		private volatile Map<Term, String> codes;
+
+		private HierarchyView(Hierarchy hierarchy, Map<Integer, List<Term>> children) {
+			this.hierarchy = hierarchy;
+			this.children = children;
+		}
+
+		private List<Term> getChildren(int parentKey) {
+
+			List<Term> terms = children.get(parentKey);
+
+			if (terms == null)
+				return Collections.emptyList();
+
+			return terms;
+		}
+
+		private Map<Term, int[]> getTour() {
+
+			Map<Term, int[]> current = tour;
+
+			if (current == null) {
+				current = visit();
+				tour = current;
+			}
+
+			return current;
+		}
+
+		private Map<Term, String> getCodes() {
+
+			Map<Term, String> current = codes;
+
+			if (current == null) {
+				current = computeCodes();
+				codes = current;
+			}
+
+			return current;
+		}
+
+		/**
+		 * Number the terms of the hierarchy with a depth first visit starting from
+		 * the first level nodes
+		 *
+		 * @return
+		 */
+		private Map<Term, int[]> visit() {
+
+			Map<Term, int[]> visited = new IdentityHashMap<>();
+
+			int counter = 0;
+
+			// stack of the terms whose subtree is being visited
+			Deque<Term> stack = new ArrayDeque<>();
+			Deque<Iterator<Term>> iterators = new ArrayDeque<>();
+
+			iterators.push(getChildren(ROOT).iterator());
+
+			while (!iterators.isEmpty()) {
+
+				Iterator<Term> iterator = iterators.peek();
+
+				if (iterator.hasNext()) {
+
+					Term child = iterator.next();
+
+					// skip the terms already visited (wrong data with cycles)
+					if (visited.containsKey(child))
+						continue;
+
+					visited.put(child, new int[] { counter++, -1 });
+
+					stack.push(child);
+					iterators.push(getChildren(child.getId()).iterator());
+				} else {
+
+					iterators.pop();
+
+					// the subtree of the term is completed
+					if (!stack.isEmpty())
+						visited.get(stack.pop())[1] = counter++;
+				}
+			}
+
+			return visited;
+		}
+
+		/**
+		 * Compute the hierarchy codes of all the terms of the hierarchy with a
+		 * depth first visit starting from the first level nodes. The code of a
+		 * child is the code of its parent followed by the child order.
+		 *
+		 * @return
+		 */
+		private Map<Term, String> computeCodes() {
+
+			long start = System.currentTimeMillis();
+
+			Map<Term, String> hierarchyCodes = new IdentityHashMap<>();
+
+			// terms whose children still need to be visited
+			Deque<Term> stack = new ArrayDeque<>();
+
+			for (Term root : getChildren(ROOT)) {
+
+				if (hierarchyCodes.containsKey(root))
+					continue;
+
+				hierarchyCodes.put(root, "Z" + formatCodeLevel(root.getOrder(hierarchy)));
+				stack.push(root);
+			}
+
+			while (!stack.isEmpty()) {
+
+				Term parent = stack.pop();
+
+				String parentCode = hierarchyCodes.get(parent);
+
+				for (Term child : getChildren(parent.getId())) {
+
+					// skip the terms already visited (wrong data with cycles)
+					if (hierarchyCodes.containsKey(child))
+						continue;
+
+					hierarchyCodes.put(child, parentCode + "." + formatCodeLevel(child.getOrder(hierarchy)));
+					stack.push(child);
+				}
+			}
+
+			LOGGER.debug("Hierarchy codes of " + hierarchy.getCode() + " computed for " + hierarchyCodes.size()
+					+ " terms in " + (System.currentTimeMillis() - start) + " ms");
+
+			return hierarchyCodes;
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package catalogue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import catalogue_object.Attribute;
+import catalogue_object.Term;
+import ui_implicit_facet.DescriptorTreeItem;
+
+/**
+ * In memory cache of the inherited implicit facets of the catalogue terms (see
+ * {@link Term#getInheritedImplicitFacets(Attribute)}). The facets of a term are
+ * computed once for each facet category and reused until one of the terms
+ * used to compute them changes.
+ *
+ * The terms used to compute the facets of a term are its ancestors in the
+ * master hierarchy (with their implicit facets), the terms of the descriptors
+ * and their ancestors. When a term changes its implicit facets or its parent
+ * in the master hierarchy, only the cached facets which used that term are
+ * removed, that is the facets of the term and of its subtree.
+ *
+ * @author shahaal
+ *
+ */
+public class InheritedFacetsCache {
+
+	// term => facet category id => leaves of the implicit facets tree
+	private final Map<Term, Map<Integer, ArrayList<DescriptorTreeItem>>> facets = new IdentityHashMap<>();
+
+	// term => terms whose facets were computed using it
+	private final Map<Term, Set<Term>> dependents = new IdentityHashMap<>();
+
+	// term => terms used to compute its facets
+	private final Map<Term, Set<Term>> dependencies = new IdentityHashMap<>();
+
+	// incremented at each invalidation, to discard the facets computed in the
+	// meanwhile
+	private long generation;
+
+	/**
+	 * Get the current generation of the cache. It has to be read before
+	 * computing the facets which will be added with
+	 * {@link #put(Term, Attribute, ArrayList, Collection, long)}
+	 *
+	 * @return
+	 */
+	public synchronized long getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Get the cached facets of the term for the facet category
+	 *
+	 * @param term
+	 * @param facetCategory
+	 * @return the cached facets or null if they were not computed yet
+	 */
+	public synchronized ArrayList<DescriptorTreeItem> get(Term term, Attribute facetCategory) {
+
+		Map<Integer, ArrayList<DescriptorTreeItem>> byCategory = facets.get(term);
+
+		if (byCategory == null)
+			return null;
+
+		return byCategory.get(facetCategory.getId());
+	}
+
+	/**
+	 * Cache the facets of the term for the facet category
+	 *
+	 * @param term
+	 * @param facetCategory
+	 * @param leaves        the computed facets
+	 * @param used          the terms used to compute the facets
+	 * @param generation    the generation of the cache when the computation
+	 *                      started. If the cache was invalidated in the meanwhile
+	 *                      the facets are not added.
+	 */
+	public synchronized void put(Term term, Attribute facetCategory, ArrayList<DescriptorTreeItem> leaves,
+			Collection<Term> used, long generation) {
+
+		if (generation != this.generation)
+			return;
+
+		Map<Integer, ArrayList<DescriptorTreeItem>> byCategory = facets.get(term);
+
+		if (byCategory == null) {
+			byCategory = new HashMap<>();
+			facets.put(term, byCategory);
+		}
+
+		byCategory.put(facetCategory.getId(), leaves);
+
+		Set<Term> termDependencies = dependencies.get(term);
+
+		if (termDependencies == null) {
+			termDependencies = newTermSet();
+			dependencies.put(term, termDependencies);
+		}
+
+		for (Term dependency : used) {
+
+			if (!termDependencies.add(dependency))
+				continue;
+
+			Set<Term> owners = dependents.get(dependency);
+
+			if (owners == null) {
+				owners = newTermSet();
+				dependents.put(dependency, owners);
+			}
+
+			owners.add(term);
+		}
+	}
+
+	/**
+	 * Remove the cached facets which were computed using the term (the term
+	 * itself and its subtree in the master hierarchy). To be called when the
+	 * implicit facets, the parent in the master hierarchy or the code of the term
+	 * change.
+	 *
+	 * @param term
+	 */
+	public synchronized void invalidate(Term term) {
+
+		generation++;
+
+		Set<Term> owners = dependents.remove(term);
+
+		if (owners == null)
+			return;
+
+		for (Term owner : owners) {
+
+			facets.remove(owner);
+
+			Set<Term> ownerDependencies = dependencies.remove(owner);
+
+			if (ownerDependencies == null)
+				continue;
+
+			// the owner is not dependent anymore on the other terms
+			for (Term dependency : ownerDependencies) {
+
+				Set<Term> others = dependents.get(dependency);
+
+				if (others == null)
+					continue;
+
+				others.remove(owner);
+
+				if (others.isEmpty())
+					dependents.remove(dependency);
+			}
+		}
+	}
+
+	/**
+	 * Remove all the cached facets
+	 */
+	public synchronized void clear() {
+		generation++;
+		facets.clear();
+		dependents.clear();
+		dependencies.clear();
+	}
+
+	/**
+	 * Number of terms with cached facets
+	 *
+	 * @return
+	 */
+	public synchronized int size() {
+		return facets.size();
+	}
+
+	private static Set<Term> newTermSet() {
+		return Collections.newSetFromMap(new IdentityHashMap<Term, Boolean>());
+	}
+}
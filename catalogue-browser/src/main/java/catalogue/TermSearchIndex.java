@@ -0,0 +1,577 @@
+package catalogue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import catalogue_object.Applicability;
+import catalogue_object.Attribute;
+import catalogue_object.Hierarchy;
+import catalogue_object.Term;
+import catalogue_object.TermAttribute;
+import term_type.TermType;
+import ui_search_bar.SearchType;
+
+/**
+ * In memory full text index of the catalogue terms, used by the search bar in
+ * place of the like '%keyword%' queries on the whole term and term attribute
+ * tables.
+ *
+ * The names, short names and attribute values of the terms are indexed by
+ * their trigrams (sequences of three characters): the terms which contain a
+ * keyword are found intersecting the lists of the keyword trigrams and then
+ * checking the text of the few candidates. Keywords shorter than a trigram are
+ * searched in all the texts. Codes are matched exactly, as the previous
+ * queries did.
+ *
+ * The hierarchy and term type filters are applied as bit sets of the terms
+ * positions. The index is built when the catalogue is loaded and it is
+ * discarded (see {@link #clear()}) each time the catalogue terms are modified,
+ * it will be built again with the next search.
+ *
+ * The index is built in background while the terms can be edited, therefore
+ * it is built from a copy of the terms and it is published only if the index
+ * was not discarded in the meanwhile (the edits discard it after changing the
+ * terms), otherwise it is built again. The searches read the published index
+ * without locking.
+ *
+ * @author shahaal
+ *
+ */
+public class TermSearchIndex {
+
+	private static final Logger LOGGER = LogManager.getLogger(TermSearchIndex.class);
+
+	// length of the indexed sequences of characters
+	private static final int GRAM = 3;
+
+	private final Catalogue catalogue;
+
+	// the published index, null if it needs to be built
+	private volatile Index index;
+
+	// true while a thread is building the index
+	private boolean building;
+
+	// incremented each time the index is discarded, to discard also the index
+	// which was being built in the meanwhile
+	private long generation;
+
+	public TermSearchIndex(Catalogue catalogue) {
+		this.catalogue = catalogue;
+	}
+
+	/**
+	 * Search the terms which match the keywords in the selected hierarchy. Names
+	 * and short names must contain the keywords, codes must be equal to them.
+	 * Attributes values are compared one by one, as the names.
+	 *
+	 * @param keywords             the keywords (a single one for exact match)
+	 * @param type                 how to combine the keywords
+	 * @param hierarchy            only terms applicable in this hierarchy are
+	 *                             returned
+	 * @param searchableAttributes attributes whose values are searched
+	 * @param searchableTypes      the term types of the returned terms (terms
+	 *                             without a term type are always returned), null
+	 *                             to skip the filter
+	 * @return the matching terms, in no particular order (empty if the searching
+	 *         thread was interrupted while waiting for the index)
+	 */
+	public ArrayList<Term> search(List<String> keywords, SearchType type, Hierarchy hierarchy,
+			Collection<Attribute> searchableAttributes, Collection<TermType> searchableTypes) {
+
+		ArrayList<Term> results = new ArrayList<>();
+
+		if (keywords.isEmpty())
+			return results;
+
+		Index current = getIndex();
+
+		if (current == null)
+			return results;
+
+		boolean all = type == SearchType.ALL_WORDS;
+
+		BitSet byName = null;
+		BitSet byValue = null;
+
+		for (String keyword : keywords) {
+
+			String key = keyword.toUpperCase();
+
+			// names and codes
+			BitSet nameMatch = find(key, current.nameGrams, current.names, current.shortNames);
+
+			Integer codePos = current.codes.get(key);
+			if (codePos != null)
+				nameMatch.set(codePos);
+
+			byName = combine(byName, nameMatch, all);
+
+			// attributes values, each value must satisfy the keywords
+			byValue = combine(byValue, find(key, current.valueGrams, current.values, null), all);
+		}
+
+		// convert the values into terms filtering by attribute
+		Set<Integer> attrIds = new HashSet<>();
+		for (Attribute attr : searchableAttributes) {
+			if (attr != null)
+				attrIds.add(attr.getId());
+		}
+
+		BitSet matches = byName;
+		for (int doc = byValue.nextSetBit(0); doc >= 0; doc = byValue.nextSetBit(doc + 1)) {
+			if (attrIds.contains(current.valueAttributes[doc]))
+				matches.set(current.valueTerms[doc]);
+		}
+
+		// filter by hierarchy
+		if (catalogue.getNotUsedHierarchies().contains(hierarchy))
+			return results;
+
+		BitSet inHierarchy = current.hierarchies.get(hierarchy.getId());
+
+		if (inHierarchy == null)
+			return results;
+
+		matches.and(inHierarchy);
+
+		// filter by term type
+		if (searchableTypes != null) {
+
+			BitSet allowed = (BitSet) current.noTermType.clone();
+
+			for (TermType tt : searchableTypes) {
+
+				if (tt == null)
+					continue;
+
+				BitSet typed = current.termTypes.get(tt.getCode());
+				if (typed != null)
+					allowed.or(typed);
+			}
+
+			matches.and(allowed);
+		}
+
+		for (int pos = matches.nextSetBit(0); pos >= 0; pos = matches.nextSetBit(pos + 1))
+			results.add(current.terms[pos]);
+
+		return results;
+	}
+
+	/**
+	 * Build the index with the terms currently loaded in the catalogue, if it is
+	 * not already built. If another thread is building it, wait for it.
+	 */
+	public void build() {
+		getIndex();
+	}
+
+	/**
+	 * Wait until the index is built (e.g. by the background thread started when
+	 * the catalogue is loaded)
+	 *
+	 * @param timeout maximum time to wait in milliseconds
+	 * @return true if the index is built
+	 * @throws InterruptedException
+	 */
+	public synchronized boolean waitBuilt(long timeout) throws InterruptedException {
+
+		long end = System.currentTimeMillis() + timeout;
+
+		while (index == null) {
+
+			long remaining = end - System.currentTimeMillis();
+
+			if (remaining <= 0)
+				return false;
+
+			wait(remaining);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Discard the index, it will be built again with the next search. An index
+	 * which is being built is discarded as well.
+	 */
+	public synchronized void clear() {
+		generation++;
+		index = null;
+	}
+
+	/**
+	 * Get the published index, building it if needed
+	 *
+	 * @return the index, or null if the thread was interrupted while waiting for
+	 *         another thread to build it
+	 */
+	private Index getIndex() {
+
+		Index current = index;
+
+		while (current == null) {
+
+			long start;
+
+			synchronized (this) {
+
+				// wait for the thread which is building it
+				while (building && index == null) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return null;
+					}
+				}
+
+				if (index != null)
+					return index;
+
+				building = true;
+				start = generation;
+			}
+
+			Index built = null;
+
+			try {
+				built = createIndex();
+			} catch (ConcurrentModificationException e) {
+				LOGGER.debug("Catalogue terms changed while building the search index, building it again");
+			} finally {
+
+				synchronized (this) {
+
+					building = false;
+
+					// publish only if the terms were not changed in the meanwhile
+					if (built != null && start == generation)
+						index = built;
+
+					current = index;
+
+					// wake up the threads waiting for the index
+					notifyAll();
+				}
+			}
+		}
+
+		return current;
+	}
+
+	/**
+	 * Create the index from a copy of the terms currently loaded in the catalogue
+	 *
+	 * @return
+	 */
+	private Index createIndex() {
+
+		long start = System.currentTimeMillis();
+
+		// copy the terms, they can be added while the index is built. Other
+		// changes are detected by the iterators or by the generation check
+		Term[] catTerms = catalogue.getTerms().toArray(new Term[0]);
+
+		int count = catTerms.length;
+
+		Index built = new Index();
+
+		built.terms = catTerms;
+		built.names = new String[count];
+		built.shortNames = new String[count];
+		built.codes = new HashMap<>();
+		built.nameGrams = new HashMap<>();
+		built.hierarchies = new HashMap<>();
+		built.termTypes = new HashMap<>();
+		built.noTermType = new BitSet(count);
+
+		List<String> valuesList = new ArrayList<>();
+		List<Integer> valueTermsList = new ArrayList<>();
+		List<Integer> valueAttrsList = new ArrayList<>();
+		built.valueGrams = new HashMap<>();
+
+		for (int pos = 0; pos < count; pos++) {
+
+			Term term = catTerms[pos];
+
+			built.names[pos] = upper(term.getName());
+			built.shortNames[pos] = upper(term.getLabel());
+
+			if (term.getCode() != null)
+				built.codes.put(term.getCode().toUpperCase(), pos);
+
+			addGrams(built.nameGrams, built.names[pos], pos);
+			addGrams(built.nameGrams, built.shortNames[pos], pos);
+
+			for (TermAttribute ta : term.getAttributes()) {
+
+				if (ta.getValue() == null || ta.getAttribute() == null)
+					continue;
+
+				int doc = valuesList.size();
+
+				String value = ta.getValue().toUpperCase();
+				valuesList.add(value);
+				valueTermsList.add(pos);
+				valueAttrsList.add(ta.getAttribute().getId());
+
+				addGrams(built.valueGrams, value, doc);
+			}
+
+			for (Applicability appl : term.getApplicabilities())
+				getBitSet(built.hierarchies, appl.getHierarchy().getId()).set(pos);
+
+			TermAttribute tt = term.getTermType();
+			if (tt == null || tt.getValue() == null)
+				built.noTermType.set(pos);
+			else
+				getBitSet(built.termTypes, tt.getValue()).set(pos);
+		}
+
+		built.values = valuesList.toArray(new String[valuesList.size()]);
+		built.valueTerms = toArray(valueTermsList);
+		built.valueAttributes = toArray(valueAttrsList);
+
+		for (Postings postings : built.nameGrams.values())
+			postings.trim();
+
+		for (Postings postings : built.valueGrams.values())
+			postings.trim();
+
+		LOGGER.info("Search index built for " + count + " terms and " + built.values.length
+				+ " attribute values in " + (System.currentTimeMillis() - start) + " ms");
+
+		return built;
+	}
+
+	/**
+	 * Find the documents whose texts contain the key
+	 *
+	 * @param key    upper case keyword
+	 * @param grams  trigrams of the texts
+	 * @param texts  texts of the documents
+	 * @param others other texts of the same documents (can be null)
+	 * @return the positions of the documents
+	 */
+	private static BitSet find(String key, Map<String, Postings> grams, String[] texts, String[] others) {
+
+		BitSet found = new BitSet(texts.length);
+
+		// too short to use the trigrams, check all the texts
+		if (key.length() < GRAM) {
+
+			for (int doc = 0; doc < texts.length; doc++) {
+				if (contains(texts, others, doc, key))
+					found.set(doc);
+			}
+
+			return found;
+		}
+
+		// get the documents which have all the trigrams of the key
+		List<Postings> lists = new ArrayList<>();
+		for (String gram : getGrams(key)) {
+
+			Postings postings = grams.get(gram);
+
+			// a trigram is never used
+			if (postings == null)
+				return found;
+
+			lists.add(postings);
+		}
+
+		// start from the shortest list
+		lists.sort(new Comparator<Postings>() {
+			@Override
+			public int compare(Postings p1, Postings p2) {
+				return Integer.compare(p1.size, p2.size);
+			}
+		});
+
+		int[] candidates = Arrays.copyOf(lists.get(0).docs, lists.get(0).size);
+		int size = candidates.length;
+
+		for (int i = 1; i < lists.size() && size > 0; i++)
+			size = intersect(candidates, size, lists.get(i));
+
+		// trigrams could be in the wrong order, check the texts
+		for (int i = 0; i < size; i++) {
+			if (contains(texts, others, candidates[i], key))
+				found.set(candidates[i]);
+		}
+
+		return found;
+	}
+
+	private static boolean contains(String[] texts, String[] others, int doc, String key) {
+
+		if (texts[doc] != null && texts[doc].contains(key))
+			return true;
+
+		return others != null && others[doc] != null && others[doc].contains(key);
+	}
+
+	/**
+	 * Keep in the candidates only the documents of the postings
+	 *
+	 * @param candidates sorted documents
+	 * @param size       number of candidates
+	 * @param postings
+	 * @return the new number of candidates
+	 */
+	private static int intersect(int[] candidates, int size, Postings postings) {
+
+		int kept = 0;
+		int j = 0;
+
+		for (int i = 0; i < size && j < postings.size; i++) {
+
+			while (j < postings.size && postings.docs[j] < candidates[i])
+				j++;
+
+			if (j < postings.size && postings.docs[j] == candidates[i])
+				candidates[kept++] = candidates[i];
+		}
+
+		return kept;
+	}
+
+	private static BitSet combine(BitSet current, BitSet other, boolean and) {
+
+		if (current == null)
+			return other;
+
+		if (and)
+			current.and(other);
+		else
+			current.or(other);
+
+		return current;
+	}
+
+	private static void addGrams(Map<String, Postings> grams, String text, int doc) {
+
+		if (text == null)
+			return;
+
+		for (String gram : getGrams(text)) {
+
+			Postings postings = grams.get(gram);
+
+			if (postings == null) {
+				postings = new Postings();
+				grams.put(gram, postings);
+			}
+
+			postings.add(doc);
+		}
+	}
+
+	private static Set<String> getGrams(String text) {
+
+		Set<String> grams = new HashSet<>();
+
+		for (int i = 0; i + GRAM <= text.length(); i++)
+			grams.add(text.substring(i, i + GRAM));
+
+		return grams;
+	}
+
+	private static <K> BitSet getBitSet(Map<K, BitSet> map, K key) {
+
+		BitSet set = map.get(key);
+
+		if (set == null) {
+			set = new BitSet();
+			map.put(key, set);
+		}
+
+		return set;
+	}
+
+	private static int[] toArray(List<Integer> list) {
+
+		int[] array = new int[list.size()];
+
+		for (int i = 0; i < array.length; i++)
+			array[i] = list.get(i);
+
+		return array;
+	}
+
+	private static String upper(String text) {
+		return text == null ? null : text.toUpperCase();
+	}
+
+	/**
+	 * Data of the index, not modified after it is published
+	 */
+	private static class Index {
+
+		// position of the term in the index => term
+		private Term[] terms;
+
+		// upper case names and short names of the terms (by position)
+		private String[] names;
+		private String[] shortNames;
+
+		// upper case term code => term position
+		private Map<String, Integer> codes;
+
+		// term attributes values (by document) and their term and attribute
+		private String[] values;
+		private int[] valueTerms;
+		private int[] valueAttributes;
+
+		// trigram => sorted positions of the terms/documents which contain it
+		private Map<String, Postings> nameGrams;
+		private Map<String, Postings> valueGrams;
+
+		// hierarchy id => terms positions
+		private Map<Integer, BitSet> hierarchies;
+
+		// term type code => terms positions
+		private Map<String, BitSet> termTypes;
+		private BitSet noTermType;
+	}
+
+	/**
+	 * Sorted documents which contain a trigram
+	 */
+	private static class Postings {
+
+		private int[] docs = new int[4];
+		private int size;
+
+		private void add(int doc) {
+
+			// documents are added in order, skip repetitions
+			if (size > 0 && docs[size - 1] == doc)
+				return;
+
+			if (size == docs.length)
+				docs = Arrays.copyOf(docs, size * 2);
+
+			docs[size++] = doc;
+		}
+
+		private void trim() {
+			docs = Arrays.copyOf(docs, size);
+		}
+	}
+}
@@ -4,7 +4,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -13,6 +12,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import catalogue.Catalogue;
+import catalogue.CatalogueSnapshot;
 import catalogue_object.Attribute;
 import catalogue_object.AttributeBuilder;
 import catalogue_object.Term;
@@ -73,6 +73,8 @@ public class AttributeDAO implements CatalogueEntityDAO<Attribute> {
 	 */
 	public synchronized List<Integer> insert(Iterable<Attribute> attrs) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		ArrayList<Integer> ids = new ArrayList<>();
 
 		// set the query to insert a new attribtue
@@ -84,12 +86,9 @@ public class AttributeDAO implements CatalogueEntityDAO<Attribute> {
 				+ "ATTR_VALID_TO, ATTR_STATUS, ATTR_DEPRECATED, ATTR_VERSION ) values ("
 				+ "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ? )";
 
-		try (Connection con = catalogue.getConnection();
-				PreparedStatement stmt = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);) {
-
-			stmt.clearParameters();
-
-			for (Attribute attr : attrs) {
+		BulkInsert<Attribute> bulk = new BulkInsert<>(catalogue, query, new BulkInsert.Binder<Attribute>() {
+			@Override
+			public void bind(PreparedStatement stmt, Attribute attr) throws SQLException {
 
 				stmt.setString(1, attr.getCode());
 				stmt.setString(2, attr.getName());
@@ -129,25 +128,13 @@ public class AttributeDAO implements CatalogueEntityDAO<Attribute> {
 				stmt.setBoolean(22, attr.isDeprecated());
 
 				stmt.setString(23, attr.getVersion());
-
-				stmt.addBatch();
 			}
+		}, true);
 
-			stmt.executeBatch();
+		try {
 
-			// update the terms ids with the ones given by the database
-			try (ResultSet rs = stmt.getGeneratedKeys();) {
-
-				if (rs != null) {
-					while (rs.next())
-						ids.add(rs.getInt(1));
-					
-					rs.close();
-				}
-			}
-			
-			stmt.close();
-			con.close();
+			// insert the records and get the ids given by the database
+			ids.addAll(bulk.insert(attrs));
 
 		} catch (SQLException e) {
 			LOGGER.error("DB error", e);
@@ -165,6 +152,8 @@ public class AttributeDAO implements CatalogueEntityDAO<Attribute> {
 	 */
 	public boolean remove(Attribute attr) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		// initialize term attribute dao
 		TermAttributeDAO taDao = new TermAttributeDAO(catalogue);
 
@@ -205,6 +194,8 @@ public class AttributeDAO implements CatalogueEntityDAO<Attribute> {
 	 */
 	public boolean update(Attribute attr) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		// get all the hierarchies
 		String query = "update APP.ATTRIBUTE set ATTR_CODE = ?, ATTR_NAME = ?, ATTR_LABEL = ?,"
 				+ "ATTR_SCOPENOTE = ?, ATTR_REPORTABLE = ?, ATTR_VISIBLE = ?, ATTR_SEARCHABLE = ?,"
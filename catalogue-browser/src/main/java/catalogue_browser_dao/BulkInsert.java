@@ -0,0 +1,275 @@
+package catalogue_browser_dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import catalogue.Catalogue;
+import config.AppConfig;
+
+/**
+ * Insert a collection of objects into a table of the catalogue database with a
+ * single prepared statement. The rows are sent to the database every
+ * {@link #FLUSH_SIZE} rows and they are committed together at the end, so that
+ * a big collection is neither kept in a single huge batch nor committed row by
+ * row. If a commit interval is set (see {@link #setCommitInterval(int)}, read
+ * from the configuration file by default) the rows are committed also every
+ * commit interval rows.
+ *
+ * The class also allows removing the foreign keys of the relation tables
+ * before importing a whole catalogue and adding them again at the end, in
+ * order to build their indexes only once (see {@link #dropForeignKeys(Catalogue)}).
+ *
+ * @author shahaal
+ *
+ * @param <E> the type of the inserted objects
+ */
+public class BulkInsert<E> {
+
+	private static final Logger LOGGER = LogManager.getLogger(BulkInsert.class);
+
+	// number of rows sent to the database with a single batch
+	public static final int FLUSH_SIZE = 1000;
+
+	// foreign keys of the relation tables (as in the createCatalogueDB script)
+	private static final String[][] FOREIGN_KEYS = {
+			{ "TERM_ATTRIBUTE", "TERM_ID", "TERM ( TERM_ID )" },
+			{ "TERM_ATTRIBUTE", "ATTR_ID", "ATTRIBUTE ( ATTR_ID )" },
+			{ "PARENT_TERM", "TERM_ID", "TERM ( TERM_ID )" },
+			{ "PARENT_TERM", "PARENT_TERM_ID", "TERM ( TERM_ID )" },
+			{ "PARENT_TERM", "HIERARCHY_ID", "HIERARCHY ( HIERARCHY_ID )" } };
+
+	// rows committed together, 0 means all the rows of the collection
+	private static volatile Integer commitInterval;
+
+	/**
+	 * Set the parameters of the insert statement for an object
+	 *
+	 * @param <E>
+	 */
+	public interface Binder<E> {
+		public void bind(PreparedStatement stmt, E object) throws SQLException;
+	}
+
+	private Catalogue catalogue;
+	private String query;
+	private Binder<E> binder;
+	private boolean generatedKeys;
+
+	/**
+	 * Create the bulk insert
+	 *
+	 * @param catalogue     the catalogue which contains the table
+	 * @param query         the insert query
+	 * @param binder        sets the parameters of the query for each object
+	 * @param generatedKeys true to return the ids generated by the database
+	 */
+	public BulkInsert(Catalogue catalogue, String query, Binder<E> binder, boolean generatedKeys) {
+		this.catalogue = catalogue;
+		this.query = query;
+		this.binder = binder;
+		this.generatedKeys = generatedKeys;
+	}
+
+	/**
+	 * Set the number of rows which are committed together
+	 *
+	 * @param interval the number of rows, 0 to commit all the rows of a collection
+	 *                 in a single transaction
+	 */
+	public static void setCommitInterval(int interval) {
+		commitInterval = Math.max(interval, 0);
+	}
+
+	/**
+	 * Get the number of rows which are committed together
+	 *
+	 * @return the number of rows, 0 if all the rows of a collection are committed
+	 *         in a single transaction
+	 */
+	public static int getCommitInterval() {
+
+		Integer interval = commitInterval;
+
+		// read the configuration the first time
+		if (interval == null) {
+			interval = Math.max(AppConfig.getImportCommitInterval(), 0);
+			commitInterval = interval;
+		}
+
+		return interval;
+	}
+
+	/**
+	 * Insert the objects. If an error occurs the rows which were not committed
+	 * yet are rolled back.
+	 *
+	 * @param objects
+	 * @return the generated ids (if required)
+	 * @throws SQLException
+	 */
+	public List<Integer> insert(Iterable<E> objects) throws SQLException {
+
+		ArrayList<Integer> ids = new ArrayList<>();
+
+		try (Connection con = catalogue.getConnection();
+				PreparedStatement stmt = generatedKeys ? con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)
+						: con.prepareStatement(query);) {
+
+			boolean autoCommit = con.getAutoCommit();
+			con.setAutoCommit(false);
+
+			int interval = getCommitInterval();
+
+			try {
+
+				int batched = 0;
+				int uncommitted = 0;
+
+				for (E object : objects) {
+
+					stmt.clearParameters();
+					binder.bind(stmt, object);
+					stmt.addBatch();
+
+					batched++;
+					uncommitted++;
+
+					if (batched == FLUSH_SIZE) {
+						flush(stmt, ids);
+						batched = 0;
+					}
+
+					if (interval > 0 && uncommitted >= interval) {
+
+						if (batched > 0) {
+							flush(stmt, ids);
+							batched = 0;
+						}
+
+						con.commit();
+						uncommitted = 0;
+					}
+				}
+
+				if (batched > 0)
+					flush(stmt, ids);
+
+				con.commit();
+
+			} catch (SQLException e) {
+				con.rollback();
+				throw e;
+			} finally {
+				con.setAutoCommit(autoCommit);
+			}
+
+			stmt.close();
+			con.close();
+		}
+
+		return ids;
+	}
+
+	/**
+	 * Execute the batch and get the generated ids
+	 *
+	 * @param stmt
+	 * @param ids
+	 * @throws SQLException
+	 */
+	private void flush(PreparedStatement stmt, List<Integer> ids) throws SQLException {
+
+		stmt.executeBatch();
+
+		if (!generatedKeys)
+			return;
+
+		try (ResultSet rs = stmt.getGeneratedKeys();) {
+
+			if (rs != null) {
+				while (rs.next())
+					ids.add(rs.getInt(1));
+
+				rs.close();
+			}
+		}
+	}
+
+	/**
+	 * Remove the foreign keys (and their indexes) of the term attribute and
+	 * parent term tables. Use it only before importing a whole catalogue, and
+	 * call {@link #restoreForeignKeys(Catalogue)} at the end of the import.
+	 *
+	 * @param catalogue
+	 * @throws SQLException
+	 */
+	public static void dropForeignKeys(Catalogue catalogue) throws SQLException {
+
+		String query = "select c.CONSTRAINTNAME from SYS.SYSCONSTRAINTS c "
+				+ "join SYS.SYSTABLES t on c.TABLEID = t.TABLEID "
+				+ "join SYS.SYSSCHEMAS s on t.SCHEMAID = s.SCHEMAID "
+				+ "where s.SCHEMANAME = 'APP' and t.TABLENAME = ? and c.TYPE = 'F'";
+
+		try (Connection con = catalogue.getConnection();
+				PreparedStatement stmt = con.prepareStatement(query);
+				Statement drop = con.createStatement();) {
+
+			for (String table : new String[] { "TERM_ATTRIBUTE", "PARENT_TERM" }) {
+
+				List<String> names = new ArrayList<>();
+
+				stmt.clearParameters();
+				stmt.setString(1, table);
+
+				try (ResultSet rs = stmt.executeQuery();) {
+					while (rs.next())
+						names.add(rs.getString(1));
+
+					rs.close();
+				}
+
+				for (String name : names)
+					drop.execute("alter table APP." + table + " drop foreign key \"" + name + "\"");
+
+				LOGGER.info("Dropped " + names.size() + " foreign keys of APP." + table + " for " + catalogue);
+			}
+
+			stmt.close();
+			drop.close();
+			con.close();
+		}
+	}
+
+	/**
+	 * Add again the foreign keys removed with {@link #dropForeignKeys(Catalogue)}.
+	 * Their indexes are built with the data already in the tables.
+	 *
+	 * @param catalogue
+	 * @throws SQLException if the data do not respect the foreign keys
+	 */
+	public static void restoreForeignKeys(Catalogue catalogue) throws SQLException {
+
+		long start = System.currentTimeMillis();
+
+		try (Connection con = catalogue.getConnection(); Statement stmt = con.createStatement();) {
+
+			for (String[] key : FOREIGN_KEYS) {
+				stmt.execute("alter table APP." + key[0] + " add foreign key ( " + key[1] + " ) references APP."
+						+ key[2]);
+			}
+
+			stmt.close();
+			con.close();
+		}
+
+		LOGGER.info("Foreign keys restored for " + catalogue + " in " + (System.currentTimeMillis() - start) + " ms");
+	}
+}
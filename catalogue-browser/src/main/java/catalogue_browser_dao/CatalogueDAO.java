@@ -15,6 +15,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import catalogue.Catalogue;
+import catalogue.CatalogueSnapshot;
 import catalogue.CatalogueBuilder;
 import dcf_manager.Dcf.DcfType;
 import dcf_user.User;
@@ -297,6 +298,8 @@ public class CatalogueDAO implements ICatalogueDAO {
 	 */
 	public void deleteContents(Catalogue catalogue) throws SQLException {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		try (Connection con = catalogue.getConnection(); Statement stmt = con.createStatement();) {
 
 			stmt.execute("DELETE FROM APP.PICKLIST_TERM");
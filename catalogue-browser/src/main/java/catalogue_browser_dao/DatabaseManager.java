@@ -9,7 +9,6 @@ import java.io.OutputStream;
 import java.nio.channels.FileChannel;
 import java.sql.CallableStatement;
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -19,7 +18,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import catalogue.Catalogue;
+import catalogue.CatalogueSnapshot;
 import global_manager.GlobalManager;
+import sql.ConnectionPool;
 import sql.SQLExecutor;
 import user_preferences.GlobalPreferenceDAO;
 import utilities.GlobalUtil;
@@ -74,6 +75,9 @@ public class DatabaseManager {
 	 */
 	public static final String LOCAL_CAT_DB_FOLDER = OFFICIAL_CAT_DB_FOLDER + "LOCAL_CATS";
 
+	// pool of connections with the main database
+	private static ConnectionPool mainDBPool;
+
 	/**
 	 * Get a derby connection url to open the main db connection
 	 * 
@@ -112,7 +116,21 @@ public class DatabaseManager {
 	 * @throws SQLException
 	 */
 	public static Connection getMainDBConnection() throws SQLException {
-		return DriverManager.getConnection(getMainDBURL());
+		return getMainDBPool().getConnection();
+	}
+
+	/**
+	 * Get the pool of connections with the main db, it is created if not present
+	 * and closed by {@link #stopMainDB()}
+	 * 
+	 * @return
+	 */
+	public static synchronized ConnectionPool getMainDBPool() {
+
+		if (mainDBPool == null || mainDBPool.isClosed())
+			mainDBPool = new ConnectionPool(getMainDBURL());
+
+		return mainDBPool;
 	}
 
 	/**
@@ -195,17 +213,30 @@ public class DatabaseManager {
 	 * @throws IOException
 	 */
 	public static void addNotExistingTables() throws SQLException, IOException {
+		addNotExistingTable("USERS", "Users");
+		addNotExistingTable("USER_EDITABLE_CAT", "UserEditableCat");
+	}
 
-		DatabaseMetaData dbm = getMainDBConnection().getMetaData();
+	/**
+	 * Create a table of the main database using its sql script if the table is
+	 * not present
+	 * 
+	 * @param table  name of the table
+	 * @param script resource containing the sql script which creates the table
+	 * @throws SQLException
+	 * @throws IOException
+	 */
+	private static void addNotExistingTable(String table, String script) throws SQLException, IOException {
 
-		try (ResultSet rs = dbm.getTables(null, null, "USERS", null);) {
+		try (Connection metaCon = getMainDBConnection();
+				ResultSet rs = metaCon.getMetaData().getTables(null, null, table, null);) {
 
 			if (!rs.next()) {
 
 				// set a "create" connection
 				try (Connection con = DriverManager.getConnection(getMainDBURL());
 						SQLExecutor executor = new SQLExecutor(con);) {
-					executor.exec(ClassLoader.getSystemResourceAsStream("Users"));
+					executor.exec(ClassLoader.getSystemResourceAsStream(script));
 				}
 			}
 
@@ -256,6 +287,15 @@ public class DatabaseManager {
 	 * Close the main db derby connection
 	 */
 	public static void stopMainDB() {
+
+		// close the pooled connections before shutting down the db
+		synchronized (DatabaseManager.class) {
+			if (mainDBPool != null) {
+				mainDBPool.close();
+				mainDBPool = null;
+			}
+		}
+
 		try {
 			LOGGER.info("Stopping database...");
 			DriverManager.getConnection(stopMainDBURL());
@@ -368,6 +408,9 @@ public class DatabaseManager {
 		// close all the catalogue connections
 		catalogue.closeConnection();
 
+		// the snapshot could be still mapped, clear it if it cannot be deleted
+		CatalogueSnapshot.invalidate(catalogue);
+
 		// delete the DB with all the subfiles
 		GlobalUtil.deleteFileCascade(new File(catalogue.getDbPath()));
 
@@ -4,7 +4,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -13,6 +12,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import catalogue.Catalogue;
+import catalogue.CatalogueSnapshot;
 import catalogue_object.Hierarchy;
 import catalogue_object.HierarchyBuilder;
 
@@ -70,6 +70,8 @@ public class HierarchyDAO implements CatalogueEntityDAO<Hierarchy> {
 	 */
 	public synchronized List<Integer> insert(Iterable<Hierarchy> hierarchies) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		ArrayList<Integer> ids = new ArrayList<>();
 
 		// get all the hierarchies
@@ -79,12 +81,9 @@ public class HierarchyDAO implements CatalogueEntityDAO<Hierarchy> {
 				+ "HIERARCHY_DEPRECATED, HIERARCHY_GROUPS, HIERARCHY_VERSION )"
 				+ "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-		try (Connection con = catalogue.getConnection();
-				PreparedStatement stmt = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);) {
-
-			stmt.clearParameters();
-
-			for (Hierarchy hierarchy : hierarchies) {
+		BulkInsert<Hierarchy> bulk = new BulkInsert<>(catalogue, query, new BulkInsert.Binder<Hierarchy>() {
+			@Override
+			public void bind(PreparedStatement stmt, Hierarchy hierarchy) throws SQLException {
 
 				stmt.setString(1, hierarchy.getCode());
 				stmt.setString(2, hierarchy.getName());
@@ -115,26 +114,14 @@ public class HierarchyDAO implements CatalogueEntityDAO<Hierarchy> {
 				stmt.setString(13, hierarchy.getGroups());
 
 				stmt.setString(14, hierarchy.getVersion());
-
-				stmt.addBatch();
 			}
+		}, true);
 
-			stmt.executeBatch();
-
-			// update the terms ids with the ones given by the database
-			try (ResultSet rs = stmt.getGeneratedKeys();) {
+		try {
 
-				if (rs != null) {
-					while (rs.next())
-						ids.add(rs.getInt(1));
-					
-					rs.close();
-				}
-			}
+			// insert the records and get the ids given by the database
+			ids.addAll(bulk.insert(hierarchies));
 
-			stmt.close();
-			con.close();
-			
 		} catch (SQLException e) {
 			LOGGER.error("DB error", e);
 			e.printStackTrace();
@@ -151,6 +138,8 @@ public class HierarchyDAO implements CatalogueEntityDAO<Hierarchy> {
 	 */
 	public boolean remove(Hierarchy hierarchy) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		ParentTermDAO parentDao = new ParentTermDAO(catalogue);
 
 		// first remove the applicabilities (dependency on the hierarchy we want to
@@ -188,6 +177,8 @@ public class HierarchyDAO implements CatalogueEntityDAO<Hierarchy> {
 	 */
 	public boolean update(Hierarchy hierarchy) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		// get all the hierarchies
 		String query = "update APP.HIERARCHY set HIERARCHY_CODE = ?, HIERARCHY_NAME = ?, HIERARCHY_LABEL = ?,"
 				+ "HIERARCHY_SCOPENOTE = ?, HIERARCHY_APPLICABILITY = ?, HIERARCHY_ORDER = ?, HIERARCHY_STATUS = ?,"
@@ -4,7 +4,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -13,6 +12,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import catalogue.Catalogue;
+import catalogue.CatalogueSnapshot;
 import catalogue_object.Applicability;
 import catalogue_object.BaseObject;
 import catalogue_object.Hierarchy;
@@ -67,20 +67,16 @@ public class ParentTermDAO implements CatalogueRelationDAO<Applicability, Term,
 
 	public synchronized List<Integer> insert(Iterable<Applicability> appls) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		ArrayList<Integer> ids = new ArrayList<>();
 
 		String query = "insert into APP.PARENT_TERM (TERM_ID, HIERARCHY_ID, "
 				+ "PARENT_TERM_ID, TERM_ORDER, TERM_REPORTABLE, TERM_FLAG)" + "values (?, ?, ?, ?, ?, ?)";
 
-		try (Connection con = catalogue.getConnection();
-				PreparedStatement stmt = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);) {
-
-			// get the connection
-			// con.setAutoCommit(false);
-
-			for (Applicability appl : appls) {
-
-				stmt.clearParameters();
+		BulkInsert<Applicability> bulk = new BulkInsert<>(catalogue, query, new BulkInsert.Binder<Applicability>() {
+			@Override
+			public void bind(PreparedStatement stmt, Applicability appl) throws SQLException {
 
 				// Create a new record with the term and its parent in the selected hierarchy
 				stmt.setInt(1, appl.getChild().getId());
@@ -97,25 +93,13 @@ public class ParentTermDAO implements CatalogueRelationDAO<Applicability, Term,
 
 				// flag is true since the applicability exists
 				stmt.setBoolean(6, true);
-
-				stmt.addBatch();
 			}
+		}, true);
 
-			stmt.executeBatch();
-
-			try (ResultSet rs = stmt.getGeneratedKeys();) {
-				if (rs != null) {
-					while (rs.next())
-						ids.add(rs.getInt(1));
+		try {
 
-					rs.close();
-				}
-			}
-
-			stmt.close();
-
-			con.commit();
-			con.close();
+			// insert the records and get the ids given by the database
+			ids.addAll(bulk.insert(appls));
 
 		} catch (SQLException e) {
 			LOGGER.error("DB error", e);
@@ -143,6 +127,8 @@ public class ParentTermDAO implements CatalogueRelationDAO<Applicability, Term,
 	 */
 	public boolean remove(Hierarchy hierarchy, Nameable parent, Term child) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		String query = null;
 
 		// remove the relationships between the parent term in the hierarchy
@@ -197,6 +183,8 @@ public class ParentTermDAO implements CatalogueRelationDAO<Applicability, Term,
 	 */
 	public boolean update(Hierarchy hierarchy, Nameable parentTerm, Term term, int order, boolean reportable) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		String query = "update APP.PARENT_TERM P set TERM_REPORTABLE = ?, "
 				+ "PARENT_TERM_ID = ?, TERM_ORDER = ? where HIERARCHY_ID = ? and TERM_ID = ?";
 
@@ -321,6 +309,8 @@ public class ParentTermDAO implements CatalogueRelationDAO<Applicability, Term,
 	 */
 	public boolean removeByA2(Hierarchy hierarchy) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		// remove the relationships between the terms and the hierarchy
 		String query = "delete from APP.PARENT_TERM where HIERARCHY_ID = ?";
 
@@ -517,6 +507,8 @@ public class ParentTermDAO implements CatalogueRelationDAO<Applicability, Term,
 	 */
 	public void shiftTerms(ArrayList<Term> sources, Hierarchy hierarchy, int offset) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		String query = "update APP.PARENT_TERM P set P.TERM_ORDER = P.TERM_ORDER + ? "
 				+ "where P.TERM_ID = ? and P.HIERARCHY_ID = ?";
 
@@ -542,6 +534,10 @@ public class ParentTermDAO implements CatalogueRelationDAO<Applicability, Term,
 			stmt.close();
 			con.close();
 
+			// align the terms in memory
+			for (Term source : sources)
+				setOrderInRAM(source, hierarchy, source.getOrder(hierarchy) + offset);
+
 		} catch (SQLException e) {
 			LOGGER.error("DB error", e);
 			e.printStackTrace();
@@ -557,6 +553,8 @@ public class ParentTermDAO implements CatalogueRelationDAO<Applicability, Term,
 	 */
 	public void updateTermOrder(Term term, Hierarchy hierarchy, int order) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		String query = "UPDATE APP.PARENT_TERM set TERM_ORDER = ? where TERM_ID = ? and HIERARCHY_ID = ? ";
 
 		try (Connection con = catalogue.getConnection(); PreparedStatement stmt = con.prepareStatement(query);) {
@@ -574,6 +572,8 @@ public class ParentTermDAO implements CatalogueRelationDAO<Applicability, Term,
 			stmt.close();
 			con.close();
 
+			setOrderInRAM(term, hierarchy, order);
+
 		} catch (SQLException e) {
 			LOGGER.error("DB error", e);
 			e.printStackTrace();
@@ -589,6 +589,8 @@ public class ParentTermDAO implements CatalogueRelationDAO<Applicability, Term,
 	 */
 	public void addOrderOffset(Term parent, Hierarchy hierarchy, String operator, int childOrder, int offset) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		String query = "UPDATE APP.PARENT_TERM " + "set TERM_ORDER = TERM_ORDER + ? "
 				+ "where PARENT_TERM_ID = ? and HIERARCHY_ID = ? ";
 
@@ -615,12 +617,48 @@ public class ParentTermDAO implements CatalogueRelationDAO<Applicability, Term,
 			stmt.close();
 			con.close();
 
+			// align the children in memory (a null parent
+			// does not match any record in the query)
+			if (parent != null) {
+
+				for (Term child : catalogue.getChildIndex().getChildren(parent, hierarchy)) {
+
+					int order = child.getOrder(hierarchy);
+
+					boolean match = operator.contains("=") && order == childOrder
+							|| operator.contains("<") && order < childOrder
+							|| operator.contains(">") && order > childOrder;
+
+					if (match)
+						setOrderInRAM(child, hierarchy, order + offset);
+				}
+			}
+
 		} catch (SQLException e) {
 			LOGGER.error("DB error", e);
 			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * Change the order of the term in memory, keeping the catalogue child index
+	 * aligned
+	 * 
+	 * @param term
+	 * @param hierarchy
+	 * @param order
+	 */
+	private void setOrderInRAM(Term term, Hierarchy hierarchy, int order) {
+
+		Applicability appl = term.getApplicability(hierarchy);
+
+		if (appl == null)
+			return;
+
+		appl.setOrder(order);
+		catalogue.getChildIndex().update(term);
+	}
+
 	/**
 	 * Swap the order integer of two terms in the selected hierarchy
 	 * 
@@ -630,6 +668,8 @@ public class ParentTermDAO implements CatalogueRelationDAO<Applicability, Term,
 	 */
 	public void swapTermOrder(Term source, Term target, Hierarchy hierarchy) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		String query = "update APP.PARENT_TERM P set P.TERM_ORDER = ? " + "where P.TERM_ID = ? and P.HIERARCHY_ID = ?";
 
 		try (Connection con = catalogue.getConnection(); PreparedStatement stmt = con.prepareStatement(query);) {
@@ -4,7 +4,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -69,35 +68,22 @@ public class ReleaseNotesOperationDAO implements CatalogueEntityDAO<ReleaseNotes
 		String query = "insert into APP.RELEASE_NOTES_OP "
 				+ "(OP_NAME, OP_DATE, OP_INFO, OP_GROUP_ID) values (?,?,?,?)";
 
-		try (Connection con = catalogue.getConnection();
-				PreparedStatement stmt = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);) {
-
-			for (ReleaseNotesOperation op : ops) {
-
-				stmt.clearParameters();
+		BulkInsert<ReleaseNotesOperation> bulk = new BulkInsert<>(catalogue, query, new BulkInsert.Binder<ReleaseNotesOperation>() {
+			@Override
+			public void bind(PreparedStatement stmt, ReleaseNotesOperation op) throws SQLException {
 
 				stmt.setString(1, op.getOpName());
 				stmt.setTimestamp(2, op.getOpDate());
 				stmt.setString(3, op.getOpInfo());
 				stmt.setInt(4, op.getGroupId());
-
-				stmt.addBatch();
 			}
+		}, true);
 
-			stmt.executeBatch();
+		try {
 
-			try (ResultSet rs = stmt.getGeneratedKeys();) {
-				if (rs != null) {
-					while (rs.next())
-						ids.add(rs.getInt(1));
-					
-					rs.close();
-				}
-			}
+			// insert the records and get the ids given by the database
+			ids.addAll(bulk.insert(ops));
 
-			stmt.close();
-			con.close();
-			
 		} catch (SQLException e) {
 			LOGGER.error("DB error", e);
 			e.printStackTrace();
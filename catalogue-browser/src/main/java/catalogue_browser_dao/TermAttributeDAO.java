@@ -4,7 +4,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -13,7 +12,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import catalogue.Catalogue;
+import catalogue.CatalogueSnapshot;
 import catalogue_object.Attribute;
+import catalogue_object.CompactTermModel;
 import catalogue_object.Term;
 import catalogue_object.TermAttribute;
 
@@ -62,18 +63,16 @@ public class TermAttributeDAO implements CatalogueRelationDAO<TermAttribute, Ter
 
 	public synchronized List<Integer> insert(Iterable<TermAttribute> tas) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		ArrayList<Integer> ids = new ArrayList<>();
 
 		// create the base query for each record
 		String query = "INSERT INTO APP.TERM_ATTRIBUTE (TERM_ID, ATTR_ID, " + "ATTR_VALUE ) VALUES (" + "?, ?, ? )";
 
-		try (Connection con = catalogue.getConnection();
-				PreparedStatement stmt = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);) {
-
-			con.setAutoCommit(false);
-
-			// get the records one by one and insert them into the database
-			for (TermAttribute ta : tas) {
+		BulkInsert<TermAttribute> bulk = new BulkInsert<>(catalogue, query, new BulkInsert.Binder<TermAttribute>() {
+			@Override
+			public void bind(PreparedStatement stmt, TermAttribute ta) throws SQLException {
 
 				// set the term id
 				stmt.setInt(1, ta.getTerm().getId());
@@ -83,29 +82,13 @@ public class TermAttributeDAO implements CatalogueRelationDAO<TermAttribute, Ter
 
 				// set the value parameter
 				stmt.setString(3, ta.getValue());
-
-				// add the record to the batch
-				stmt.addBatch();
 			}
+		}, true);
 
-			// execute the batch of insertions
-			stmt.executeBatch();
-
-			// get all the ids
-			try (ResultSet rs = stmt.getGeneratedKeys();) {
+		try {
 
-				if (rs != null) {
-					while (rs.next())
-						ids.add(rs.getInt(1));
-
-					rs.close();
-				}
-			}
-
-			stmt.close();
-
-			con.commit();
-			con.close();
+			// insert the records and get all the ids
+			ids.addAll(bulk.insert(tas));
 
 		} catch (SQLException e) {
 			LOGGER.error("DB error", e);
@@ -129,6 +112,8 @@ public class TermAttributeDAO implements CatalogueRelationDAO<TermAttribute, Ter
 	 */
 	public boolean update(TermAttribute ta) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		// get all the hierarchies
 		String query = "update APP.TERM_ATTRIBUTE set ATTR_VALUE = ? where ATTR_ID = ? and TERM_ID = ?";
 
@@ -145,6 +130,9 @@ public class TermAttributeDAO implements CatalogueRelationDAO<TermAttribute, Ter
 			stmt.close();
 			con.close();
 
+			// the values could be changed
+			catalogue.getSearchIndex().clear();
+
 			return true;
 
 		} catch (SQLException e) {
@@ -273,6 +261,8 @@ public class TermAttributeDAO implements CatalogueRelationDAO<TermAttribute, Ter
 	 */
 	public boolean removeByA1(Term term) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		// create insert query
 		String query = "delete from APP.TERM_ATTRIBUTE where TERM_ID = ?";
 
@@ -307,6 +297,8 @@ public class TermAttributeDAO implements CatalogueRelationDAO<TermAttribute, Ter
 	 */
 	public boolean removeByA2(Attribute attribute) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		// create insert query
 		String query = "delete from APP.TERM_ATTRIBUTE where ATTR_ID = ?";
 
@@ -339,6 +331,8 @@ public class TermAttributeDAO implements CatalogueRelationDAO<TermAttribute, Ter
 	 */
 	public boolean updateByA1(Term term) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		// get the compacted term attributes
 		ArrayList<TermAttribute> attrs = term.getAttributes();
 
@@ -372,6 +366,9 @@ public class TermAttributeDAO implements CatalogueRelationDAO<TermAttribute, Ter
 			// close the connection
 			con.close();
 
+			// the values could be changed
+			catalogue.getSearchIndex().clear();
+
 			return true;
 		} catch (SQLException e) {
 			LOGGER.error("DB error", e);
@@ -405,15 +402,22 @@ public class TermAttributeDAO implements CatalogueRelationDAO<TermAttribute, Ter
 		// get the attribute
 		Attribute attribute = attrDao.getByResultSet(rs);
 
+		// get the value of the attribute
+		String value = rs.getString("ATTR_VALUE");
+
+		// in compact mode use the catalogue attribute and the shared value
+		CompactTermModel compactModel = catalogue.getCompactModel();
+		if (compactModel != null) {
+			attribute = compactModel.share(catalogue, attribute);
+			value = compactModel.share(value);
+		}
+
 		// get the term from the hash map
 		Term term = catalogue.getTermById(rs.getInt("TERM_ID"));
 
 		// get the term attribute id
 		int id = rs.getInt("TERM_ATTR_ID");
 
-		// get the value of the attribute
-		String value = rs.getString("ATTR_VALUE");
-
 		// create the term attribute object
 		TermAttribute ta = new TermAttribute(id, term, attribute, value);
 
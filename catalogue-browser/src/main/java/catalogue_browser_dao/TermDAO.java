@@ -4,7 +4,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
@@ -17,6 +16,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import catalogue.Catalogue;
+import catalogue.CatalogueSnapshot;
 import catalogue_object.Term;
 
 /**
@@ -69,20 +69,17 @@ public class TermDAO implements CatalogueEntityDAO<Term> {
 	 */
 	public synchronized List<Integer> insert(Iterable<Term> terms) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		ArrayList<Integer> ids = new ArrayList<>();
 
 		String query = "insert into APP.TERM (TERM_CODE, TERM_EXTENDED_NAME, "
 				+ "TERM_SHORT_NAME, TERM_SCOPENOTE, TERM_DEPRECATED, TERM_LAST_UPDATE, "
 				+ "TERM_VALID_FROM, TERM_VALID_TO, TERM_STATUS, TERM_VERSION ) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ? )";
 
-		try (Connection con = catalogue.getConnection();
-				PreparedStatement stmt = con.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);) {
-
-			con.setAutoCommit(false);
-
-			for (Term t : terms) {
-
-				stmt.clearParameters();
+		BulkInsert<Term> bulk = new BulkInsert<>(catalogue, query, new BulkInsert.Binder<Term>() {
+			@Override
+			public void bind(PreparedStatement stmt, Term t) throws SQLException {
 
 				stmt.setString(1, t.getCode());
 				stmt.setString(2, t.getName());
@@ -107,26 +104,13 @@ public class TermDAO implements CatalogueEntityDAO<Term> {
 
 				stmt.setString(9, t.getStatus());
 				stmt.setString(10, t.getVersion());
-
-				stmt.addBatch();
 			}
+		}, true);
 
-			stmt.executeBatch();
+		try {
 
-			// if empty
 			// update the terms ids with the ones given by the database
-			try (ResultSet rs = stmt.getGeneratedKeys();) {
-
-				while (rs.next())
-					ids.add(rs.getInt(1));
-
-				rs.close();
-			}
-
-			stmt.close();
-
-			con.commit();
-			con.close();
+			ids.addAll(bulk.insert(terms));
 
 		} catch (SQLException e) {
 			LOGGER.error("DB error", e);
@@ -144,6 +128,8 @@ public class TermDAO implements CatalogueEntityDAO<Term> {
 	 */
 	public boolean update(Term t) {
 
+		CatalogueSnapshot.invalidate(catalogue);
+
 		String query = "update APP.TERM set TERM_CODE = ?, TERM_EXTENDED_NAME = ?, "
 				+ "TERM_SHORT_NAME = ?, TERM_SCOPENOTE = ?, TERM_DEPRECATED = ?, TERM_LAST_UPDATE = ?,"
 				+ "TERM_VALID_FROM = ?, TERM_VALID_TO = ?, TERM_STATUS = ?, TERM_VERSION = ? where TERM_ID = ?";
@@ -189,6 +175,9 @@ public class TermDAO implements CatalogueEntityDAO<Term> {
 			// close the connection
 			con.close();
 
+			// names and codes could be changed
+			catalogue.getSearchIndex().clear();
+
 			return true;
 
 		} catch (SQLException e) {
@@ -255,41 +244,14 @@ public class TermDAO implements CatalogueEntityDAO<Term> {
 	}
 
 	/**
-	 * Retrieve a term from the database using its code
+	 * Retrieve a term using its code (case insensitive). The term is searched in
+	 * the terms loaded in the catalogue, without querying the database.
 	 * 
 	 * @param code
 	 * @return
 	 */
 	public Term getByCode(String code) {
-
-		String query = "select TERM_ID " + " from  APP.TERM " + " where upper( TERM_CODE ) = ? ";
-
-		Term term = null;
-		try (Connection con = catalogue.getConnection(); PreparedStatement stmt = con.prepareStatement(query);) {
-
-			stmt.clearParameters();
-
-			/* I want to retrieve the first level under the root */
-			stmt.setString(1, code.toUpperCase());
-
-			try (ResultSet rs = stmt.executeQuery();) {
-
-				if (rs.next())
-					term = catalogue.getTermById(rs.getInt("TERM_ID"));
-
-				rs.close();
-			}
-
-			stmt.close();
-			con.close();
-
-		} catch (SQLException e) {
-			LOGGER.error("DB error", e);
-			e.printStackTrace();
-			return null;
-		}
-
-		return term;
+		return catalogue.getTermByCodeIgnoreCase(code);
 	}
 
 	/**
@@ -0,0 +1,136 @@
+package catalogue_object;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import catalogue.Catalogue;
+import config.AppConfig;
+
+/**
+ * Optional compact storage of the terms of a catalogue, enabled with the
+ * Catalogue.CompactTerms property of the application configuration. When it
+ * is enabled, while the catalogue is loaded:
+ *
+ * - the term attributes refer to the attributes of the catalogue instead of
+ * a copy of the attribute for each term attribute;
+ *
+ * - the attribute values, the status and the scopenotes of the terms are
+ * deduplicated (one string for each distinct value, e.g. the implicit facets
+ * codes) and the short names equal to the names share the same string;
+ *
+ * - the facet descriptors of the implicit facets of a term are created only
+ * when they are required (see {@link Term#getImplicitFacets()});
+ *
+ * - the lists of the term attributes and applicabilities of each term are
+ * trimmed to their size.
+ *
+ * The model is discarded once the catalogue is loaded, the terms are not
+ * different from the ones of the standard model. Use {@link TermModelBenchmark}
+ * to compare the heap used by the two models.
+ *
+ * @author shahaal
+ *
+ */
+public class CompactTermModel {
+
+	private static final Logger LOGGER = LogManager.getLogger(CompactTermModel.class);
+
+	private static volatile Boolean enabled;
+
+	// distinct values found while loading the catalogue
+	private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+
+	/**
+	 * Check if the terms should be loaded in compact mode
+	 *
+	 * @return
+	 */
+	public static boolean isEnabled() {
+
+		Boolean compact = enabled;
+
+		// read the configuration the first time
+		if (compact == null) {
+			compact = AppConfig.isCompactTermsEnabled();
+			enabled = compact;
+		}
+
+		return compact;
+	}
+
+	/**
+	 * Enable or disable the compact mode for the next loaded catalogues
+	 *
+	 * @param compact
+	 */
+	public static void setEnabled(boolean compact) {
+		enabled = compact;
+	}
+
+	/**
+	 * Get the shared instance of the value
+	 *
+	 * @param value
+	 * @return an equal string, the same for all the equal values
+	 */
+	public String share(String value) {
+
+		if (value == null)
+			return null;
+
+		String shared = values.putIfAbsent(value, value);
+
+		return shared != null ? shared : value;
+	}
+
+	/**
+	 * Get the attribute of the catalogue with the same id
+	 *
+	 * @param catalogue
+	 * @param attribute
+	 * @return the attribute of the catalogue or the attribute itself if it is not
+	 *         found
+	 */
+	public Attribute share(Catalogue catalogue, Attribute attribute) {
+
+		Attribute shared = catalogue.getAttributeById(attribute.getId());
+
+		return shared != null ? shared : attribute;
+	}
+
+	/**
+	 * Compact the loaded terms
+	 *
+	 * @param catalogue
+	 * @param terms
+	 */
+	public void compact(Catalogue catalogue, Collection<Term> terms) {
+
+		long start = System.currentTimeMillis();
+
+		for (Term term : terms) {
+
+			// short name equal to the name
+			if (term.getLabel() != null && term.getLabel().equals(term.getName()))
+				term.setLabel(term.getName());
+
+			term.setScopenotes(share(term.getScopenotes()));
+
+			if (term.getStatus() != null)
+				term.setStatus(share(term.getStatus()));
+
+			for (TermAttribute ta : term.getAttributes()) {
+				ta.setAttribute(share(catalogue, ta.getAttribute()));
+				ta.setValue(share(ta.getValue()));
+			}
+
+			term.trimToSize();
+		}
+
+		LOGGER.info("Compacted " + terms.size() + " terms of " + catalogue + " with " + values.size()
+				+ " distinct values in " + (System.currentTimeMillis() - start) + " ms");
+	}
+}
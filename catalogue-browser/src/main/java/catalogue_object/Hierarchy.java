@@ -4,7 +4,6 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 
 import catalogue.Catalogue;
-import catalogue_browser_dao.ParentTermDAO;
 import data_transformation.BooleanConverter;
 import data_transformation.DateTrimmer;
 import global_manager.GlobalManager;
@@ -240,10 +239,16 @@ public class Hierarchy extends SortableCatalogueObject implements Mappable {
 	 * @return
 	 */
 	public ArrayList<Term> getFirstLevelNodes( boolean hideDeprecated, boolean hideNotReportable ) {
-		
-		ParentTermDAO parentDao = new ParentTermDAO( catalogue );
-		
-		return parentDao.getFirstLevelNodes( this, hideDeprecated, hideNotReportable );
+		return Term.filterChildren( catalogue.getChildIndex().getChildren( this, this ), 
+				this, hideDeprecated, hideNotReportable );
+	}
+	
+	/**
+	 * Check if the hierarchy has at least one first level term
+	 * @return
+	 */
+	public boolean hasFirstLevelNodes( boolean hideDeprecated, boolean hideNotReportable ) {
+		return catalogue.getChildIndex().hasChildren( this, this, hideDeprecated, hideNotReportable );
 	}
 	
 	/**
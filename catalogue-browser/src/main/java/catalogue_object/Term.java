@@ -6,6 +6,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -22,6 +23,8 @@ import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.widgets.Display;
 
 import catalogue.Catalogue;
+import catalogue.HierarchyChildIndex;
+import catalogue.InheritedFacetsCache;
 import catalogue_browser_dao.ParentTermDAO;
 import catalogue_browser_dao.TermDAO;
 import data_transformation.BooleanConverter;
@@ -55,7 +58,8 @@ public class Term extends CatalogueObject implements Mappable {
 	// state flag, which is the term type?
 	private TermAttribute termType;
 
-	// the implicit facets of the term
+	// the implicit facets of the term (created when required in compact mode,
+	// see implicitFacets())
 	private ArrayList<FacetDescriptor> implicitFacets;
 
 	// list of attributes and their values related to the term
@@ -70,7 +74,7 @@ public class Term extends CatalogueObject implements Mappable {
 	public Term(Catalogue catalogue) {
 
 		super(catalogue);
-		implicitFacets = new ArrayList<>();
+		implicitFacets = CompactTermModel.isEnabled() ? null : new ArrayList<FacetDescriptor>();
 		termAttributes = new ArrayList<>();
 		applicabilities = new ArrayList<>();
 	}
@@ -96,13 +100,16 @@ public class Term extends CatalogueObject implements Mappable {
 		super(catalogue, id, code, name, label, scopenotes, version, lastUpdate, validFrom, validTo, status,
 				deprecated);
 
-		implicitFacets = new ArrayList<>();
+		implicitFacets = CompactTermModel.isEnabled() ? null : new ArrayList<FacetDescriptor>();
 		termAttributes = new ArrayList<>();
 		applicabilities = new ArrayList<>();
 	}
 
 	public void clear() {
-		implicitFacets.clear();
+
+		if (implicitFacets != null)
+			implicitFacets.clear();
+
 		termAttributes.clear();
 		applicabilities.clear();
 	}
@@ -192,7 +199,7 @@ public class Term extends CatalogueObject implements Mappable {
 			}
 
 		} else {
-			descriptors.addAll(implicitFacets);
+			descriptors.addAll(implicitFacets());
 		}
 
 		Collections.sort(descriptors, sorter);
@@ -207,12 +214,12 @@ public class Term extends CatalogueObject implements Mappable {
 	 * @param facetCategory
 	 * @return
 	 */
-	private ArrayList<DescriptorTreeItem> getImplicitFacetsTree(Attribute facetCategory) {
+	private ArrayList<DescriptorTreeItem> getImplicitFacetsTree(Attribute facetCategory, Set<Term> used) {
 
 		ArrayList<DescriptorTreeItem> inTree = new ArrayList<>();
 
 		// start the recursive method
-		return getImplicitFacetsTree(facetCategory, inTree, false);
+		return getImplicitFacetsTree(facetCategory, inTree, false, used);
 	}
 
 	/**
@@ -221,10 +228,14 @@ public class Term extends CatalogueObject implements Mappable {
 	 * 
 	 * @param facet, the facet category we considered in this step
 	 * @param term,  the term we selected to see its implicit facets
+	 * @param used   the terms used to build the tree (the processed terms, the
+	 *               descriptors terms and their ancestors)
 	 * @return
 	 */
 	private ArrayList<DescriptorTreeItem> getImplicitFacetsTree(Attribute facetCategory,
-			ArrayList<DescriptorTreeItem> inTree, boolean processingParents) {
+			ArrayList<DescriptorTreeItem> inTree, boolean processingParents, Set<Term> used) {
+
+		used.add(this);
 
 		// For each facet descriptor
 		for (FacetDescriptor descriptor : this.getDescriptorsByCategory(facetCategory, true)) {
@@ -232,6 +243,9 @@ public class Term extends CatalogueObject implements Mappable {
 			// get the term related to the descriptor code
 			Term descriptorTerm = catalogue.getTermByCode(descriptor.getFacetCode());
 
+			// the relationships of the tree depend on the ancestors of the descriptor
+			addMasterAncestors(descriptorTerm, used);
+
 			// we instantiate a node of the tree with the descriptor term
 			// if we are processing parents then we set the tree item as inherited = true
 			DescriptorTreeItem parent = new DescriptorTreeItem(descriptorTerm, descriptor, processingParents);
@@ -269,7 +283,7 @@ public class Term extends CatalogueObject implements Mappable {
 
 		// if a parent is found => go on with the recursion
 		if (parentTerm != null)
-			inTree = parentTerm.getImplicitFacetsTree(facetCategory, inTree, true);
+			inTree = parentTerm.getImplicitFacetsTree(facetCategory, inTree, true, used);
 
 		return inTree;
 	}
@@ -325,7 +339,77 @@ public class Term extends CatalogueObject implements Mappable {
 	 *         facets using their children)
 	 */
 	public ArrayList<DescriptorTreeItem> getInheritedImplicitFacets(Attribute facetCategory) {
-		return this.getImplicitFacetsLeaves(getImplicitFacetsTree(facetCategory));
+
+		// temporary terms (e.g. the copies of the base terms used to describe
+		// them) are not cached, they would be kept until the catalogue is closed
+		if (!catalogue.containsTerm(this)) {
+			Set<Term> used = Collections.newSetFromMap(new IdentityHashMap<Term, Boolean>());
+			return this.getImplicitFacetsLeaves(getImplicitFacetsTree(facetCategory, used));
+		}
+
+		InheritedFacetsCache cache = catalogue.getInheritedFacetsCache();
+
+		ArrayList<DescriptorTreeItem> leaves = cache.get(this, facetCategory);
+
+		// compute the facets the first time they are required
+		if (leaves == null) {
+
+			long generation = cache.getGeneration();
+
+			Set<Term> used = Collections.newSetFromMap(new IdentityHashMap<Term, Boolean>());
+
+			leaves = this.getImplicitFacetsLeaves(getImplicitFacetsTree(facetCategory, used));
+
+			cache.put(this, facetCategory, leaves, used, generation);
+		}
+
+		// copy, the cached list is shared
+		return new ArrayList<>(leaves);
+	}
+
+	/**
+	 * Add the term and its ancestors in the master hierarchy to the set
+	 * 
+	 * @param term
+	 * @param terms
+	 */
+	private void addMasterAncestors(Term term, Set<Term> terms) {
+
+		Hierarchy master = catalogue.getMasterHierarchy();
+
+		Term current = term;
+
+		// stop also if the ancestor was already added (with its own ancestors)
+		while (current != null && terms.add(current))
+			current = current.getParent(master);
+	}
+
+	/**
+	 * Set the code of the term. If the code of a catalogue term changes, the
+	 * catalogue cache of the codes is updated and the cached inherited implicit
+	 * facets which depend on the term are removed.
+	 */
+	@Override
+	public void setCode(String code) {
+
+		String oldCode = getCode();
+		boolean changed = code == null ? oldCode != null : !code.equals(oldCode);
+
+		super.setCode(code);
+
+		if (changed && catalogue != null && catalogue.containsTerm(this)) {
+			catalogue.updateTermCode(this, oldCode);
+			invalidateInheritedFacets();
+		}
+	}
+
+	/**
+	 * Remove the cached inherited implicit facets which depend on this term (see
+	 * {@link InheritedFacetsCache})
+	 */
+	private void invalidateInheritedFacets() {
+		if (catalogue != null)
+			catalogue.getInheritedFacetsCache().invalidate(this);
 	}
 
 	/**
@@ -341,7 +425,6 @@ public class Term extends CatalogueObject implements Mappable {
 		if (replace && getLabel().equals(""))
 			return getName();
 
-		LOGGER.info("short name of the term : " + getLabel());
 		return getLabel();
 	}
 
@@ -385,9 +468,44 @@ public class Term extends CatalogueObject implements Mappable {
 	 * @return
 	 */
 	public ArrayList<FacetDescriptor> getImplicitFacets() {
+		return implicitFacets();
+	}
+
+	/**
+	 * Get the implicit facets, creating their descriptors from the term
+	 * attributes if they were not created yet
+	 * 
+	 * @return
+	 */
+	private ArrayList<FacetDescriptor> implicitFacets() {
+
+		if (implicitFacets == null) {
+
+			ArrayList<FacetDescriptor> facets = new ArrayList<>();
+
+			for (TermAttribute ta : termAttributes) {
+				if (ta.getAttribute().isImplicitFacet())
+					facets.add(new FacetDescriptor(this, ta, FacetType.IMPLICIT));
+			}
+
+			implicitFacets = facets;
+		}
+
 		return implicitFacets;
 	}
 
+	/**
+	 * Remove the unused capacity of the lists of the term
+	 */
+	public void trimToSize() {
+
+		termAttributes.trimToSize();
+		applicabilities.trimToSize();
+
+		if (implicitFacets != null)
+			implicitFacets.trimToSize();
+	}
+
 	/**
 	 * Get the attributes
 	 * 
@@ -488,27 +606,29 @@ public class Term extends CatalogueObject implements Mappable {
 		if (appl == null)
 			return null;
 
-		// start from the order integer of the term
-		String hierarchyCode = String.valueOf(appl.getOrder());
-
-		// add zeros to format code
-		while (hierarchyCode.length() < 4) {
-			hierarchyCode = "0" + hierarchyCode;
-		}
-
-		LOGGER.info("single hierarchy code : " + hierarchyCode);
-		return hierarchyCode;
+		// start from the order integer of the term and add zeros to format code
+		return HierarchyChildIndex.formatCodeLevel(appl.getOrder());
 	}
 
 	/**
 	 * Create the hierarchy code for this term considering the selected hierarchy. A
-	 * hierarchy code is a Z0001.0001.0002.
+	 * hierarchy code is a Z0001.0001.0002. The codes of the catalogue terms are
+	 * computed once for the whole hierarchy by the catalogue child index.
 	 * 
 	 * @param hierarchy
 	 * @return
 	 */
 	public String getHierarchyCode(Hierarchy hierarchy) {
 
+		if (catalogue != null) {
+
+			String indexed = catalogue.getChildIndex().getHierarchyCode(this, hierarchy);
+
+			if (indexed != null)
+				return indexed;
+		}
+
+		// term not reachable from the root, go up parent by parent
 		String hierarchyCode = this.getSingleHierarchyCode(hierarchy);
 
 		// if no code found return void
@@ -537,10 +657,7 @@ public class Term extends CatalogueObject implements Mappable {
 		}
 
 		// add the Z at the beginning (to avoid excel issues)
-		hierarchyCode = "Z" + hierarchyCode;
-
-		LOGGER.info("hierarchy code : " + hierarchyCode);
-		return hierarchyCode;
+		return "Z" + hierarchyCode;
 	}
 
 	@Override
@@ -637,8 +754,6 @@ public class Term extends CatalogueObject implements Mappable {
 	 */
 	private String getHierarchyProperty(String key, ParentField field) {
 
-		String value = "";
-
 		// get the hierarchy code from the key
 		String hierarchyCode = key.split("_", 2)[1];
 
@@ -651,6 +766,21 @@ public class Term extends CatalogueObject implements Mappable {
 		else
 			hierarchy = catalogue.getHierarchyByCode(hierarchyCode);
 
+		return getHierarchyProperty(hierarchy, field);
+	}
+
+	/**
+	 * Get the parent field of the term related to the hierarchy. Used by the
+	 * export to resolve the hierarchy of a column only once for all the terms.
+	 * 
+	 * @param hierarchy, the hierarchy of the field
+	 * @param field,     field which is being analyzed
+	 * @return
+	 */
+	public String getHierarchyProperty(Hierarchy hierarchy, ParentField field) {
+
+		String value = "";
+
 		// get the term applicability related to the found hierarchy
 		Applicability appl = this.getApplicability(hierarchy);
 
@@ -785,6 +915,7 @@ public class Term extends CatalogueObject implements Mappable {
 		if (appl != null) {
 			appl.setOrder(order);
 			appl.update();
+			updateChildIndex();
 		}
 	}
 
@@ -863,7 +994,7 @@ public class Term extends CatalogueObject implements Mappable {
 		interpCode.append(this.getName());
 
 		// order the facets
-		Collections.sort(implicitFacets, new ComparatorFacetDescriptor());
+		Collections.sort(implicitFacets(), new ComparatorFacetDescriptor());
 
 		// then we add all the implicit facets codes comma separated
 		// FACET_HIERARCHY = FacetName, ...
@@ -926,7 +1057,7 @@ public class Term extends CatalogueObject implements Mappable {
 		ArrayList<FacetDescriptor> facets = new ArrayList<>();
 
 		// for each facet descriptor we search for the descriptors of a single category
-		for (FacetDescriptor descriptor : implicitFacets) {
+		for (FacetDescriptor descriptor : implicitFacets()) {
 
 			// continue if facet category is null
 			if (descriptor.getFacetCategory() == null)
@@ -963,12 +1094,17 @@ public class Term extends CatalogueObject implements Mappable {
 			setTermType(ta);
 
 		// if we have an implicit facet add it to the implicit facets list
-		// as facet descriptor
+		// as facet descriptor (if already created)
 		if (ta.getAttribute().isImplicitFacet()) {
 
-			// create an implicit facet descriptor
-			FacetDescriptor fa = new FacetDescriptor(this, ta, FacetType.IMPLICIT);
-			implicitFacets.add(fa);
+			if (implicitFacets != null) {
+
+				// create an implicit facet descriptor
+				FacetDescriptor fa = new FacetDescriptor(this, ta, FacetType.IMPLICIT);
+				implicitFacets.add(fa);
+			}
+
+			invalidateInheritedFacets();
 		}
 	}
 
@@ -983,8 +1119,13 @@ public class Term extends CatalogueObject implements Mappable {
 		termAttributes.remove(ta);
 
 		// if it was an implicit facet remove it also from the cache
-		if (ta.getAttribute().isImplicitFacet())
-			implicitFacets.remove(ta);
+		if (ta.getAttribute().isImplicitFacet()) {
+
+			if (implicitFacets != null)
+				implicitFacets.remove(ta);
+
+			invalidateInheritedFacets();
+		}
 
 		if (ta.getAttribute().isDetailLevel())
 			detailLevel = null;
@@ -1006,8 +1147,10 @@ public class Term extends CatalogueObject implements Mappable {
 		if (termAttributes.contains(fd))
 			return;
 
+		implicitFacets().add(fd);
 		termAttributes.add(fd.getTermAttribute());
-		implicitFacets.add(fd);
+
+		invalidateInheritedFacets();
 	}
 
 	/**
@@ -1022,7 +1165,9 @@ public class Term extends CatalogueObject implements Mappable {
 		termAttributes.remove(fd.getTermAttribute());
 
 		// remove the descriptor
-		implicitFacets.remove(fd);
+		implicitFacets().remove(fd);
+
+		invalidateInheritedFacets();
 	}
 
 	/**
@@ -1038,6 +1183,8 @@ public class Term extends CatalogueObject implements Mappable {
 
 		detailLevel = null;
 		termType = null;
+
+		invalidateInheritedFacets();
 	}
 
 	/**
@@ -1045,6 +1192,7 @@ public class Term extends CatalogueObject implements Mappable {
 	 */
 	public void clearApplicabilities() {
 		applicabilities.clear();
+		updateChildIndex();
 	}
 
 	/**
@@ -1083,8 +1231,13 @@ public class Term extends CatalogueObject implements Mappable {
 
 				// if we have an implicit facet then we remove also from the implicit facet
 				// array
-				if (removed.getAttribute().isImplicitFacet())
-					implicitFacets.remove(removed);
+				if (removed.getAttribute().isImplicitFacet()) {
+
+					if (implicitFacets != null)
+						implicitFacets.remove(removed);
+
+					invalidateInheritedFacets();
+				}
 
 				if (removed.getAttribute().isDetailLevel())
 					detailLevel = null;
@@ -1112,6 +1265,8 @@ public class Term extends CatalogueObject implements Mappable {
 
 			applicabilities.add(appl);
 
+			updateChildIndex();
+
 			ParentTermDAO parentDao = new ParentTermDAO(catalogue);
 
 			// add the new applicability permanently if required
@@ -1146,6 +1301,8 @@ public class Term extends CatalogueObject implements Mappable {
 
 		applicabilities.remove(appl);
 
+		updateChildIndex();
+
 		ParentTermDAO parentDao = new ParentTermDAO(catalogue);
 
 		// remove permanently
@@ -1199,6 +1356,7 @@ public class Term extends CatalogueObject implements Mappable {
 		Applicability appl = getApplicability(hierarchy);
 		appl.setParentTerm(parent);
 		appl.update();
+		updateChildIndex();
 	}
 
 	/**
@@ -1231,6 +1389,13 @@ public class Term extends CatalogueObject implements Mappable {
 
 		else {
 
+			// use the precomputed intervals of the hierarchy if the terms are indexed
+			if (catalogue != null) {
+				Boolean indexed = catalogue.getChildIndex().isAncestor(ancestor, this, hierarchy);
+				if (indexed != null)
+					return indexed;
+			}
+
 			// if we have not found the relationship then we
 			// get the parent of the term in the selected hierarchy
 			// to go up into the tree
@@ -1258,10 +1423,35 @@ public class Term extends CatalogueObject implements Mappable {
 	 * @return
 	 */
 	public ArrayList<Term> getChildren(Hierarchy hierarchy, boolean hideDeprecated, boolean hideNotReportable) {
+		return filterChildren(catalogue.getChildIndex().getChildren(this, hierarchy), hierarchy, hideDeprecated,
+				hideNotReportable);
+	}
 
-		ParentTermDAO parentDao = new ParentTermDAO(catalogue);
+	/**
+	 * Remove the deprecated and/or the dismissed terms from a list of children
+	 * 
+	 * @param children          the list to filter (it is modified)
+	 * @param hierarchy
+	 * @param hideDeprecated
+	 * @param hideNotReportable
+	 * @return the filtered list
+	 */
+	public static ArrayList<Term> filterChildren(ArrayList<Term> children, Hierarchy hierarchy,
+			boolean hideDeprecated, boolean hideNotReportable) {
+
+		if (!hideDeprecated && !hideNotReportable)
+			return children;
+
+		Iterator<Term> iterator = children.iterator();
+		while (iterator.hasNext()) {
+
+			Term child = iterator.next();
+
+			if ((hideDeprecated && child.isDeprecated()) || (hideNotReportable && child.isDismissed(hierarchy)))
+				iterator.remove();
+		}
 
-		return parentDao.getChildren(this, hierarchy, hideDeprecated, hideNotReportable);
+		return children;
 	}
 
 	/**
@@ -1281,7 +1471,7 @@ public class Term extends CatalogueObject implements Mappable {
 	 * @return
 	 */
 	public boolean hasChildren(Hierarchy hierarchy, boolean hideDeprecated, boolean hideNotReportable) {
-		return !getChildren(hierarchy, hideDeprecated, hideNotReportable).isEmpty();
+		return catalogue.getChildIndex().hasChildren(this, hierarchy, hideDeprecated, hideNotReportable);
 	}
 
 	/**
@@ -1715,6 +1905,19 @@ public class Term extends CatalogueObject implements Mappable {
 		return term;
 	}
 
+	/**
+	 * Align the catalogue child index with the term applicabilities (and
+	 * invalidate the inherited implicit facets of the term subtree, since the
+	 * term could have a new parent)
+	 */
+	private void updateChildIndex() {
+		if (catalogue != null) {
+			catalogue.getChildIndex().update(this);
+			catalogue.getSearchIndex().clear();
+			catalogue.getInheritedFacetsCache().invalidate(this);
+		}
+	}
+
 	/**
 	 * Get all the term siblings in the selected hierarchy
 	 * 
@@ -1722,11 +1925,9 @@ public class Term extends CatalogueObject implements Mappable {
 	 */
 	private ArrayList<Term> getSiblings(Hierarchy hierarchy) {
 
-		ParentTermDAO parentDao = new ParentTermDAO(catalogue);
-
 		// get all the children of the parent of this term in order to get the term
 		// siblings and the term itself
-		ArrayList<Term> siblings = parentDao.getChildren(this.getParent(hierarchy), hierarchy, false, false);
+		ArrayList<Term> siblings = catalogue.getChildIndex().getChildren(this.getParent(hierarchy), hierarchy);
 
 		// remove the current term from the children
 		siblings.remove(this);
@@ -166,7 +166,15 @@ public class TermAttribute {
 	}
 	
 	public void setValue(String value) {
+		
+		boolean changed = this.value == null ? value != null : !this.value.equals( value );
+		
 		this.value = value;
+		
+		// the inherited implicit facets of the term subtree could be changed
+		if ( changed && attribute != null && attribute.isImplicitFacet() 
+				&& term != null && term.getCatalogue() != null )
+			term.getCatalogue().getInheritedFacetsCache().invalidate( term );
 	}
 	public void setAttribute(Attribute attribute) {
 		this.attribute = attribute;
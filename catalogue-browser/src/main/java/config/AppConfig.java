@@ -27,6 +27,8 @@ public class AppConfig {
 	private static final String DCF_XML_CREATOR_UPDATE = "DcfXmlUpdatesCreator.UpdateFolder";
 	private static final String DCF_XML_CREATOR_OUT = "DcfXmlUpdatesCreator.OutputFolder";
 	private static final String APP_HELP_REPOSITORY_PROPERTY = "Application.HelpRepository";
+	private static final String COMPACT_TERMS_PROPERTY = "Catalogue.CompactTerms";
+	private static final String IMPORT_COMMIT_INTERVAL_PROPERTY = "Catalogue.ImportCommitInterval";
 
 	private static final String NOT_FOUND = "not found";
 	
@@ -98,6 +100,39 @@ public class AppConfig {
 		return getValue(APP_HELP_REPOSITORY_PROPERTY) + "/";
 	}
 
+	/**
+	 * Check if the catalogue terms should be loaded in compact mode (false if
+	 * the property is not set)
+	 * 
+	 * @return
+	 */
+	public static boolean isCompactTermsEnabled() {
+		return Boolean.parseBoolean(getValue(COMPACT_TERMS_PROPERTY));
+	}
+
+	/**
+	 * Get the number of rows which are committed together while importing the
+	 * catalogue tables (0 if the property is not set, that is all the rows of a
+	 * table are committed together)
+	 * 
+	 * @return
+	 */
+	public static int getImportCommitInterval() {
+
+		String value = getValue(IMPORT_COMMIT_INTERVAL_PROPERTY);
+
+		if (value == null)
+			return 0;
+
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			LOGGER.error("Wrong value for " + IMPORT_COMMIT_INTERVAL_PROPERTY + ": " + value, e);
+			e.printStackTrace();
+			return 0;
+		}
+	}
+
 	/**
 	 * Get a property value given the key
 	 * 
@@ -0,0 +1,238 @@
+package dcf_user;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringTokenizer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import catalogue.Catalogue;
+import catalogue_browser_dao.DatabaseManager;
+import dcf_manager.Dcf;
+
+/**
+ * Dao to communicate with the USER_EDITABLE_CAT table, which contains the
+ * editable catalogues of each user listed in the users catalogue (CATUSERS).
+ * The table is filled each time a new version of the users catalogue is
+ * downloaded, in order to check the user access level without loading the
+ * whole catalogue.
+ *
+ * @author shahaal
+ *
+ */
+public class EditableCataloguesDAO {
+
+	private static final Logger LOGGER = LogManager.getLogger(EditableCataloguesDAO.class);
+
+	/**
+	 * Get the version of the users catalogue which was used to fill the table
+	 *
+	 * @return the version or null if the table is empty
+	 */
+	public String getCatUsersVersion() {
+
+		String version = null;
+
+		String query = "select CAT_USERS_VERSION from APP.USER_EDITABLE_CAT where DCF_TYPE = ?";
+
+		try (Connection con = DatabaseManager.getMainDBConnection();
+				PreparedStatement stmt = con.prepareStatement(query);) {
+
+			stmt.setString(1, Dcf.dcfType.toString());
+
+			try (ResultSet rs = stmt.executeQuery();) {
+
+				if (rs.next())
+					version = rs.getString("CAT_USERS_VERSION");
+
+				rs.close();
+			}
+
+			stmt.close();
+			con.close();
+
+		} catch (SQLException e) {
+			LOGGER.error("DB error", e);
+			e.printStackTrace();
+		}
+
+		return version;
+	}
+
+	/**
+	 * Get the codes of the catalogues which can be edited by the user
+	 *
+	 * @param username
+	 * @return the codes of the catalogues or null if the user is not present
+	 */
+	public ArrayList<String> getEditableCatalogues(String username) {
+
+		ArrayList<String> codes = null;
+
+		String query = "select EDITABLE_CAT from APP.USER_EDITABLE_CAT where DCF_TYPE = ? and USERNAME = ?";
+
+		try (Connection con = DatabaseManager.getMainDBConnection();
+				PreparedStatement stmt = con.prepareStatement(query);) {
+
+			stmt.setString(1, Dcf.dcfType.toString());
+			stmt.setString(2, username.toUpperCase());
+
+			try (ResultSet rs = stmt.executeQuery();) {
+
+				if (rs.next()) {
+
+					codes = new ArrayList<>();
+
+					String value = rs.getString("EDITABLE_CAT");
+
+					// the codes are separated by $ as in the repeatable attributes
+					if (value != null) {
+
+						StringTokenizer st = new StringTokenizer(value, "$");
+
+						while (st.hasMoreTokens())
+							codes.add(st.nextToken());
+					}
+				}
+
+				rs.close();
+			}
+
+			stmt.close();
+			con.close();
+
+		} catch (SQLException e) {
+			LOGGER.error("DB error", e);
+			e.printStackTrace();
+		}
+
+		return codes;
+	}
+
+	/**
+	 * Replace the content of the table with the editable catalogues of the users
+	 * listed in the users catalogue. The catalogue data are read directly from
+	 * its database, they do not need to be loaded.
+	 *
+	 * @param catUsers             the users catalogue
+	 * @param editCatAttributeName name of the attribute which contains the
+	 *                             editable catalogues of a user
+	 * @return true if the table was refreshed
+	 */
+	public boolean refresh(Catalogue catUsers, String editCatAttributeName) {
+
+		Map<String, String> editableCat = getEditableCatalogues(catUsers, editCatAttributeName);
+
+		if (editableCat == null)
+			return false;
+
+		String delete = "delete from APP.USER_EDITABLE_CAT where DCF_TYPE = ?";
+
+		String insert = "insert into APP.USER_EDITABLE_CAT (DCF_TYPE, USERNAME, EDITABLE_CAT, CAT_USERS_VERSION) "
+				+ "values (?, ?, ?, ?)";
+
+		try (Connection con = DatabaseManager.getMainDBConnection();
+				PreparedStatement deleteStmt = con.prepareStatement(delete);
+				PreparedStatement insertStmt = con.prepareStatement(insert);) {
+
+			con.setAutoCommit(false);
+
+			try {
+
+				deleteStmt.setString(1, Dcf.dcfType.toString());
+				deleteStmt.executeUpdate();
+
+				for (Map.Entry<String, String> entry : editableCat.entrySet()) {
+
+					insertStmt.clearParameters();
+
+					insertStmt.setString(1, Dcf.dcfType.toString());
+					insertStmt.setString(2, entry.getKey());
+					insertStmt.setString(3, entry.getValue());
+					insertStmt.setString(4, catUsers.getVersion());
+
+					insertStmt.addBatch();
+				}
+
+				insertStmt.executeBatch();
+
+				con.commit();
+
+			} catch (SQLException e) {
+				con.rollback();
+				throw e;
+			} finally {
+				con.setAutoCommit(true);
+			}
+
+			deleteStmt.close();
+			insertStmt.close();
+			con.close();
+
+			LOGGER.info("Editable catalogues of " + editableCat.size() + " users refreshed from " + catUsers);
+
+			return true;
+
+		} catch (SQLException e) {
+			LOGGER.error("DB error", e);
+			e.printStackTrace();
+		}
+
+		return false;
+	}
+
+	/**
+	 * Read the editable catalogues of each user from the database of the users
+	 * catalogue
+	 *
+	 * @param catUsers
+	 * @param editCatAttributeName
+	 * @return the editable catalogues by upper case user name (null if no
+	 *         catalogue was found for the user) or null if the catalogue could
+	 *         not be read
+	 */
+	private Map<String, String> getEditableCatalogues(Catalogue catUsers, String editCatAttributeName) {
+
+		Map<String, String> editableCat = new LinkedHashMap<>();
+
+		String query = "select T.TERM_EXTENDED_NAME, TA.ATTR_VALUE from APP.TERM as T "
+				+ "left join APP.TERM_ATTRIBUTE as TA on TA.TERM_ID = T.TERM_ID and TA.ATTR_ID in "
+				+ "(select A.ATTR_ID from APP.ATTRIBUTE as A where A.ATTR_NAME = ?) "
+				+ "order by T.TERM_ID, TA.TERM_ATTR_ID";
+
+		try (Connection con = catUsers.getConnection(); PreparedStatement stmt = con.prepareStatement(query);) {
+
+			stmt.setString(1, editCatAttributeName);
+
+			try (ResultSet rs = stmt.executeQuery();) {
+
+				while (rs.next()) {
+
+					String username = rs.getString("TERM_EXTENDED_NAME").toUpperCase();
+
+					// as the search by name, only the first user with the name is considered
+					if (!editableCat.containsKey(username))
+						editableCat.put(username, rs.getString("ATTR_VALUE"));
+				}
+
+				rs.close();
+			}
+
+			stmt.close();
+			con.close();
+
+		} catch (SQLException e) {
+			LOGGER.error("Cannot read the users of " + catUsers, e);
+			e.printStackTrace();
+			return null;
+		}
+
+		return editableCat;
+	}
+}
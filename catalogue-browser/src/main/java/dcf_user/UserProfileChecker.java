@@ -72,8 +72,16 @@ public class UserProfileChecker extends Thread {
 		if (progressBar != null)
 			progressBar.addProgress(10);
 
-		User user = User.getInstance();
-		
+		// the editable catalogues of the user were already taken from the last
+		// version
+		if (isCatUsersUpToDate()) {
+
+			LOGGER.info("The users catalogue is up to date, using the stored editable catalogues");
+
+			setUserLevel(ThreadFinishedListener.OK, null);
+			return;
+		}
+
 		Catalogue catUsers = Catalogue.getCatUsersCatalogue();
 
 		// download and import the catusers catalogue
@@ -88,33 +96,11 @@ public class UserProfileChecker extends Thread {
 			@Override
 			public void finished(Thread thread, int code, Exception e) {
 
-				switch (code) {
-
-				case OK:
-					if(user.isLoggedInOpenAPI()) {
-						// set as catalogue viewer
-						LOGGER.info("User access level: catalogue viewer");
-						user.setUserLevel(UserAccessLevel.DATA_PROVIDER);
-					} else {
-						// set as catalogue manager
-						LOGGER.info("User access level: catalogue manager");
-						// update the editable catalogues based on username
-						user.setEditableCat(getEditableCataloguesCodes());
-						// set the current user as catalogue manager
-						user.setUserLevel(UserAccessLevel.CATALOGUE_MANAGER);
-					}
-					break;
-				case ERROR:
-				case EXCEPTION:
-					// set the current user as data provider
-					LOGGER.info("User access level: data provider");
-					user.setUserLevel(UserAccessLevel.DATA_PROVIDER);
-					break;
-				}
-
-				// call the super.doneListener
-				if (doneListener != null)
-					doneListener.finished(UserProfileChecker.this, code, e);
+				// store the editable catalogues of the new version
+				if (code == OK)
+					refreshEditableCatalogues();
+
+				setUserLevel(code, e);
 			}
 		});
 
@@ -123,18 +109,160 @@ public class UserProfileChecker extends Thread {
 	}
 
 	/**
-	 * Get all the editable catalogues codes for the current catalogue manager user
+	 * Set the user access level once the users catalogue is available
+	 * 
+	 * @param code the result of the users catalogue download
+	 * @param e
+	 */
+	private void setUserLevel(int code, Exception e) {
+
+		User user = User.getInstance();
+
+		switch (code) {
+
+		case ThreadFinishedListener.OK:
+			if(user.isLoggedInOpenAPI()) {
+				// set as catalogue viewer
+				LOGGER.info("User access level: catalogue viewer");
+				user.setUserLevel(UserAccessLevel.DATA_PROVIDER);
+			} else {
+				// set as catalogue manager
+				LOGGER.info("User access level: catalogue manager");
+				// update the editable catalogues based on username
+				user.setEditableCat(getEditableCataloguesCodes());
+				// set the current user as catalogue manager
+				user.setUserLevel(UserAccessLevel.CATALOGUE_MANAGER);
+			}
+			break;
+		case ThreadFinishedListener.ERROR:
+		case ThreadFinishedListener.EXCEPTION:
+			// set the current user as data provider
+			LOGGER.info("User access level: data provider");
+			user.setUserLevel(UserAccessLevel.DATA_PROVIDER);
+			break;
+		}
+
+		// call the super.doneListener
+		if (doneListener != null)
+			doneListener.finished(UserProfileChecker.this, code, e);
+	}
+
+	/**
+	 * Check if the editable catalogues stored in the database were taken from the
+	 * last version of the users catalogue published in the dcf and if they
+	 * contain the current user. The stored catalogues are shared by all the
+	 * accounts of the machine, therefore the users which are not listed are
+	 * checked again with the download of the users catalogue.
 	 * 
 	 * @return
 	 */
-	private ArrayList<String> getEditableCataloguesCodes() {
+	private boolean isCatUsersUpToDate() {
+
+		EditableCataloguesDAO editDao = new EditableCataloguesDAO();
+
+		String version = editDao.getCatUsersVersion();
+
+		// nothing stored yet
+		if (version == null)
+			return false;
+
+		String username = User.getInstance().getUsername();
+
+		// the user is not listed in the stored users catalogue
+		if (username == null || editDao.getEditableCatalogues(username) == null)
+			return false;
+
+		Catalogue dcfCatUsers = getDcfCatUsers();
+
+		if (dcfCatUsers == null)
+			return false;
+
+		LOGGER.info("Users catalogue version: stored=" + version + ", dcf=" + dcfCatUsers.getVersion());
+
+		return version.equals(dcfCatUsers.getVersion());
+	}
+
+	/**
+	 * Get the meta data of the last release of the users catalogue from the dcf
+	 * 
+	 * @return the catalogue or null if it was not found
+	 */
+	private Catalogue getDcfCatUsers() {
+
+		Catalogue catUsers = Catalogue.getCatUsersCatalogue();
+
+		// use the catalogues meta data if they were already refreshed
+		if (Dcf.getCatalogues() != null && !Dcf.isGettingUpdates())
+			return Dcf.getLastPublishedRelease(catUsers);
+
+		// otherwise ask only the catalogues meta data to the dcf
+		for (Catalogue catalogue : new Dcf().getCataloguesList()) {
+			if (catUsers.equals(catalogue))
+				return catalogue;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Store the editable catalogues of all the users, taken from the last
+	 * downloaded version of the users catalogue
+	 */
+	private void refreshEditableCatalogues() {
+
+		Catalogue users = getLastCatUsers();
+
+		if (users != null)
+			new EditableCataloguesDAO().refresh(users, EDITABLE_CATALOGUE_ATTRIBUTE_NAME);
+	}
+
+	/**
+	 * Get the last downloaded version of the users catalogue
+	 * 
+	 * @return
+	 */
+	private Catalogue getLastCatUsers() {
 
 		CatalogueDAO catDao = new CatalogueDAO();
 
 		// get the users catalogue with all the correct information
 		// (we fetch it since using Catalogue.getCatUsersCatalogue
 		// we have only the catalogue code and version)
-		Catalogue users = catDao.getLastVersionByCode(Catalogue.getCatUsersCatalogue().getCode(), Dcf.dcfType);
+		return catDao.getLastVersionByCode(Catalogue.getCatUsersCatalogue().getCode(), Dcf.dcfType);
+	}
+
+	/**
+	 * Get all the editable catalogues codes for the current catalogue manager user
+	 * 
+	 * @return
+	 */
+	private ArrayList<String> getEditableCataloguesCodes() {
+
+		User user = User.getInstance();
+
+		EditableCataloguesDAO editDao = new EditableCataloguesDAO();
+
+		// use the stored editable catalogues if available
+		if (editDao.getCatUsersVersion() != null) {
+
+			ArrayList<String> codes = editDao.getEditableCatalogues(user.getUsername());
+
+			if (codes == null) {
+				LOGGER.error("USER " + user.getUsername() + ": Found catalogue manager account but the "
+						+ Catalogue.getCatUsersCatalogue().getCode()
+						+ " permissions catalogue does not contain it. Please add this account to the "
+						+ "permissions catalogue");
+				return new ArrayList<>();
+			}
+
+			return codes;
+		}
+
+		// otherwise search the user in the whole catalogue
+		Catalogue users = getLastCatUsers();
+
+		if (users == null)
+			return new ArrayList<>();
 
 		// load the catalogue data into RAM
 		users.loadData();
@@ -0,0 +1,23 @@
+package export_catalogue;
+
+import catalogue_object.Mappable;
+
+/**
+ * Get the value of a column of a sheet for a record. The accessors are created
+ * once for each column before exporting the rows (see
+ * {@link SheetWriter#getAccessor(String)}), so that the kind of value does not
+ * need to be resolved again for each cell.
+ * 
+ * @author shahaal
+ *
+ */
+public interface ColumnAccessor {
+
+	/**
+	 * Get the value of the column for the record
+	 * 
+	 * @param record
+	 * @return
+	 */
+	public String getValue(Mappable record);
+}
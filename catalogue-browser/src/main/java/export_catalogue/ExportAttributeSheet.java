@@ -3,8 +3,6 @@ package export_catalogue;
 import java.util.ArrayList;
 import java.util.HashMap;
 
-import org.apache.poi.ss.usermodel.Workbook;
-
 import catalogue.Catalogue;
 import catalogue_browser_dao.AttributeDAO;
 import catalogue_object.Mappable;
@@ -21,9 +19,9 @@ public class ExportAttributeSheet extends SheetWriter {
 	private Catalogue catalogue;
 	private boolean flag;
 	
-	public ExportAttributeSheet( Catalogue catalogue, Workbook workbook, String sheetName, boolean b) {
+	public ExportAttributeSheet( Catalogue catalogue, String sheetName, boolean b) {
 		
-		super(workbook, sheetName);
+		super(sheetName);
 		this.catalogue = catalogue;
 		this.flag=b;
 	}
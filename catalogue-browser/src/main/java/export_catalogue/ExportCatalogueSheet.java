@@ -3,8 +3,6 @@ package export_catalogue;
 import java.util.ArrayList;
 import java.util.HashMap;
 
-import org.apache.poi.xssf.streaming.SXSSFWorkbook;
-
 import catalogue.Catalogue;
 import catalogue_object.Mappable;
 import naming_convention.Headers;
@@ -22,13 +20,11 @@ public class ExportCatalogueSheet extends SheetWriter {
 	/**
 	 * Create a sheet
 	 * @param catalogue the catalogue meta data we want to export
-	 * @param workbook
 	 * @param sheetName
 	 */
-	public ExportCatalogueSheet( Catalogue catalogue, 
-			SXSSFWorkbook workbook, String sheetName ) {
+	public ExportCatalogueSheet( Catalogue catalogue, String sheetName ) {
 		
-		super ( workbook, sheetName );
+		super ( sheetName );
 		
 		this.catalogue = catalogue;
 	}
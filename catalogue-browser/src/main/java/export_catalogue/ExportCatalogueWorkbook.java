@@ -1,11 +1,11 @@
 package export_catalogue;
 
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import catalogue.Catalogue;
 import dcf_user.User;
 import i18n_messages.CBMessages;
@@ -52,113 +52,86 @@ public class ExportCatalogueWorkbook {
 
 		LOGGER.info("Starting export process...");
 
-		// the workbook which will be created with the export
-		SXSSFWorkbook workbook = new SXSSFWorkbook();
-
-		// set that we want to maintain the temp files smaller
-		workbook.setCompressTempFiles(true);
+		// the sheets which will be written in the workbook
+		List<SheetWriter> sheets = new ArrayList<>();
 
 		// if exporting the info
 		if (flag) {
 
 			LOGGER.info("Exporting catalogue" + catalogue);
 
-			// write the catalogue sheet
-			ExportCatalogueSheet catSheet = new ExportCatalogueSheet(catalogue, workbook, Headers.CAT_SHEET_NAME);
+			// the catalogue sheet
+			ExportCatalogueSheet catSheet = new ExportCatalogueSheet(catalogue, Headers.CAT_SHEET_NAME);
 
 			if (progressBar != null)
 				catSheet.setProgressBar(progressBar, 20, CBMessages.getString("Export.CatalogueSheet"));
 
-			catSheet.write();
-
-			LOGGER.info("Exporting hierarchies");
+			sheets.add(catSheet);
 
-			// write the hierarchy sheet
-			ExportHierarchySheet hierarchySheet = new ExportHierarchySheet(catalogue, workbook,
-					Headers.HIER_SHEET_NAME);
+			// the hierarchy sheet
+			ExportHierarchySheet hierarchySheet = new ExportHierarchySheet(catalogue, Headers.HIER_SHEET_NAME);
 
 			if (progressBar != null)
 				hierarchySheet.setProgressBar(progressBar, 40, CBMessages.getString("Export.HierarchySheet"));
 
-			hierarchySheet.write();
+			sheets.add(hierarchySheet);
 
-			LOGGER.info("Exporting attributes");
-
-			// write the attribute sheet
-			ExportAttributeSheet attrSheet = new ExportAttributeSheet(catalogue, workbook, Headers.ATTR_SHEET_NAME,
-					true);
+			// the attribute sheet
+			ExportAttributeSheet attrSheet = new ExportAttributeSheet(catalogue, Headers.ATTR_SHEET_NAME, true);
 
 			if (progressBar != null)
 				attrSheet.setProgressBar(progressBar, 60, CBMessages.getString("Export.AttributeSheet"));
 
-			attrSheet.write();
-
-			LOGGER.info("Exporting terms");
+			sheets.add(attrSheet);
 
-			// write the term sheet
-			ExportTermSheet termSheet = new ExportTermSheet(catalogue, workbook, Headers.TERM_SHEET_NAME, true);
+			// the term sheet
+			ExportTermSheet termSheet = new ExportTermSheet(catalogue, Headers.TERM_SHEET_NAME, true);
 
 			if (progressBar != null)
 				termSheet.setProgressBar(progressBar, 80, CBMessages.getString("Export.TermSheet"));
 
-			if (User.getInstance().isCatManager() && extractXML)
-				termSheet.writeWithDump();
-			else
-				termSheet.write();
+			termSheet.setDumpRow(User.getInstance().isCatManager() && extractXML);
 
-			LOGGER.info("Exporting release notes");
+			sheets.add(termSheet);
 
-			// write the term sheet
-			ExportReleaseNotesSheet noteSheet = new ExportReleaseNotesSheet(catalogue, workbook,
-					Headers.NOTES_SHEET_NAME);
+			// the release notes sheet
+			ExportReleaseNotesSheet noteSheet = new ExportReleaseNotesSheet(catalogue, Headers.NOTES_SHEET_NAME);
 
 			if (progressBar != null)
 				noteSheet.setProgressBar(progressBar, 95, CBMessages.getString("Export.NotesSheet"));
 
-			noteSheet.write();
+			sheets.add(noteSheet);
 
 		} else {
 
 			// if needed just the interpreting and checking tool info
-			LOGGER.info("Exporting attributes");
-
-			// write the attribute sheet
-			ExportAttributeSheet attrSheet = new ExportAttributeSheet(catalogue, workbook, Headers.ATTR_SHEET_NAME,
-					false);
+			ExportAttributeSheet attrSheet = new ExportAttributeSheet(catalogue, Headers.ATTR_SHEET_NAME, false);
 
 			if (progressBar != null)
 				attrSheet.setProgressBar(progressBar, 20, CBMessages.getString("Export.AttributeSheet"));
 
-			attrSheet.write();
-
-			LOGGER.info("Exporting terms");
+			sheets.add(attrSheet);
 
-			// write the term sheet
-			ExportTermSheet termSheet = new ExportTermSheet(catalogue, workbook, Headers.TERM_SHEET_NAME, false);
+			ExportTermSheet termSheet = new ExportTermSheet(catalogue, Headers.TERM_SHEET_NAME, false);
 
 			if (progressBar != null)
 				termSheet.setProgressBar(progressBar, 95, CBMessages.getString("Export.TermSheet"));
 
-			termSheet.write();
-
-			// copy the new db into the ict main folder
-			new ICTInstaller().createDatabase();
+			sheets.add(termSheet);
 		}
 
-		// last operation
-		if (progressBar != null)
-			progressBar.setLabel(CBMessages.getString("Export.WriteSheet"));
-
 		LOGGER.info("Creating excel file");
 
-		// write in the workbook
-		OutputStream out = new FileOutputStream(filename);
-		workbook.write(out);
+		// prepare and write the sheets in parallel, streaming them into the file
+		new WorkbookExporter().export(sheets, filename);
 
-		// close workbook and progress bar
-		workbook.close();
+		// copy the new db into the ict main folder
+		if (!flag)
+			new ICTInstaller().createDatabase();
 
-		out.close();
+		// last operation
+		if (progressBar != null)
+			progressBar.setLabel(CBMessages.getString("Export.WriteSheet"));
 
 		// fill progress bar
 		if (progressBar != null)
@@ -3,8 +3,6 @@ package export_catalogue;
 import java.util.ArrayList;
 import java.util.HashMap;
 
-import org.apache.poi.ss.usermodel.Workbook;
-
 import catalogue.Catalogue;
 import catalogue_browser_dao.HierarchyDAO;
 import catalogue_object.Mappable;
@@ -15,9 +13,8 @@ public class ExportHierarchySheet extends SheetWriter {
 
 	private Catalogue catalogue;
 	
-	public ExportHierarchySheet( Catalogue catalogue, 
-			Workbook workbook, String sheetName) {
-		super(workbook, sheetName);
+	public ExportHierarchySheet( Catalogue catalogue, String sheetName) {
+		super(sheetName);
 		this.catalogue = catalogue;
 	}
 
@@ -4,8 +4,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 
-import org.apache.poi.ss.usermodel.Workbook;
-
 import catalogue.Catalogue;
 import catalogue.ReleaseNotesOperation;
 import catalogue_object.Mappable;
@@ -21,10 +19,9 @@ public class ExportReleaseNotesSheet extends SheetWriter {
 
 	private Catalogue catalogue;
 	
-	public ExportReleaseNotesSheet( Catalogue catalogue, 
-			Workbook workbook, String sheetName ) {
+	public ExportReleaseNotesSheet( Catalogue catalogue, String sheetName ) {
 		
-		super(workbook, sheetName);
+		super(sheetName);
 		this.catalogue = catalogue;
 	}
 
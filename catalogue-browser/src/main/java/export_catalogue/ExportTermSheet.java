@@ -8,18 +8,21 @@ import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import org.apache.poi.ss.usermodel.Workbook;
-
 import catalogue.Catalogue;
 import catalogue_browser_dao.AttributeDAO;
 import catalogue_browser_dao.HierarchyDAO;
 import catalogue_object.Attribute;
 import catalogue_object.Hierarchy;
 import catalogue_object.Mappable;
+import catalogue_object.ParentField;
 import catalogue_object.Term;
+import data_transformation.BooleanConverter;
+import data_transformation.DateTrimmer;
 import naming_convention.Headers;
+import naming_convention.SpecialValues;
 import sheet_header.SheetHeader;
 import term.CodeSorter;
+import ui_implicit_facet.ComparatorAlphaFacetDescriptor;
 
 /**
  * Export the terms, attribute values for each term and the term applicabilities
@@ -34,9 +37,9 @@ public class ExportTermSheet extends SheetWriter {
 	private boolean flag; 
 	private List<String> IctColumns = Stream.of("allFacets", "matrixCode", "foodexOldCode", "detailLevel", "termType").collect(Collectors.toList());
 	
-	public ExportTermSheet( Catalogue catalogue, Workbook workbook, String sheetName, boolean b) {
+	public ExportTermSheet( Catalogue catalogue, String sheetName, boolean b) {
 		
-		super(workbook, sheetName);
+		super(sheetName);
 		this.catalogue = catalogue;
 		this.flag = b;
 	}
@@ -125,4 +128,188 @@ public class ExportTermSheet extends SheetWriter {
 		
 		return terms;
 	}
+
+	/**
+	 * Resolve the column once for all the terms, instead of parsing the key
+	 * and searching the hierarchy for each term as {@link Term#getValueByKey(String)}
+	 * does. The values are the same of {@link Term#getValueByKey(String)}.
+	 */
+	@Override
+	public ColumnAccessor getAccessor(String key) {
+
+		// the fixed columns of the term
+		TermColumn column = null;
+		for (TermColumn c : TermColumn.values()) {
+			if (c.name().equals(key))
+				column = c;
+		}
+
+		int matches = column == null ? 0 : 1;
+
+		String[] prefixes = { "attribute_", "flag_", "parent_", "order_", "reportable_", "hierarchyCode_" };
+
+		String prefix = null;
+		for (String p : prefixes) {
+			if (key.contains(p)) {
+				prefix = p;
+				matches++;
+			}
+		}
+
+		// ambiguous or unknown key, leave it to the term
+		if (matches != 1)
+			return super.getAccessor(key);
+
+		if (column != null)
+			return column;
+
+		// name of the attribute or code of the hierarchy
+		String name = key.split("_", 2)[1];
+
+		switch (prefix) {
+		case "attribute_":
+			return getAttributeAccessor(name);
+		case "flag_":
+			return getHierarchyAccessor(name, ParentField.FLAG);
+		case "parent_":
+			return getHierarchyAccessor(name, ParentField.PARENT_CODE);
+		case "order_":
+			return getHierarchyAccessor(name, ParentField.ORDER);
+		case "reportable_":
+			return getHierarchyAccessor(name, ParentField.REPORTABLE);
+		default:
+			return getHierarchyAccessor(name, ParentField.HIERARCHY_CODE);
+		}
+	}
+
+	/**
+	 * Get the accessor of an attribute column
+	 * 
+	 * @param attrName
+	 * @return
+	 */
+	private ColumnAccessor getAttributeAccessor(final String attrName) {
+
+		// all facets and implicit facets are computed
+		if (attrName.equals(SpecialValues.ALL_FACETS_NAME)) {
+			return new ColumnAccessor() {
+				@Override
+				public String getValue(Mappable record) {
+					return ((Term) record).getFullCode(true, true, new ComparatorAlphaFacetDescriptor());
+				}
+			};
+		}
+
+		if (attrName.equals(SpecialValues.IMPLICIT_FACETS_NAME)) {
+			return new ColumnAccessor() {
+				@Override
+				public String getValue(Mappable record) {
+					return ((Term) record).getFullCode(false, false, new ComparatorAlphaFacetDescriptor());
+				}
+			};
+		}
+
+		// note that repeatable attributes are compacted $ separated
+		return new ColumnAccessor() {
+			@Override
+			public String getValue(Mappable record) {
+				return ((Term) record).getAttributeValueByName(attrName);
+			}
+		};
+	}
+
+	/**
+	 * Get the accessor of a hierarchy column, the hierarchy is searched only once
+	 * 
+	 * @param hierarchyCode
+	 * @param field
+	 * @return
+	 */
+	private ColumnAccessor getHierarchyAccessor(String hierarchyCode, final ParentField field) {
+
+		final Hierarchy hierarchy = hierarchyCode.equals(Hierarchy.MASTER_HIERARCHY_CODE)
+				? catalogue.getMasterHierarchy()
+				: catalogue.getHierarchyByCode(hierarchyCode);
+
+		return new ColumnAccessor() {
+			@Override
+			public String getValue(Mappable record) {
+				return ((Term) record).getHierarchyProperty(hierarchy, field);
+			}
+		};
+	}
+
+	/**
+	 * Fixed columns of the term sheet, the names are the keys of the headers
+	 */
+	private enum TermColumn implements ColumnAccessor {
+
+		TERM_CODE {
+			@Override
+			String get(Term term) {
+				return term.getCode();
+			}
+		},
+		TERM_EXTENDED_NAME {
+			@Override
+			String get(Term term) {
+				return term.getName();
+			}
+		},
+		TERM_SHORT_NAME {
+			@Override
+			String get(Term term) {
+				return term.getShortName(false);
+			}
+		},
+		TERM_SCOPENOTE {
+			@Override
+			String get(Term term) {
+				return term.getScopenotes();
+			}
+		},
+		TERM_VERSION {
+			@Override
+			String get(Term term) {
+				return term.getVersion();
+			}
+		},
+		TERM_LAST_UPDATE {
+			@Override
+			String get(Term term) {
+				return term.getLastUpdate() == null ? "" : DateTrimmer.dateToString(term.getLastUpdate());
+			}
+		},
+		TERM_VALID_FROM {
+			@Override
+			String get(Term term) {
+				return term.getValidFrom() == null ? "" : DateTrimmer.dateToString(term.getValidFrom());
+			}
+		},
+		TERM_VALID_TO {
+			@Override
+			String get(Term term) {
+				return term.getValidTo() == null ? "" : DateTrimmer.dateToString(term.getValidTo());
+			}
+		},
+		TERM_STATUS {
+			@Override
+			String get(Term term) {
+				return term.getStatus();
+			}
+		},
+		TERM_DEPRECATED {
+			@Override
+			String get(Term term) {
+				return BooleanConverter.toNumericBoolean(String.valueOf(term.isDeprecated()));
+			}
+		};
+
+		abstract String get(Term term);
+
+		@Override
+		public String getValue(Mappable record) {
+			return get((Term) record);
+		}
+	}
 }
@@ -3,19 +3,15 @@ package export_catalogue;
 import java.util.Collection;
 import java.util.HashMap;
 
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import catalogue_object.Mappable;
 import progress_bar.IProgressBar;
 import sheet_header.SheetHeader;
 
 /**
- * This class handle the writing procedure of an excel sheet. Extend this class
- * and provide the methods getHeaders and insertData to have a complete sheet
- * writer.
- * 
+ * This class describes an excel sheet which has to be exported. Extend this
+ * class and provide the methods getHeaders and getData to have a complete
+ * sheet writer. The sheets are written by the {@link WorkbookExporter}.
+ *
  * @author avonva
  * @author shahaal
  */
@@ -30,172 +26,86 @@ public abstract class SheetWriter {
 	// sheet
 	private int maxFill = 0;
 
-	// the considered fields of the xml which will be the sheet columns
-	public HashMap<String, SheetHeader> headers;
+	// the label displayed while the sheet is written
+	private String label = "";
 
-	// the current number of rows
-	private int rowNum = 0;
+	// the name of the sheet which will be created
+	private String sheetName;
 
-	// the sheet which will be created
-	private Sheet sheet;
+	// true to add the dump record as first row
+	private boolean dumpRow;
 
 	/**
 	 * Create the sheet
-	 * 
-	 * @param workbook
+	 *
 	 * @param sheetName
 	 */
-	public SheetWriter(Workbook workbook, String sheetName) {
-
-		// create the sheet
-		sheet = workbook.createSheet(sheetName);
+	public SheetWriter(String sheetName) {
+		this.sheetName = sheetName;
 	}
 
-	/**
-	 * Write into the sheet the headers and the data This is the main process
-	 */
-	public void write() {
-
-		// prepare the headers
-		headers = getHeaders();
-
-		// insert headers
-		insertHeaders(sheet);
-
-		// insert the data into the sheet
-		insertData(sheet);
+	public String getSheetName() {
+		return sheetName;
 	}
 
 	/**
-	 * Write into the sheet the headers and the data This is the main process added
-	 * also the first record with length 4000
-	 * 
+	 * Add also a first record with length 4000 after the headers, useful for not
+	 * truncating strings in SAS (only for the term sheet)
+	 *
 	 * @author shahaal
+	 * @param dumpRow
 	 */
-	public void writeWithDump() {
-
-		// prepare the headers
-		headers = getHeaders();
-
-		// insert headers
-		insertHeaders(sheet);
-
-		// create the dump string with length 4000
-		String dump = createDumpString();
-		
-		// insert the dump string as first record in the external file
-		insertFirstRow(dump);
-
-		// insert the data into the sheet
-		insertData(sheet);
+	public void setDumpRow(boolean dumpRow) {
+		this.dumpRow = dumpRow;
 	}
 
 	/**
-	 * Insert the headers as first line of the sheet
-	 * 
-	 * @param sheet
-	 */
-	private void insertHeaders(Sheet sheet) {
-
-		// get the headers
-		this.headers = getHeaders();
-
-		// create a row for the headers
-		Row row = createRow(sheet);
-
-		// insert the headers
-		for (SheetHeader header : headers.values())
-			createCell(header.getColumnIndex(), row, header.getColumnName());
-	}
-
-	/**
-	 * Insert the data into the sheet
-	 * 
-	 * @param sheet
+	 * Check if the dump record needs to be added to the sheet
+	 *
+	 * @return
 	 */
-	private void insertData(Sheet sheet) {
-
-		Collection<? extends Mappable> data = getData();
-
-		// get of how much we have to increment the progress bar
-		// we can increment at maximum of maxFill, so we add
-		// for each row maxFill/#rows
-		double increment = (double) maxFill / data.size();
-
-		// for each record we create a row
-		// with the values into the right cells
-		for (Mappable record : data) {
-
-			// insert a single row
-			insertDataRow(record);
-
-			// refresh the progress bar if needed
-			if (progressBar != null)
-				progressBar.addProgress(increment);
-		}
+	public boolean hasDumpRow() {
+		return dumpRow && sheetName.equals("term");
 	}
 
 	/**
 	 * create a dump string of length 4000 useful for not truncating strings in SAS
-	 * 
+	 *
 	 * @author shahaal
 	 * @return
 	 */
-	private String createDumpString() {
-		String tempValue = "";
+	public static String createDumpString() {
+
+		StringBuilder tempValue = new StringBuilder();
 		for (int i = 0; i <= 4000; i++) {
-			tempValue += "*";
+			tempValue.append('*');
 		}
 
-		return tempValue;
-	}
-
-	/**
-	 * the method insert a dump string of length 4000 in sheet term when the cat
-	 * manager export the catalogue
-	 * 
-	 * @author shahaal
-	 * @param dump
-	 */
-	private void insertFirstRow(String dump) {
-
-		// add the dump string only to the sheet "term"
-		if (!sheet.getSheetName().equals("term"))
-			return;
-
-		Row row = createRow(sheet);
-
-		// for each header we set the cell value related to it
-		for (String dbColumnName : headers.keySet())
-			// add the cell to the sheet
-			createCell(headers.get(dbColumnName).getColumnIndex(), row, dump);
+		return tempValue.toString();
 	}
 
 	/**
-	 * Insert a single record into the sheet
-	 * 
-	 * @param record, the record which has to be inserted
+	 * Get the accessor which retrieves the value of a column from the records. By
+	 * default the value is retrieved with {@link Mappable#getValueByKey(String)},
+	 * override this to resolve the column once for all the records.
+	 *
+	 * @param key the key of the column in the headers
+	 * @return
 	 */
-	private void insertDataRow(Mappable record) {
-
-		Row row = createRow(sheet);
-
-		// for each header we set the cell value related to it
-		for (String dbColumnName : headers.keySet()) {
-
-			// get the value of the catalogue field
-			String value = record.getValueByKey(dbColumnName);
-
-			// add the cell to the sheet
-			createCell(headers.get(dbColumnName).getColumnIndex(), row, value);
-		}
+	public ColumnAccessor getAccessor(final String key) {
+		return new ColumnAccessor() {
+			@Override
+			public String getValue(Mappable record) {
+				return record.getValueByKey(key);
+			}
+		};
 	}
 
 	/**
 	 * Set a progress bar which needs to be updated. Max fill is used to limit the
 	 * maximum relative amount of progress that this sheet can achieve. The label is
 	 * the displayed title.
-	 * 
+	 *
 	 * @param progressBar, the progress bar which is displayed in the main UI
 	 * @param maxFill,     the maximum relative amount that this sheet can be add to
 	 *                     the progress bar
@@ -204,13 +114,13 @@ public abstract class SheetWriter {
 	public void setProgressBar(IProgressBar progressBar, int maxFill, String label) {
 		this.progressBar = progressBar;
 		this.maxFill = maxFill;
-		this.progressBar.setLabel(label);
+		this.label = label;
 	}
 
 	/**
 	 * Set the progress bar which needs to be updated. Max fill is used to limit the
 	 * maximum relative amount of progress that this sheet can achieve.
-	 * 
+	 *
 	 * @param progressBar, the progress bar which is displayed in the main UI
 	 * @param maxFill,     the maximum relative amount that this sheet can be add to
 	 *                     the progress bar
@@ -219,55 +129,16 @@ public abstract class SheetWriter {
 		this.setProgressBar(progressBar, maxFill, "");
 	}
 
-	/**
-	 * Create a new cell in the sheet.
-	 * 
-	 * @param columIndex, index of the column in which the cell is created
-	 * @param row,        row where the cell is created
-	 * @param value,      cell value
-	 * @return
-	 */
-	public Cell createCell(int columnIndex, Row row, String value) {
-
-		if (columnIndex < 0)
-			return null;
-
-		Cell cell = row.createCell(columnIndex);
-		cell.setCellValue(value);
-		return cell;
+	public IProgressBar getProgressBar() {
+		return progressBar;
 	}
 
-	/**
-	 * Create a new cell in the sheet.
-	 * 
-	 * @param headerName, name of the column in which the cell is created
-	 * @param row,        row where the cell is created
-	 * @param value,      cell value
-	 * @return
-	 */
-	public Cell createCell(String columnLabel, Row row, String value) {
-
-		// get the current header
-		SheetHeader header = headers.get(columnLabel);
-
-		// if the header is not in the headers hashmap return
-		if (header == null) {
-			return null;
-		}
-
-		// create the cell
-		Cell cell = createCell(header.getColumnIndex(), row, value);
-		return cell;
+	public int getMaxFill() {
+		return maxFill;
 	}
 
-	/**
-	 * Create a new row in the selected sheet
-	 * 
-	 * @param sheet
-	 * @return
-	 */
-	public Row createRow(Sheet sheet) {
-		return sheet.createRow(rowNum++);
+	public String getLabel() {
+		return label;
 	}
 
 	/**
@@ -292,7 +163,7 @@ public abstract class SheetWriter {
 	 * to retrieve the code of the catalogue, in order to put it as value in the
 	 * current row under the header "code" which is specified in the SheetHeader
 	 * together with the column index.
-	 * 
+	 *
 	 * @return
 	 */
 	public abstract Collection<? extends Mappable> getData();
@@ -0,0 +1,305 @@
+package export_catalogue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import catalogue_object.Mappable;
+import progress_bar.IProgressBar;
+import sheet_header.SheetHeader;
+
+/**
+ * Write a list of {@link SheetWriter} into a .xlsx file. The sheets are
+ * prepared in parallel (headers, column accessors and data), then the rows of
+ * each sheet are converted to strings in chunks by a pool of workers while the
+ * calling thread streams the converted chunks, in order, into the zip of the
+ * workbook with a {@link XlsxStreamWriter}. Only a few chunks are pending at
+ * the same time, therefore the memory used does not depend on the number of
+ * rows.
+ *
+ * @author shahaal
+ *
+ */
+public class WorkbookExporter {
+
+	private static final Logger LOGGER = LogManager.getLogger(WorkbookExporter.class);
+
+	// number of rows converted by a single task
+	private static final int CHUNK_SIZE = 500;
+
+	private int workers;
+
+	// throughput of the last written sheets, by sheet name
+	private HashMap<String, Double> rowsPerSecond = new HashMap<>();
+
+	/**
+	 * Create an exporter which uses a worker for each processor
+	 */
+	public WorkbookExporter() {
+		this(Math.max(2, Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * Create an exporter with a fixed number of workers
+	 *
+	 * @param workers
+	 */
+	public WorkbookExporter(int workers) {
+		this.workers = workers;
+	}
+
+	/**
+	 * Write the sheets into the file, in the order of the list. If the export
+	 * fails the partial file is deleted.
+	 *
+	 * @param sheets   the sheets to be exported
+	 * @param filename the .xlsx file which has to be created
+	 * @throws IOException
+	 */
+	public void export(List<? extends SheetWriter> sheets, String filename) throws IOException {
+
+		ExecutorService pool = Executors.newFixedThreadPool(workers);
+
+		boolean done = false;
+
+		try {
+
+			// prepare all the sheets in parallel
+			List<Future<PreparedSheet>> prepared = new ArrayList<>();
+			for (final SheetWriter sheet : sheets) {
+				prepared.add(pool.submit(new Callable<PreparedSheet>() {
+					@Override
+					public PreparedSheet call() throws Exception {
+						return new PreparedSheet(sheet);
+					}
+				}));
+			}
+
+			try (XlsxStreamWriter writer = new XlsxStreamWriter(new FileOutputStream(filename))) {
+
+				for (Future<PreparedSheet> future : prepared)
+					writeSheet(pool, writer, get(future));
+			}
+
+			done = true;
+
+		} finally {
+
+			pool.shutdownNow();
+
+			// remove the partial file
+			if (!done) {
+				File file = new File(filename);
+				if (file.exists() && !file.delete())
+					LOGGER.warn("Cannot delete the partial export file " + filename);
+			}
+		}
+	}
+
+	/**
+	 * Get the rows written per second in the last export of the sheet
+	 *
+	 * @param sheetName
+	 * @return the throughput or null if the sheet was not exported
+	 */
+	public Double getRowsPerSecond(String sheetName) {
+		return rowsPerSecond.get(sheetName);
+	}
+
+	/**
+	 * Write a prepared sheet, converting its rows in parallel
+	 *
+	 * @param pool
+	 * @param writer
+	 * @param sheet
+	 * @throws IOException
+	 */
+	private void writeSheet(ExecutorService pool, XlsxStreamWriter writer, final PreparedSheet sheet)
+			throws IOException {
+
+		long start = System.currentTimeMillis();
+
+		SheetWriter sheetWriter = sheet.writer;
+		IProgressBar progressBar = sheetWriter.getProgressBar();
+
+		if (progressBar != null)
+			progressBar.setLabel(sheetWriter.getLabel());
+
+		int size = sheet.data.size();
+
+		writer.startSheet(sheetWriter.getSheetName(), 1 + (sheetWriter.hasDumpRow() ? 1 : 0) + size,
+				sheet.columnsCount);
+
+		writer.writeRow(sheet.columnNames);
+
+		// dump record in all the columns of the headers
+		if (sheetWriter.hasDumpRow()) {
+
+			String dump = SheetWriter.createDumpString();
+
+			String[] dumpRow = new String[sheet.columnsCount];
+			for (int i = 0; i < dumpRow.length; ++i) {
+				if (sheet.columnNames[i] != null)
+					dumpRow[i] = dump;
+			}
+
+			writer.writeRow(dumpRow);
+		}
+
+		// we can increment at maximum of maxFill, so we add for each row maxFill/#rows
+		double increment = (double) sheetWriter.getMaxFill() / size;
+
+		// chunks which are being converted, written in order
+		Queue<Future<String[][]>> pending = new ArrayDeque<>();
+
+		int next = 0;
+
+		while (next < size || !pending.isEmpty()) {
+
+			// keep the workers busy without converting the whole sheet in advance
+			while (next < size && pending.size() < 2 * workers) {
+
+				final int from = next;
+				final int to = Math.min(size, from + CHUNK_SIZE);
+
+				pending.add(pool.submit(new Callable<String[][]>() {
+					@Override
+					public String[][] call() throws Exception {
+						return sheet.convert(from, to);
+					}
+				}));
+
+				next = to;
+			}
+
+			String[][] rows = get(pending.poll());
+
+			for (String[] row : rows)
+				writer.writeRow(row);
+
+			if (progressBar != null)
+				progressBar.addProgress(increment * rows.length);
+		}
+
+		writer.endSheet();
+
+		long time = System.currentTimeMillis() - start;
+		double throughput = size * 1000.0 / Math.max(1, time);
+
+		rowsPerSecond.put(sheetWriter.getSheetName(), throughput);
+
+		LOGGER.info("Sheet " + sheetWriter.getSheetName() + " exported: rows=" + size + ", time=" + time
+				+ " ms, rows/s=" + Math.round(throughput));
+	}
+
+	/**
+	 * Get the result of a task, rethrowing its error
+	 *
+	 * @param future
+	 * @return
+	 * @throws IOException
+	 */
+	private static <T> T get(Future<T> future) throws IOException {
+
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Export interrupted");
+		} catch (ExecutionException e) {
+
+			Throwable cause = e.getCause();
+
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Sheet with its columns resolved and its data loaded
+	 */
+	private static class PreparedSheet {
+
+		private SheetWriter writer;
+		private String[] columnNames;
+		private ColumnAccessor[] accessors;
+		private int columnsCount;
+		private List<Mappable> data;
+
+		private PreparedSheet(SheetWriter writer) {
+
+			this.writer = writer;
+
+			HashMap<String, SheetHeader> headers = writer.getHeaders();
+
+			for (SheetHeader header : headers.values())
+				columnsCount = Math.max(columnsCount, header.getColumnIndex() + 1);
+
+			this.columnNames = new String[columnsCount];
+			this.accessors = new ColumnAccessor[columnsCount];
+
+			for (Entry<String, SheetHeader> entry : headers.entrySet()) {
+
+				int index = entry.getValue().getColumnIndex();
+
+				// column not exported
+				if (index < 0)
+					continue;
+
+				columnNames[index] = entry.getValue().getColumnName();
+				accessors[index] = writer.getAccessor(entry.getKey());
+			}
+
+			Collection<? extends Mappable> records = writer.getData();
+			this.data = new ArrayList<>(records);
+		}
+
+		/**
+		 * Convert the records between from (included) and to (excluded) into rows
+		 *
+		 * @param from
+		 * @param to
+		 * @return
+		 */
+		private String[][] convert(int from, int to) {
+
+			String[][] rows = new String[to - from][];
+
+			for (int i = from; i < to; ++i) {
+
+				Mappable record = data.get(i);
+
+				String[] row = new String[columnsCount];
+				for (int j = 0; j < columnsCount; ++j) {
+					if (accessors[j] != null)
+						row[j] = accessors[j].getValue(record);
+				}
+
+				rows[i - from] = row;
+			}
+
+			return rows;
+		}
+	}
+}
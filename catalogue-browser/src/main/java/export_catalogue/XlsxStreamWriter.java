@@ -0,0 +1,323 @@
+package export_catalogue;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Write a .xlsx workbook directly into its zip, one sheet after the other. The
+ * xml of each sheet is streamed into its zip entry while the rows are added,
+ * therefore neither the rows nor temporary files are kept. The values are
+ * written as inline strings (as the streaming workbook of POI does) and each
+ * sheet declares its dimension, so that the readers can get the number of
+ * rows without parsing the whole sheet.
+ *
+ * Usage: {@link #startSheet(String, int, int)}, {@link #writeRow(String[])}
+ * for each row, {@link #endSheet()} and at the end {@link #close()}, which
+ * writes the workbook parts.
+ *
+ * @author shahaal
+ *
+ */
+public class XlsxStreamWriter implements Closeable {
+
+	private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+	private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+	private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+	private static final String PACKAGE_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+	private static final String CONTENT_TYPE_PREFIX = "application/vnd.openxmlformats-officedocument.spreadsheetml.";
+
+	private final ZipOutputStream zip;
+	private final Writer writer;
+
+	// names of the sheets already started
+	private final List<String> sheets = new ArrayList<>();
+
+	// state of the current sheet
+	private boolean inSheet;
+	private int rowNum;
+	private String[] columnLetters;
+
+	/**
+	 * Create the writer
+	 *
+	 * @param out the stream where the workbook is written, closed with the writer
+	 */
+	public XlsxStreamWriter(OutputStream out) {
+		this.zip = new ZipOutputStream(out);
+		this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 1 << 16);
+	}
+
+	/**
+	 * Start a new sheet. The sheet must have at most the declared number of rows
+	 * and columns.
+	 *
+	 * @param name         the name of the sheet
+	 * @param rowsCount    number of rows which will be written (headers included)
+	 * @param columnsCount number of columns of the sheet
+	 * @throws IOException
+	 */
+	public void startSheet(String name, int rowsCount, int columnsCount) throws IOException {
+
+		if (inSheet)
+			endSheet();
+
+		sheets.add(name);
+
+		zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheets.size() + ".xml"));
+
+		columnLetters = new String[columnsCount];
+		for (int i = 0; i < columnsCount; ++i)
+			columnLetters[i] = getColumnLetter(i);
+
+		rowNum = 0;
+		inSheet = true;
+
+		String dimension = "A1";
+		if (rowsCount > 0 && columnsCount > 0)
+			dimension = dimension + ":" + columnLetters[columnsCount - 1] + rowsCount;
+
+		writer.write(XML_HEADER);
+		writer.write("<worksheet xmlns=\"" + MAIN_NS + "\"><dimension ref=\"" + dimension + "\"/><sheetData>");
+	}
+
+	/**
+	 * Write a row in the current sheet. Null values are left as empty cells.
+	 *
+	 * @param values the values of the row by column index
+	 * @throws IOException
+	 */
+	public void writeRow(String[] values) throws IOException {
+
+		if (!inSheet)
+			throw new IllegalStateException("Call startSheet() before writing rows");
+
+		String row = String.valueOf(++rowNum);
+
+		writer.write("<row r=\"");
+		writer.write(row);
+		writer.write("\">");
+
+		for (int i = 0; i < values.length && i < columnLetters.length; ++i) {
+
+			String value = values[i];
+
+			if (value == null)
+				continue;
+
+			writer.write("<c r=\"");
+			writer.write(columnLetters[i]);
+			writer.write(row);
+			writer.write("\" t=\"inlineStr\"><is><t");
+
+			// keep leading and trailing spaces
+			if (!value.isEmpty() && (Character.isWhitespace(value.charAt(0))
+					|| Character.isWhitespace(value.charAt(value.length() - 1))))
+				writer.write(" xml:space=\"preserve\"");
+
+			writer.write('>');
+			writeEscaped(value);
+			writer.write("</t></is></c>");
+		}
+
+		writer.write("</row>");
+	}
+
+	/**
+	 * Close the current sheet
+	 *
+	 * @throws IOException
+	 */
+	public void endSheet() throws IOException {
+
+		if (!inSheet)
+			return;
+
+		writer.write("</sheetData></worksheet>");
+		writer.flush();
+
+		zip.closeEntry();
+
+		inSheet = false;
+	}
+
+	/**
+	 * Write the workbook parts and close the zip
+	 */
+	@Override
+	public void close() throws IOException {
+
+		try {
+
+			endSheet();
+
+			writeEntry("[Content_Types].xml", getContentTypes());
+			writeEntry("_rels/.rels", "<Relationships xmlns=\"" + PACKAGE_REL_NS + "\">"
+					+ "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+					+ "</Relationships>");
+			writeEntry("xl/workbook.xml", getWorkbook());
+			writeEntry("xl/_rels/workbook.xml.rels", getWorkbookRelationships());
+			writeEntry("xl/styles.xml", getStyles());
+
+			writer.flush();
+			zip.finish();
+
+		} finally {
+			writer.close();
+		}
+	}
+
+	private void writeEntry(String name, String content) throws IOException {
+		zip.putNextEntry(new ZipEntry(name));
+		writer.write(XML_HEADER);
+		writer.write(content);
+		writer.flush();
+		zip.closeEntry();
+	}
+
+	private String getContentTypes() {
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+				.append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>")
+				.append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+				.append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"").append(CONTENT_TYPE_PREFIX)
+				.append("sheet.main+xml\"/>")
+				.append("<Override PartName=\"/xl/styles.xml\" ContentType=\"").append(CONTENT_TYPE_PREFIX)
+				.append("styles+xml\"/>");
+
+		for (int i = 1; i <= sheets.size(); ++i) {
+			sb.append("<Override PartName=\"/xl/worksheets/sheet").append(i).append(".xml\" ContentType=\"")
+					.append(CONTENT_TYPE_PREFIX).append("worksheet+xml\"/>");
+		}
+
+		return sb.append("</Types>").toString();
+	}
+
+	private String getWorkbook() {
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("<workbook xmlns=\"").append(MAIN_NS).append("\" xmlns:r=\"").append(REL_NS).append("\"><sheets>");
+
+		for (int i = 1; i <= sheets.size(); ++i) {
+			sb.append("<sheet name=\"").append(escape(sheets.get(i - 1))).append("\" sheetId=\"").append(i)
+					.append("\" r:id=\"rId").append(i).append("\"/>");
+		}
+
+		return sb.append("</sheets></workbook>").toString();
+	}
+
+	private String getWorkbookRelationships() {
+
+		StringBuilder sb = new StringBuilder();
+		sb.append("<Relationships xmlns=\"").append(PACKAGE_REL_NS).append("\">");
+
+		for (int i = 1; i <= sheets.size(); ++i) {
+			sb.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(REL_NS)
+					.append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+		}
+
+		// styles after the sheets
+		sb.append("<Relationship Id=\"rId").append(sheets.size() + 1).append("\" Type=\"").append(REL_NS)
+				.append("/styles\" Target=\"styles.xml\"/>");
+
+		return sb.append("</Relationships>").toString();
+	}
+
+	private static String getStyles() {
+		return "<styleSheet xmlns=\"" + MAIN_NS + "\">"
+				+ "<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+				+ "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+				+ "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+				+ "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+				+ "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+				+ "<cellXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/></cellXfs>"
+				+ "</styleSheet>";
+	}
+
+	/**
+	 * Write a value escaping the xml characters. Control characters which are not
+	 * allowed in xml are replaced with ? (as the POI streaming workbook does)
+	 *
+	 * @param value
+	 * @throws IOException
+	 */
+	private void writeEscaped(String value) throws IOException {
+
+		int last = 0;
+
+		for (int i = 0; i < value.length(); ++i) {
+
+			char c = value.charAt(i);
+
+			String replacement;
+
+			switch (c) {
+			case '<':
+				replacement = "&lt;";
+				break;
+			case '>':
+				replacement = "&gt;";
+				break;
+			case '&':
+				replacement = "&amp;";
+				break;
+			case '"':
+				replacement = "&quot;";
+				break;
+			case '\n':
+				replacement = "&#xa;";
+				break;
+			case '\r':
+				replacement = "&#xd;";
+				break;
+			case '\t':
+				replacement = "&#x9;";
+				break;
+			default:
+				if (c < 0x20 || c == '\uFFFE' || c == '\uFFFF')
+					replacement = "?";
+				else
+					replacement = null;
+				break;
+			}
+
+			if (replacement == null)
+				continue;
+
+			writer.write(value, last, i - last);
+			writer.write(replacement);
+			last = i + 1;
+		}
+
+		writer.write(value, last, value.length() - last);
+	}
+
+	private static String escape(String value) {
+		return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+	}
+
+	/**
+	 * Get the letters of a column (0 is A, 26 is AA)
+	 *
+	 * @param index
+	 * @return
+	 */
+	private static String getColumnLetter(int index) {
+
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = index + 1; i > 0; i = (i - 1) / 26)
+			sb.insert(0, (char) ('A' + (i - 1) % 26));
+
+		return sb.toString();
+	}
+}
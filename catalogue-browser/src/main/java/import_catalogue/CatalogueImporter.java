@@ -25,7 +25,6 @@ import catalogue_object.Term;
 import catalogue_object.TermAttribute;
 import progress_bar.IProgressBar;
 import utilities.GlobalUtil;
-import xml_to_excel.XmlCatalogueToExcel;
 import zip_manager.ZipManager;
 
 public class CatalogueImporter {
@@ -177,41 +176,16 @@ public class CatalogueImporter {
 		return null;
 	}
 
-	/**
-	 * Process an .xml file to create a .xlsx catalogue file
-	 * 
-	 * @param filename xml filename
-	 * @return the created xlsx file
-	 * @throws TransformerException
-	 */
-	private String processXml(String filename) throws TransformerException {
-
-		String outputFilename = filename + ".xlsx";
-
-		// convert the xml into an excel
-		XmlCatalogueToExcel converter = new XmlCatalogueToExcel(filename, outputFilename);
-
-		// do the conversion
-		converter.convertXmlToExcel();
-
-		LOGGER.info("Processed xml filename: " + outputFilename);
-		return outputFilename;
-	}
-
 	/**
 	 * Import an .ecf catalogue
 	 * 
 	 * @param filename the absolute path of the .ecf file
-	 * @throws TransformerException
 	 * @throws SQLException
-	 * @throws SAXException
-	 * @throws OpenXML4JException
 	 * @throws XMLStreamException
 	 * @throws IOException
 	 * @throws ImportException
 	 */
-	private void importEcf(String filename) throws TransformerException, IOException, XMLStreamException,
-			OpenXML4JException, SAXException, SQLException, ImportException {
+	private void importEcf(String filename) throws IOException, XMLStreamException, SQLException, ImportException {
 
 		String xmlFile = processEcf(filename);
 
@@ -224,28 +198,25 @@ public class CatalogueImporter {
 	}
 
 	/**
-	 * Import a .xml catalogue
+	 * Import a .xml catalogue. The xml is read directly, without converting it
+	 * into a temporary .xlsx catalogue
 	 * 
 	 * @param filename the absolute path of the .xml catalogue
-	 * @throws TransformerException
 	 * @throws SQLException
-	 * @throws SAXException
-	 * @throws OpenXML4JException
 	 * @throws XMLStreamException
 	 * @throws IOException
 	 * @throws ImportException
 	 */
-	private void importXml(String filename) throws TransformerException, IOException, XMLStreamException,
-			OpenXML4JException, SAXException, SQLException, ImportException {
+	private void importXml(String filename) throws IOException, XMLStreamException, SQLException, ImportException {
 
-		String xlsxFile = processXml(filename);
+		CatalogueWorkbookImporter importer = createImporter();
 
-		// at the end of the process delete the
-		// temporary xlsx file
-		garbage.add(xlsxFile);
+		// import the catalogue contained in the
+		// xml file into the specified path (db path)
+		importer.importXml(progressBar, filename, maxProgress - preprocProgress);
 
-		// import the xlsx catalogue
-		importXlsx(xlsxFile);
+		// delete all the temporary files
+		deleteGarbage();
 	}
 
 	/**
@@ -262,8 +233,23 @@ public class CatalogueImporter {
 	private void importXlsx(final String filename)
 			throws IOException, XMLStreamException, OpenXML4JException, SAXException, SQLException, ImportException {
 
-		// instantiate the workbook importer and set
-		// some settings
+		CatalogueWorkbookImporter importer = createImporter();
+
+		// import the catalogue contained in the
+		// xlsx file into the specified path (db path)
+		importer.importWorkbook(progressBar, filename, maxProgress - preprocProgress);
+
+		// delete all the temporary files
+		deleteGarbage();
+	}
+
+	/**
+	 * Instantiate the workbook importer and set some settings
+	 * 
+	 * @return
+	 */
+	private CatalogueWorkbookImporter createImporter() {
+
 		CatalogueWorkbookImporter importer = null;
 
 		if (this.attrDao == null)
@@ -274,12 +260,11 @@ public class CatalogueImporter {
 		if (openedCat != null)
 			importer.setOpenedCatalogue(openedCat);
 
-		// import the catalogue contained in the
-		// xlsx file into the specified path (db path)
-		importer.importWorkbook(progressBar, filename, maxProgress - preprocProgress);
+		// a new catalogue is imported in an empty database, therefore the
+		// foreign keys can be built once at the end
+		importer.setRebuildForeignKeys(openedCat == null);
 
-		// delete all the temporary files
-		deleteGarbage();
+		return importer;
 	}
 
 	/**
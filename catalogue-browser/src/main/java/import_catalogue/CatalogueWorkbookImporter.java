@@ -2,7 +2,14 @@ package import_catalogue;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.stream.XMLStreamException;
 
@@ -15,6 +22,7 @@ import org.xml.sax.SAXException;
 import catalogue.Catalogue;
 import catalogue.ReleaseNotesOperation;
 import catalogue_browser_dao.AttributeDAO;
+import catalogue_browser_dao.BulkInsert;
 import catalogue_browser_dao.CatalogueDAO;
 import catalogue_browser_dao.CatalogueEntityDAO;
 import catalogue_browser_dao.CatalogueRelationDAO;
@@ -37,6 +45,8 @@ import progress_bar.IProgressBar;
 import ui_search_bar.SearchOptionDAO;
 import user_preferences.CataloguePreferenceDAO;
 import utilities.GlobalUtil;
+import xml_reader.CatalogueXmlReader;
+import xml_reader.SheetRows;
 
 /**
  * Import an entire catalogue workbook (xslx) into the database
@@ -49,6 +59,12 @@ public class CatalogueWorkbookImporter {
 
 	private static final Logger LOGGER = LogManager.getLogger(CatalogueWorkbookImporter.class);
 
+	// rows of each batch of the term sheet
+	private static final int BATCH_SIZE = 100;
+
+	// batches of the term sheet which can wait to be imported
+	private static final int QUEUE_SIZE = 4;
+
 	private ICatalogueDAO catDao;
 	private CatalogueEntityDAO<Attribute> attrDao;
 	private CatalogueEntityDAO<Hierarchy> hierDao;
@@ -62,6 +78,9 @@ public class CatalogueWorkbookImporter {
 	private IProgressBar progressBar;
 	private double maxProgress;
 
+	// drop the foreign keys of the relation tables during the import
+	private boolean rebuildForeignKeys;
+
 	public CatalogueWorkbookImporter() {
 		this.catDao = new CatalogueDAO();
 		this.attrDao = null;
@@ -96,6 +115,18 @@ public class CatalogueWorkbookImporter {
 		this.openedCat = openedCat;
 	}
 
+	/**
+	 * Set this to true to remove the foreign keys of the term attribute and parent
+	 * term tables while the term relations are imported, and to add them again at
+	 * the end. Their indexes are then built once instead of row by row. Use it
+	 * only for new catalogues, since the keys are not checked during the import.
+	 * 
+	 * @param rebuildForeignKeys
+	 */
+	public void setRebuildForeignKeys(boolean rebuildForeignKeys) {
+		this.rebuildForeignKeys = rebuildForeignKeys;
+	}
+
 	private void initDaos(Catalogue catalogue) {
 
 		if (this.attrDao == null) {
@@ -126,7 +157,7 @@ public class CatalogueWorkbookImporter {
 	 * @throws ImportException
 	 * @throws Exception
 	 */
-	public void importWorkbook(IProgressBar pb, String filename, double maxProgress)
+	public void importWorkbook(IProgressBar pb, final String filename, double maxProgress)
 			throws IOException, XMLStreamException, OpenXML4JException, SAXException, SQLException, ImportException {
 
 		this.progressBar = pb;
@@ -143,71 +174,196 @@ public class CatalogueWorkbookImporter {
 
 			CatalogueSheetImporter catImp = importCatalogueSheet(workbookReader);
 
-			Catalogue importedCat = catImp.getImportedCatalogue();
-			String catExcelCode = catImp.getExcelCode();
+			final Catalogue importedCat = catImp.getImportedCatalogue();
+			final String catExcelCode = catImp.getExcelCode();
 
 			// prepare daos to import data
 			this.initDaos(importedCat);
 
-			// import hierarchies
-			LOGGER.info("Import hierarchy sheet");
-
+			// the sheets which depend only on the catalogue are imported
+			// at the same time, the small ones with their own readers
+			LOGGER.info("Import hierarchy, attribute, term and release notes sheets");
 			if (progressBar != null)
-				progressBar.setLabel(CBMessages.getString("Import.Hierarchy"));
-
-			importHierarchySheet(workbookReader, importedCat, catExcelCode);
+				progressBar.setLabel(CBMessages.getString("Import.Term"));
 
-			// import attributes
-			LOGGER.info("Import attribute sheet");
-			if (progressBar != null)
-				progressBar.setLabel(CBMessages.getString("Import.Attribute"));
-			importAttributeSheet(workbookReader, importedCat);
+			long start = System.currentTimeMillis();
+
+			ExecutorService executor = Executors.newFixedThreadPool(3);
+
+			TermSheetImporter termImp;
+			try {
+
+				List<Future<Void>> sheets = new ArrayList<>();
+
+				sheets.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						try (WorkbookReader reader = new WorkbookReader(filename)) {
+							importHierarchySheet(reader, importedCat, catExcelCode);
+						}
+						return null;
+					}
+				}));
+
+				sheets.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						try (WorkbookReader reader = new WorkbookReader(filename)) {
+							importAttributeSheet(reader, importedCat);
+						}
+						return null;
+					}
+				}));
+
+				sheets.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						try (WorkbookReader reader = new WorkbookReader(filename)) {
+							importReleaseNotes(reader, importedCat);
+						}
+						return null;
+					}
+				}));
+
+				// import terms in this thread
+				termImp = importTermSheet(workbookReader, importedCat);
+
+				// wait for the other sheets
+				waitFor(sheets);
+
+			} finally {
+				executor.shutdownNow();
+			}
 
-			// import terms
-			LOGGER.info("Import term sheet");
-			if (progressBar != null)
-				progressBar.setLabel(CBMessages.getString("Import.Term"));
-			TermSheetImporter termImp = importTermSheet(workbookReader, importedCat);
+			LOGGER.info("Stage sheets completed in " + (System.currentTimeMillis() - start) + " ms");
 
-			// import term attributes and parent
+			// import term attributes and parent (they need the terms,
+			// the hierarchies and the attributes)
 			LOGGER.info("Import term attributes and parents sheet");
 			if (progressBar != null)
 				progressBar.setLabel(CBMessages.getString("Import.TermAttrParent"));
+
+			start = System.currentTimeMillis();
+
 			importTermRelations(workbookReader, importedCat, termImp.getNewCodes());
 
-			// import the release note sheet
-			LOGGER.info("Import release notes sheet");
-			if (progressBar != null)
-				progressBar.setLabel(CBMessages.getString("Import.ReleaseNotes"));
-			importReleaseNotes(workbookReader, importedCat);
+			LOGGER.info("Stage term relations completed in " + (System.currentTimeMillis() - start) + " ms");
 
 			// close the connection with excel reader
 			workbookReader.close();
 
-			// insert default preferences
-			// after having imported the excel, we can insert the default preferences
-			LOGGER.info("Creating default preferences");
+			importDefaults(importedCat);
+		}
+	}
+
+	/**
+	 * Import a catalogue xml. The sheets are read directly from the xml (see
+	 * {@link CatalogueXmlReader}) and passed to the same importers used for the
+	 * workbook, without converting the xml into a workbook. The xml is read once
+	 * skipping the terms to get the catalogue, hierarchies, attributes and release
+	 * notes, then the terms are streamed twice, once to import them and once to
+	 * import their attributes and parents (which could be defined before the
+	 * parent terms).
+	 * 
+	 * @param pb
+	 * @param filename    the catalogue xml
+	 * @param maxProgress
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 * @throws SQLException
+	 * @throws ImportException
+	 */
+	public void importXml(IProgressBar pb, String filename, double maxProgress)
+			throws IOException, XMLStreamException, SQLException, ImportException {
+
+		this.progressBar = pb;
+		this.maxProgress = maxProgress;
+
+		long start = System.currentTimeMillis();
+
+		try (CatalogueXmlReader xmlReader = new CatalogueXmlReader(filename)) {
+
+			xmlReader.readCatalogue();
+
+			// import catalogue
+			LOGGER.info("Import catalogue from xml");
+
 			if (progressBar != null)
-				progressBar.setLabel(CBMessages.getString("Import.Preferences"));
+				progressBar.setLabel(CBMessages.getString("Import.Catalogue"));
 
-			CataloguePreferenceDAO prefDao = new CataloguePreferenceDAO(importedCat);
-			prefDao.insertDefaultPreferences();
+			SheetRows catSheet = xmlReader.getCatalogueSheet();
+			CatalogueSheetImporter catImp = importCatalogueSheet(CatalogueXmlSource.toDataSet(catSheet),
+					catSheet.size());
 
-			// insert the default search options
-			SearchOptionDAO optDao = new SearchOptionDAO(importedCat);
-			optDao.insertDefaultSearchOpt();
+			Catalogue importedCat = catImp.getImportedCatalogue();
+			String catExcelCode = catImp.getExcelCode();
 
-			if (progressBar != null) {
-				// add progress
-				double prog = ProgressSettings.getProgress(ProgressSettings.DEFAULT_PREF, maxProgress);
-				progressBar.addProgress(prog);
-			}
+			this.initDaos(importedCat);
+
+			LOGGER.info("Import hierarchies, attributes, release notes and terms from xml");
+			if (progressBar != null)
+				progressBar.setLabel(CBMessages.getString("Import.Term"));
+
+			SheetRows hierSheet = xmlReader.getHierarchySheet();
+			importHierarchySheet(CatalogueXmlSource.toDataSet(hierSheet), hierSheet.size(), importedCat,
+					catExcelCode);
+
+			SheetRows attrSheet = xmlReader.getAttributeSheet();
+			importAttributeSheet(CatalogueXmlSource.toDataSet(attrSheet), attrSheet.size(), importedCat);
+
+			SheetRows notesSheet = xmlReader.getNotesSheet();
+			importReleaseNotes(CatalogueXmlSource.toDataSet(notesSheet), notesSheet.size(), importedCat);
+
+			int termsCount = xmlReader.getTermsCount();
+
+			TermSheetImporter termImp = importTermSheet(new SheetPipeline(new CatalogueXmlSource(xmlReader),
+					Headers.TERM_SHEET_NAME, BATCH_SIZE, QUEUE_SIZE), termsCount, importedCat);
+
+			LOGGER.info("Import term attributes and parents from xml");
+			if (progressBar != null)
+				progressBar.setLabel(CBMessages.getString("Import.TermAttrParent"));
+
+			importTermRelations(new SheetPipeline(new CatalogueXmlSource(xmlReader), Headers.TERM_SHEET_NAME,
+					BATCH_SIZE, QUEUE_SIZE), termsCount, importedCat, termImp.getNewCodes());
+
+			xmlReader.close();
+
+			importDefaults(importedCat);
+		}
+
+		LOGGER.info("Catalogue xml " + filename + " imported in " + (System.currentTimeMillis() - start) + " ms");
+	}
+
+	/**
+	 * Insert the default preferences and search options of the imported catalogue
+	 * 
+	 * @param importedCat
+	 */
+	private void importDefaults(Catalogue importedCat) {
 
-			LOGGER.info(importedCat + " successfully imported in " + importedCat.getDbPath());
+		// insert default preferences
+		// after having imported the excel, we can insert the default preferences
+		LOGGER.info("Creating default preferences");
+		if (progressBar != null)
+			progressBar.setLabel(CBMessages.getString("Import.Preferences"));
 
-			// clear temporary files
-			GlobalUtil.clearTempDir();
+		CataloguePreferenceDAO prefDao = new CataloguePreferenceDAO(importedCat);
+		prefDao.insertDefaultPreferences();
+
+		// insert the default search options
+		SearchOptionDAO optDao = new SearchOptionDAO(importedCat);
+		optDao.insertDefaultSearchOpt();
+
+		if (progressBar != null) {
+			// add progress
+			double prog = ProgressSettings.getProgress(ProgressSettings.DEFAULT_PREF, maxProgress);
+			progressBar.addProgress(prog);
 		}
+
+		LOGGER.info(importedCat + " successfully imported in " + importedCat.getDbPath());
+
+		// clear temporary files
+		GlobalUtil.clearTempDir();
 	}
 
 	/**
@@ -232,13 +388,25 @@ public class CatalogueWorkbookImporter {
 		// (the open catalogue and the one we want to import)
 		workbookReader.processSheetName(Headers.CAT_SHEET_NAME);
 
-		ResultDataSet sheetData = workbookReader.next();
+		return importCatalogueSheet(workbookReader.next(), workbookReader.getRowCount());
+	}
+
+	/**
+	 * Import the rows of the catalogue sheet
+	 * 
+	 * @param sheetData
+	 * @param rowCount
+	 * @return
+	 * @throws ImportException
+	 */
+	private CatalogueSheetImporter importCatalogueSheet(ResultDataSet sheetData, int rowCount)
+			throws ImportException {
 
 		CatalogueSheetImporter catImp = new CatalogueSheetImporter(catDao);
 
 		if (progressBar != null) {
 			double prog = ProgressSettings.getProgress(ProgressSettings.CAT_SHEET, maxProgress);
-			catImp.setProgressBar(progressBar, workbookReader.getRowCount(), prog);
+			catImp.setProgressBar(progressBar, rowCount, prog);
 		}
 
 		if (openedCat != null)
@@ -275,13 +443,25 @@ public class CatalogueWorkbookImporter {
 		// get the attribute sheet
 		workbookReader.processSheetName(Headers.ATTR_SHEET_NAME);
 
-		ResultDataSet sheetData = workbookReader.next();
+		importAttributeSheet(workbookReader.next(), workbookReader.getRowCount(), catalogue);
+	}
+
+	/**
+	 * Import the rows of the attribute sheet and the related term types
+	 * 
+	 * @param sheetData
+	 * @param rowCount
+	 * @param catalogue
+	 * @throws ImportException
+	 */
+	private void importAttributeSheet(ResultDataSet sheetData, int rowCount, Catalogue catalogue)
+			throws ImportException {
 
 		AttributeSheetImporter attrImp = new AttributeSheetImporter(attrDao, catalogue);
 
 		if (progressBar != null) {
 			double prog = ProgressSettings.getProgress(ProgressSettings.ATTR_SHEET, maxProgress);
-			attrImp.setProgressBar(progressBar, workbookReader.getRowCount(), prog);
+			attrImp.setProgressBar(progressBar, rowCount, prog);
 		}
 
 		// start the import
@@ -319,13 +499,26 @@ public class CatalogueWorkbookImporter {
 		// get the hierarchy sheet
 		workbookReader.processSheetName(Headers.HIER_SHEET_NAME);
 
-		ResultDataSet sheetData = workbookReader.next();
+		importHierarchySheet(workbookReader.next(), workbookReader.getRowCount(), catalogue, catExcelCode);
+	}
+
+	/**
+	 * Import the rows of the hierarchy sheet
+	 * 
+	 * @param sheetData
+	 * @param rowCount
+	 * @param catalogue
+	 * @param catExcelCode the master hierarchy code
+	 * @throws ImportException
+	 */
+	private void importHierarchySheet(ResultDataSet sheetData, int rowCount, Catalogue catalogue,
+			String catExcelCode) throws ImportException {
 
 		HierarchySheetImporter hierImp = new HierarchySheetImporter(hierDao, catalogue, catExcelCode);
 
 		if (progressBar != null) {
 			double prog = ProgressSettings.getProgress(ProgressSettings.HIER_SHEET, maxProgress);
-			hierImp.setProgressBar(progressBar, workbookReader.getRowCount(), prog);
+			hierImp.setProgressBar(progressBar, rowCount, prog);
 		}
 
 		// start the import
@@ -335,40 +528,6 @@ public class CatalogueWorkbookImporter {
 		sheetData.close();
 	}
 
-	/**
-	 * Import a sheet in a smarter way. In particular, two parallel threads are
-	 * started. The first thread reads the data from the workbookReader object. The
-	 * second thread writes the read data into the database. Note that the first
-	 * thread reads the data also while the second one is writing the data of the
-	 * previous batch. This results in improved performances, since delay times are
-	 * reduced. Note that this method requires that you set a batch size for the
-	 * workbookReader (see {@link WorkbookReader#setBatchSize(int)}, otherwise the
-	 * data would not be separable, since they are all contained in a single big
-	 * batch.
-	 * 
-	 * @param workbookReader the reader with a sheet already loaded
-	 * @param importer       the sheet importer
-	 * @throws XMLStreamException
-	 * @throws CloneNotSupportedException
-	 * @throws IOException
-	 * @throws InvalidFormatException
-	 * @throws ImportException
-	 */
-	private void importQuickly(WorkbookReader workbookReader, String sheetName, int batchSize,
-			final SheetImporter<?> importer)
-			throws XMLStreamException, InvalidFormatException, IOException, ImportException {
-
-		QuickImporter quickImp = new QuickImporter(workbookReader, batchSize) {
-
-			@Override
-			public void importData(ResultDataSet rs) throws ImportException {
-				importer.importData(rs);
-			}
-		};
-
-		quickImp.importSheet();
-	}
-
 	/**
 	 * Import the entire term sheet into the db. Note that you have to import the
 	 * hierarchies and the attributes before importing this sheet. See
@@ -388,20 +547,37 @@ public class CatalogueWorkbookImporter {
 		
 		LOGGER.info("Importing term sheet");
 
-		final int batchSize = 100;
-
-		// get the hierarchy sheet
+		// get the term sheet
 		workbookReader.processSheetName(Headers.TERM_SHEET_NAME);
 
+		SheetPipeline pipeline = new SheetPipeline(workbookReader, Headers.TERM_SHEET_NAME, BATCH_SIZE, QUEUE_SIZE);
+
+		return importTermSheet(pipeline, workbookReader.getRowCount(), catalogue);
+	}
+
+	/**
+	 * Import the terms parsed by the pipeline
+	 * 
+	 * @param pipeline
+	 * @param rowCount
+	 * @param catalogue
+	 * @return
+	 * @throws XMLStreamException
+	 * @throws ImportException
+	 */
+	private TermSheetImporter importTermSheet(SheetPipeline pipeline, int rowCount, Catalogue catalogue)
+			throws XMLStreamException, ImportException {
+
 		TermSheetImporter termImp = new TermSheetImporter(termDao, catalogue);
 
 		if (progressBar != null) {
 			double prog = ProgressSettings.getProgress(ProgressSettings.TERM_SHEET, maxProgress);
-			termImp.setProgressBar(progressBar, workbookReader.getRowCount(), prog);
+			termImp.setProgressBar(progressBar, rowCount, prog);
 		}
 
-		// import terms in a quick way
-		importQuickly(workbookReader, Headers.TERM_SHEET_NAME, batchSize, termImp);
+		// import terms while the next batches are read
+		pipeline.addImporter("terms", termImp);
+		pipeline.importSheet();
 
 		return termImp;
 	}
@@ -423,26 +599,108 @@ public class CatalogueWorkbookImporter {
 			throws SQLException, InvalidFormatException, XMLStreamException, IOException, ImportException {
 		
 		LOGGER.info("Importing term relations");
-		
-		final int batchSize = 100;
+
+		workbookReader.processSheetName(Headers.TERM_SHEET_NAME);
+
+		SheetPipeline pipeline = new SheetPipeline(workbookReader, Headers.TERM_SHEET_NAME, BATCH_SIZE, QUEUE_SIZE);
+
+		importTermRelations(pipeline, workbookReader.getRowCount(), catalogue, newCodes);
+	}
+
+	/**
+	 * Import term attributes and term parents of the rows parsed by the pipeline
+	 * 
+	 * @param pipeline
+	 * @param rowCount
+	 * @param catalogue
+	 * @param newCodes
+	 * @throws SQLException
+	 * @throws XMLStreamException
+	 * @throws ImportException
+	 */
+	private void importTermRelations(SheetPipeline pipeline, int rowCount, Catalogue catalogue,
+			HashMap<String, String> newCodes) throws SQLException, XMLStreamException, ImportException {
 
 		// note that we need to have imported the terms to import
-		// term attributes and parent terms!
-		// import term attributes and parent terms in a parallel way
-		// since they are independent processes
-		QuickParentAttributesImporter tapImporter = new QuickParentAttributesImporter(taDao, parentDao, catalogue,
-				workbookReader, Headers.TERM_SHEET_NAME, batchSize);
+		// term attributes and parent terms! The term ids are
+		// retrieved once for both the importers
+		HashMap<String, Integer> termIds = SheetImporter.createIdHashMap(catalogue, "TERM_ID", "TERM_CODE",
+				"APP.TERM");
+
+		TermAttributeImporter taImp = new TermAttributeImporter(taDao, catalogue, termIds);
+		ParentImporter parentImp = new ParentImporter(parentDao, catalogue, termIds);
 
 		if (progressBar != null) {
 			double progTa = ProgressSettings.getProgress(ProgressSettings.TERM_ATTR_SHEET, maxProgress);
 			double progParent = ProgressSettings.getProgress(ProgressSettings.PARENT_SHEET, maxProgress);
 
-			tapImporter.setAttributeProgressBar(progressBar, progTa);
-			tapImporter.setParentProgressBar(progressBar, progParent);
+			taImp.setProgressBar(progressBar, rowCount, progTa);
+			parentImp.setProgressBar(progressBar, rowCount, progParent);
 		}
 
-		tapImporter.manageNewTerms(newCodes);
-		tapImporter.importSheet();
+		taImp.manageNewTerms(newCodes);
+		parentImp.manageNewTerms(newCodes);
+
+		// import term attributes and parent terms in a parallel way
+		// since they are independent processes
+		pipeline.addImporter("term attributes", taImp);
+		pipeline.addImporter("parent terms", parentImp);
+
+		if (rebuildForeignKeys)
+			BulkInsert.dropForeignKeys(catalogue);
+
+		try {
+			pipeline.importSheet();
+		} finally {
+			if (rebuildForeignKeys)
+				BulkInsert.restoreForeignKeys(catalogue);
+		}
+	}
+
+	/**
+	 * Wait for the sheets imported in other threads
+	 * 
+	 * @param sheets
+	 * @throws ImportException
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 * @throws SQLException
+	 * @throws OpenXML4JException
+	 * @throws SAXException
+	 */
+	private static void waitFor(List<Future<Void>> sheets) throws ImportException, IOException,
+			XMLStreamException, SQLException, OpenXML4JException, SAXException {
+
+		for (Future<Void> sheet : sheets) {
+			try {
+				sheet.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ImportException(e);
+			} catch (ExecutionException e) {
+
+				Throwable cause = e.getCause();
+
+				LOGGER.error("Cannot import sheet", cause);
+
+				if (cause instanceof ImportException)
+					throw (ImportException) cause;
+				if (cause instanceof IOException)
+					throw (IOException) cause;
+				if (cause instanceof XMLStreamException)
+					throw (XMLStreamException) cause;
+				if (cause instanceof SQLException)
+					throw (SQLException) cause;
+				if (cause instanceof OpenXML4JException)
+					throw (OpenXML4JException) cause;
+				if (cause instanceof SAXException)
+					throw (SAXException) cause;
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+
+				throw new ImportException(e);
+			}
+		}
 	}
 
 	/**
@@ -460,23 +718,41 @@ public class CatalogueWorkbookImporter {
 
 			workbookReader.processSheetName(Headers.NOTES_SHEET_NAME);
 
-			ResultDataSet sheetData = workbookReader.next();
+			importReleaseNotes(workbookReader.next(), workbookReader.getRowCount(), catalogue);
+
+			workbookReader.getSheetParser().close();
+
+		} catch (Exception e) {
+			LOGGER.error("Release notes not found for " + catalogue, e);
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Import the rows of the release notes sheet
+	 * 
+	 * @param sheetData
+	 * @param rowCount
+	 * @param catalogue
+	 */
+	private void importReleaseNotes(ResultDataSet sheetData, int rowCount, Catalogue catalogue) {
+
+		try {
 
 			NotesSheetImporter notesImp = new NotesSheetImporter(notesDao);
 
 			if (progressBar != null) {
 				double prog = ProgressSettings.getProgress(ProgressSettings.NOTES_SHEET, maxProgress);
 
-				notesImp.setProgressBar(progressBar, workbookReader.getRowCount(), prog);
+				notesImp.setProgressBar(progressBar, rowCount, prog);
 			}
 
 			notesImp.importData(sheetData);
 
-			workbookReader.getSheetParser().close();
 			sheetData.close();
 
-		} catch (Exception e) {
-			LOGGER.error("Release notes not found for " + catalogue, e);
+		} catch (ImportException e) {
+			LOGGER.error("Cannot import release notes for " + catalogue, e);
 			e.printStackTrace();
 		}
 	}
@@ -0,0 +1,124 @@
+package import_catalogue;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import open_xml_reader.ResultDataSet;
+import xml_reader.CatalogueXmlReader;
+import xml_reader.SheetRows;
+
+/**
+ * Give the terms of a catalogue xml to a {@link SheetPipeline} as batches of
+ * rows of the term sheet, so that the sheet importers can import the xml as
+ * they import a workbook. The batches are reused in rotation as the workbook
+ * reader does, therefore only a few batches are kept in memory.
+ *
+ * @author shahaal
+ *
+ */
+public class CatalogueXmlSource implements SheetPipeline.BatchSource {
+
+	private CatalogueXmlReader reader;
+
+	private ResultDataSet[] buffers;
+	private int current;
+	private int batchSize;
+
+	// the first term which is not in a batch yet
+	private String[] nextTerm;
+
+	/**
+	 * Start reading the terms of the xml from the beginning
+	 *
+	 * @param reader reader of the catalogue xml, on which
+	 *               {@link CatalogueXmlReader#readCatalogue()} was already called
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 */
+	public CatalogueXmlSource(CatalogueXmlReader reader) throws IOException, XMLStreamException {
+
+		this.reader = reader;
+
+		setBatches(100, 1);
+
+		reader.openTerms();
+		nextTerm = reader.nextTerm();
+	}
+
+	@Override
+	public void setBatches(int batchSize, int buffersCount) {
+
+		this.batchSize = batchSize;
+		this.buffers = new ResultDataSet[buffersCount];
+		this.current = 0;
+
+		for (int i = 0; i < buffersCount; ++i)
+			buffers[i] = createDataSet(reader.getTermColumns());
+	}
+
+	@Override
+	public boolean hasNext() {
+		return nextTerm != null;
+	}
+
+	@Override
+	public ResultDataSet next() throws XMLStreamException {
+
+		ResultDataSet batch = buffers[current];
+		current = (current + 1) % buffers.length;
+
+		batch.clear();
+
+		while (nextTerm != null && batch.getRowsCount() < batchSize) {
+			addRow(batch, nextTerm);
+			nextTerm = reader.nextTerm();
+		}
+
+		return batch;
+	}
+
+	/**
+	 * Convert all the rows of a sheet into a data set
+	 *
+	 * @param sheet
+	 * @return
+	 */
+	public static ResultDataSet toDataSet(SheetRows sheet) {
+
+		ResultDataSet data = createDataSet(sheet.getColumns());
+
+		for (String[] row : sheet.getRows())
+			addRow(data, row);
+
+		return data;
+	}
+
+	/**
+	 * Create an empty data set with the selected headers
+	 *
+	 * @param columns
+	 * @return
+	 */
+	private static ResultDataSet createDataSet(List<String> columns) {
+
+		ResultDataSet data = new ResultDataSet();
+
+		// headers are in upper case as in the workbook reader
+		for (int i = 0; i < columns.size(); ++i)
+			data.setHeader(columns.get(i).toUpperCase(), i);
+
+		return data;
+	}
+
+	private static void addRow(ResultDataSet data, String[] row) {
+
+		for (int i = 0; i < row.length; ++i) {
+			if (row[i] != null)
+				data.setElem(i, row[i]);
+		}
+
+		data.setRow();
+	}
+}
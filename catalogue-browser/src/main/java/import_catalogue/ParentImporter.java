@@ -48,13 +48,24 @@ public class ParentImporter extends SheetImporter<Applicability> {
 
 	public ParentImporter(CatalogueRelationDAO<Applicability, Term, Hierarchy> dao, Catalogue catalogue)
 			throws SQLException {
+		// get all the term ids of the database of the catalogue
+		this(dao, catalogue, createIdHashMap(catalogue, "TERM_ID", "TERM_CODE", "APP.TERM"));
+	}
+
+	/**
+	 * Create the importer using the term ids already retrieved from the database
+	 * 
+	 * @param dao
+	 * @param catalogue
+	 * @param termIds   term code => term id of all the catalogue terms
+	 */
+	public ParentImporter(CatalogueRelationDAO<Applicability, Term, Hierarchy> dao, Catalogue catalogue,
+			HashMap<String, Integer> termIds) {
 		this.dao = dao;
 		this.catalogue = catalogue;
 		this.newCodes = new HashMap<>();
 		this.tempAppl = new ArrayList<>();
-
-		// get all the term ids of the database of the catalogue
-		this.termIds = createIdHashMap(catalogue, "TERM_ID", "TERM_CODE", "APP.TERM");
+		this.termIds = termIds;
 
 		// get all the hierarchies of the catalogue
 		HierarchyDAO hierDao = new HierarchyDAO(catalogue);
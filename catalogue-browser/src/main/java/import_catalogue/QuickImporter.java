@@ -38,7 +38,6 @@ public abstract class QuickImporter {
 	 * @author shahaal
 	 * @author avonva
 	 * 
-	 * @throws CloneNotSupportedException
 	 * @throws XMLStreamException
 	 * @throws IOException
 	 * @throws InvalidFormatException
@@ -61,20 +60,12 @@ public abstract class QuickImporter {
 			// read the first batch
 			while (fetched != null) {
 
-				// copy the data set to use it in the import
-				ResultDataSet current = null;
-				try {
-					current = (ResultDataSet) fetched.clone();
-				} catch (CloneNotSupportedException e1) {
-					LOGGER.error("Error during clone ", e1);
-					e1.printStackTrace();
-					return;
-				}
+				// the reader fills a different data set with
+				// the next batch, therefore the current one
+				// can be imported without copying it
+				ResultDataSet current = fetched;
 
 				// meanwhile read the second batch
-				// note that this will override the fetched
-				// result data set since we are pointing to
-				// that result data set
 				SheetReaderThread t = new SheetReaderThread(workbookReader);
 				t.start();
 
@@ -87,21 +78,17 @@ public abstract class QuickImporter {
 
 					t.join();
 
-					// close used result set
-					current.close();
-
 					// if no next data stop!
-					if (t.getData() == null) {
-						if (fetched != null) {
-							fetched.close();
-							fetched = null;
-						}
-					}
+					fetched = t.getData();
+
 				} catch (InterruptedException e) {
 					LOGGER.error("Cannot import sheet", e);
 					e.printStackTrace();
+					fetched = null;
 				}
-				// solve memory leak
+
+				// close used result set, it will be reused
+				// by the reader for the batch after the next one
 				current.close();
 			}
 		} catch (Exception e) {
@@ -109,11 +96,11 @@ public abstract class QuickImporter {
 			e.printStackTrace();
 		} finally {
 			try {
-				fetched.close();
+				if (fetched != null)
+					fetched.close();
 			} catch (Exception e) {
 				LOGGER.error("Error during close", e);
 				e.printStackTrace();
-				// TODO: handle exception
 			}
 		}
 
@@ -111,16 +111,9 @@ public class QuickParentAttributesImporter extends QuickImporter {
 			@Override
 			public void run() {
 
-				// copy result data set to perform
-				// parallel actions
-				ResultDataSet clonedRs;
-				try {
-					clonedRs = (ResultDataSet) rs.clone();
-				} catch (CloneNotSupportedException e) {
-					LOGGER.error("Cannot import result data set batch", e);
-					e.printStackTrace();
-					return;
-				}
+				// read the same rows with another cursor
+				// to perform parallel actions
+				ResultDataSet clonedRs = rs.createView();
 
 				// import the dataset
 				try {
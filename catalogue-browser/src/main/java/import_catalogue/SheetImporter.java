@@ -28,6 +28,7 @@ public abstract class SheetImporter<T> {
 	private IProgressBar progressBar;
 	private int rowCount;
 	private double maxProgress;
+	private double addedProgress;
 
 	/**
 	 * Start the import process of the sheet.
@@ -70,16 +71,12 @@ public abstract class SheetImporter<T> {
 		}
 
 		// insert all the remaining T objects into the db
-		if (!objs.isEmpty()) {
-
+		if (!objs.isEmpty())
 			insert(objs);
 
-			// notify the progress if enabled
-			if (progressBar != null) {
-				double progress = (processedSheetRows * maxProgress * 1.0000000) / rowCount;
-				progressBar.addProgress(progress);
-			}
-		}
+		// notify the progress of the batch if enabled
+		if (progressBar != null && processedSheetRows > 0)
+			addProgress(processedSheetRows);
 
 		objs.clear();
 		objs = null;
@@ -88,17 +85,41 @@ public abstract class SheetImporter<T> {
 		end();
 	}
 
+	/**
+	 * Add the progress of the processed rows. Since the rows count of the sheet
+	 * could be an estimate, the progress never exceeds the maximum progress.
+	 * 
+	 * @param processedSheetRows
+	 */
+	private void addProgress(int processedSheetRows) {
+
+		double progress = rowCount > 0 ? (processedSheetRows * maxProgress * 1.0000000) / rowCount : maxProgress;
+
+		progress = Math.min(progress, maxProgress - addedProgress);
+
+		if (progress <= 0)
+			return;
+
+		addedProgress += progress;
+
+		// more sheets can be imported at the same time
+		synchronized (progressBar) {
+			progressBar.addProgress(progress);
+		}
+	}
+
 	/**
 	 * Set a progress bar for the process
 	 * 
 	 * @param progressBar progress bar which will be notified of the progress
-	 * @param rowCount    number of rows contained in the sheet
+	 * @param rowCount    number of rows contained in the sheet (also estimated)
 	 * @param maxProgress maximum progress achievable with this sheet import
 	 */
 	public void setProgressBar(IProgressBar progressBar, int rowCount, double maxProgress) {
 		this.progressBar = progressBar;
 		this.rowCount = rowCount;
 		this.maxProgress = maxProgress;
+		this.addedProgress = 0;
 	}
 
 	/**
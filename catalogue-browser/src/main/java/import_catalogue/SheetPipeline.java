@@ -0,0 +1,298 @@
+package import_catalogue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import open_xml_reader.ResultDataSet;
+import open_xml_reader.WorkbookReader;
+
+/**
+ * Import a sheet with one or more importers at the same time. The sheet is
+ * parsed in batches by the calling thread, while each importer runs in its own
+ * thread and receives the batches through a bounded queue. When a queue is full
+ * the parsing waits for the importer (back-pressure), therefore only
+ * {@code queueSize + 2} batches are kept in memory. The batches are not copied,
+ * each importer reads them with its own cursor (see
+ * {@link ResultDataSet#createView()}).
+ *
+ * At the end the time spent parsing, waiting for the importers and importing
+ * is logged for each stage, in order to profile the import.
+ *
+ * Note that the sheet must be already loaded in the reader (see
+ * {@link WorkbookReader#processSheetName(String)}). Rows which do not come
+ * from a workbook can be imported with a {@link BatchSource}.
+ *
+ * @author avonva
+ * @author shahaal
+ *
+ */
+public class SheetPipeline {
+
+	private static final Logger LOGGER = LogManager.getLogger(SheetPipeline.class);
+
+	// marks the end of the sheet in the queues
+	private static final ResultDataSet END = new ResultDataSet();
+
+	private BatchSource source;
+	private String name;
+	private int batchSize;
+	private int queueSize;
+	private List<Stage> stages;
+
+	/**
+	 * Batches of rows parsed by the pipeline
+	 */
+	public interface BatchSource {
+
+		/**
+		 * Set the size of the batches and how many batches can be used at the same
+		 * time (a batch can be reused only after the following {@code buffersCount - 1}
+		 * batches are returned)
+		 * 
+		 * @param batchSize
+		 * @param buffersCount
+		 */
+		public void setBatches(int batchSize, int buffersCount);
+
+		public boolean hasNext() throws XMLStreamException;
+
+		public ResultDataSet next() throws XMLStreamException;
+	}
+
+	/**
+	 * Create a pipeline
+	 *
+	 * @param workbookReader the reader with a sheet already loaded
+	 * @param name           name of the pipeline used in the logs
+	 * @param batchSize      number of rows of each batch
+	 * @param queueSize      number of batches which can wait in the queue of each
+	 *                       importer
+	 */
+	public SheetPipeline(final WorkbookReader workbookReader, String name, int batchSize, int queueSize) {
+		this(new BatchSource() {
+
+			@Override
+			public void setBatches(int batchSize, int buffersCount) {
+				workbookReader.setBatchSize(batchSize);
+				workbookReader.setBuffersCount(buffersCount);
+			}
+
+			@Override
+			public boolean hasNext() {
+				return workbookReader.hasNext();
+			}
+
+			@Override
+			public ResultDataSet next() throws XMLStreamException {
+				return workbookReader.next();
+			}
+		}, name, batchSize, queueSize);
+	}
+
+	/**
+	 * Create a pipeline which parses the rows of a source
+	 *
+	 * @param source    the source of the batches
+	 * @param name      name of the pipeline used in the logs
+	 * @param batchSize number of rows of each batch
+	 * @param queueSize number of batches which can wait in the queue of each
+	 *                  importer
+	 */
+	public SheetPipeline(BatchSource source, String name, int batchSize, int queueSize) {
+		this.source = source;
+		this.name = name;
+		this.batchSize = batchSize;
+		this.queueSize = queueSize;
+		this.stages = new ArrayList<>();
+	}
+
+	/**
+	 * Add an importer which will receive all the batches of the sheet
+	 *
+	 * @param stageName name of the stage used in the logs
+	 * @param importer
+	 */
+	public void addImporter(String stageName, SheetImporter<?> importer) {
+		stages.add(new Stage(stageName, importer));
+	}
+
+	/**
+	 * Parse the sheet and import it with all the importers. The method returns
+	 * when all the importers have finished.
+	 *
+	 * @throws XMLStreamException
+	 * @throws ImportException    the first exception thrown by an importer
+	 */
+	public void importSheet() throws XMLStreamException, ImportException {
+
+		// a batch can be in the queues, in the importers and in the parser
+		source.setBatches(batchSize, queueSize + 2);
+
+		long start = System.currentTimeMillis();
+		long parseTime = 0;
+		long waitTime = 0;
+		int rows = 0;
+		int batches = 0;
+
+		for (Stage stage : stages)
+			stage.start();
+
+		try {
+
+			while (source.hasNext() && !isFailed()) {
+
+				long time = System.currentTimeMillis();
+
+				ResultDataSet batch = source.next();
+
+				parseTime += System.currentTimeMillis() - time;
+
+				if (batch == null || batch.isEmpty())
+					continue;
+
+				rows += batch.getRowsCount();
+				batches++;
+
+				// wait if an importer is too slow
+				time = System.currentTimeMillis();
+
+				for (Stage stage : stages)
+					stage.put(batch);
+
+				waitTime += System.currentTimeMillis() - time;
+			}
+		} finally {
+
+			// stop the importers
+			for (Stage stage : stages)
+				stage.put(END);
+
+			for (Stage stage : stages) {
+				try {
+					stage.join();
+				} catch (InterruptedException e) {
+					LOGGER.error("Cannot wait for the stage " + stage.getName(), e);
+					e.printStackTrace();
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		LOGGER.info("Pipeline " + name + ": rows=" + rows + ", batches=" + batches + ", total=" + getTime(start)
+				+ " ms, parse=" + parseTime + " ms, waiting for importers=" + waitTime + " ms");
+
+		for (Stage stage : stages) {
+			LOGGER.info("Pipeline " + name + ": stage " + stage.getName() + " import=" + stage.importTime
+					+ " ms, waiting for batches=" + stage.waitTime + " ms");
+		}
+
+		// throw the first error
+		for (Stage stage : stages) {
+			if (stage.exception != null)
+				throw stage.exception;
+		}
+	}
+
+	/**
+	 * Check if an importer failed
+	 *
+	 * @return
+	 */
+	private boolean isFailed() {
+
+		for (Stage stage : stages) {
+			if (stage.exception != null)
+				return true;
+		}
+
+		return false;
+	}
+
+	private static long getTime(long start) {
+		return System.currentTimeMillis() - start;
+	}
+
+	/**
+	 * Thread which imports the batches of its queue
+	 */
+	private class Stage extends Thread {
+
+		private SheetImporter<?> importer;
+		private BlockingQueue<ResultDataSet> queue;
+
+		private volatile ImportException exception;
+		private long importTime;
+		private long waitTime;
+
+		public Stage(String stageName, SheetImporter<?> importer) {
+			super(stageName);
+			this.importer = importer;
+			this.queue = new ArrayBlockingQueue<>(queueSize);
+		}
+
+		/**
+		 * Add a batch to the queue, waiting if the queue is full
+		 *
+		 * @param batch
+		 */
+		private void put(ResultDataSet batch) {
+			try {
+				queue.put(batch);
+			} catch (InterruptedException e) {
+				LOGGER.error("Cannot pass the batch to the stage " + getName(), e);
+				e.printStackTrace();
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@Override
+		public void run() {
+
+			while (true) {
+
+				ResultDataSet batch;
+
+				try {
+					long time = System.currentTimeMillis();
+					batch = queue.take();
+					waitTime += getTime(time);
+				} catch (InterruptedException e) {
+					// go on consuming the queue to avoid blocking the parser
+					LOGGER.error("Stage " + getName() + " interrupted", e);
+					e.printStackTrace();
+					exception = new ImportException(e);
+					continue;
+				}
+
+				if (batch == END)
+					break;
+
+				// after an error only consume the queue to avoid
+				// blocking the parser
+				if (exception != null)
+					continue;
+
+				long time = System.currentTimeMillis();
+
+				try {
+					importer.importData(batch.createView());
+				} catch (ImportException e) {
+					LOGGER.error("Cannot import batch in stage " + getName(), e);
+					exception = e;
+				} catch (RuntimeException e) {
+					LOGGER.error("Cannot import batch in stage " + getName(), e);
+					exception = new ImportException(e);
+				}
+
+				importTime += getTime(time);
+			}
+		}
+	}
+}
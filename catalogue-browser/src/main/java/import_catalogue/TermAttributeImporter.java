@@ -36,12 +36,23 @@ public class TermAttributeImporter extends SheetImporter<TermAttribute> {
 
 	public TermAttributeImporter(CatalogueRelationDAO<TermAttribute, Term, Attribute> dao, Catalogue catalogue)
 			throws SQLException {
+		// get all the term ids
+		this(dao, catalogue, createIdHashMap(catalogue, "TERM_ID", "TERM_CODE", "APP.TERM"));
+	}
+
+	/**
+	 * Create the importer using the term ids already retrieved from the database
+	 * 
+	 * @param dao
+	 * @param catalogue
+	 * @param termIds   term code => term id of all the catalogue terms
+	 */
+	public TermAttributeImporter(CatalogueRelationDAO<TermAttribute, Term, Attribute> dao, Catalogue catalogue,
+			HashMap<String, Integer> termIds) {
 
 		this.dao = dao;
 		this.catalogue = catalogue;
-
-		// get all the term ids
-		termIds = createIdHashMap(catalogue, "TERM_ID", "TERM_CODE", "APP.TERM");
+		this.termIds = termIds;
 
 		AttributeDAO attrDao = new AttributeDAO(catalogue);
 		attributes = attrDao.getAll();
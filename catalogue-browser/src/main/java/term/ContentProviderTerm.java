@@ -142,7 +142,7 @@ public class ContentProviderTerm implements ITreeContentProvider {
 		boolean hasChildren = false;
 
 		if (arg0 instanceof Hierarchy && !(root instanceof AvailableHierarchiesTerm)) {
-			hasChildren = !((Hierarchy) arg0).getFirstLevelNodes(hasChildren, hideNotUse).isEmpty();
+			hasChildren = ((Hierarchy) arg0).hasFirstLevelNodes(hasChildren, hideNotUse);
 		} else if (arg0 instanceof Term) {
 			hasChildren = ((Term) arg0).hasChildren(hierarchy, hideDeprecated, hideNotUse);
 		}
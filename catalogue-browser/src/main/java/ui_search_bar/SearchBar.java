@@ -3,7 +3,13 @@ package ui_search_bar;
 import java.util.ArrayList;
 import java.util.Observable;
 import java.util.Observer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.FocusEvent;
 import org.eclipse.swt.events.FocusListener;
@@ -12,13 +18,13 @@ import org.eclipse.swt.events.ModifyListener;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
-import org.eclipse.swt.graphics.Cursor;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.layout.RowLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Text;
 
@@ -42,11 +48,37 @@ import user_preferences.CataloguePreferenceDAO;
  * are ready to be used by the program, a listener is called to update the main
  * thread that the search is finished and it can use the results.
  * 
+ * The search runs in background: starting a new search cancels the previous
+ * one, the first results are passed to the listener while the search is
+ * running and the number of results is limited. If enabled, the search is
+ * started also while the user types the keywords.
+ * 
  * @author avonva
  * @author shahaal
  */
 public class SearchBar implements Observer {
 
+	private static final Logger LOGGER = LogManager.getLogger(SearchBar.class);
+
+	// maximum number of terms returned by a search
+	private static final int MAX_RESULTS = 5000;
+
+	// number of results passed to the listener while the search is running
+	private static final int RESULTS_PAGE = 100;
+
+	// milliseconds to wait after the last typed key before searching
+	private static final int TYPING_DELAY = 300;
+
+	// a single search runs at a time, the previous ones are cancelled
+	private static final ExecutorService SEARCH_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "search");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
 	private Catalogue catalogue;
 
 	private Term rootTerm;
@@ -61,6 +93,21 @@ public class SearchBar implements Observer {
 
 	private SearchListener listener;
 
+	// running search and number of the last started search
+	private Future<?> runningSearch;
+	private int searchCount;
+
+	private boolean searchAsYouType;
+
+	// starts the search when the user stops typing
+	private final Runnable typingSearch = new Runnable() {
+		@Override
+		public void run() {
+			if (!textSearch.isDisposed() && textSearch.isEnabled())
+				startSearch(true);
+		}
+	};
+
 	// hierarchy which is currently opened in the browser
 	private Hierarchy currentHierarchy;
 
@@ -100,6 +147,8 @@ public class SearchBar implements Observer {
 	 */
 	public void setEnabled(boolean enabled) {
 
+		cancelSearch();
+
 		comboOptSearch.setEnabled(enabled);
 		buttonSearch.setEnabled(enabled);
 		textSearch.setEnabled(enabled);
@@ -227,6 +276,16 @@ public class SearchBar implements Observer {
 		this.listener = listener;
 	}
 
+	/**
+	 * Start the search also while the keywords are typed (when the user stops
+	 * typing for a moment)
+	 * 
+	 * @param searchAsYouType
+	 */
+	public void setSearchAsYouType(boolean searchAsYouType) {
+		this.searchAsYouType = searchAsYouType;
+	}
+
 	/**
 	 * Update the search globally feature (used to restore previous state)
 	 * 
@@ -299,7 +358,18 @@ public class SearchBar implements Observer {
 			@Override
 			public void modifyText(ModifyEvent e) {
 
-				buttonSearch.setEnabled(canSearch(textSearch.getText().trim().length()) && textSearch.isEnabled());
+				boolean canSearch = canSearch(textSearch.getText().trim().length()) && textSearch.isEnabled();
+
+				buttonSearch.setEnabled(canSearch);
+
+				if (!searchAsYouType)
+					return;
+
+				// restart the waiting time at each key
+				parent.getDisplay().timerExec(-1, typingSearch);
+
+				if (canSearch)
+					parent.getDisplay().timerExec(TYPING_DELAY, typingSearch);
 			}
 		});
 
@@ -366,30 +436,10 @@ public class SearchBar implements Observer {
 			@Override
 			public void widgetSelected(SelectionEvent e) {
 
-				// change the cursor to wait
-				Cursor cursor = new Cursor(parent.getDisplay(), SWT.CURSOR_WAIT);
-				parent.getShell().setCursor(cursor);
-
-				// call the external listener to say that the search results are ready to be
-				// used
-				searchResults = search(getKeyword(), getSearchMode());
-
-				// dispose the old cursor and instantiate the new one
-				if (cursor != null)
-					cursor.dispose();
+				// the pending search of the typed keywords is not needed anymore
+				parent.getDisplay().timerExec(-1, typingSearch);
 
-				// reload the old cursor, the search is finished
-				cursor = new Cursor(parent.getDisplay(), SWT.CURSOR_ARROW);
-				parent.getShell().setCursor(cursor);
-
-				if (listener != null) {
-
-					SearchEvent event = new SearchEvent();
-					event.setResults(searchResults);
-
-					// call the search listener
-					listener.searchPerformed(event);
-				}
+				startSearch(false);
 			}
 
 			@Override
@@ -478,37 +528,182 @@ public class SearchBar implements Observer {
 	}
 
 	/**
-	 * The search method check the query string and search the terms who match the
-	 * query string. Method added for reducing and avoiding duplication code in the
-	 * system. Return an array list of terms (search results), which is empty if no
-	 * results are found
+	 * Start the search of the keywords in background, cancelling the previous
+	 * search if still running. The listener is called in the UI thread with the
+	 * first results while the search is running and with all the results when the
+	 * search is finished (if it was not superseded by another search).
+	 * 
+	 * @param typed true if the search was started while typing the keywords
 	 */
-	private ArrayList<Term> search(String keyword, SearchType type) {
+	private void startSearch(final boolean typed) {
 
-		// output array
-		ArrayList<Term> searchResults = new ArrayList<>();
+		final String keyword = getKeyword();
+		final SearchType type = getSearchMode();
 
-		// if the number of characters of the search are less than the minimum number of
-		// characters
-		if (!canSearch(keyword.trim().length()))
-			return searchResults;
+		cancelSearch();
 
-		SearchDAO searchDao = new SearchDAO(catalogue);
+		final int id = searchCount;
 
-		// Set root term for the search
-		if (rootTerm != null)
-			searchDao.setRootTerm(rootTerm);
+		// if the number of characters of the search are less than the minimum number of
+		// characters
+		if (!canSearch(keyword.trim().length())) {
+			searchResults = new ArrayList<>();
+			notifyFinished(typed, false);
+			return;
+		}
 
 		// get the hierarchy in which we have to search
 		searchHierarchy = globalSearchEnabled ? catalogue.getMasterHierarchy() : currentHierarchy;
 
-		searchResults = searchDao.startSearch(keyword, type, searchHierarchy);
+		// copy the settings used in the search thread
+		final Catalogue catalogue = this.catalogue;
+		final Term rootTerm = this.rootTerm;
+		final Hierarchy hierarchy = searchHierarchy;
+		final boolean hideDeprecated = this.hideDeprecated;
+		final boolean hideNotInUse = this.hideNotInUse;
+		final Display display = parent.getDisplay();
 
-		// filter deprecated and not in use terms
-		searchResults = TermFilter.filterByFlag(hideDeprecated, hideNotInUse, searchResults, searchHierarchy);
+		// change the cursor to wait
+		parent.getShell().setCursor(display.getSystemCursor(SWT.CURSOR_WAIT));
 
-		// return the results
-		return searchResults;
+		runningSearch = SEARCH_EXECUTOR.submit(new Runnable() {
+			@Override
+			public void run() {
+
+				long start = System.currentTimeMillis();
+
+				SearchDAO searchDao = new SearchDAO(catalogue);
+
+				// Set root term for the search
+				if (rootTerm != null)
+					searchDao.setRootTerm(rootTerm);
+
+				searchDao.setMaxResults(MAX_RESULTS);
+
+				// pass the first results to the UI while searching
+				searchDao.setResultsListener(new SearchListener() {
+					@Override
+					public void resultsFound(final SearchEvent event) {
+
+						// filter deprecated and not in use terms
+						event.setResults(
+								TermFilter.filterByFlag(hideDeprecated, hideNotInUse, event.getResults(), hierarchy));
+						event.setTyped(typed);
+
+						asyncExec(display, new Runnable() {
+							@Override
+							public void run() {
+								if (id == searchCount && listener != null)
+									listener.resultsFound(event);
+							}
+						});
+					}
+				}, RESULTS_PAGE);
+
+				ArrayList<Term> results;
+				try {
+					results = searchDao.startSearch(keyword, type, hierarchy);
+				} catch (RuntimeException e) {
+					LOGGER.error("Cannot search " + keyword, e);
+					e.printStackTrace();
+					results = new ArrayList<>();
+				}
+
+				// a new search was started
+				if (Thread.currentThread().isInterrupted()) {
+					LOGGER.debug("Search of " + keyword + " cancelled after " + (System.currentTimeMillis() - start)
+							+ " ms");
+					return;
+				}
+
+				// filter deprecated and not in use terms
+				final ArrayList<Term> filtered = TermFilter.filterByFlag(hideDeprecated, hideNotInUse, results,
+						hierarchy);
+
+				final boolean truncated = searchDao.isTruncated();
+
+				LOGGER.info("Search of " + keyword + " (" + type + ") found " + filtered.size() + " terms in "
+						+ (System.currentTimeMillis() - start) + " ms" + (truncated ? ", results truncated" : ""));
+
+				asyncExec(display, new Runnable() {
+					@Override
+					public void run() {
+
+						if (id != searchCount)
+							return;
+
+						searchResults = filtered;
+						notifyFinished(typed, truncated);
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Cancel the running search, its results will not be passed to the listener
+	 */
+	private void cancelSearch() {
+
+		searchCount++;
+
+		if (runningSearch != null) {
+
+			runningSearch.cancel(true);
+			runningSearch = null;
+
+			if (!parent.isDisposed())
+				parent.getShell().setCursor(null);
+		}
+	}
+
+	/**
+	 * Restore the cursor and call the external listener to say that the search
+	 * results are ready to be used
+	 * 
+	 * @param typed
+	 * @param truncated
+	 */
+	private void notifyFinished(boolean typed, boolean truncated) {
+
+		runningSearch = null;
+
+		if (parent.isDisposed())
+			return;
+
+		// reload the default cursor, the search is finished
+		parent.getShell().setCursor(null);
+
+		if (listener != null) {
+
+			SearchEvent event = new SearchEvent();
+			event.setResults(searchResults);
+			event.setTruncated(truncated);
+			event.setTyped(typed);
+
+			// call the search listener
+			listener.searchPerformed(event);
+		}
+	}
+
+	/**
+	 * Run the code in the UI thread if the display is still open
+	 * 
+	 * @param display
+	 * @param runnable
+	 */
+	private void asyncExec(Display display, final Runnable runnable) {
+
+		if (display.isDisposed())
+			return;
+
+		display.asyncExec(new Runnable() {
+			@Override
+			public void run() {
+				if (!parent.isDisposed())
+					runnable.run();
+			}
+		});
 	}
 
 	/**
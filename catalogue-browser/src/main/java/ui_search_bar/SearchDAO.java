@@ -1,17 +1,8 @@
 package ui_search_bar;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
-
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 import catalogue.Catalogue;
 import catalogue_object.Attribute;
@@ -30,11 +21,17 @@ import user_preferences.SearchOption;
  */
 public class SearchDAO {
 
-	private static final Logger LOGGER = LogManager.getLogger(SearchDAO.class);
-
 	private Catalogue catalogue;
 	private Term rootTerm;
 
+	// maximum number of results, -1 for no limit
+	private int maxResults = -1;
+	private boolean truncated;
+
+	// called each time a page of results is found
+	private SearchListener resultsListener;
+	private int pageSize;
+
 	/**
 	 * Initialize the search dao with the catalogue we want to communicate with
 	 * 
@@ -54,6 +51,39 @@ public class SearchDAO {
 		this.rootTerm = term;
 	}
 
+	/**
+	 * Limit the number of results of the search
+	 * 
+	 * @param maxResults the maximum number of terms, -1 for no limit
+	 */
+	public void setMaxResults(int maxResults) {
+		this.maxResults = maxResults;
+	}
+
+	/**
+	 * Check if the last search found more terms than the maximum number of
+	 * results
+	 * 
+	 * @return
+	 */
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	/**
+	 * Receive the results while the search is running. The listener is called
+	 * (in the searching thread) each time a page of new results is found and
+	 * with the last partial page at the end of a complete search, see
+	 * {@link SearchListener#resultsFound(SearchEvent)}
+	 * 
+	 * @param resultsListener
+	 * @param pageSize        number of terms of each page
+	 */
+	public void setResultsListener(SearchListener resultsListener, int pageSize) {
+		this.resultsListener = resultsListener;
+		this.pageSize = pageSize;
+	}
+
 	/**
 	 * Search the text as keyword(s) to find terms in a subset of hierarchies.
 	 * 
@@ -87,8 +117,11 @@ public class SearchDAO {
 	}
 
 	/**
-	 * Perform a search in the database terms and term attributes possibly filtering
-	 * by hierarchies and term types (if present in the db)
+	 * Perform a search in the catalogue terms and term attributes possibly
+	 * filtering by hierarchies and term types (if present in the db). The search
+	 * uses the in memory index of the catalogue (see
+	 * {@link Catalogue#getSearchIndex()}). If the searching thread is interrupted
+	 * the results found until then are returned.
 	 * 
 	 * @param keywords    set of keywords to be searched
 	 * @param type        the search method we want to use. See
@@ -101,18 +134,25 @@ public class SearchDAO {
 
 		ArrayList<Term> terms = new ArrayList<>();
 
-		ArrayList<Integer> ids1 = findByCodeOrName(keywords, type);
-		ArrayList<Integer> ids2 = findByAttribute(keywords, type);
+		// if the catalogue does not use term types
+		// we do not filter them to avoid blocking
+		// search operations
+		Collection<TermType> types = catalogue.hasTermTypes() ? getSearchableTermTypes() : null;
 
-		// create a set to combine the results avoiding duplicated
-		Set<Integer> uniqueIds = new HashSet<>();
-		uniqueIds.addAll(ids1);
-		uniqueIds.addAll(ids2);
+		// terms which match the keywords in the hierarchy with a searchable term type
+		Collection<Term> matches = catalogue.getSearchIndex().search(keywords, type, hierarchy,
+				getSearchableAttributes(), types);
 
-		// filter by term type and hierarchy
-		for (Integer id : uniqueIds) {
+		truncated = false;
 
-			Term term = catalogue.getTermById(id);
+		ArrayList<Term> page = new ArrayList<>();
+		int pageNumber = 0;
+
+		for (Term term : matches) {
+
+			// stop if the search was cancelled
+			if (Thread.currentThread().isInterrupted())
+				break;
 
 			// Hide the term if not in use
 			if (!term.isInUse())
@@ -124,313 +164,43 @@ public class SearchDAO {
 				continue;
 			}
 
-			// if the term type of the term is searchable and also one
-			// of the hierarchy of the term is searchable, add it
-			if (isTypeSearchable(term) && hasHierachySearchable(term, hierarchy)) {
-				terms.add(term);
+			if (maxResults >= 0 && terms.size() == maxResults) {
+				truncated = true;
+				break;
 			}
-		}
 
-		return terms;
-	}
-
-	/**
-	 * Check if the term type of the term is one of the selected in the user
-	 * settings
-	 * 
-	 * @param term
-	 * @return
-	 */
-	@SuppressWarnings("unlikely-arg-type")
-	private boolean isTypeSearchable(Term term) {
+			terms.add(term);
 
-		// if the catalogue does not use term types
-		// we return true as default to avoid blocking
-		// search operations
-		if (!catalogue.hasTermTypes())
-			return true;
-
-		// if the term does not have a term type
-		// we include it in the results as default
-		if (term.getTermType() == null)
-			return true;
-
-		// get the searchable term types
-		Collection<TermType> types = getSearchableTermTypes();
-
-		// return true if the term type is contained in the
-		// searchable term types
-		return types.contains(term.getTermType());
-	}
-
-	/**
-	 * Check if the term has an applicable hierarchy which is contained in the
-	 * searchable hierarchies
-	 * 
-	 * @param term
-	 * @param searchableHierarchies
-	 * @return
-	 */
-	private boolean hasHierachySearchable(Term term, Hierarchy hierarchy) {
-
-		// if no searchable hierarchies => we search globally
-		// therefore we return true
-		// if ( searchableHierarchies.isEmpty() )
-		// return true;
-
-		// if no applicable hierarchy => we do not return it
-		if (term.getApplicableHierarchies().isEmpty())
-			return false;
+			if (resultsListener == null)
+				continue;
 
-		// if the hierarchy is contained in the applicable hierarchies of the term
-		// then found
-		for (Hierarchy termHierarchy : term.getApplicableHierarchies()) {
+			page.add(term);
 
-			if (hierarchy.equals(termHierarchy)) {
-				return true;
+			// send the new results
+			if (page.size() == pageSize) {
+				sendPage(page, pageNumber++);
+				page = new ArrayList<>();
 			}
 		}
 
-		return false;
-	}
-
-	/**
-	 * Get all the ids of the terms which matched the keywords by their name or code
-	 * with the selected search type.
-	 * 
-	 * @param keywords
-	 * @param type
-	 * @return
-	 */
-	private ArrayList<Integer> findByCodeOrName(ArrayList<String> keywords, SearchType type) {
-
-		ArrayList<Integer> termIds = new ArrayList<>();
-
-		// if no keyword return empty
-		if (keywords.isEmpty())
-			return termIds;
-
-		// main query, select terms based on hierarchies and attributes
-		String query = "select distinct(TERM_ID) from APP.TERM where ";
-
-		// filter on name and code
-		int count = 0;
-		for (String key : keywords) {
-
-			String value = key.toUpperCase();
-
-			String keyUp = "'" + value + "'";
-			String keyLike = "'%" + value + "%'";
-
-			query = query + " ( upper(TERM_EXTENDED_NAME) like " + keyLike;
-			query = query + " or upper(TERM_CODE) = " + keyUp + " ) ";
-			// query = query + " upper(TERM_CODE) = " + keyUp;
-
-			// go to the next keyword
-			count++;
-
-			// if it is not the last keyword add also
-			// the conjunction operator
-			if (count < keywords.size())
-				query = query + " " + getLogicalOp(type) + " ";
-
-		}
-
-		// execute the query
-		try (Connection con = catalogue.getConnection();
-				PreparedStatement stmt = con.prepareStatement(query);
-				ResultSet rs = stmt.executeQuery();) {
-
-			// get all the terms ids
-			while (rs.next())
-				termIds.add(rs.getInt("TERM_ID"));
+		// send the last results which did not fill a page
+		if (!page.isEmpty() && !truncated)
+			sendPage(page, pageNumber);
 
-			rs.close();
-			stmt.close();
-			con.close();
-
-		} catch (SQLException e) {
-			e.printStackTrace();
-			LOGGER.error("DB error", e);
-		}
-
-		return termIds;
-	}
-
-	/**
-	 * Get all the terms ids which match the keywords by the attributes
-	 * 
-	 * @param keyword
-	 * @param type
-	 * @return list of terms ids which have term attributes which matched the
-	 *         keywords with the selected search method
-	 */
-	private ArrayList<Integer> findByAttribute(ArrayList<String> keywords, SearchType type) {
-
-		ArrayList<Integer> termIds = new ArrayList<>();
-
-		// if no keyword return empty
-		if (keywords.isEmpty())
-			return termIds;
-
-		// get all the attributes ids related to the
-		// attributes we are allowed to search in
-		String attrIds = getAttributeFilter();
-
-		// get all the term attributes ids which match
-		// the keywords
-		String taIds = getTermAttrFilter(keywords, type);
-
-		// if no attributes matched => return empty
-		// if no term attributes matched => return empty
-		if (attrIds.isEmpty() || taIds.isEmpty())
-			return termIds;
-
-		// here for sure we have at least one attribute id and one
-		// term attribute id, therefore we can use the IN clause
-		// without worrying about empty lists
-
-		// filter on the searchable attributes, get all the term attributes
-		// which have as attribute one contained in the searchable attributes
-		// vector
-		String query = "select distinct (TERM_ID) from APP.TERM_ATTRIBUTE where ATTR_ID in ( " + attrIds
-				+ ") and TERM_ATTR_ID in ( " + taIds + " )";
-
-		// execute the query
-		try (Connection con = catalogue.getConnection();
-				PreparedStatement stmt = con.prepareStatement(query);
-				ResultSet rs = stmt.executeQuery();) {
-
-			// get all the terms ids
-			while (rs.next())
-				termIds.add(rs.getInt("TERM_ID"));
-
-			rs.close();
-			stmt.close();
-			con.close();
-
-		} catch (SQLException e) {
-			LOGGER.error("DB error", e);
-			e.printStackTrace();
-		}
-
-		return termIds;
-	}
-
-	/**
-	 * Get the searchable attributes ids in a comma separated way in order to use
-	 * them as a filter in the main query
-	 * 
-	 * @return a string which contains the searchable attributes ids in a comma
-	 *         separated way. If no searchable attribute is retrieved an empty
-	 *         string is returned
-	 */
-	private String getAttributeFilter() {
-
-		StringBuilder ids = new StringBuilder();
-
-		// get all the searchable attributes
-		Collection<Attribute> attrs = getSearchableAttributes();
-
-		int attrCount = 0;
-
-		// we take only the records which has as attribute one
-		// of the searchable attributes
-		for (Attribute attr : attrs) {
-
-			// add the current attribute id to
-			// the one which can be selected
-			ids.append(attr.getId());
-
-			attrCount++;
-
-			// add the comma only if it is not
-			// the last one
-			if (attrCount < attrs.size())
-				ids.append(",");
-		}
-
-		return ids.toString();
+		return terms;
 	}
 
 	/**
-	 * Select all the term attributes ids which match the keywords with the selected
-	 * search metodology
+	 * Send a page of results to the results listener
 	 * 
-	 * @param keywords
-	 * @param type
-	 * @return a string which contains the ids of the term attributes which matched
-	 *         the keywords with their value using the selected search methodology
+	 * @param page
+	 * @param pageNumber
 	 */
-	private String getTermAttrFilter(ArrayList<String> keywords, SearchType type) {
-
-		// output
-		StringBuilder taFilter = new StringBuilder();
-
-		// query to get the term attributes
-		StringBuilder query = new StringBuilder();
-
-		query.append("select TERM_ATTR_ID from APP.TERM_ATTRIBUTE where ");
-
-		// filter on term attributes values
-		int count = 0;
-		for (String key : keywords) {
-
-			String keyLike = "'%" + key.toUpperCase() + "%'";
-
-			// search on the term attributes values (we have already filtered
-			// the non relevant term attributes in the join)
-			query.append(" upper( ATTR_VALUE ) like " + keyLike);
-
-			// go to the next keyword
-			count++;
-
-			// if it is not the last keyword add also
-			// the conjunction operator
-			if (count < keywords.size()) {
-				query.append(" ");
-				query.append(getLogicalOp(type));
-				query.append(" ");
-			}
-		}
-
-		// execute the query to retrieve the term attributes
-		try (Connection con = catalogue.getConnection();
-				PreparedStatement stmt = con.prepareStatement(query.toString());
-				ResultSet rs = stmt.executeQuery();) {
-
-			// add ids to array list
-			ArrayList<Integer> ids = new ArrayList<>();
-
-			while (rs.next())
-				ids.add(rs.getInt("TERM_ATTR_ID"));
-
-			// add ids to the string in a comma separated
-			// way. We need the array list to have the
-			// size
-			count = 0;
-			for (Integer id : ids) {
-
-				taFilter.append(id);
-
-				count++;
-
-				// add the comma only if it is not
-				// the last one
-				if (count < ids.size())
-					taFilter.append(",");
-			}
-
-			rs.close();
-			stmt.close();
-			con.close();
-
-		} catch (SQLException e) {
-			LOGGER.error("DB error", e);
-			e.printStackTrace();
-		}
-
-		return taFilter.toString();
+	private void sendPage(ArrayList<Term> page, int pageNumber) {
+		SearchEvent event = new SearchEvent();
+		event.setResults(page);
+		event.setPage(pageNumber);
+		resultsListener.resultsFound(event);
 	}
 
 	/**
@@ -472,28 +242,4 @@ public class SearchDAO {
 
 		return attrs;
 	}
-
-	/**
-	 * Get the logical operator which is used to combine the search results on
-	 * different term fields. We can combine the searches with ORs or ANDs.
-	 * 
-	 * @param type ANY_WORD/ALL_WORDS
-	 * @return
-	 */
-	private String getLogicalOp(SearchType type) {
-
-		String op = null;
-		switch (type) {
-		case ANY_WORD:
-			op = "or";
-			break;
-		case ALL_WORDS:
-			op = "and";
-			break;
-		default:
-			break;
-		}
-
-		return op;
-	}
 }
@@ -14,6 +14,9 @@ import catalogue_object.Term;
 public class SearchEvent extends Event {
 	
 	private ArrayList<Term> data;
+	private int page;
+	private boolean truncated;
+	private boolean typed;
 	
 	public void setResults(ArrayList<Term> data) {
 		this.data = data;
@@ -21,4 +24,37 @@ public class SearchEvent extends Event {
 	public ArrayList<Term> getResults() {
 		return data;
 	}
+	
+	/**
+	 * Set the number of the page of results (0 for the first page)
+	 * @param page
+	 */
+	public void setPage(int page) {
+		this.page = page;
+	}
+	public int getPage() {
+		return page;
+	}
+	
+	/**
+	 * Set if more results than the maximum allowed were found
+	 * @param truncated
+	 */
+	public void setTruncated(boolean truncated) {
+		this.truncated = truncated;
+	}
+	public boolean isTruncated() {
+		return truncated;
+	}
+	
+	/**
+	 * Set if the search was started while typing the keywords
+	 * @param typed
+	 */
+	public void setTyped(boolean typed) {
+		this.typed = typed;
+	}
+	public boolean isTyped() {
+		return typed;
+	}
 }
@@ -8,4 +8,11 @@ package ui_search_bar;
 public class SearchListener {
 	public void searchPerformed ( SearchEvent event ) {
 	}
+	
+	/**
+	 * Called while the search is running with a page of new results
+	 * @param event
+	 */
+	public void resultsFound ( SearchEvent event ) {
+	}
 }
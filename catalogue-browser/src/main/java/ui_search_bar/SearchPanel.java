@@ -59,11 +59,29 @@ public class SearchPanel implements Observer {
 		// at the beginning we set all disabled (no catalogue is opened)
 		searchBar.setEnabled(false);
 
+		// search while typing the keywords
+		searchBar.setSearchAsYouType(true);
+
 		// table to show the results
 		table = new TermTable(parent, catalogue);
 
 		searchBar.setListener(new SearchListener() {
 
+			@Override
+			public void resultsFound(SearchEvent event) {
+
+				// a new search is running, show its first results
+				if (event.getPage() == 0) {
+					table.removeAll();
+					table.setInput(null);
+					table.setCurrentHierarchy(searchBar.getSearchHierarchy());
+				}
+
+				// only the first page is shown while searching
+				if (table.getItemCount() < TermTable.PAGE_SIZE)
+					table.addTerms(event.getResults());
+			}
+
 			@Override
 			public void searchPerformed(SearchEvent event) {
 
@@ -74,8 +92,8 @@ public class SearchPanel implements Observer {
 
 				table.setCurrentHierarchy(searchBar.getSearchHierarchy());
 
-				// Update the list search input with the
-				table.setInput(terms);
+				// Update the list search input with the results, a page at a time
+				table.setPagedInput(terms);
 
 				// call the caller listener
 				if (searchListener != null) {
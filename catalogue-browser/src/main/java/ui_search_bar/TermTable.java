@@ -1,7 +1,9 @@
 package ui_search_bar;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Observable;
 import java.util.Observer;
 
@@ -11,11 +13,15 @@ import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.FocusListener;
+import org.eclipse.swt.events.SelectionAdapter;
+import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Menu;
+import org.eclipse.swt.widgets.ScrollBar;
+import org.eclipse.swt.widgets.Table;
 import catalogue.Catalogue;
 import catalogue_object.Hierarchy;
 import catalogue_object.Term;
@@ -34,9 +40,16 @@ import ui_main_panel.TermFilter;
  */
 public class TermTable implements Observer {
 
+	// terms shown each time the end of a paged input is reached
+	public static final int PAGE_SIZE = 200;
+
 	private Composite parent;
 	private TableViewer table;
 
+	// paged input and terms currently shown
+	private ArrayList<Term> pagedInput;
+	private ArrayList<Term> shown;
+
 	private LabelProviderTerm labelProvider;
 	private ContentProviderTerm contentProvider;
 	private Listener selectionListener;
@@ -96,6 +109,55 @@ public class TermTable implements Observer {
 			}
 		});
 
+		// show the next page when the end of the table is reached
+		final ScrollBar bar = table.getTable().getVerticalBar();
+		if (bar != null) {
+			bar.addSelectionListener(new SelectionAdapter() {
+				@Override
+				public void widgetSelected(SelectionEvent e) {
+					if (bar.getSelection() + bar.getThumb() >= bar.getMaximum())
+						showNextPage();
+				}
+			});
+		}
+
+		// show the next page when the last row is selected with the keyboard
+		table.getTable().addListener(SWT.Selection, new Listener() {
+			public void handleEvent(Event e) {
+
+				int index = table.getTable().getSelectionIndex();
+
+				if (index >= 0 && index == getItemCount() - 1)
+					showNextPage();
+			}
+		});
+
+		// show the next page when the table becomes taller than the shown rows
+		table.getTable().addListener(SWT.Resize, new Listener() {
+			public void handleEvent(Event e) {
+				if (isLastRowVisible())
+					showNextPage();
+			}
+		});
+	}
+
+	/**
+	 * Check if the last row of the table is in the visible area
+	 * 
+	 * @return
+	 */
+	private boolean isLastRowVisible() {
+
+		Table t = table.getTable();
+
+		int itemHeight = t.getItemHeight();
+
+		if (itemHeight <= 0)
+			return false;
+
+		int visibleRows = (t.getClientArea().height - t.getHeaderHeight()) / itemHeight;
+
+		return t.getTopIndex() + visibleRows >= t.getItemCount();
 	}
 
 	/**
@@ -220,6 +282,9 @@ public class TermTable implements Observer {
 	 */
 	public void setInput(ArrayList<Term> input) {
 
+		pagedInput = null;
+		shown = null;
+
 		// sort input by name
 		if (input != null)
 			Collections.sort(input, new AlphabeticalSorter());
@@ -227,6 +292,59 @@ public class TermTable implements Observer {
 		table.setInput(input);
 	}
 
+	/**
+	 * Set the table input showing only the first {@link #PAGE_SIZE} terms. The
+	 * other terms are shown a page at a time when the user scrolls to the end of
+	 * the table.
+	 * 
+	 * @param input
+	 */
+	public void setPagedInput(ArrayList<Term> input) {
+
+		// sort input by name
+		Collections.sort(input, new AlphabeticalSorter());
+
+		pagedInput = input;
+		shown = new ArrayList<>(input.subList(0, Math.min(PAGE_SIZE, input.size())));
+
+		table.setInput(shown);
+	}
+
+	/**
+	 * Show the next page of the paged input
+	 */
+	private void showNextPage() {
+
+		if (pagedInput == null || shown.size() >= pagedInput.size())
+			return;
+
+		List<Term> page = pagedInput.subList(shown.size(), Math.min(shown.size() + PAGE_SIZE, pagedInput.size()));
+
+		addTerms(page);
+	}
+
+	/**
+	 * Add terms at the end of the table (e.g. while a search is running). If
+	 * no paged input was set, a new empty one is created.
+	 * 
+	 * @param terms
+	 */
+	public void addTerms(Collection<Term> terms) {
+
+		if (shown == null) {
+			pagedInput = new ArrayList<>();
+			shown = new ArrayList<>();
+			table.setInput(shown);
+		}
+
+		// terms not coming from the paged input
+		if (pagedInput.size() == shown.size())
+			pagedInput.addAll(terms);
+
+		shown.addAll(terms);
+		table.add(terms.toArray());
+	}
+
 	/**
 	 * Add a term to the table
 	 * 
@@ -0,0 +1,100 @@
+package catalogue;
+
+import java.sql.Timestamp;
+
+import catalogue_object.Attribute;
+import catalogue_object.CompactTermModel;
+import catalogue_object.Hierarchy;
+import catalogue_object.Term;
+
+/**
+ * Objects of an in memory catalogue (without database) shared by the tests of
+ * the catalogue indexes
+ */
+class CatalogueFixture {
+
+	public static final String CODE = "TEST";
+	public static final String VERSION = "1.0";
+
+	/**
+	 * Create an empty catalogue, whose terms are not stored in the compact model
+	 *
+	 * @return
+	 */
+	public static Catalogue createCatalogue() {
+		return createCatalogue(VERSION, null, null);
+	}
+
+	/**
+	 * Create an empty catalogue, whose terms are not stored in the compact model
+	 *
+	 * @param version
+	 * @param dbPath     folder of the catalogue database
+	 * @param lastUpdate
+	 * @return
+	 */
+	public static Catalogue createCatalogue(String version, String dbPath, Timestamp lastUpdate) {
+
+		CompactTermModel.setEnabled(false);
+
+		CatalogueBuilder builder = new CatalogueBuilder();
+		builder.setCode(CODE);
+		builder.setVersion(version);
+		builder.setLastUpdate(lastUpdate);
+		builder.setTermCodeLength("4");
+		builder.setDbPath(dbPath);
+
+		return builder.build();
+	}
+
+	/**
+	 * Add a new hierarchy to the catalogue
+	 *
+	 * @param catalogue
+	 * @param id
+	 * @param code
+	 * @param master
+	 * @return
+	 */
+	public static Hierarchy addHierarchy(Catalogue catalogue, int id, String code, boolean master) {
+
+		Hierarchy hierarchy = new Hierarchy(catalogue, id, code, code, code, null, "both", id, "APPROVED", master,
+				VERSION, null, null, null, false, null);
+
+		catalogue.getHierarchies().add(hierarchy);
+
+		return hierarchy;
+	}
+
+	/**
+	 * Add a new repeatable string attribute to the catalogue
+	 *
+	 * @param catalogue
+	 * @param id
+	 * @param name
+	 * @return
+	 */
+	public static Attribute addAttribute(Catalogue catalogue, int id, String name) {
+
+		Attribute attribute = new Attribute(catalogue, id, name, name, name, null, null, true, true, id, "xsd:string",
+				100, 0, 0, null, "repeatable", null, false, false, "APPROVED", VERSION, null, null, null, false);
+
+		catalogue.getAttributes().add(attribute);
+
+		return attribute;
+	}
+
+	/**
+	 * Create an approved term, which is not added to the catalogue
+	 *
+	 * @param catalogue
+	 * @param id
+	 * @param code
+	 * @param name
+	 * @param label
+	 * @return
+	 */
+	public static Term createTerm(Catalogue catalogue, int id, String code, String name, String label) {
+		return new Term(catalogue, id, code, name, label, null, "APPROVED", VERSION, null, null, null, false);
+	}
+}
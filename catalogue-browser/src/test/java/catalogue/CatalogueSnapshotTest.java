@@ -0,0 +1,245 @@
+package catalogue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import catalogue_object.Applicability;
+import catalogue_object.Attribute;
+import catalogue_object.Hierarchy;
+import catalogue_object.Term;
+import catalogue_object.TermAttribute;
+
+public class CatalogueSnapshotTest {
+
+	private File folder;
+	private Timestamp lastUpdate;
+
+	private Catalogue catalogue;
+	private Hierarchy master;
+	private Hierarchy other;
+	private Attribute attribute;
+
+	@BeforeEach
+	public void init() throws IOException {
+
+		folder = Files.createTempDirectory("snapshot").toFile();
+
+		lastUpdate = Timestamp.valueOf("2020-03-04 05:06:07.123456789");
+
+		catalogue = createCatalogue(CatalogueFixture.VERSION, lastUpdate);
+
+		// term with all the fields
+		Term full = CatalogueFixture.createTerm(catalogue, 1, "A01", "Apple", "Apple fruit");
+		full.setScopenotes("Scopenotes with accents:    ");
+		full.setDeprecated(true);
+		full.setLastUpdate(Timestamp.valueOf("2019-01-02 03:04:05.000000001"));
+		full.setValidFrom(Timestamp.valueOf("2018-01-01 00:00:00"));
+		full.setValidTo(Timestamp.valueOf("2030-12-31 23:59:59.999"));
+		full.addApplicability(new Applicability(full, master, master, 1, true));
+		full.addApplicability(new Applicability(full, other, other, 2, false));
+		full.addAttribute(new TermAttribute(10, full, attribute, "value "));
+		full.addAttribute(new TermAttribute(11, full, attribute, null));
+
+		// term without the optional fields, child of the first one
+		Term empty = new Term(catalogue, 2, "A02", "Pear", null, null, null, null, null, null, null, false);
+		empty.addApplicability(new Applicability(empty, full, master, 3, true));
+
+		// applicability without parent
+		empty.addApplicability(new Applicability(empty, null, other, 4, false));
+
+		catalogue.addTerm(full);
+		catalogue.addTerm(empty);
+	}
+
+	@AfterEach
+	public void clean() {
+
+		for (File file : folder.listFiles())
+			file.delete();
+
+		folder.delete();
+	}
+
+	@Test
+	public void testSnapshotIsReadAsItWasWritten() {
+
+		assertTrue(CatalogueSnapshot.write(catalogue));
+
+		Catalogue copy = createCatalogue(CatalogueFixture.VERSION, lastUpdate);
+
+		CatalogueSnapshot snapshot = CatalogueSnapshot.open(copy);
+		assertNotNull(snapshot);
+
+		HashMap<Integer, Term> terms = snapshot.readTerms();
+		assertNotNull(terms);
+		assertEquals(2, terms.size());
+
+		assertTrue(snapshot.readRelations());
+
+		for (Term expected : catalogue.getTerms())
+			assertSameTerm(expected, terms.get(expected.getId()), copy);
+
+		Term empty = terms.get(2);
+		assertNull(empty.getLabel());
+		assertNull(empty.getScopenotes());
+		assertNull(empty.getLastUpdate());
+		assertNull(empty.getValidFrom());
+		assertNull(empty.getValidTo());
+
+		// the parents are the objects of the new catalogue
+		assertSame(terms.get(1), empty.getApplicability(copy.getHierarchyById(1)).getParentTerm());
+		assertSame(copy.getHierarchyById(1), terms.get(1).getApplicability(copy.getHierarchyById(1)).getParentTerm());
+		assertNull(empty.getApplicability(copy.getHierarchyById(2)).getParentTerm());
+	}
+
+	@Test
+	public void testSnapshotOfAnotherCatalogueVersionIsIgnored() {
+
+		assertTrue(CatalogueSnapshot.write(catalogue));
+
+		assertNull(CatalogueSnapshot.open(createCatalogue("2.0", lastUpdate)));
+		assertNull(CatalogueSnapshot.open(createCatalogue(CatalogueFixture.VERSION, null)));
+		assertNull(CatalogueSnapshot.open(
+				createCatalogue(CatalogueFixture.VERSION, Timestamp.valueOf("2020-03-04 05:06:07.123456788"))));
+
+		assertNotNull(CatalogueSnapshot.open(createCatalogue(CatalogueFixture.VERSION, lastUpdate)));
+	}
+
+	@Test
+	public void testSnapshotWithInvalidHeaderIsIgnored() throws IOException {
+
+		assertTrue(CatalogueSnapshot.write(catalogue));
+
+		try (RandomAccessFile raf = new RandomAccessFile(CatalogueSnapshot.getFile(catalogue), "rw")) {
+			raf.writeInt(0);
+		}
+
+		assertNull(CatalogueSnapshot.open(createCatalogue(CatalogueFixture.VERSION, lastUpdate)));
+	}
+
+	@Test
+	public void testSnapshotWithoutEndIsRejected() throws IOException {
+
+		assertTrue(CatalogueSnapshot.write(catalogue));
+
+		File file = CatalogueSnapshot.getFile(catalogue);
+
+		// remove the final magic number
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(raf.length() - 4);
+		}
+
+		CatalogueSnapshot snapshot = CatalogueSnapshot.open(createCatalogue(CatalogueFixture.VERSION, lastUpdate));
+
+		assertNotNull(snapshot);
+		assertNotNull(snapshot.readTerms());
+		assertFalse(snapshot.readRelations());
+
+		// wrong final magic number
+		assertTrue(CatalogueSnapshot.write(catalogue));
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.seek(raf.length() - 4);
+			raf.writeInt(0);
+		}
+
+		snapshot = CatalogueSnapshot.open(createCatalogue(CatalogueFixture.VERSION, lastUpdate));
+
+		assertNotNull(snapshot.readTerms());
+		assertFalse(snapshot.readRelations());
+	}
+
+	@Test
+	public void testInvalidatedSnapshotIsIgnored() {
+
+		assertTrue(CatalogueSnapshot.write(catalogue));
+
+		CatalogueSnapshot.invalidate(catalogue);
+
+		assertFalse(CatalogueSnapshot.getFile(catalogue).exists());
+		assertNull(CatalogueSnapshot.open(createCatalogue(CatalogueFixture.VERSION, lastUpdate)));
+	}
+
+	/**
+	 * Create a catalogue stored in the temporary folder, with the hierarchies
+	 * and the attribute referred by the snapshot
+	 *
+	 * @param version
+	 * @param lastUpdate
+	 * @return
+	 */
+	private Catalogue createCatalogue(String version, Timestamp lastUpdate) {
+
+		Catalogue catalogue = CatalogueFixture.createCatalogue(version, folder.getAbsolutePath(), lastUpdate);
+
+		master = CatalogueFixture.addHierarchy(catalogue, 1, CatalogueFixture.CODE, true);
+		other = CatalogueFixture.addHierarchy(catalogue, 2, "other", false);
+		attribute = CatalogueFixture.addAttribute(catalogue, 10, "attribute");
+
+		return catalogue;
+	}
+
+	private static String getParentName(Applicability appl) {
+		return appl.getParentTerm() == null ? null : appl.getParentTerm().getLabel();
+	}
+
+	private static void assertSameTerm(Term expected, Term actual, Catalogue catalogue) {
+
+		assertNotNull(actual);
+
+		assertEquals(expected.getCode(), actual.getCode());
+		assertEquals(expected.getName(), actual.getName());
+		assertEquals(expected.getLabel(), actual.getLabel());
+		assertEquals(expected.getScopenotes(), actual.getScopenotes());
+		assertEquals(expected.isDeprecated(), actual.isDeprecated());
+		assertEquals(expected.getLastUpdate(), actual.getLastUpdate());
+		assertEquals(expected.getValidFrom(), actual.getValidFrom());
+		assertEquals(expected.getValidTo(), actual.getValidTo());
+		assertEquals(expected.getStatus(), actual.getStatus());
+		assertEquals(expected.getVersion(), actual.getVersion());
+
+		List<Applicability> expectedAppl = expected.getApplicabilities();
+		List<Applicability> actualAppl = actual.getApplicabilities();
+
+		assertEquals(expectedAppl.size(), actualAppl.size());
+
+		for (int i = 0; i < expectedAppl.size(); ++i) {
+
+			Applicability e = expectedAppl.get(i);
+			Applicability a = actualAppl.get(i);
+
+			assertSame(catalogue.getHierarchyById(e.getHierarchy().getId()), a.getHierarchy());
+			assertEquals(e.getOrder(), a.getOrder());
+			assertEquals(e.isReportable(), a.isReportable());
+			assertEquals(getParentName(e), getParentName(a));
+		}
+
+		List<TermAttribute> expectedTa = expected.getAttributes();
+		List<TermAttribute> actualTa = actual.getAttributes();
+
+		assertEquals(expectedTa.size(), actualTa.size());
+
+		for (int i = 0; i < expectedTa.size(); ++i) {
+			assertEquals(expectedTa.get(i).getId(), actualTa.get(i).getId());
+			assertSame(catalogue.getAttributeById(expectedTa.get(i).getAttribute().getId()),
+					actualTa.get(i).getAttribute());
+			assertEquals(expectedTa.get(i).getValue(), actualTa.get(i).getValue());
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package catalogue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import catalogue_object.Applicability;
+import catalogue_object.Hierarchy;
+import catalogue_object.Term;
+import ui_search_bar.SearchType;
+
+public class CatalogueTest {
+
+	private Catalogue catalogue;
+	private Hierarchy master;
+	private Term term;
+
+	@BeforeEach
+	public void init() {
+
+		catalogue = CatalogueFixture.createCatalogue();
+		master = CatalogueFixture.addHierarchy(catalogue, 1, CatalogueFixture.CODE, true);
+
+		term = CatalogueFixture.createTerm(catalogue, 1, "A01", "Apple", null);
+		term.addApplicability(new Applicability(term, master, master, 1, true));
+
+		catalogue.addTerm(term);
+	}
+
+	@Test
+	public void testTermIsFoundByItsNewCode() {
+
+		assertSame(term, catalogue.getTermByCode("A01"));
+		assertSame(term, catalogue.getTermByCodeIgnoreCase("a01"));
+
+		term.setCode("b02");
+
+		assertSame(term, catalogue.getTermByCode("b02"));
+		assertSame(term, catalogue.getTermByCodeIgnoreCase("B02"));
+		assertNull(catalogue.getTermByCodeIgnoreCase("A01"));
+	}
+
+	@Test
+	public void testOldCodeOfAnotherTermIsKept() {
+
+		Term other = CatalogueFixture.createTerm(catalogue, 2, "C03", "Pear", null);
+		catalogue.addTerm(other);
+
+		// the first term takes the code which the other term leaves
+		other.setCode("D04");
+		term.setCode("C03");
+
+		assertSame(term, catalogue.getTermByCodeIgnoreCase("c03"));
+		assertSame(other, catalogue.getTermByCodeIgnoreCase("d04"));
+		assertNull(catalogue.getTermByCodeIgnoreCase("A01"));
+
+		// a copy of the term with the same id does not change the catalogue
+		Term copy = CatalogueFixture.createTerm(catalogue, 2, "D04", "Pear", null);
+		copy.setCode("E05");
+
+		assertSame(other, catalogue.getTermByCodeIgnoreCase("D04"));
+		assertNull(catalogue.getTermByCodeIgnoreCase("E05"));
+	}
+
+	@Test
+	public void testNewCodeIsSearched() {
+
+		catalogue.getSearchIndex().build();
+
+		term.setCode("B02");
+
+		assertEquals(Collections.singletonList(term), catalogue.getSearchIndex()
+				.search(Collections.singletonList("b02"), SearchType.ANY_WORD, master, Collections.emptyList(), null));
+	}
+}
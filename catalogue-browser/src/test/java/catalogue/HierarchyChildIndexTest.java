@@ -0,0 +1,233 @@
+package catalogue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import catalogue_object.Applicability;
+import catalogue_object.Hierarchy;
+import catalogue_object.Nameable;
+import catalogue_object.Term;
+
+public class HierarchyChildIndexTest {
+
+	private static final int TERMS = 60;
+
+	private Catalogue catalogue;
+	private Hierarchy master;
+	private Hierarchy other;
+	private List<Term> terms;
+	private Random random;
+
+	@BeforeEach
+	public void init() {
+
+		catalogue = CatalogueFixture.createCatalogue();
+
+		master = CatalogueFixture.addHierarchy(catalogue, 1, CatalogueFixture.CODE, true);
+		other = CatalogueFixture.addHierarchy(catalogue, 2, "other", false);
+
+		// same trees at each run
+		random = new Random(7);
+
+		terms = new ArrayList<>();
+
+		for (int i = 1; i <= TERMS; ++i) {
+
+			Term term = CatalogueFixture.createTerm(catalogue, i, "T" + i, "term " + i, null);
+
+			// the parent is a previous term or the hierarchy itself
+			term.addApplicability(createApplicability(term, master));
+			term.addApplicability(createApplicability(term, other));
+
+			catalogue.addTerm(term);
+			terms.add(term);
+		}
+	}
+
+	@Test
+	public void testIntervalsMatchTheParentsChain() {
+		assertSameAncestors(master);
+		assertSameAncestors(other);
+	}
+
+	@Test
+	public void testIntervalsAfterMovingTerms() {
+
+		// compute the intervals before the changes
+		assertSameAncestors(master);
+
+		for (int i = 0; i < 30; ++i) {
+
+			Term term = terms.get(random.nextInt(TERMS));
+
+			Nameable parent = pickParent(term);
+
+			// the term subtree is moved under another parent
+			term.getApplicability(master).setParentTerm(parent);
+			catalogue.getChildIndex().update(term);
+
+			assertSameAncestors(master);
+		}
+
+		// the other hierarchy is not affected
+		assertSameAncestors(other);
+	}
+
+	@Test
+	public void testIntervalsAfterReorderingTerms() {
+
+		assertSameAncestors(master);
+
+		for (Term term : terms) {
+			term.getApplicability(master).setOrder(random.nextInt(5));
+			catalogue.getChildIndex().update(term);
+		}
+
+		// the children are sorted again with the new orders
+		for (Term term : terms) {
+
+			List<Term> children = catalogue.getChildIndex().getChildren(term, master);
+
+			for (int i = 1; i < children.size(); ++i)
+				assertTrue(children.get(i - 1).getOrder(master) <= children.get(i).getOrder(master));
+		}
+
+		assertSameAncestors(master);
+
+		// move a term after the reordering
+		Term term = terms.get(TERMS - 1);
+		term.getApplicability(master).setParentTerm(master);
+		catalogue.getChildIndex().update(term);
+
+		assertSameAncestors(master);
+	}
+
+	@Test
+	public void testConcurrentReadersWhileMovingTerms() throws Exception {
+
+		assertSameAncestors(master);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		List<Future<?>> readers = new ArrayList<>();
+
+		// the readers always see a complete view of the hierarchy
+		for (int r = 0; r < 4; ++r) {
+			readers.add(executor.submit(new Runnable() {
+				@Override
+				public void run() {
+					for (int k = 0; k < 20; ++k) {
+						for (Term term : terms) {
+
+							assertNotNull(catalogue.getChildIndex().isAncestor(terms.get(0), term, master));
+							assertNotNull(catalogue.getChildIndex().getHierarchyCode(term, master));
+
+							for (Term child : catalogue.getChildIndex().getChildren(term, master))
+								assertNotNull(child);
+						}
+					}
+				}
+			}));
+		}
+
+		for (int i = 0; i < 30; ++i) {
+
+			Term term = terms.get(random.nextInt(TERMS));
+
+			term.getApplicability(master).setParentTerm(pickParent(term));
+			catalogue.getChildIndex().update(term);
+		}
+
+		for (Future<?> reader : readers)
+			reader.get();
+
+		executor.shutdown();
+
+		assertSameAncestors(master);
+	}
+
+	@Test
+	public void testTermsOutsideTheCatalogueAreNotIndexed() {
+
+		Term temporary = CatalogueFixture.createTerm(catalogue, TERMS + 1, "TMP", "temporary", null);
+
+		temporary.addApplicability(new Applicability(temporary, terms.get(0), master, 1, true));
+
+		assertNull(catalogue.getChildIndex().isAncestor(terms.get(0), temporary, master));
+	}
+
+	/**
+	 * Check that the intervals of the index give the same answer of going up
+	 * into the tree parent by parent, for all the pairs of terms
+	 *
+	 * @param hierarchy
+	 */
+	private void assertSameAncestors(Hierarchy hierarchy) {
+
+		for (Term ancestor : terms) {
+			for (Term term : terms) {
+				assertEquals(Boolean.valueOf(isAncestor(ancestor, term, hierarchy)),
+						catalogue.getChildIndex().isAncestor(ancestor, term, hierarchy),
+						ancestor.getCode() + " ancestor of " + term.getCode() + " in " + hierarchy.getCode());
+			}
+		}
+	}
+
+	private static boolean isAncestor(Term ancestor, Term term, Hierarchy hierarchy) {
+
+		Nameable current = term;
+
+		while (current instanceof Term) {
+
+			if (current == ancestor)
+				return true;
+
+			current = ((Term) current).getApplicability(hierarchy).getParentTerm();
+		}
+
+		return false;
+	}
+
+	/**
+	 * Pick a new parent for the term, which is not in its subtree
+	 *
+	 * @param term
+	 * @return
+	 */
+	private Nameable pickParent(Term term) {
+
+		while (true) {
+
+			int index = random.nextInt(TERMS + 1);
+
+			if (index == TERMS)
+				return master;
+
+			Term parent = terms.get(index);
+
+			if (!isAncestor(term, parent, master))
+				return parent;
+		}
+	}
+
+	private Applicability createApplicability(Term term, Hierarchy hierarchy) {
+
+		int index = random.nextInt(terms.size() + 1);
+
+		Nameable parent = index == terms.size() ? hierarchy : terms.get(index);
+
+		return new Applicability(term, parent, hierarchy, random.nextInt(5), true);
+	}
+}
@@ -0,0 +1,320 @@
+package catalogue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import catalogue_object.Applicability;
+import catalogue_object.Attribute;
+import catalogue_object.Hierarchy;
+import catalogue_object.Term;
+import catalogue_object.TermAttribute;
+import term_type.TermType;
+import ui_search_bar.SearchType;
+
+public class TermSearchIndexTest {
+
+	private static final int TERMS = 200;
+
+	private static final String[] WORDS = { "apple", "apricot", "juice", "or", "orange", "milk", "è latte", "a",
+			"Pear%" };
+
+	// keywords of the searches, with codes and keywords shorter than a trigram
+	private static final String[][] QUERIES = { { "a" }, { "OR" }, { "È" }, { "app" }, { "APPLE" },
+			{ "juice", "milk" }, { "apple", "JUICE" }, { "T12" }, { "t1" }, { "pple ju" }, { "zzz" }, { "ap", "ic" },
+			{ "LE", "T7" }, { "%" }, { "e l" } };
+
+	private Catalogue catalogue;
+	private Hierarchy master;
+	private Hierarchy other;
+	private Attribute searchable;
+	private Attribute notSearchable;
+	private Attribute termType;
+	private List<Term> terms;
+
+	@BeforeEach
+	public void init() {
+
+		catalogue = CatalogueFixture.createCatalogue();
+
+		master = CatalogueFixture.addHierarchy(catalogue, 1, CatalogueFixture.CODE, true);
+		other = CatalogueFixture.addHierarchy(catalogue, 2, "other", false);
+
+		searchable = CatalogueFixture.addAttribute(catalogue, 10, "searchable");
+		notSearchable = CatalogueFixture.addAttribute(catalogue, 11, "notSearchable");
+		termType = CatalogueFixture.addAttribute(catalogue, 12, "termType");
+
+		terms = new ArrayList<>();
+
+		for (int i = 1; i <= TERMS; ++i)
+			addTerm(i);
+	}
+
+	@Test
+	public void testSearchMatchesTheLikeQueries() {
+
+		for (SearchType type : SearchType.values()) {
+			for (String[] query : QUERIES) {
+
+				// the exact match uses the whole text as a single keyword
+				List<String> keywords = type == SearchType.EXACT_MATCH
+						? Collections.singletonList(String.join(" ", query))
+						: Arrays.asList(query);
+
+				for (Hierarchy hierarchy : Arrays.asList(master, other))
+					assertSameTerms(keywords, type, hierarchy, null);
+			}
+		}
+	}
+
+	@Test
+	public void testSearchFiltersTheTermTypes() {
+
+		Collection<TermType> types = Collections.singletonList(new TermType(1, "r", "raw"));
+
+		for (String[] query : QUERIES)
+			assertSameTerms(Arrays.asList(query), SearchType.ANY_WORD, master, types);
+	}
+
+	@Test
+	public void testShortKeywordsMatchInsideTheTexts() {
+
+		// a single character is searched in all the texts
+		assertFalse(search(Collections.singletonList("a"), SearchType.ANY_WORD, master, null).isEmpty());
+
+		List<String> keys = Collections.singletonList("OR");
+
+		for (Term term : catalogue.getSearchIndex().search(keys, SearchType.ANY_WORD, master,
+				Collections.singletonList(searchable), null))
+			assertTrue(matchesName(term, "OR") || matchesValue(term, keys, false));
+	}
+
+	@Test
+	public void testIndexIsRebuiltAfterTheTermsChange() {
+
+		List<String> keywords = Collections.singletonList("kiwi");
+
+		assertTrue(search(keywords, SearchType.ANY_WORD, master, null).isEmpty());
+
+		Term kiwi = CatalogueFixture.createTerm(catalogue, TERMS + 1, "K1", "Kiwi", null);
+		kiwi.addApplicability(new Applicability(kiwi, master, master, 1, true));
+
+		// the index is discarded and built again with the next search
+		catalogue.addTerm(kiwi);
+		terms.add(kiwi);
+
+		assertEquals(Collections.singleton("K1"), search(keywords, SearchType.ANY_WORD, master, null));
+		assertSameTerms(Collections.singletonList("k1"), SearchType.ANY_WORD, master, null);
+	}
+
+	@Test
+	public void testIndexBuiltWhileAddingTerms() throws InterruptedException {
+
+		catalogue.getSearchIndex().clear();
+
+		// build the index in background, as when the catalogue is loaded
+		Thread builder = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				catalogue.getSearchIndex().build();
+			}
+		});
+
+		builder.start();
+
+		for (int i = 1; i <= 50; ++i) {
+
+			Term kiwi = CatalogueFixture.createTerm(catalogue, TERMS + i, "K" + i, "Kiwi " + i, null);
+			kiwi.addApplicability(new Applicability(kiwi, master, master, i, true));
+
+			catalogue.addTerm(kiwi);
+			terms.add(kiwi);
+		}
+
+		builder.join();
+
+		// the index built before the last term was added is not used
+		assertEquals(50, search(Collections.singletonList("kiwi"), SearchType.ANY_WORD, master, null).size());
+		assertSameTerms(Collections.singletonList("apple"), SearchType.ANY_WORD, master, null);
+	}
+
+	/**
+	 * Check that the index returns the terms which the previous queries on the
+	 * database returned: names (and short names) like '%keyword%' or code equal
+	 * to the keyword, or searchable attribute values like '%keyword%', combined
+	 * with or (any word) or and (all words)
+	 *
+	 * @param keywords
+	 * @param type
+	 * @param hierarchy
+	 * @param types
+	 */
+	private void assertSameTerms(List<String> keywords, SearchType type, Hierarchy hierarchy,
+			Collection<TermType> types) {
+
+		boolean all = type == SearchType.ALL_WORDS;
+
+		List<String> keys = new ArrayList<>();
+		for (String keyword : keywords)
+			keys.add(keyword.toUpperCase());
+
+		Set<String> expected = new TreeSet<>();
+
+		for (Term term : terms) {
+
+			boolean byName = all;
+
+			for (String key : keys) {
+				if (all)
+					byName &= matchesName(term, key);
+				else
+					byName |= matchesName(term, key);
+			}
+
+			if (!byName && !matchesValue(term, keys, all))
+				continue;
+
+			if (term.getApplicability(hierarchy) == null)
+				continue;
+
+			if (types != null && term.getTermType() != null && !hasType(types, term.getTermType().getValue()))
+				continue;
+
+			expected.add(term.getCode());
+		}
+
+		assertEquals(expected, search(keywords, type, hierarchy, types), keywords + " " + type + " in "
+				+ hierarchy.getCode());
+	}
+
+	private Set<String> search(List<String> keywords, SearchType type, Hierarchy hierarchy,
+			Collection<TermType> types) {
+
+		Set<String> codes = new TreeSet<>();
+
+		for (Term term : catalogue.getSearchIndex().search(keywords, type, hierarchy,
+				Collections.singletonList(searchable), types))
+			codes.add(term.getCode());
+
+		return codes;
+	}
+
+	private static boolean matchesName(Term term, String key) {
+		return like(term.getName(), key) || like(term.getLabel(), key) || term.getCode().toUpperCase().equals(key);
+	}
+
+	/**
+	 * Check if a value of a searchable attribute matches the keywords (each value
+	 * is compared with all the keywords)
+	 *
+	 * @param term
+	 * @param keys
+	 * @param all
+	 * @return
+	 */
+	private boolean matchesValue(Term term, List<String> keys, boolean all) {
+
+		for (TermAttribute ta : term.getAttributes()) {
+
+			if (ta.getAttribute() != searchable)
+				continue;
+
+			boolean match = all;
+
+			for (String key : keys) {
+				if (all)
+					match &= like(ta.getValue(), key);
+				else
+					match |= like(ta.getValue(), key);
+			}
+
+			if (match)
+				return true;
+		}
+
+		return false;
+	}
+
+	private static boolean like(String text, String key) {
+		return text != null && text.toUpperCase().contains(key);
+	}
+
+	private static boolean hasType(Collection<TermType> types, String code) {
+
+		for (TermType type : types) {
+			if (type.getCode().equals(code))
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Add a term whose texts, hierarchies and attributes are different
+	 * combinations of the words, chosen by the id
+	 *
+	 * @param id
+	 */
+	private void addTerm(int id) {
+
+		String label = id % 2 == 0 ? null : getWords(id * 2, 1);
+
+		Term term = CatalogueFixture.createTerm(catalogue, id, "T" + id, getWords(id, 1 + id % 3), label);
+
+		// some terms are not in the other hierarchy
+		term.addApplicability(new Applicability(term, master, master, id, true));
+
+		if (id % 3 != 0)
+			term.addApplicability(new Applicability(term, other, other, id, true));
+
+		int taId = id * 10;
+
+		if (id % 2 == 1)
+			term.addAttribute(new TermAttribute(taId++, term, searchable, getWords(id * 5, 1 + id % 2)));
+
+		if (id % 5 < 2)
+			term.addAttribute(new TermAttribute(taId++, term, searchable, getWords(id * 7, 1)));
+
+		if (id % 7 < 3)
+			term.addAttribute(new TermAttribute(taId++, term, notSearchable, getWords(id * 3, 2)));
+
+		if (id % 3 > 0)
+			term.addAttribute(new TermAttribute(taId++, term, termType, id % 4 < 2 ? "r" : "f"));
+
+		catalogue.addTerm(term);
+		terms.add(term);
+	}
+
+	/**
+	 * Get the words starting from the first one, skipping one word each time
+	 *
+	 * @param first
+	 * @param count
+	 * @return
+	 */
+	private static String getWords(int first, int count) {
+
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < count; ++i) {
+
+			if (i > 0)
+				sb.append(' ');
+
+			sb.append(WORDS[(first + i * 2) % WORDS.length]);
+		}
+
+		return sb.toString();
+	}
+}
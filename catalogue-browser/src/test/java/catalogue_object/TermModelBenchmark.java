@@ -0,0 +1,175 @@
+package catalogue_object;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import catalogue.Catalogue;
+import catalogue_browser_dao.CatalogueDAO;
+import catalogue_browser_dao.DatabaseManager;
+import dcf_manager.Dcf.DcfType;
+
+/**
+ * Compare the heap used by a loaded catalogue with the standard term model and
+ * with the {@link CompactTermModel}. The catalogue must be already downloaded
+ * in the database of the application, therefore the benchmark has to be
+ * started from the folder of the catalogue browser. Use a large catalogue
+ * (e.g. the MTX) to get meaningful results, the first load is a warm up and it
+ * is not measured. The search index built in background after the load is
+ * discarded before measuring the heap, since it is the same for both models.
+ *
+ * Run it from the test classpath, e.g. mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=catalogue_object.TermModelBenchmark
+ * -Dexec.args="MTX 12.0 PRODUCTION"
+ *
+ * @author shahaal
+ *
+ */
+public class TermModelBenchmark {
+
+	private static final Logger LOGGER = LogManager.getLogger(TermModelBenchmark.class);
+
+	// maximum wait for the search index built after the load
+	private static final long INDEX_TIMEOUT = 600000;
+
+	/**
+	 * Run the benchmark
+	 *
+	 * @param args the catalogue code, the catalogue version and optionally the
+	 *             catalogue type (PRODUCTION or TEST)
+	 */
+	public static void main(String[] args) {
+
+		if (args.length < 2 || args.length > 3) {
+			LOGGER.error("Wrong number of arguments. Please specify the catalogue code, its version and optionally "
+					+ "its type (example: MTX 12.0 PRODUCTION)");
+			return;
+		}
+
+		DcfType type = args.length > 2 ? DcfType.valueOf(args[2]) : DcfType.PRODUCTION;
+
+		try {
+
+			DatabaseManager.startMainDB();
+
+			new TermModelBenchmark().run(args[0], args[1], type);
+
+		} catch (SQLException | IOException e) {
+			LOGGER.error("Benchmark failed", e);
+			e.printStackTrace();
+		} finally {
+			DatabaseManager.stopMainDB();
+		}
+	}
+
+	/**
+	 * Load the catalogue with the standard and the compact model and log the heap
+	 * they use
+	 *
+	 * @param code
+	 * @param version
+	 * @param type
+	 */
+	public void run(String code, String version, DcfType type) {
+
+		// warm up (it also writes the snapshot of the catalogue, if missing)
+		if (measure(code, version, type, false) < 0)
+			return;
+
+		long standard = measure(code, version, type, false);
+		long compact = measure(code, version, type, true);
+
+		LOGGER.info("Standard model: " + toMb(standard) + " MB");
+		LOGGER.info("Compact model: " + toMb(compact) + " MB");
+
+		if (standard > 0)
+			LOGGER.info("Heap saved: " + Math.round(100.0 * (standard - compact) / standard) + "%");
+	}
+
+	/**
+	 * Load the catalogue and compute the heap retained by its data
+	 *
+	 * @param code
+	 * @param version
+	 * @param type
+	 * @param compact true to use the compact model
+	 * @return the used bytes or -1 if the catalogue was not found or the
+	 *         benchmark was interrupted
+	 */
+	private long measure(String code, String version, DcfType type, boolean compact) {
+
+		CompactTermModel.setEnabled(compact);
+
+		Catalogue catalogue = new CatalogueDAO().getCatalogue(code, version, type);
+
+		if (catalogue == null) {
+			LOGGER.error("Catalogue " + code + " version " + version + " (" + type + ") not found");
+			return -1;
+		}
+
+		long before = getUsedHeap();
+
+		long start = System.currentTimeMillis();
+
+		catalogue.loadData();
+
+		long time = System.currentTimeMillis() - start;
+
+		// wait for the background search index and discard it, otherwise it
+		// would be measured only if its thread was fast enough
+		try {
+			if (!catalogue.getSearchIndex().waitBuilt(INDEX_TIMEOUT))
+				LOGGER.warn("Search index of " + catalogue + " not built in " + INDEX_TIMEOUT + " ms");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return -1;
+		}
+
+		catalogue.getSearchIndex().clear();
+
+		long used = getUsedHeap() - before;
+
+		LOGGER.info("Catalogue " + catalogue + " loaded with " + (compact ? "compact" : "standard") + " model: terms="
+				+ catalogue.getTerms().size() + ", time=" + time + " ms, heap=" + toMb(used) + " MB");
+
+		catalogue.clearData();
+		catalogue.closeConnection();
+
+		return used;
+	}
+
+	/**
+	 * Get the used heap after the garbage collection
+	 *
+	 * @return
+	 */
+	private static long getUsedHeap() {
+
+		Runtime runtime = Runtime.getRuntime();
+
+		long used = Long.MAX_VALUE;
+
+		// the collection is only requested, repeat it until the heap is stable
+		for (int i = 0; i < 5; ++i) {
+
+			System.gc();
+
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+
+			used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+		}
+
+		return used;
+	}
+
+	private static long toMb(long bytes) {
+		return Math.round(bytes / (1024.0 * 1024.0));
+	}
+}
@@ -0,0 +1,255 @@
+package export_catalogue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import catalogue_object.Mappable;
+import sheet_header.SheetHeader;
+
+public class WorkbookExporterTest {
+
+	// more columns than the letters, more rows than a chunk
+	private static final int COLUMNS = 30;
+	private static final int ROWS = 1234;
+
+	// values which need escaping or special handling
+	private static final String[] SPECIAL = { "a < b & c > \"d\"", "line\nbreak\r\nend", "tab\there", " leading",
+			"trailing ", "ctrl\u0001char", "è à ü €", "", null, "'quoted'" };
+
+	private DataFormatter formatter;
+	private File poiXlsx;
+	private File streamXlsx;
+
+	@BeforeEach
+	public void init() throws IOException {
+		this.formatter = new DataFormatter();
+		this.poiXlsx = File.createTempFile("poi", ".xlsx");
+		this.streamXlsx = File.createTempFile("stream", ".xlsx");
+	}
+
+	@AfterEach
+	public void clean() {
+		poiXlsx.delete();
+		streamXlsx.delete();
+	}
+
+	@Test
+	public void testExportWritesTheSameCellsOfThePoiWorkbook() throws IOException {
+
+		List<TestSheet> sheets = new ArrayList<>();
+		sheets.add(new TestSheet("catalogue", 5, 1));
+
+		// the term sheet has also the dump row
+		TestSheet term = new TestSheet("term", COLUMNS, ROWS);
+		term.setDumpRow(true);
+		sheets.add(term);
+
+		sheets.add(new TestSheet("empty", 3, 0));
+		sheets.add(new TestSheet("release & notes", COLUMNS, 700));
+
+		writeWithPoi(sheets, poiXlsx);
+
+		// few workers to have many chunks pending
+		new WorkbookExporter(3).export(sheets, streamXlsx.getAbsolutePath());
+
+		try (InputStream poiIn = new FileInputStream(poiXlsx);
+				InputStream streamIn = new FileInputStream(streamXlsx);
+				Workbook expected = new XSSFWorkbook(poiIn);
+				Workbook actual = new XSSFWorkbook(streamIn);) {
+
+			assertEquals(expected.getNumberOfSheets(), actual.getNumberOfSheets());
+
+			for (int i = 0; i < expected.getNumberOfSheets(); ++i) {
+
+				Sheet expectedSheet = expected.getSheetAt(i);
+				Sheet actualSheet = actual.getSheetAt(i);
+
+				assertEquals(expectedSheet.getSheetName(), actualSheet.getSheetName());
+				assertSameCells(expectedSheet, actualSheet);
+
+				// the dimension is declared for the readers
+				int columns = sheets.get(i).columns;
+				assertEquals("A1:" + CellReference.convertNumToColString(columns - 1) + (actualSheet.getLastRowNum() + 1),
+						((XSSFSheet) actualSheet).getCTWorksheet().getDimension().getRef());
+			}
+
+			// headers, dump row and data
+			assertEquals(ROWS + 1, actual.getSheet("term").getLastRowNum());
+			assertEquals(0, actual.getSheet("empty").getLastRowNum());
+		}
+	}
+
+	/**
+	 * Compare the sheets cell by cell (missing cells are compared as empty
+	 * values)
+	 *
+	 * @param expected
+	 * @param actual
+	 */
+	private void assertSameCells(Sheet expected, Sheet actual) {
+
+		assertEquals(expected.getLastRowNum(), actual.getLastRowNum(), "Rows of sheet " + expected.getSheetName());
+
+		for (int r = 0; r <= expected.getLastRowNum(); ++r) {
+
+			Row expectedRow = expected.getRow(r);
+			Row actualRow = actual.getRow(r);
+
+			for (int c = 0; c < COLUMNS; ++c) {
+				assertEquals(getValue(expectedRow, c), getValue(actualRow, c),
+						"Cell " + expected.getSheetName() + "[" + r + "," + c + "]");
+			}
+		}
+	}
+
+	private String getValue(Row row, int column) {
+
+		if (row == null)
+			return "";
+
+		Cell cell = row.getCell(column);
+
+		return cell == null ? "" : formatter.formatCellValue(cell);
+	}
+
+	/**
+	 * Write the sheets with the POI streaming workbook, as the export did before
+	 * the {@link XlsxStreamWriter}
+	 *
+	 * @param sheets
+	 * @param file
+	 * @throws IOException
+	 */
+	private static void writeWithPoi(List<TestSheet> sheets, File file) throws IOException {
+
+		SXSSFWorkbook workbook = new SXSSFWorkbook();
+
+		for (TestSheet testSheet : sheets) {
+
+			Sheet sheet = workbook.createSheet(testSheet.getSheetName());
+
+			HashMap<String, SheetHeader> headers = testSheet.getHeaders();
+
+			int rowNum = 0;
+
+			Row row = sheet.createRow(rowNum++);
+			for (SheetHeader header : headers.values())
+				createCell(row, header.getColumnIndex(), header.getColumnName());
+
+			if (testSheet.hasDumpRow()) {
+
+				row = sheet.createRow(rowNum++);
+
+				for (SheetHeader header : headers.values())
+					createCell(row, header.getColumnIndex(), SheetWriter.createDumpString());
+			}
+
+			for (Mappable record : testSheet.getData()) {
+
+				row = sheet.createRow(rowNum++);
+
+				for (Map.Entry<String, SheetHeader> entry : headers.entrySet())
+					createCell(row, entry.getValue().getColumnIndex(), record.getValueByKey(entry.getKey()));
+			}
+		}
+
+		try (OutputStream out = new FileOutputStream(file)) {
+			workbook.write(out);
+		} finally {
+			workbook.dispose();
+			workbook.close();
+		}
+	}
+
+	private static void createCell(Row row, int columnIndex, String value) {
+
+		if (columnIndex < 0)
+			return;
+
+		row.createCell(columnIndex).setCellValue(value);
+	}
+
+	/**
+	 * Sheet with generated values, some of them special, and a column which is
+	 * not exported
+	 */
+	private static class TestSheet extends SheetWriter {
+
+		private final int columns;
+		private final int rows;
+
+		private TestSheet(String sheetName, int columns, int rows) {
+			super(sheetName);
+			this.columns = columns;
+			this.rows = rows;
+		}
+
+		@Override
+		public HashMap<String, SheetHeader> getHeaders() {
+
+			HashMap<String, SheetHeader> headers = new HashMap<>();
+
+			for (int i = 0; i < columns; ++i)
+				headers.put("COL_" + i, new SheetHeader(i, "column <" + i + ">"));
+
+			headers.put("HIDDEN", new SheetHeader(-1, "hidden"));
+
+			return headers;
+		}
+
+		@Override
+		public Collection<? extends Mappable> getData() {
+
+			List<Mappable> data = new ArrayList<>();
+
+			for (int i = 0; i < rows; ++i) {
+
+				final int row = i;
+
+				data.add(new Mappable() {
+					@Override
+					public String getValueByKey(String key) {
+
+						if (key.equals("HIDDEN"))
+							return "hidden " + row;
+
+						int column = Integer.parseInt(key.substring(4));
+
+						int index = (row * 7 + column) % (SPECIAL.length * 3);
+
+						if (index < SPECIAL.length)
+							return SPECIAL[index];
+
+						return "value " + row + "-" + column;
+					}
+				});
+			}
+
+			return data;
+		}
+	}
+}
@@ -2,6 +2,7 @@ package sheet_converter;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -197,7 +198,8 @@ public class TermSheetConverter extends ExtendedSheetConverter {
 
 		HashMap<String, String> attrs = new HashMap<>();
 		
-		ArrayList<String> hierCodes = SheetConverter.getSheetColumn( hierSheet, Headers.CODE );
+		// hash set since it is checked for each attribute
+		HashSet<String> hierCodes = new HashSet<>( SheetConverter.getSheetColumn( hierSheet, Headers.CODE ) );
 		
 		// get the names and the types of the attributes
 		ArrayList<String> codes = SheetConverter.getSheetColumn( attrSheet, Headers.CODE );
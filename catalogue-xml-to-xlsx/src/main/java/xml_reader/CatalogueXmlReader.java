@@ -0,0 +1,815 @@
+package xml_reader;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import data_transformation.BooleanConverter;
+import data_transformation.DateTrimmer;
+import data_transformation.HierarchyAssignment;
+import data_transformation.ValuesGrouper;
+import naming_convention.Headers;
+import naming_convention.SpecialValues;
+import sheet_converter.XmlNodes;
+
+/**
+ * Read a catalogue xml with a StAX parser and give its data as the rows of the
+ * sheets of the catalogue workbook, with the same columns and values which
+ * are created by the {@link xml_to_excel.XmlCatalogueToExcel} converter, but
+ * without the xslt filters and without creating the workbook.
+ *
+ * The catalogue, hierarchy, attribute and release notes sheets are small and
+ * they are read all together with {@link #readCatalogue()}, which skips the
+ * terms. The terms are then streamed one by one with {@link #openTerms()} and
+ * {@link #nextTerm()}, therefore only a single term is kept in memory. The
+ * terms can be streamed more than once (e.g. to import the term attributes
+ * and the parents after all the terms were imported).
+ *
+ * Alternatively, {@link #read(TermListener)} reads the whole xml in a single
+ * pass and gives each term to a listener as soon as it is read. Hierarchies
+ * and attributes precede the terms in the xml, therefore the term columns are
+ * already known when the first term is read.
+ *
+ * @author shahaal
+ *
+ */
+public class CatalogueXmlReader implements Closeable {
+
+	private static final Logger LOGGER = LogManager.getLogger(CatalogueXmlReader.class);
+
+	// containers of the catalogue xml
+	private static final String HIERARCHIES_NODE = "catalogueHierarchies";
+	private static final String ATTRIBUTES_NODE = "catalogueAttributes";
+	private static final String TERMS_NODE = "catalogueTerms";
+
+	// the columns of the sheets, in the order used by the sheet converters
+	private static final List<String> CATALOGUE_COLUMNS = Arrays.asList(Headers.CODE, Headers.NAME, Headers.LABEL,
+			Headers.SCOPENOTE, Headers.CAT_CODE_MASK, Headers.CAT_CODE_LENGTH, Headers.CAT_MIN_CODE,
+			Headers.CAT_ACCEPT_NOT_STD, Headers.CAT_GEN_MISSING, Headers.VERSION, Headers.CAT_GROUPS,
+			Headers.LAST_UPDATE, Headers.VALID_FROM, Headers.VALID_TO, Headers.STATUS, Headers.DEPRECATED,
+			Headers.NOTES_DESCRIPTION, Headers.NOTES_DATE, Headers.NOTES_VERSION, Headers.NOTES_NOTE);
+
+	private static final List<String> HIERARCHY_COLUMNS = Arrays.asList(Headers.CODE, Headers.NAME, Headers.LABEL,
+			Headers.SCOPENOTE, Headers.HIER_APPL, Headers.HIER_ORDER, Headers.VERSION, Headers.LAST_UPDATE,
+			Headers.VALID_FROM, Headers.VALID_TO, Headers.STATUS, Headers.DEPRECATED, Headers.HIER_GROUPS);
+
+	private static final List<String> ATTRIBUTE_COLUMNS = Arrays.asList(Headers.CODE, Headers.NAME, Headers.LABEL,
+			Headers.SCOPENOTE, Headers.ATTR_REPORT, Headers.ATTR_VISIB, Headers.ATTR_SEARCH, Headers.ATTR_ORDER,
+			Headers.ATTR_TYPE, Headers.ATTR_MAX_LENGTH, Headers.ATTR_PRECISION, Headers.ATTR_SCALE,
+			Headers.ATTR_CAT_CODE, Headers.ATTR_SR, Headers.ATTR_INHERIT, Headers.ATTR_UNIQUE, Headers.ATTR_ALIAS,
+			Headers.VERSION, Headers.LAST_UPDATE, Headers.VALID_FROM, Headers.VALID_TO, Headers.STATUS,
+			Headers.DEPRECATED);
+
+	private static final List<String> NOTES_COLUMNS = Arrays.asList(Headers.OP_NAME, Headers.OP_DATE,
+			Headers.OP_INFO, Headers.OP_GROUP);
+
+	// fixed columns of the term sheet, the attributes and the
+	// hierarchies columns are added when the catalogue is read
+	private static final List<String> TERM_COLUMNS = Arrays.asList(Headers.TERM_CODE, Headers.TERM_EXT_NAME,
+			Headers.TERM_SHORT_NAME, Headers.TERM_SCOPENOTE, Headers.DEPRECATED, Headers.VERSION,
+			Headers.LAST_UPDATE, Headers.VALID_FROM, Headers.VALID_TO, Headers.STATUS);
+
+	/**
+	 * Receive the terms read in a single pass (see
+	 * {@link CatalogueXmlReader#read(TermListener)})
+	 */
+	public interface TermListener {
+
+		/**
+		 * Called for each term of the xml, in order
+		 * 
+		 * @param row the values of the term for each term column (see
+		 *            {@link CatalogueXmlReader#getTermColumns()})
+		 */
+		public void termRead(String[] row);
+	}
+
+	private String filename;
+
+	private SheetRows catalogue;
+	private SheetRows hierarchies;
+	private SheetRows attributes;
+	private SheetRows notes;
+
+	// columns of the term sheet and xml node/attribute code => column index
+	private List<String> termColumns;
+	private Map<String, Integer> termKeys;
+	private String masterCode;
+	private int termsCount;
+
+	// the parser of the terms
+	private InputStream input;
+	private XMLStreamReader reader;
+	private boolean inTerms;
+
+	// content of the current xml node
+	private StringBuilder text;
+
+	/**
+	 * Create the reader
+	 *
+	 * @param filename the catalogue xml file
+	 */
+	public CatalogueXmlReader(String filename) {
+		this.filename = filename;
+		this.text = new StringBuilder();
+	}
+
+	/**
+	 * Read the catalogue, hierarchy, attribute and release notes data of the
+	 * xml. The terms are only counted. Call this before reading the terms.
+	 *
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 */
+	public void readCatalogue() throws IOException, XMLStreamException {
+		read(null);
+	}
+
+	/**
+	 * Read the whole xml in a single pass. The catalogue, hierarchy, attribute and
+	 * release notes data are kept as in {@link #readCatalogue()}, while the terms
+	 * are given to the listener one by one and then discarded.
+	 *
+	 * @param listener receives the terms, if null the terms are only counted
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 */
+	public void read(TermListener listener) throws IOException, XMLStreamException {
+
+		long start = System.currentTimeMillis();
+
+		catalogue = new SheetRows(Headers.CAT_SHEET_NAME, CATALOGUE_COLUMNS);
+		hierarchies = new SheetRows(Headers.HIER_SHEET_NAME, HIERARCHY_COLUMNS);
+		attributes = new SheetRows(Headers.ATTR_SHEET_NAME, ATTRIBUTE_COLUMNS);
+		notes = new SheetRows(Headers.NOTES_SHEET_NAME, NOTES_COLUMNS);
+		termColumns = null;
+		termsCount = 0;
+
+		// the catalogue is a single row
+		String[] catRow = catalogue.createRow();
+		catalogue.addRow(catRow);
+
+		try (InputStream in = new BufferedInputStream(new FileInputStream(filename))) {
+
+			XMLStreamReader xml = createReader(in);
+
+			// where the values of the nodes are saved
+			SheetRows sheet = catalogue;
+			String[] row = catRow;
+
+			boolean inHierarchies = false;
+			boolean inAttributes = false;
+			boolean inNotes = false;
+
+			ValuesGrouper groups = null;
+
+			// current operation of the release notes
+			String opName = null;
+			String opDate = null;
+			int groupId = 0;
+
+			try {
+
+				while (xml.hasNext()) {
+
+					int event = xml.next();
+
+					switch (event) {
+					case XMLStreamConstants.START_ELEMENT:
+
+						String node = xml.getLocalName();
+
+						text.setLength(0);
+
+						switch (node) {
+						case TERMS_NODE:
+
+							if (listener == null) {
+								// only count the terms
+								termsCount += skip(xml, XmlNodes.TERM_ROOT_NODE);
+							} else {
+								prepareTerms(catRow);
+								termsCount += readTerms(xml, listener);
+							}
+							break;
+
+						case HIERARCHIES_NODE:
+							inHierarchies = true;
+							break;
+
+						case ATTRIBUTES_NODE:
+							inAttributes = true;
+							break;
+
+						case XmlNodes.HIERARCHY_ROOT_NODE:
+							if (inHierarchies) {
+								sheet = hierarchies;
+								row = sheet.createRow();
+							}
+							break;
+
+						case XmlNodes.ATTRIBUTE_ROOT_NODE:
+							if (inAttributes) {
+								sheet = attributes;
+								row = sheet.createRow();
+							}
+							break;
+
+						case XmlNodes.CAT_GROUPS:
+						case XmlNodes.HIER_GROUPS:
+							groups = new ValuesGrouper();
+							break;
+
+						case XmlNodes.RELEASE_NOTES:
+							inNotes = true;
+							break;
+
+						case XmlNodes.VERSION:
+							// version of the release notes
+							if (inNotes)
+								setValue(catalogue, catRow, Headers.NOTES_VERSION,
+										xml.getAttributeValue(null, XmlNodes.NOTES_VERSION_ATTRIBUTE_NAME));
+							break;
+
+						case XmlNodes.OP_DETAIL:
+							opName = xml.getAttributeValue(null, XmlNodes.OP_NAME);
+							opDate = xml.getAttributeValue(null, XmlNodes.OP_DATE);
+							break;
+
+						default:
+							break;
+						}
+
+						break;
+
+					case XMLStreamConstants.CHARACTERS:
+					case XMLStreamConstants.CDATA:
+					case XMLStreamConstants.SPACE:
+						text.append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+						break;
+
+					case XMLStreamConstants.END_ELEMENT:
+
+						node = xml.getLocalName();
+
+						String value = text.toString();
+						text.setLength(0);
+
+						switch (node) {
+						case HIERARCHIES_NODE:
+							inHierarchies = false;
+							break;
+
+						case ATTRIBUTES_NODE:
+							inAttributes = false;
+							break;
+
+						case XmlNodes.HIERARCHY_ROOT_NODE:
+						case XmlNodes.ATTRIBUTE_ROOT_NODE:
+
+							if (row != catRow) {
+								sheet.addRow(row);
+								sheet = catalogue;
+								row = catRow;
+							}
+							break;
+
+						case XmlNodes.CAT_GROUP:
+						case XmlNodes.HIER_GROUP:
+							if (groups != null)
+								groups.addValue(value);
+							break;
+
+						case XmlNodes.CAT_GROUPS:
+						case XmlNodes.HIER_GROUPS:
+							if (groups != null)
+								setValue(sheet, row, node, groups.getCompactValues());
+
+							groups = null;
+							break;
+
+						case XmlNodes.RELEASE_NOTES:
+							inNotes = false;
+							break;
+
+						case XmlNodes.VERSION:
+							// the version of the release notes is an attribute
+							if (!inNotes)
+								setField(sheet.getIndexes(), row, node, value);
+							break;
+
+						case XmlNodes.OP_INFO:
+
+							if (inNotes) {
+								String[] noteRow = notes.createRow();
+								setValue(notes, noteRow, Headers.OP_NAME, opName);
+								setValue(notes, noteRow, Headers.OP_DATE,
+										opDate == null ? null : DateTrimmer.dateToString(DateTrimmer.trimDate(opDate)));
+								setValue(notes, noteRow, Headers.OP_INFO, value);
+								setValue(notes, noteRow, Headers.OP_GROUP, String.valueOf(groupId));
+								notes.addRow(noteRow);
+							}
+							break;
+
+						case XmlNodes.OP_DETAIL:
+							opName = null;
+							opDate = null;
+							groupId++;
+							break;
+
+						default:
+							setField(sheet.getIndexes(), row, node, value);
+							break;
+						}
+
+						break;
+
+					default:
+						break;
+					}
+				}
+			} finally {
+				xml.close();
+			}
+		}
+
+		if (termColumns == null)
+			prepareTerms(catRow);
+
+		LOGGER.info("Catalogue xml " + filename + " read in " + (System.currentTimeMillis() - start)
+				+ " ms: hierarchies=" + hierarchies.size() + ", attributes=" + attributes.size() + ", terms="
+				+ termsCount + ", release notes=" + notes.size());
+	}
+
+	/**
+	 * Add the master hierarchy and create the term columns. The master hierarchy
+	 * is not in the xml, it is created with the catalogue data (DCF convention)
+	 *
+	 * @param catRow
+	 */
+	private void prepareTerms(String[] catRow) {
+
+		addMasterHierarchy(catRow);
+
+		masterCode = nonNull(catalogue.getValue(0, Headers.CODE));
+
+		createTermColumns();
+	}
+
+	/**
+	 * Read all the terms of the current node and give them to the listener
+	 *
+	 * @param xml
+	 * @param listener
+	 * @return the number of terms
+	 * @throws XMLStreamException
+	 */
+	private int readTerms(XMLStreamReader xml, TermListener listener) throws XMLStreamException {
+
+		int count = 0;
+		int depth = 1;
+
+		while (depth > 0 && xml.hasNext()) {
+
+			int event = xml.next();
+
+			if (event == XMLStreamConstants.START_ELEMENT) {
+
+				// the term is read until its end
+				if (depth == 1 && xml.getLocalName().equals(XmlNodes.TERM_ROOT_NODE)) {
+					listener.termRead(readTerm(xml));
+					count++;
+				} else {
+					depth++;
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Start reading the terms from the beginning of the xml. Use
+	 * {@link #nextTerm()} to get them.
+	 *
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 */
+	public void openTerms() throws IOException, XMLStreamException {
+
+		if (termColumns == null)
+			throw new IllegalStateException("Call readCatalogue() before reading the terms");
+
+		close();
+
+		input = new BufferedInputStream(new FileInputStream(filename));
+		reader = createReader(input);
+		inTerms = false;
+	}
+
+	/**
+	 * Get the next term of the xml
+	 *
+	 * @return the values of the term for each term column (see
+	 *         {@link #getTermColumns()}), null if there are no more terms
+	 * @throws XMLStreamException
+	 */
+	public String[] nextTerm() throws XMLStreamException {
+
+		if (reader == null)
+			return null;
+
+		while (reader.hasNext()) {
+
+			int event = reader.next();
+
+			if (event == XMLStreamConstants.START_ELEMENT) {
+
+				String node = reader.getLocalName();
+
+				if (node.equals(TERMS_NODE))
+					inTerms = true;
+				else if (inTerms && node.equals(XmlNodes.TERM_ROOT_NODE))
+					return readTerm(reader);
+			} else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals(TERMS_NODE)) {
+
+				// nothing else to read
+				break;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Read the current term node until its end
+	 *
+	 * @param reader
+	 * @return
+	 * @throws XMLStreamException
+	 */
+	private String[] readTerm(XMLStreamReader reader) throws XMLStreamException {
+
+		String[] row = new String[termColumns.size()];
+
+		boolean inAssignment = false;
+		boolean inImplicit = false;
+
+		HierarchyAssignment assignment = new HierarchyAssignment();
+		ValuesGrouper values = new ValuesGrouper();
+
+		text.setLength(0);
+
+		int depth = 1;
+
+		while (depth > 0 && reader.hasNext()) {
+
+			int event = reader.next();
+
+			switch (event) {
+			case XMLStreamConstants.START_ELEMENT:
+
+				depth++;
+				text.setLength(0);
+
+				String node = reader.getLocalName();
+
+				if (node.equals(XmlNodes.HIER_ASSIGNMENT)) {
+					inAssignment = true;
+					assignment.reset();
+				} else if (node.equals(XmlNodes.IMPLICIT_ATTR)) {
+					inImplicit = true;
+					values.reset();
+				}
+
+				break;
+
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+				text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+				break;
+
+			case XMLStreamConstants.END_ELEMENT:
+
+				depth--;
+
+				node = reader.getLocalName();
+
+				String value = text.toString();
+				text.setLength(0);
+
+				switch (node) {
+				case XmlNodes.HIER_ASSIGNMENT:
+
+					if (inAssignment) {
+						setValue(termKeys, row, assignment.getFlagColumn(), assignment.getFlag());
+						setValue(termKeys, row, assignment.getParentCodeColumn(), assignment.getParentCode());
+						setValue(termKeys, row, assignment.getOrderColumn(), assignment.getOrder());
+						setValue(termKeys, row, assignment.getReportableColumn(), assignment.getReportable());
+					}
+
+					inAssignment = false;
+					assignment.reset();
+					break;
+
+				case XmlNodes.ASS_HIER_CODE:
+
+					// the master hierarchy columns use the master prefix
+					if (inAssignment)
+						assignment.setHierarchyCode(masterCode.equals(value) ? Headers.PREFIX_MASTER_CODE : value);
+					break;
+
+				case XmlNodes.ASS_PARENT_CODE:
+					if (inAssignment)
+						assignment.setParentCode(value);
+					break;
+
+				case XmlNodes.ASS_ORDER:
+					if (inAssignment)
+						assignment.setOrder(value);
+					break;
+
+				case XmlNodes.ASS_REPORT:
+					if (inAssignment)
+						assignment.setReportable(BooleanConverter.toNumericBoolean(value));
+					break;
+
+				case XmlNodes.IMPLICIT_ATTR:
+
+					// attribute code => values $ separated
+					if (inImplicit)
+						setValue(termKeys, row, (String) values.getData(), values.getCompactValues());
+
+					inImplicit = false;
+					break;
+
+				case XmlNodes.IMPLICIT_CODE:
+					if (inImplicit)
+						values.setData(value);
+					break;
+
+				case XmlNodes.IMPLICIT_VALUE:
+					if (inImplicit)
+						values.addValue(value);
+					break;
+
+				default:
+					setField(termKeys, row, node, value);
+					break;
+				}
+
+				break;
+
+			default:
+				break;
+			}
+		}
+
+		return row;
+	}
+
+	/**
+	 * Add the master hierarchy as first row of the hierarchy sheet
+	 *
+	 * @param catRow
+	 */
+	private void addMasterHierarchy(String[] catRow) {
+
+		String[] master = hierarchies.createRow();
+
+		String[] fields = { Headers.CODE, Headers.NAME, Headers.LABEL, Headers.SCOPENOTE, Headers.VERSION,
+				Headers.LAST_UPDATE, Headers.VALID_FROM, Headers.STATUS };
+
+		for (String field : fields)
+			setField(hierarchies.getIndexes(), master, field, nonNull(catalogue.getValue(0, field)));
+
+		setValue(hierarchies, master, Headers.HIER_APPL, SpecialValues.ATTR_APPL_BOTH);
+		setValue(hierarchies, master, Headers.HIER_ORDER, SpecialValues.MASTER_ORDER);
+
+		hierarchies.addFirstRow(master);
+	}
+
+	/**
+	 * Create the columns of the term sheet: the fixed ones, one for each attribute
+	 * which is not a facet category of the catalogue and four for each hierarchy
+	 */
+	private void createTermColumns() {
+
+		termColumns = new ArrayList<>(TERM_COLUMNS);
+		termKeys = new HashMap<>();
+
+		for (int i = 0; i < termColumns.size(); ++i)
+			termKeys.put(termColumns.get(i), i);
+
+		Set<String> hierCodes = new HashSet<>();
+		for (int i = 0; i < hierarchies.size(); ++i)
+			hierCodes.add(nonNull(hierarchies.getValue(i, Headers.CODE)));
+
+		// attributes are identified by code but the column has their name
+		for (int i = 0; i < attributes.size(); ++i) {
+
+			String type = nonNull(attributes.getValue(i, Headers.ATTR_TYPE));
+
+			boolean add = true;
+
+			// catalogue attributes are added only if their
+			// hierarchy does not belong to this catalogue
+			if (type.equals(SpecialValues.ATTR_CAT_TYPE)) {
+
+				String[] split = nonNull(attributes.getValue(i, Headers.ATTR_CAT_CODE)).split("\\.");
+
+				add = split.length > 1 && !hierCodes.contains(split[1]);
+			}
+
+			if (add) {
+				termKeys.put(nonNull(attributes.getValue(i, Headers.CODE)), termColumns.size());
+				termColumns.add(nonNull(attributes.getValue(i, Headers.NAME)));
+			}
+		}
+
+		for (int i = 0; i < hierarchies.size(); ++i) {
+
+			String code = nonNull(hierarchies.getValue(i, Headers.CODE));
+
+			HierarchyAssignment assignment = new HierarchyAssignment();
+			assignment.setHierarchyCode(code.equals(masterCode) ? Headers.PREFIX_MASTER_CODE : code);
+
+			for (String column : new String[] { assignment.getFlagColumn(), assignment.getParentCodeColumn(),
+					assignment.getOrderColumn(), assignment.getReportableColumn() }) {
+				termKeys.put(column, termColumns.size());
+				termColumns.add(column);
+			}
+		}
+	}
+
+	/**
+	 * Skip the current node counting its children with the selected name
+	 *
+	 * @param xml
+	 * @param counted
+	 * @return the number of children
+	 * @throws XMLStreamException
+	 */
+	private static int skip(XMLStreamReader xml, String counted) throws XMLStreamException {
+
+		int count = 0;
+		int depth = 1;
+
+		while (depth > 0 && xml.hasNext()) {
+
+			int event = xml.next();
+
+			if (event == XMLStreamConstants.START_ELEMENT) {
+
+				if (depth == 1 && xml.getLocalName().equals(counted))
+					count++;
+
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Set the value of a node in the row as the sheet converters do: dates are
+	 * trimmed and the status sets also the deprecated flag
+	 *
+	 * @param keys  node name => column index
+	 * @param row
+	 * @param node
+	 * @param value
+	 */
+	private static void setField(Map<String, Integer> keys, String[] row, String node, String value) {
+
+		switch (node) {
+		case XmlNodes.VALID_FROM:
+		case XmlNodes.VALID_TO:
+		case XmlNodes.LAST_UPDATE:
+		case XmlNodes.NOTES_VERSION_DATE:
+			value = DateTrimmer.dateToString(DateTrimmer.trimDate(value));
+			break;
+
+		case XmlNodes.STATUS:
+			setValue(keys, row, Headers.DEPRECATED,
+					BooleanConverter.equals(value, SpecialValues.STATUS_DEPRECATED));
+			break;
+
+		default:
+			break;
+		}
+
+		setValue(keys, row, node, value);
+	}
+
+	private static void setValue(SheetRows sheet, String[] row, String column, String value) {
+		setValue(sheet.getIndexes(), row, column, value);
+	}
+
+	private static void setValue(Map<String, Integer> keys, String[] row, String key, String value) {
+
+		Integer index = keys.get(key);
+
+		if (index != null)
+			row[index] = value;
+	}
+
+	private static String nonNull(String value) {
+		return value == null ? "" : value;
+	}
+
+	private static XMLStreamReader createReader(InputStream in) throws XMLStreamException {
+
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+		return factory.createXMLStreamReader(in);
+	}
+
+	public SheetRows getCatalogueSheet() {
+		return catalogue;
+	}
+
+	/**
+	 * Get the hierarchies, the master hierarchy is the first one
+	 *
+	 * @return
+	 */
+	public SheetRows getHierarchySheet() {
+		return hierarchies;
+	}
+
+	public SheetRows getAttributeSheet() {
+		return attributes;
+	}
+
+	public SheetRows getNotesSheet() {
+		return notes;
+	}
+
+	/**
+	 * Get the columns of the term sheet. Attributes columns have the attribute
+	 * name, hierarchies columns are named as in {@link HierarchyAssignment}
+	 *
+	 * @return
+	 */
+	public List<String> getTermColumns() {
+		return termColumns;
+	}
+
+	/**
+	 * Get the number of terms of the xml (counted by {@link #readCatalogue()} and
+	 * by {@link #read(TermListener)})
+	 *
+	 * @return
+	 */
+	public int getTermsCount() {
+		return termsCount;
+	}
+
+	/**
+	 * Close the parser of the terms
+	 */
+	@Override
+	public void close() throws IOException {
+
+		if (reader != null) {
+			try {
+				reader.close();
+			} catch (XMLStreamException e) {
+				LOGGER.error("Cannot close the xml parser", e);
+				e.printStackTrace();
+			}
+			reader = null;
+		}
+
+		if (input != null) {
+			input.close();
+			input = null;
+		}
+	}
+}
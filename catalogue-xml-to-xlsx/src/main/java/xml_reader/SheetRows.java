@@ -0,0 +1,140 @@
+package xml_reader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows of a sheet of the catalogue workbook, read directly from the catalogue
+ * xml by the {@link CatalogueXmlReader}. Each row contains a value for each
+ * column of the sheet (null if the xml did not contain it).
+ *
+ * @author shahaal
+ *
+ */
+public class SheetRows {
+
+	private String name;
+	private List<String> columns;
+	private Map<String, Integer> indexes;
+	private List<String[]> rows;
+
+	/**
+	 * Create an empty sheet
+	 *
+	 * @param name    name of the sheet (see {@link naming_convention.Headers})
+	 * @param columns the names of the columns, in order
+	 */
+	public SheetRows(String name, List<String> columns) {
+
+		this.name = name;
+		this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+		this.indexes = new HashMap<>();
+		this.rows = new ArrayList<>();
+
+		for (int i = 0; i < columns.size(); ++i)
+			indexes.put(columns.get(i), i);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Get the names of the columns in order
+	 *
+	 * @return
+	 */
+	public List<String> getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Get the index of a column
+	 *
+	 * @param column
+	 * @return the index, -1 if the column is not present
+	 */
+	public int getColumnIndex(String column) {
+
+		Integer index = indexes.get(column);
+
+		if (index == null)
+			return -1;
+
+		return index;
+	}
+
+	/**
+	 * Get the index of each column
+	 *
+	 * @return
+	 */
+	Map<String, Integer> getIndexes() {
+		return indexes;
+	}
+
+	/**
+	 * Get all the rows. Each row has a value for each column
+	 *
+	 * @return
+	 */
+	public List<String[]> getRows() {
+		return rows;
+	}
+
+	/**
+	 * Get a value of a row
+	 *
+	 * @param row
+	 * @param column
+	 * @return the value, null if not present
+	 */
+	public String getValue(int row, String column) {
+
+		int index = getColumnIndex(column);
+
+		if (index < 0 || row < 0 || row >= rows.size())
+			return null;
+
+		return rows.get(row)[index];
+	}
+
+	public int size() {
+		return rows.size();
+	}
+
+	/**
+	 * Create a new empty row
+	 *
+	 * @return
+	 */
+	String[] createRow() {
+		return new String[columns.size()];
+	}
+
+	/**
+	 * Add a row at the end of the sheet
+	 *
+	 * @param row
+	 */
+	void addRow(String[] row) {
+		rows.add(row);
+	}
+
+	/**
+	 * Add a row as first row of the sheet
+	 *
+	 * @param row
+	 */
+	void addFirstRow(String[] row) {
+		rows.add(0, row);
+	}
+
+	@Override
+	public String toString() {
+		return "SHEET " + name + " rows=" + rows.size();
+	}
+}
@@ -0,0 +1,205 @@
+package xml_to_excel;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import naming_convention.Headers;
+import xml_reader.CatalogueXmlReader;
+import xml_reader.SheetRows;
+
+/**
+ * Convert a catalogue from XML format to excel format reading the xml only
+ * once. The {@link CatalogueXmlReader} routes each node of the xml to the row
+ * of its sheet, the terms are written into the term sheet as soon as they are
+ * read, while the other sheets (which are small) are written at the end.
+ *
+ * The created workbook has the same sheets and values of the one created by
+ * {@link XmlCatalogueToExcel}, which instead applies an xslt to the whole xml
+ * and parses its output for each sheet.
+ *
+ * @author shahaal
+ *
+ */
+public class StreamingCatalogueToExcel {
+
+	private static final Logger LOGGER = LogManager.getLogger(StreamingCatalogueToExcel.class);
+
+	// the xml file which has to be converted
+	private String inputXml;
+
+	// the xlsx file which has to be created
+	private String outputXlsx;
+
+	// number of terms of the last conversion
+	private int termsCount;
+
+	/**
+	 * Start the converter from command line
+	 *
+	 * @param args
+	 */
+	public static void main(String[] args) {
+
+		if (args.length != 2) {
+
+			LOGGER.error(
+					"Wrong number of arguments. Please specify the input catalogue xml and the output xlsx file path "
+							+ "(example: java -cp xmlToExcel.jar xml_to_excel.StreamingCatalogueToExcel D:\\catalogue.xml D:\\output.xlsx)");
+
+			return;
+		}
+
+		StreamingCatalogueToExcel converter = new StreamingCatalogueToExcel(args[0], args[1]);
+		try {
+			converter.convertXmlToExcel();
+		} catch (IOException | XMLStreamException e) {
+			LOGGER.error("Cannot convert xml to xlsx", e);
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Convert the catalogue from the .xml format to the .xlsx format
+	 *
+	 * @param inputXml   the file to be converted
+	 * @param outputXlsx the workbook which has to be created
+	 */
+	public StreamingCatalogueToExcel(String inputXml, String outputXlsx) {
+		this.inputXml = inputXml;
+		this.outputXlsx = outputXlsx;
+	}
+
+	/**
+	 * Convert the xml catalogue file into an excel file with 5 sheets
+	 *
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 */
+	public void convertXmlToExcel() throws IOException, XMLStreamException {
+
+		long start = System.currentTimeMillis();
+
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook();
+				CatalogueXmlReader reader = new CatalogueXmlReader(inputXml)) {
+
+			// create the sheets in the order of the xslt converter
+			final RowsWriter cat = new RowsWriter(workbook.createSheet(Headers.CAT_SHEET_NAME));
+			final RowsWriter hier = new RowsWriter(workbook.createSheet(Headers.HIER_SHEET_NAME));
+			final RowsWriter attr = new RowsWriter(workbook.createSheet(Headers.ATTR_SHEET_NAME));
+			final RowsWriter term = new RowsWriter(workbook.createSheet(Headers.TERM_SHEET_NAME));
+			final RowsWriter notes = new RowsWriter(workbook.createSheet(Headers.NOTES_SHEET_NAME));
+
+			// write the terms while they are read
+			reader.read(new CatalogueXmlReader.TermListener() {
+
+				@Override
+				public void termRead(String[] row) {
+
+					// the term columns are known once the terms are reached
+					if (term.isEmpty())
+						term.writeHeaders(reader.getTermColumns());
+
+					term.writeRow(row);
+				}
+			});
+
+			// catalogue without terms
+			if (term.isEmpty())
+				term.writeHeaders(reader.getTermColumns());
+
+			termsCount = reader.getTermsCount();
+
+			cat.writeSheet(reader.getCatalogueSheet());
+			hier.writeSheet(reader.getHierarchySheet());
+			attr.writeSheet(reader.getAttributeSheet());
+			notes.writeSheet(reader.getNotesSheet());
+
+			LOGGER.info("Writing the excel file...");
+
+			try (FileOutputStream fileOut = new FileOutputStream(outputXlsx)) {
+
+				// remove limits of dimensions for the workbook
+				ZipSecureFile.setMinInflateRatio(0);
+
+				workbook.write(fileOut);
+
+				fileOut.flush();
+				fileOut.close();
+			}
+
+			workbook.dispose();
+		}
+
+		LOGGER.info("Catalogue xml " + inputXml + " converted into " + outputXlsx + " in "
+				+ (System.currentTimeMillis() - start) + " ms (" + termsCount + " terms)");
+	}
+
+	/**
+	 * Get the number of terms converted by the last
+	 * {@link #convertXmlToExcel()}
+	 *
+	 * @return
+	 */
+	public int getTermsCount() {
+		return termsCount;
+	}
+
+	/**
+	 * Write rows of strings in a sheet, one after the other
+	 */
+	private static class RowsWriter {
+
+		private Sheet sheet;
+		private int rowNum;
+
+		private RowsWriter(Sheet sheet) {
+			this.sheet = sheet;
+		}
+
+		private boolean isEmpty() {
+			return rowNum == 0;
+		}
+
+		private void writeHeaders(List<String> columns) {
+			writeRow(columns.toArray(new String[columns.size()]));
+		}
+
+		/**
+		 * Write the headers and all the rows of the sheet
+		 *
+		 * @param rows
+		 */
+		private void writeSheet(SheetRows rows) {
+
+			writeHeaders(rows.getColumns());
+
+			for (String[] row : rows.getRows())
+				writeRow(row);
+		}
+
+		/**
+		 * Write a row, null values are left as empty cells
+		 *
+		 * @param values
+		 */
+		private void writeRow(String[] values) {
+
+			Row row = sheet.createRow(rowNum++);
+
+			for (int i = 0; i < values.length; ++i) {
+				if (values[i] != null)
+					row.createCell(i).setCellValue(values[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package xml_to_excel;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.TransformerException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Compare the throughput of the xslt converter ({@link XmlCatalogueToExcel})
+ * and of the single pass converter ({@link StreamingCatalogueToExcel}) on the
+ * same catalogue xml. Use a large catalogue (e.g. the MTX) to get meaningful
+ * results, the first run of each converter is a warm up and it is not
+ * measured. The results are logged at info level.
+ *
+ * Run it from the test classpath, e.g. mvn test-compile exec:java
+ * -Dexec.classpathScope=test -Dexec.mainClass=xml_to_excel.ConversionBenchmark
+ * -Dexec.args="D:\MTX.xml 3"
+ *
+ * @author shahaal
+ *
+ */
+public class ConversionBenchmark {
+
+	private static final Logger LOGGER = LogManager.getLogger(ConversionBenchmark.class);
+
+	private static final int DEFAULT_RUNS = 3;
+
+	/**
+	 * Run the benchmark
+	 *
+	 * @param args the catalogue xml and optionally the number of measured runs
+	 */
+	public static void main(String[] args) {
+
+		if (args.length < 1 || args.length > 2) {
+			LOGGER.error("Wrong number of arguments. Please specify the catalogue xml and optionally the number of runs "
+					+ "(example: D:\\catalogue.xml 3)");
+			return;
+		}
+
+		int runs = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RUNS;
+
+		try {
+			new ConversionBenchmark().run(args[0], runs);
+		} catch (IOException | XMLStreamException | TransformerException e) {
+			LOGGER.error("Benchmark failed", e);
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Convert the xml with both the converters and log their throughput
+	 *
+	 * @param inputXml
+	 * @param runs     number of measured conversions for each converter
+	 * @throws IOException
+	 * @throws XMLStreamException
+	 * @throws TransformerException
+	 */
+	public void run(String inputXml, int runs) throws IOException, XMLStreamException, TransformerException {
+
+		File output = File.createTempFile("benchmark", ".xlsx");
+		output.deleteOnExit();
+
+		String outputXlsx = output.getAbsolutePath();
+
+		double megabytes = new File(inputXml).length() / (1024.0 * 1024.0);
+
+		// warm up and count the terms
+		StreamingCatalogueToExcel streaming = new StreamingCatalogueToExcel(inputXml, outputXlsx);
+		streaming.convertXmlToExcel();
+		new XmlCatalogueToExcel(inputXml, outputXlsx).convertXmlToExcel();
+
+		int terms = streaming.getTermsCount();
+
+		long xsltTime = 0;
+		long streamingTime = 0;
+
+		for (int i = 0; i < runs; ++i) {
+
+			long start = System.nanoTime();
+			new XmlCatalogueToExcel(inputXml, outputXlsx).convertXmlToExcel();
+			xsltTime += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			streaming.convertXmlToExcel();
+			streamingTime += System.nanoTime() - start;
+		}
+
+		log("xslt", xsltTime, runs, terms, megabytes);
+		log("single pass", streamingTime, runs, terms, megabytes);
+
+		LOGGER.info(String.format("single pass converter speedup: %.2fx", (double) xsltTime / streamingTime));
+
+		if (!output.delete())
+			LOGGER.warn("Cannot delete " + outputXlsx);
+	}
+
+	private static void log(String converter, long nanos, int runs, int terms, double megabytes) {
+
+		double seconds = nanos / 1e9 / runs;
+
+		LOGGER.info(String.format("%s converter: %.0f ms per conversion, %.0f terms/s, %.2f MB/s", converter,
+				seconds * 1000, terms / seconds, megabytes / seconds));
+	}
+}
@@ -0,0 +1,115 @@
+package xml_to_excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.TransformerException;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class StreamingCatalogueToExcelTest {
+
+	private static final String CATALOGUE_XML = "catalogue.xml";
+
+	private DataFormatter formatter;
+	private File xsltXlsx;
+	private File streamingXlsx;
+
+	@BeforeEach
+	public void init() throws IOException {
+		this.formatter = new DataFormatter();
+		this.xsltXlsx = File.createTempFile("xslt", ".xlsx");
+		this.streamingXlsx = File.createTempFile("streaming", ".xlsx");
+	}
+
+	@AfterEach
+	public void clean() {
+		xsltXlsx.delete();
+		streamingXlsx.delete();
+	}
+
+	@Test
+	public void testStreamingConverterWritesTheSameSheetsOfTheXsltConverter()
+			throws IOException, XMLStreamException, TransformerException, URISyntaxException {
+
+		String inputXml = new File(getClass().getClassLoader().getResource(CATALOGUE_XML).toURI()).getAbsolutePath();
+
+		new XmlCatalogueToExcel(inputXml, xsltXlsx.getAbsolutePath()).convertXmlToExcel();
+
+		StreamingCatalogueToExcel streaming = new StreamingCatalogueToExcel(inputXml,
+				streamingXlsx.getAbsolutePath());
+		streaming.convertXmlToExcel();
+
+		assertEquals(4, streaming.getTermsCount());
+
+		try (InputStream xsltIn = new FileInputStream(xsltXlsx);
+				InputStream streamingIn = new FileInputStream(streamingXlsx);
+				Workbook expected = new XSSFWorkbook(xsltIn);
+				Workbook actual = new XSSFWorkbook(streamingIn);) {
+
+			assertEquals(expected.getNumberOfSheets(), actual.getNumberOfSheets());
+
+			for (int i = 0; i < expected.getNumberOfSheets(); ++i) {
+
+				Sheet expectedSheet = expected.getSheetAt(i);
+				Sheet actualSheet = actual.getSheetAt(i);
+
+				assertEquals(expectedSheet.getSheetName(), actualSheet.getSheetName());
+				assertSameCells(expectedSheet, actualSheet);
+			}
+		}
+	}
+
+	/**
+	 * Compare the sheets cell by cell (missing cells and rows are compared as
+	 * empty values)
+	 *
+	 * @param expected
+	 * @param actual
+	 */
+	private void assertSameCells(Sheet expected, Sheet actual) {
+
+		assertEquals(expected.getLastRowNum(), actual.getLastRowNum(), "Rows of sheet " + expected.getSheetName());
+
+		for (int r = 0; r <= expected.getLastRowNum(); ++r) {
+
+			Row expectedRow = expected.getRow(r);
+			Row actualRow = actual.getRow(r);
+
+			int columns = Math.max(getLastCellNum(expectedRow), getLastCellNum(actualRow));
+
+			for (int c = 0; c < columns; ++c) {
+				assertEquals(getValue(expectedRow, c), getValue(actualRow, c),
+						"Cell " + expected.getSheetName() + "[" + r + "," + c + "]");
+			}
+		}
+	}
+
+	private static int getLastCellNum(Row row) {
+		return row == null ? 0 : Math.max(row.getLastCellNum(), 0);
+	}
+
+	private String getValue(Row row, int column) {
+
+		if (row == null)
+			return "";
+
+		Cell cell = row.getCell(column);
+
+		return cell == null ? "" : formatter.formatCellValue(cell);
+	}
+}
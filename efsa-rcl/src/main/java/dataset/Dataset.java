@@ -234,6 +234,12 @@ public class Dataset extends DcfDataset implements IDataset, Checkable {
 		Dataset a = (Dataset) arg0;
 		return this.senderId == a.senderId;
 	}
+	
+	@Override
+	public Object getIdentityKey() {
+		// the sender ids are compared by reference
+		return null;
+	}
 
 	@Override
 	public String getId() {
@@ -8,4 +8,14 @@ public interface Checkable {
 	 * @return
 	 */
 	public boolean sameAs(Object arg0);
+	
+	/**
+	 * Get a key of the fields which identify the object. Two objects
+	 * with the same key must be the same for {@link #sameAs(Object)}
+	 * and vice versa, so that the duplicates can be grouped by key
+	 * instead of comparing all the pairs of objects
+	 * @return the key (which implements equals and hashCode) or null
+	 * if the object can be compared only with {@link #sameAs(Object)}
+	 */
+	public Object getIdentityKey();
 }
@@ -2,14 +2,21 @@ package duplicates_detector;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 /**
  * Class to check if in a list there are duplicates or not. It can be used only
  * with {@link Checkable} object which implements the method that is used to
  * check if two record are equal or not (we did not override the equal to avoid
  * problems with other processes)
- * 
+ *
+ * The objects are grouped by their {@link Checkable#getIdentityKey()} in a
+ * single pass, and only the objects of the same group are compared. If an
+ * object has not a key, all the pairs are compared as before.
+ *
  * @author avonva
  * @author shahaal
  *
@@ -18,32 +25,149 @@ public class DuplicatesDetector {
 
 	/**
 	 * Detect the duplicates from a list of objects.
-	 * 
+	 *
 	 * @param list
 	 * @return
 	 */
 	public static Collection<Duplicate<Checkable>> detect(List<?> list) {
+		return detect(list, false);
+	}
+
+	/**
+	 * Detect the duplicates from a list of objects. The pairs are returned in the
+	 * order of the list (first element, then second element).
+	 *
+	 * @param list
+	 * @param parallel true to compute the keys and compare the objects in
+	 *                 parallel
+	 * @return
+	 */
+	public static Collection<Duplicate<Checkable>> detect(List<?> list, boolean parallel) {
 
 		Collection<Duplicate<Checkable>> duplicates = new ArrayList<>();
 
-		// for each element in the list but the last
-		for (int i = 0; i < list.size() - 1; ++i) {
+		for (int[] pair : detectPairs(list, parallel)) {
 
-			// get current element
-			Checkable first = (Checkable) list.get(i);
+			Checkable first = (Checkable) list.get(pair[0]);
+			Checkable second = (Checkable) list.get(pair[1]);
+
+			duplicates.add(new Duplicate<>(first, second));
+		}
+
+		return duplicates;
+	}
+
+	/**
+	 * Detect the indexes of the duplicated elements of the list. Each pair
+	 * contains the index of the first element and the index of the second
+	 * element, the pairs are sorted by first index and then by second index.
+	 *
+	 * @param list
+	 * @param parallel true to compute the keys and compare the objects in
+	 *                 parallel
+	 * @return
+	 */
+	public static List<int[]> detectPairs(List<?> list, boolean parallel) {
+
+		final Checkable[] items = new Checkable[list.size()];
+		for (int i = 0; i < items.length; ++i)
+			items[i] = (Checkable) list.get(i);
+
+		// get the keys of the objects
+		final Object[] keys = new Object[items.length];
+
+		IntStream indexes = IntStream.range(0, items.length);
+		if (parallel)
+			indexes = indexes.parallel();
+
+		indexes.forEach(i -> keys[i] = items[i].getIdentityKey());
+
+		// candidate pairs, as first index (high bits) and second index (low bits)
+		LongStream candidates;
+
+		if (hasAllKeys(keys))
+			candidates = getGroupsPairs(keys);
+		else
+			candidates = getAllPairs(items.length);
+
+		if (parallel)
+			candidates = candidates.parallel();
+
+		// compare the objects of the candidate pairs, keeping the order
+		long[] same = candidates.filter(pair -> items[first(pair)].sameAs(items[second(pair)])).toArray();
+
+		List<int[]> pairs = new ArrayList<>(same.length);
+		for (long pair : same)
+			pairs.add(new int[] { first(pair), second(pair) });
+
+		return pairs;
+	}
 
-			// compare with all the others in the order
-			for (int j = i + 1; j < list.size(); ++j) {
+	private static boolean hasAllKeys(Object[] keys) {
 
-				Checkable second = (Checkable) list.get(j);
-				// if they are equal
-				if (first.sameAs(second)) {
-					Duplicate<Checkable> dup = new Duplicate<>(first, second);
-					duplicates.add(dup);
-				}
+		for (Object key : keys) {
+			if (key == null)
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Get the sorted pairs of the elements which have the same key
+	 *
+	 * @param keys
+	 * @return
+	 */
+	private static LongStream getGroupsPairs(Object[] keys) {
+
+		// group the indexes by key, in a single pass
+		HashMap<Object, List<Integer>> groups = new HashMap<>();
+
+		for (int i = 0; i < keys.length; ++i) {
+
+			List<Integer> group = groups.get(keys[i]);
+
+			if (group == null) {
+				group = new ArrayList<>(2);
+				groups.put(keys[i], group);
 			}
+
+			group.add(i);
 		}
 
-		return duplicates;
+		LongStream.Builder pairs = LongStream.builder();
+
+		for (List<Integer> group : groups.values()) {
+			for (int i = 0; i < group.size() - 1; ++i) {
+				for (int j = i + 1; j < group.size(); ++j)
+					pairs.add(pair(group.get(i), group.get(j)));
+			}
+		}
+
+		return pairs.build().sorted();
+	}
+
+	/**
+	 * Get all the pairs of elements (as the nested loop on the list)
+	 *
+	 * @param size
+	 * @return
+	 */
+	private static LongStream getAllPairs(final int size) {
+		return IntStream.range(0, size - 1).boxed()
+				.flatMapToLong(i -> IntStream.range(i + 1, size).mapToLong(j -> pair(i, j)));
+	}
+
+	private static long pair(int first, int second) {
+		return ((long) first << 32) | second;
+	}
+
+	private static int first(long pair) {
+		return (int) (pair >>> 32);
+	}
+
+	private static int second(long pair) {
+		return (int) pair;
 	}
 }
@@ -0,0 +1,135 @@
+package formula;
+
+import table_skeleton.TableColumn;
+
+/**
+ * Formula of a column field compiled once for all the rows of a table. It
+ * keeps the dependencies count of the formula and the formulas found in the
+ * text of the first passes (keywords, row keywords and columns), which do not
+ * change from row to row as long as the text they are applied to is the
+ * same. Created by the {@link FormulaPlan}.
+ *
+ * @author shahaal
+ *
+ */
+public class CompiledFormula {
+
+	private TableColumn column;
+	private String fieldHeader;
+	private String formula;
+	private int dependenciesCount;
+
+	// last parsed text of each pass
+	private volatile ParsedText keywords;
+	private volatile ParsedText rowKeywords;
+	private volatile ParsedText columns;
+
+	public CompiledFormula(TableColumn column, String fieldHeader, String formula, int dependenciesCount) {
+		this.column = column;
+		this.fieldHeader = fieldHeader;
+		this.formula = formula;
+		this.dependenciesCount = dependenciesCount;
+	}
+
+	public TableColumn getColumn() {
+		return column;
+	}
+
+	public String getFieldHeader() {
+		return fieldHeader;
+	}
+
+	public String getFormula() {
+		return formula;
+	}
+
+	public int getDependenciesCount() {
+		return dependenciesCount;
+	}
+
+	/**
+	 * Check if the formula is empty (nothing to solve)
+	 *
+	 * @return
+	 */
+	public boolean isEmpty() {
+		return formula == null || formula.isEmpty();
+	}
+
+	/**
+	 * Get the keywords formulas of the text
+	 *
+	 * @param text
+	 * @return
+	 * @throws FormulaException
+	 */
+	public FormulaList findKeywordFormulas(String text) throws FormulaException {
+
+		ParsedText parsed = keywords;
+
+		if (parsed == null || !parsed.text.equals(text)) {
+			parsed = new ParsedText(text, FormulaFinder.findKeywordFormulas(text));
+			keywords = parsed;
+		}
+
+		return parsed.formulas;
+	}
+
+	/**
+	 * Get the row keywords formulas of the text
+	 *
+	 * @param text
+	 * @return
+	 * @throws FormulaException
+	 */
+	public FormulaList findRowKeywordFormulas(String text) throws FormulaException {
+
+		ParsedText parsed = rowKeywords;
+
+		if (parsed == null || !parsed.text.equals(text)) {
+			parsed = new ParsedText(text, FormulaFinder.findRowKeywordFormulas(text));
+			rowKeywords = parsed;
+		}
+
+		return parsed.formulas;
+	}
+
+	/**
+	 * Get the columns formulas of the text
+	 *
+	 * @param text
+	 * @return
+	 * @throws FormulaException
+	 */
+	public FormulaList findColumnFormulas(String text) throws FormulaException {
+
+		ParsedText parsed = columns;
+
+		if (parsed == null || !parsed.text.equals(text)) {
+			parsed = new ParsedText(text, FormulaFinder.findColumnFormulas(text));
+			columns = parsed;
+		}
+
+		return parsed.formulas;
+	}
+
+	@Override
+	public String toString() {
+		return "Column " + column.getId() + " compiled formula " + formula + " dependencies " + dependenciesCount;
+	}
+
+	/**
+	 * Formulas found in a text. The formulas of these passes are not modified
+	 * while solving, therefore they can be shared across rows.
+	 */
+	private static class ParsedText {
+
+		private final String text;
+		private final FormulaList formulas;
+
+		private ParsedText(String text, FormulaList formulas) {
+			this.text = text;
+			this.formulas = formulas;
+		}
+	}
+}
@@ -1,9 +1,6 @@
 package formula;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -25,34 +22,35 @@ public class Formula {
 
 	private static final Logger LOGGER = LogManager.getLogger(Formula.class);
 
-	private static HashMap<Cell, Integer> dependenciesCache;
-
 	private String formula;
 	private String solvedFormula;
 	private String fieldHeader;
 	private TableRow row;
 	private TableColumn column;
-	private int dependenciesCount;
+	private CompiledFormula compiled;
 
 	private ITableDaoService daoService;
 
 	// private long debugTime;
 
 	public Formula(TableRow row, TableColumn column, String fieldHeader, ITableDaoService daoService) {
+		this(row, FormulaPlan.get(row.getSchema(), fieldHeader).getFormula(column), daoService);
+	}
 
-		if (dependenciesCache == null)
-			dependenciesCache = new HashMap<>();
-
+	/**
+	 * Create the formula of a row from the formula compiled for the table
+	 * 
+	 * @param row
+	 * @param compiled
+	 * @param daoService
+	 */
+	public Formula(TableRow row, CompiledFormula compiled, ITableDaoService daoService) {
 		this.row = row;
-		this.column = column;
-		this.fieldHeader = fieldHeader;
-		this.formula = column.getFieldByHeader(fieldHeader);
+		this.compiled = compiled;
+		this.column = compiled.getColumn();
+		this.fieldHeader = compiled.getFieldHeader();
+		this.formula = compiled.getFormula();
 		this.daoService = daoService;
-
-		this.dependenciesCount = 0;
-
-		evalDependencies();
-
 	}
 
 	/**
@@ -61,7 +59,7 @@ public class Formula {
 	 * @return
 	 */
 	public int getDependenciesCount() {
-		return dependenciesCount;
+		return compiled.getDependenciesCount();
 	}
 
 	public TableRow getRow() {
@@ -175,7 +173,7 @@ public class Formula {
 	 * @throws IOException
 	 */
 	private String solveColumnsFormula(String value) throws FormulaException {
-		FormulaList list = FormulaFinder.findColumnFormulas(value);
+		FormulaList list = compiled.findColumnFormulas(value);
 		return replaceFormulasWithSolution(list, value, true);
 	}
 
@@ -218,7 +216,7 @@ public class Formula {
 	 * @throws FormulaException
 	 */
 	private String solveKeywords(String value) throws FormulaException {
-		FormulaList list = FormulaFinder.findKeywordFormulas(value);
+		FormulaList list = compiled.findKeywordFormulas(value);
 		return replaceFormulasWithSolution(list, value, false);
 	}
 
@@ -230,7 +228,7 @@ public class Formula {
 	 * @throws FormulaException
 	 */
 	private String solveRowKeywords(String value) throws FormulaException {
-		FormulaList list = FormulaFinder.findRowKeywordFormulas(value);
+		FormulaList list = compiled.findRowKeywordFormulas(value);
 		return replaceFormulasWithSolution(list, value, true);
 	}
 
@@ -265,99 +263,4 @@ public class Formula {
 	public String toString() {
 		return "Column " + column.getId() + " formula " + formula + " solved " + solvedFormula;
 	}
-
-	/**
-	 * Check if a column has a dependency with another column of the same table
-	 * 
-	 * @param col
-	 * @param value
-	 * @return
-	 */
-	private int isDependentBy(TableColumn col, String value) {
-
-		if (value == null)
-			return 0;
-
-		Pattern p = Pattern.compile("\\%" + col.getId() + "\\.(code|label)");
-		Matcher m = p.matcher(value);
-
-		int counter = 0;
-
-		while (m.find())
-			counter++;
-
-		return counter;
-	}
-
-	/**
-	 * Check dependencies in a recursive manner. This is actually the computation of
-	 * the level of the tree of the dependencies. A column is dependent on the value
-	 * of another column if it has in the field a formula with \columnName.code or
-	 * \columnName.label
-	 */
-	private void evalDependencies() {
-
-		Cell cell = new Cell(row.getSchema().getSheetName(), column.getId(), fieldHeader);
-		Integer cacheDep = dependenciesCache.get(cell);
-
-		// use cache if possible
-		if (cacheDep != null) {
-			this.dependenciesCount = cacheDep;
-			return;
-		}
-
-		int dependencies = 0;
-
-		// Check columns dependencies
-		for (TableColumn col : row.getSchema()) {
-
-			// evaluate the dependency just for different columns this avoid recursive
-			// definitions
-			if (!col.equals(column)) {
-
-				int numOfDep = isDependentBy(col, formula);
-
-				// add number of occurrences as dependencies
-				dependencies = dependencies + numOfDep;
-
-				// if we have dependencies (i.e. we found a %column...) also evaluate the column
-				// to check if there are nested dependencies
-				if (numOfDep > 0) {
-
-					// evaluate column dependencies recursively
-					Formula child = new Formula(row, col, fieldHeader, daoService);
-
-					// also add the column dependencies to the current number of dependencies
-					dependencies = dependencies + child.getDependenciesCount();
-				}
-			}
-		}
-
-		this.dependenciesCount = dependencies;
-
-		// save cache
-		dependenciesCache.put(cell, dependencies);
-
-	}
-
-	private class Cell {
-		private String tableName;
-		private String columnId;
-		private String columnHeader;
-
-		public Cell(String tableName, String columnId, String columnHeader) {
-			this.tableName = tableName;
-			this.columnId = columnId;
-			this.columnHeader = columnHeader;
-		}
-
-		@Override
-		public boolean equals(Object obj) {
-
-			Cell cell = (Cell) obj;
-
-			return tableName.equals(cell.tableName) && columnId.equals(cell.columnId)
-					&& columnHeader.equals(cell.columnHeader);
-		}
-	}
 }
@@ -1,5 +1,6 @@
 package formula;
 
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -14,6 +15,16 @@ public class FormulaFinder {
 
 	public static final String RELATION_REGEX = "RELATION\\{.+?,.+?\\}";
 
+	// patterns compiled once, since the formulas are solved for each row
+	private static final Pattern RELATION_PATTERN = Pattern.compile(RELATION_REGEX);
+	private static final Pattern COLUMN_PATTERN = Pattern.compile("\\%\\w+?\\.(code|label)");
+	private static final Pattern KEYWORD_PATTERN = Pattern.compile(getKeywordsRegex());
+	private static final Pattern ROW_KEYWORD_PATTERN = Pattern
+			.compile("(" + toRegex(RowKeywordFormula.ROW_ID_KEYWORD) + ")");
+
+	// patterns of functions and comparators by name
+	private static final ConcurrentHashMap<String, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
 	/**
 	 * Find the formulas related to a function
 	 * 
@@ -26,6 +37,36 @@ public class FormulaFinder {
 
 		FormulaList formulas = new FormulaList();
 
+		// the function is not called in the text
+		if (!text.contains(functionName + "("))
+			return formulas;
+
+		Pattern p = PATTERNS.get(functionName);
+
+		if (p == null) {
+			p = Pattern.compile(getFunctionRegex(functionName));
+			PATTERNS.put(functionName, p);
+		}
+
+		Matcher m = p.matcher(text);
+
+		while (m.find()) {
+			String formula = m.group();
+			FunctionFormula funcFormula = new FunctionFormula(formula);
+			formulas.add(funcFormula);
+		}
+		
+		return formulas;
+	}
+
+	/**
+	 * Get the regex which matches the calls of a function
+	 * 
+	 * @param functionName
+	 * @return
+	 */
+	private static String getFunctionRegex(String functionName) {
+
 		// regex to match function names
 		StringBuilder regex = new StringBuilder();
 
@@ -43,18 +84,7 @@ public class FormulaFinder {
 				.append(operand)
 				.append("\\)"); // close function bracket
 
-		String pattern = regex.toString();
-
-		Pattern p = Pattern.compile(pattern);
-		Matcher m = p.matcher(text);
-
-		while (m.find()) {
-			String formula = m.group();
-			FunctionFormula funcFormula = new FunctionFormula(formula);
-			formulas.add(funcFormula);
-		}
-		
-		return formulas;
+		return regex.toString();
 	}
 
 	/**
@@ -107,9 +137,10 @@ public class FormulaFinder {
 
 		FormulaList colFormulas = new FormulaList();
 
-		String pattern = "\\%\\w+?\\.(code|label)";
-		Pattern p = Pattern.compile(pattern);
-		Matcher m = p.matcher(text);
+		if (text.indexOf('%') < 0)
+			return colFormulas;
+
+		Matcher m = COLUMN_PATTERN.matcher(text);
 
 		// compile all the column formulas
 		while (m.find()) {
@@ -132,9 +163,10 @@ public class FormulaFinder {
 
 		FormulaList relFormulas = new FormulaList();
 
-		Pattern p = Pattern.compile(RELATION_REGEX);
+		if (!text.contains("RELATION{"))
+			return relFormulas;
 
-		Matcher m = p.matcher(text);
+		Matcher m = RELATION_PATTERN.matcher(text);
 
 		// compile all the relation formulas
 		while (m.find()) {
@@ -158,10 +190,19 @@ public class FormulaFinder {
 
 		FormulaList formulas = new FormulaList();
 
+		if (!text.contains(operator))
+			return formulas;
+
 		String operand = "(" + VARIABLE + "|)";
 		String pattern = "\\(" + operand + "\\s*" + operator + "\\s*" + operand + "\\)";
 
-		Pattern r = Pattern.compile(pattern);
+		Pattern r = PATTERNS.get(pattern);
+
+		if (r == null) {
+			r = Pattern.compile(pattern);
+			PATTERNS.put(pattern, r);
+		}
+
 		Matcher m = r.matcher(text);
 
 		while (m.find()) {
@@ -184,6 +225,24 @@ public class FormulaFinder {
 
 		FormulaList formulas = new FormulaList();
 
+		Matcher m = KEYWORD_PATTERN.matcher(text);
+
+		while (m.find()) {
+			String formula = m.group();
+			KeywordFormula keyFormula = new KeywordFormula(formula);
+			formulas.add(keyFormula);
+		}
+
+		return formulas;
+	}
+
+	/**
+	 * Get the regex which matches all the keywords
+	 * 
+	 * @return
+	 */
+	private static String getKeywordsRegex() {
+
 		// search for keywords
 		StringBuilder sb = new StringBuilder();
 		sb.append("(").append(toRegex(KeywordFormula.APP_NAME_KEYWORD)).append("|")
@@ -198,18 +257,7 @@ public class FormulaFinder {
 				.append(toRegex(KeywordFormula.LAST_MONTH_YEAR_CODE_KEYWORD)).append("|")
 				.append(toRegex(KeywordFormula.LAST_MONTH_YEAR_LABEL_KEYWORD)).append(")");
 
-		String pattern = sb.toString();
-
-		Pattern r = Pattern.compile(pattern);
-		Matcher m = r.matcher(text);
-
-		while (m.find()) {
-			String formula = m.group();
-			KeywordFormula keyFormula = new KeywordFormula(formula);
-			formulas.add(keyFormula);
-		}
-
-		return formulas;
+		return sb.toString();
 	}
 
 	/**
@@ -223,14 +271,10 @@ public class FormulaFinder {
 
 		FormulaList formulas = new FormulaList();
 
-		// search for keywords
-		StringBuilder sb = new StringBuilder();
-		sb.append("(").append(toRegex(RowKeywordFormula.ROW_ID_KEYWORD)).append(")");
+		if (!text.contains(RowKeywordFormula.ROW_ID_KEYWORD))
+			return formulas;
 
-		String pattern = sb.toString();
-
-		Pattern r = Pattern.compile(pattern);
-		Matcher m = r.matcher(text);
+		Matcher m = ROW_KEYWORD_PATTERN.matcher(text);
 
 		while (m.find()) {
 			String formula = m.group();
@@ -0,0 +1,280 @@
+package formula;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import global_utils.BoundedCache;
+import table_skeleton.TableColumn;
+import xlsx_reader.TableSchema;
+
+/**
+ * Formulas of a column field (defaultValue, defaultCode, labelFormula...) for
+ * all the columns of a {@link TableSchema}, compiled once and reused for all
+ * the rows of the table. The formulas are sorted by their number of
+ * dependencies, so that they can be solved in order.
+ *
+ * The plans are cached by table and field, and they are compiled again if the
+ * columns of the schema or their formulas change.
+ *
+ * @author shahaal
+ *
+ */
+public class FormulaPlan {
+
+	// plans by table and field, shared by the validation and export threads
+	private static final BoundedCache<String, FormulaPlan> PLANS = new BoundedCache<>(256, 0);
+
+	private String fieldHeader;
+
+	// the columns and their formulas used to compile the plan
+	private List<TableColumn> columns;
+	private List<String> formulas;
+
+	// dependency patterns of the columns (%columnId.code/label)
+	private List<Pattern> patterns;
+
+	private HashMap<String, CompiledFormula> byColumn;
+	private List<CompiledFormula> ordered;
+
+	/**
+	 * Get the plan of the schema for the chosen field
+	 *
+	 * @param schema
+	 * @param fieldHeader
+	 * @return
+	 */
+	public static FormulaPlan get(TableSchema schema, String fieldHeader) {
+
+		String key = schema.getSheetName() + "." + fieldHeader;
+
+		FormulaPlan plan = PLANS.get(key);
+
+		if (plan == null || !plan.isCompiledFor(schema)) {
+			plan = new FormulaPlan(schema, fieldHeader);
+			PLANS.put(key, plan);
+		}
+
+		return plan;
+	}
+
+	/**
+	 * Remove all the compiled plans
+	 */
+	public static void clear() {
+		PLANS.clear();
+	}
+
+	/**
+	 * Number of plans found in the cache
+	 * 
+	 * @return
+	 */
+	public static long getCacheHits() {
+		return PLANS.getHits();
+	}
+
+	/**
+	 * Number of plans which were compiled
+	 * 
+	 * @return
+	 */
+	public static long getCacheMisses() {
+		return PLANS.getMisses();
+	}
+
+	private FormulaPlan(TableSchema schema, String fieldHeader) {
+
+		this.fieldHeader = fieldHeader;
+		this.columns = new ArrayList<>(schema);
+		this.formulas = new ArrayList<>();
+		this.patterns = new ArrayList<>();
+
+		for (TableColumn column : columns) {
+			formulas.add(column.getFieldByHeader(fieldHeader));
+			patterns.add(Pattern.compile("\\%" + column.getId() + "\\.(code|label)"));
+		}
+
+		compile();
+	}
+
+	/**
+	 * Compile the formulas and sort them by their number of dependencies
+	 */
+	private void compile() {
+
+		HashMap<Integer, Integer> dependencies = new HashMap<>();
+
+		this.byColumn = new HashMap<>();
+		List<CompiledFormula> all = new ArrayList<>();
+
+		for (int i = 0; i < columns.size(); ++i) {
+
+			TableColumn column = columns.get(i);
+
+			CompiledFormula formula = new CompiledFormula(column, fieldHeader, formulas.get(i),
+					getDependencies(i, dependencies, new ArrayList<Integer>()));
+
+			byColumn.put(column.getId(), formula);
+			all.add(formula);
+		}
+
+		// stable sort, formulas with the same dependencies keep the schema order
+		Collections.sort(all, new Comparator<CompiledFormula>() {
+			@Override
+			public int compare(CompiledFormula arg0, CompiledFormula arg1) {
+				return Integer.compare(arg0.getDependenciesCount(), arg1.getDependenciesCount());
+			}
+		});
+
+		// empty formulas do not need to be solved
+		this.ordered = new ArrayList<>();
+		for (CompiledFormula formula : all) {
+			if (!formula.isEmpty())
+				ordered.add(formula);
+		}
+	}
+
+	/**
+	 * Check if the plan was compiled with the same columns and formulas of the
+	 * schema
+	 *
+	 * @param schema
+	 * @return
+	 */
+	private boolean isCompiledFor(TableSchema schema) {
+
+		if (schema.size() != columns.size())
+			return false;
+
+		for (int i = 0; i < columns.size(); ++i) {
+
+			TableColumn column = schema.get(i);
+
+			if (column != columns.get(i))
+				return false;
+
+			String formula = column.getFieldByHeader(fieldHeader);
+
+			if (formula == null ? formulas.get(i) != null : !formula.equals(formulas.get(i)))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Get the not empty formulas sorted by their number of dependencies
+	 *
+	 * @return
+	 */
+	public List<CompiledFormula> getOrderedFormulas() {
+		return ordered;
+	}
+
+	/**
+	 * Get the compiled formula of a column. If the column is not part of the
+	 * schema its formula is compiled against the columns of the schema.
+	 *
+	 * @param column
+	 * @return
+	 */
+	public CompiledFormula getFormula(TableColumn column) {
+
+		CompiledFormula formula = byColumn.get(column.getId());
+
+		if (formula != null && formula.getColumn() == column)
+			return formula;
+
+		String text = column.getFieldByHeader(fieldHeader);
+
+		int dependencies = 0;
+
+		// same computation of getDependencies for a column outside the plan
+		for (int i = 0; i < columns.size(); ++i) {
+
+			if (columns.get(i).equals(column))
+				continue;
+
+			int count = count(patterns.get(i), text);
+
+			if (count > 0)
+				dependencies = dependencies + count + byColumn.get(columns.get(i).getId()).getDependenciesCount();
+		}
+
+		return new CompiledFormula(column, fieldHeader, text, dependencies);
+	}
+
+	/**
+	 * Compute the level of the tree of the dependencies of a column. A column is
+	 * dependent on the value of another column if it has in the field a formula
+	 * with %columnName.code or %columnName.label
+	 *
+	 * @param index        index of the column
+	 * @param dependencies the already computed dependencies by index
+	 * @param visiting     columns which are being computed (to stop circular
+	 *                     definitions)
+	 * @return
+	 */
+	private int getDependencies(int index, HashMap<Integer, Integer> dependencies, List<Integer> visiting) {
+
+		Integer cached = dependencies.get(index);
+		if (cached != null)
+			return cached;
+
+		if (visiting.contains(index))
+			return 0;
+
+		visiting.add(index);
+
+		String formula = formulas.get(index);
+		TableColumn column = columns.get(index);
+
+		int count = 0;
+
+		for (int i = 0; i < columns.size(); ++i) {
+
+			// evaluate the dependency just for different columns
+			if (columns.get(i).equals(column))
+				continue;
+
+			int numOfDep = count(patterns.get(i), formula);
+
+			// add number of occurrences and the nested dependencies
+			if (numOfDep > 0)
+				count = count + numOfDep + getDependencies(i, dependencies, visiting);
+		}
+
+		visiting.remove(Integer.valueOf(index));
+
+		dependencies.put(index, count);
+
+		return count;
+	}
+
+	/**
+	 * Count the occurrences of the pattern in the formula
+	 *
+	 * @param pattern
+	 * @param formula
+	 * @return
+	 */
+	private static int count(Pattern pattern, String formula) {
+
+		if (formula == null || formula.indexOf('%') < 0)
+			return 0;
+
+		Matcher m = pattern.matcher(formula);
+
+		int counter = 0;
+
+		while (m.find())
+			counter++;
+
+		return counter;
+	}
+}
@@ -1,8 +1,6 @@
 package formula;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 
 import providers.ITableDaoService;
 import providers.TableDaoService;
@@ -68,18 +66,16 @@ public class FormulaSolver {
 
 		ArrayList<Formula> solvedFormulas = new ArrayList<>();
 		
-		// get all the formulas
-		FormulaParser parser = new FormulaParser(row, daoService);
-		
-		ArrayList<Formula> formulas = parser.parse(fieldHeader);
-
-		// sort the formulas based on their number of dependencies
-		Collections.sort(formulas, new DependenciesSorter());
+		// formulas compiled once for the table, already sorted 
+		// by their number of dependencies
+		FormulaPlan plan = FormulaPlan.get(row.getSchema(), fieldHeader);
 		
 		// solve all the formulas starting from the
 		// formulas with 0 dependencies
-		for (Formula formula : formulas) {
+		for (CompiledFormula compiled : plan.getOrderedFormulas()) {
 
+			Formula formula = new Formula(row, compiled, daoService);
+			
 			// solve the formula and get the resolved text
 			String solvedFormula = formula.solve();
 			
@@ -95,26 +91,4 @@ public class FormulaSolver {
 		
 		return solvedFormulas;
 	}
-
-	/**
-	 * Sorter that sort the formulas based on their number of dependencies
-	 * @author avonva
-	 *
-	 */
-	private class DependenciesSorter implements Comparator<Formula> {
-
-		@Override
-		public int compare(Formula arg0, Formula arg1) {
-			
-			int dep0 = arg0.getDependenciesCount();
-			int dep1 = arg1.getDependenciesCount();
-			
-			if (dep0 == dep1)
-				return 0;
-			else if (dep0 < dep1)
-				return -1;
-			else
-				return 1;
-		}
-	}
 }
@@ -0,0 +1,169 @@
+package global_utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread safe cache with a maximum number of entries and an expiration time.
+ * When the cache is full the least recently used entry is removed, while the
+ * entries older than the expiration time are reloaded on the next access. The
+ * hits and misses are counted to check the effectiveness of the cache.
+ *
+ * @author shahaal
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedCache<K, V> {
+
+	private final int maxSize;
+	private final long ttlMillis;
+
+	private final LinkedHashMap<K, Entry<V>> entries;
+
+	private long hits;
+	private long misses;
+
+	/**
+	 * Create the cache
+	 *
+	 * @param maxSize   maximum number of entries
+	 * @param ttlMillis time after which an entry expires, zero or negative to keep
+	 *                  the entries until they are removed
+	 */
+	public BoundedCache(final int maxSize, long ttlMillis) {
+
+		this.maxSize = maxSize;
+		this.ttlMillis = ttlMillis;
+
+		// access order to remove the least recently used entry
+		this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+				return size() > BoundedCache.this.maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Get a value from the cache
+	 *
+	 * @param key
+	 * @return the value or null if it is not cached or it is expired
+	 */
+	public synchronized V get(K key) {
+
+		Entry<V> entry = entries.get(key);
+
+		if (entry != null && isExpired(entry)) {
+			entries.remove(key);
+			entry = null;
+		}
+
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+
+		hits++;
+
+		return entry.value;
+	}
+
+	/**
+	 * Put a value in the cache
+	 *
+	 * @param key
+	 * @param value
+	 */
+	public synchronized void put(K key, V value) {
+		entries.put(key, new Entry<V>(value));
+	}
+
+	/**
+	 * Replace the value only if the key is already cached
+	 *
+	 * @param key
+	 * @param value
+	 */
+	public synchronized void replace(K key, V value) {
+		if (entries.containsKey(key))
+			entries.put(key, new Entry<V>(value));
+	}
+
+	/**
+	 * Remove a value from the cache
+	 *
+	 * @param key
+	 */
+	public synchronized void remove(K key) {
+		entries.remove(key);
+	}
+
+	/**
+	 * Remove all the keys accepted by the filter
+	 *
+	 * @param filter
+	 */
+	public synchronized void removeIf(KeyFilter<K> filter) {
+
+		Iterator<K> iterator = entries.keySet().iterator();
+
+		while (iterator.hasNext()) {
+			if (filter.accept(iterator.next()))
+				iterator.remove();
+		}
+	}
+
+	/**
+	 * Remove all the values
+	 */
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "size=" + entries.size() + "/" + maxSize + "; hits=" + hits + "; misses=" + misses;
+	}
+
+	private boolean isExpired(Entry<V> entry) {
+		return ttlMillis > 0 && System.currentTimeMillis() - entry.created > ttlMillis;
+	}
+
+	/**
+	 * Filter of the keys to be removed
+	 *
+	 * @param <K>
+	 */
+	public interface KeyFilter<K> {
+		public boolean accept(K key);
+	}
+
+	private static class Entry<V> {
+
+		private final V value;
+		private final long created;
+
+		private Entry(V value) {
+			this.value = value;
+			this.created = System.currentTimeMillis();
+		}
+	}
+}
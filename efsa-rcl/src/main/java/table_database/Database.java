@@ -15,6 +15,7 @@ import org.apache.logging.log4j.Logger;
 
 import app_config.AppPaths;
 import app_config.PropertiesReader;
+import sql.ConnectionPool;
 import version_manager.VersionComparator;
 import xlsx_reader.TableSchema;
 import xlsx_reader.TableSchemaList;
@@ -31,6 +32,9 @@ public class Database {
 	private static final String DB_URL = "jdbc:derby:" + AppPaths.DB_FOLDER;
 	private static final String CLOSE_DB_URL = DB_URL + ";shutdown=true";
 
+	// pool of connections with the database
+	private static ConnectionPool pool;
+
 	private final IDatabaseBuilder dbBuilder;
 
 	public Database(IDatabaseBuilder dbBuilder) {
@@ -203,6 +207,15 @@ public class Database {
 	 */
 	public void shutdown() {
 		LOGGER.info("Shutting down database");
+
+		// close the pooled connections before shutting down the db
+		synchronized (Database.class) {
+			if (pool != null) {
+				pool.close();
+				pool = null;
+			}
+		}
+
 		try {
 			DriverManager.getConnection(CLOSE_DB_URL);
 		} catch (SQLException e) {
@@ -217,6 +230,19 @@ public class Database {
 	 * @throws SQLException
 	 */
 	public static Connection getConnection() throws SQLException {
-		return DriverManager.getConnection(DB_URL);
+		return getConnectionPool().getConnection();
+	}
+
+	/**
+	 * Get the pool of connections with the database, it is created if not present
+	 * and closed by {@link #shutdown()}
+	 * 
+	 * @return
+	 */
+	public static synchronized ConnectionPool getConnectionPool() {
+		if (pool == null || pool.isClosed()) {
+			pool = new ConnectionPool(DB_URL);
+		}
+		return pool;
 	}
 }
@@ -264,6 +264,9 @@ public class TableDao implements ITableDao {
 			// insert the element
 			stmt.executeUpdate();
 
+			// the cached parent is not valid anymore
+			Relation.invalidateCache(row.getSchema().getSheetName(), row.getDatabaseId());
+
 		} catch (SQLException e) {
 			LOGGER.error("Cannot update row", e);
 			e.printStackTrace();
@@ -296,6 +299,8 @@ public class TableDao implements ITableDao {
 
 			stmt.executeUpdate();
 
+			Relation.invalidateCache(schema.getSheetName());
+
 		} catch (SQLException e) {
 			LOGGER.error("Cannot delete rows", e);
 			e.printStackTrace();
@@ -333,6 +338,8 @@ public class TableDao implements ITableDao {
 
 			stmt.executeUpdate();
 
+			Relation.invalidateCache(schema.getSheetName());
+
 		} catch (SQLException e) {
 			LOGGER.error("Cannot delete rows by parent id=" + parentId, e);
 			e.printStackTrace();
@@ -554,6 +561,8 @@ public class TableDao implements ITableDao {
 
 			stmt.executeUpdate();
 
+			Relation.invalidateCache(schema.getSheetName(), rowId);
+
 		} catch (SQLException e) {
 			LOGGER.error("Cannot delete row with database id=" + rowId, e);
 			e.printStackTrace();
@@ -591,6 +600,9 @@ public class TableDao implements ITableDao {
 
 			stmt.executeBatch();
 
+			for (TableRow row : list)
+				Relation.invalidateCache(schema.getSheetName(), row.getDatabaseId());
+
 		} catch (SQLException e) {
 			LOGGER.error("Cannot delete rows", e);
 			e.printStackTrace();
@@ -718,6 +730,8 @@ public class TableDao implements ITableDao {
 			stmt.setString(1, value);
 			stmt.executeUpdate();
 
+			Relation.invalidateCache(schema.getSheetName());
+
 		} catch (SQLException e) {
 			LOGGER.error("Cannot delete rows", e);
 			e.printStackTrace();
@@ -3,12 +3,12 @@ package table_relations;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import app_config.AppPaths;
+import global_utils.BoundedCache;
 import providers.ITableDaoService;
 import providers.TableDaoService;
 import table_database.TableDao;
@@ -20,19 +20,18 @@ import xlsx_reader.TableSchemaList;
 public class Relation {
 	private static final Logger LOGGER = LogManager.getLogger(Relation.class);
 
-	// caches for each table of the database, using the
-	// table name as key
-	private static HashMap<String, TableRow> parentValueCache;
-	private static HashMap<String, Integer> lastIds;
+	// parent rows retrieved from the database, by table name and id
+	// shared by the validation and export threads
+	private static final int PARENT_CACHE_SIZE = 1000;
+	private static final long PARENT_CACHE_TTL = 5 * 60 * 1000;
+	private static final BoundedCache<ParentKey, TableRow> parentValueCache = new BoundedCache<>(
+			PARENT_CACHE_SIZE, PARENT_CACHE_TTL);
 
 	private final String parent;
 	private final String child;
 	private final boolean directRelation;
 
 	public Relation(String parent, String child, boolean directRelation) {
-		if (parentValueCache == null)	parentValueCache = new HashMap<>();
-		if (lastIds == null) 			lastIds = new HashMap<>();
-
 		this.parent = parent;
 		this.child = child;
 		this.directRelation = directRelation;
@@ -108,23 +107,24 @@ public class Relation {
 	 * @return
 	 */
 	public TableRow getParentValue(int parentId, ITableDaoService daoService) {
-		Integer lastUsedId = lastIds.get(parent);
-
-		// if we are not requiring the same parentId
-		// update cache
-		if (lastUsedId == null || parentId != lastUsedId) {
-			// get the first (and unique) value related to this
-			// relation from the parent data
-			parentValueCache.put(parent, daoService.getById(getParentSchema(), parentId));
-			lastIds.put(parent, parentId);
+		ParentKey key = new ParentKey(parent, parentId);
+
+		TableRow value = parentValueCache.get(key);
+
+		// get the first (and unique) value related to this
+		// relation from the parent data
+		if (value == null) {
+			value = daoService.getById(getParentSchema(), parentId);
+
+			if (value != null)
+				parentValueCache.put(key, value);
 		}
 
-		// return the cached value
-		return parentValueCache.get(parent);
+		return value;
 	}
 
 	public static void emptyCache() {
-		lastIds.clear();
+		LOGGER.debug("Parent rows cache emptied: " + parentValueCache);
 		parentValueCache.clear();
 	}
 
@@ -135,10 +135,49 @@ public class Relation {
 	 */
 	public static void updateCache(TableRow parentValue) {
 		String tablename = parentValue.getSchema().getSheetName();
-		Integer lastUsedId = lastIds.get(tablename);
-		if (lastUsedId != null && lastUsedId == parentValue.getDatabaseId()) {
-			parentValueCache.put(tablename, parentValue);
-		}
+		parentValueCache.replace(new ParentKey(tablename, parentValue.getDatabaseId()), parentValue);
+	}
+
+	/**
+	 * Remove a parent from the cache, since it was updated or deleted
+	 * 
+	 * @param tableName
+	 * @param id
+	 */
+	public static void invalidateCache(String tableName, int id) {
+		parentValueCache.remove(new ParentKey(tableName, id));
+	}
+
+	/**
+	 * Remove all the parents of a table from the cache
+	 * 
+	 * @param tableName
+	 */
+	public static void invalidateCache(final String tableName) {
+		parentValueCache.removeIf(new BoundedCache.KeyFilter<ParentKey>() {
+			@Override
+			public boolean accept(ParentKey key) {
+				return key.table.equals(tableName);
+			}
+		});
+	}
+
+	/**
+	 * Number of parents found in the cache
+	 * 
+	 * @return
+	 */
+	public static long getCacheHits() {
+		return parentValueCache.getHits();
+	}
+
+	/**
+	 * Number of parents retrieved from the database
+	 * 
+	 * @return
+	 */
+	public static long getCacheMisses() {
+		return parentValueCache.getMisses();
 	}
 
 	/**
@@ -250,4 +289,34 @@ public class Relation {
 		}
 		return null;
 	}
+
+	/**
+	 * Key of a parent row in the cache
+	 */
+	private static class ParentKey {
+
+		private final String table;
+		private final int id;
+
+		private ParentKey(String table, int id) {
+			this.table = table;
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+
+			if (!(obj instanceof ParentKey))
+				return false;
+
+			ParentKey other = (ParentKey) obj;
+
+			return id == other.id && table.equals(other.table);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * table.hashCode() + id;
+		}
+	}
 }
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import app_config.AppPaths;
@@ -713,6 +714,42 @@ public class TableRow implements Checkable {
 		return true;
 	}
 
+	/**
+	 * Get the values of the natural key of the row, in the schema order. Empty
+	 * values are all the same, as in {@link #sameAs(Object)}. If the row has not
+	 * a value for a column of the natural key the row can be compared only with
+	 * {@link #sameAs(Object)}, therefore null is returned
+	 */
+	@Override
+	public Object getIdentityKey() {
+
+		if (schema == null)
+			return null;
+
+		List<String> key = new ArrayList<>();
+
+		// rows of different tables are different
+		key.add(schema.getSheetName());
+
+		for (TableColumn col : schema) {
+
+			if (!col.isNaturalKey() || col.getId().equals(schema.getTableIdField()))
+				continue;
+
+			TableCell value = values.get(col.getId());
+
+			if (value == null)
+				return null;
+
+			if (value.isEmpty())
+				key.add("");
+			else
+				key.add(value.getCode() + "\u0000" + value.getLabel());
+		}
+
+		return key;
+	}
+
 	/**
 	 * Convert the row into an xml
 	 * 
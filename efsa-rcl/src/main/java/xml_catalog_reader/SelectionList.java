@@ -2,6 +2,9 @@ package xml_catalog_reader;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * List of {@link Selection}, this class represents the structure of a
@@ -14,6 +17,7 @@ public class SelectionList {
 	private String listCode;                   // name of the main .xml node of the document
 	private String id;                         // id of the selection list (e.g. BSE, SCRAPIE)
 	private Collection<Selection> selections;  // list of selections contained in the .xml
+	private volatile Map<String, Selection> index;  // selections by code, null if it needs to be built
 	
 	public SelectionList() {
 		selections = new ArrayList<>();
@@ -33,6 +37,7 @@ public class SelectionList {
 	 */
 	public void add(Selection selection) {
 		selections.add(selection);
+		index = null;
 	}
 	
 	public boolean contains(Selection selection) {
@@ -64,12 +69,34 @@ public class SelectionList {
 	}
 	
 	public Selection getSelectionByCode(String code) {
-		for (Selection sel : selections) {
-			if (sel.getCode().equals(code))
-				return sel;
+		return getIndex().get(code);
+	}
+	
+	/**
+	 * Get the selections by their code. The index is built once and
+	 * it is not modified anymore, therefore it can be read by several
+	 * threads. It is built again if a selection is added.
+	 * @return
+	 */
+	public Map<String, Selection> getIndex() {
+		
+		Map<String, Selection> map = index;
+		
+		if (map == null) {
+			
+			HashMap<String, Selection> codes = new HashMap<>();
+			
+			// keep the first selection with the code
+			for (Selection sel : selections) {
+				if (sel.getCode() != null && !codes.containsKey(sel.getCode()))
+					codes.put(sel.getCode(), sel);
+			}
+			
+			map = Collections.unmodifiableMap(codes);
+			index = map;
 		}
 		
-		return null;
+		return map;
 	}
 	
 	@Override
@@ -64,16 +64,27 @@ public class XmlContents {
 	 */
 	public Selection getElementByCode(String code) {
 		
-		Collection<Selection> objs = getAllListsElements();
-
-		for (Selection sel : objs) {
-			if (sel.getCode().equals(code))
+		// the lists are searched in order, as the elements
+		// of all the lists
+		for (SelectionList list : elements) {
+			
+			Selection sel = list.getSelectionByCode(code);
+			
+			if (sel != null)
 				return sel;
 		}
 		
 		return null;
 	}
 	
+	/**
+	 * Build the index by code of all the lists of the xml
+	 */
+	public void index() {
+		for (SelectionList list : elements)
+			list.getIndex();
+	}
+	
 	/**
 	 * Get all the elements of one list of the xml
 	 * @return
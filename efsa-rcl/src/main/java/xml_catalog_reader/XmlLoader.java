@@ -2,8 +2,9 @@ package xml_catalog_reader;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.xml.stream.XMLStreamException;
 
@@ -21,8 +22,10 @@ public class XmlLoader {
 
 	private static final Logger LOGGER = LogManager.getLogger(XmlLoader.class);
 	
-	// cache in memory to speed up
-	private static Collection<XmlContents> contents = new ArrayList<>();
+	// cache in memory to speed up, by picklist key. The map is
+	// never modified after it is loaded, therefore it can be read
+	// by several threads
+	private static volatile Map<String, XmlContents> contents;
 	
 	/**
 	 * Get a picklist by its identification key
@@ -31,29 +34,52 @@ public class XmlLoader {
 	 */
 	public static XmlContents getByPicklistKey(String id) {
 		
-		// if empty, refresh contents
-		if (contents.isEmpty()) {
-			refresh();
-		}
-
-		for (XmlContents item : contents) {
-			if (item.getCode().equals(id)) {
-				return item;
+		if (id == null)
+			return null;
+		
+		return getContents().get(id);
+	}
+	
+	/**
+	 * Get the contents, loading them only the first time
+	 * (or again if no xml was found)
+	 * @return
+	 */
+	private static Map<String, XmlContents> getContents() {
+		
+		Map<String, XmlContents> map = contents;
+		
+		if (map == null || map.isEmpty()) {
+			synchronized (XmlLoader.class) {
+				
+				map = contents;
+				
+				if (map == null || map.isEmpty()) {
+					map = refresh();
+					contents = map;
+				}
 			}
 		}
-
-		return null;
+		
+		return map;
 	}
 	
 	/**
-	 * Refresh the xml contents
+	 * Load the xml contents, indexed by their key
 	 */
-	private static void refresh() {
+	private static Map<String, XmlContents> refresh() {
 
-		File dir = new File(AppPaths.XML_FOLDER);
+		HashMap<String, XmlContents> contents = new HashMap<>();
+		
+		File[] files = new File(AppPaths.XML_FOLDER).listFiles();
+		
+		if (files == null) {
+			LOGGER.error("Cannot refresh the XmlLoader contents, folder not found " + AppPaths.XML_FOLDER);
+			return Collections.unmodifiableMap(contents);
+		}
 		
 		// parse each xml and put it into the contents list
-		for (File xml : dir.listFiles()) {
+		for (File xml : files) {
 			
 			try {
 				// parse the xml file
@@ -61,8 +87,13 @@ public class XmlLoader {
 				
 				XmlContents doc = parser.parse();
 				
-				// save the parsed contents
-				contents.add(doc);
+				// index the elements by code
+				doc.index();
+				
+				// save the parsed contents, the first xml
+				// with the key is used
+				if (doc.getCode() != null && !contents.containsKey(doc.getCode()))
+					contents.put(doc.getCode(), doc);
 				
 				parser.close();
 			} catch (XMLStreamException | IOException e) {
@@ -70,5 +101,7 @@ public class XmlLoader {
 				e.printStackTrace();
 			}
 		}
+		
+		return Collections.unmodifiableMap(contents);
 	}
 }
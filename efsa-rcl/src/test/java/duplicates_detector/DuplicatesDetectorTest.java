@@ -0,0 +1,164 @@
+package duplicates_detector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import table_relations.Relation;
+import table_skeleton.TableCell;
+import table_skeleton.TableColumn;
+import table_skeleton.TableColumn.ColumnType;
+import table_skeleton.TableColumnBuilder;
+import table_skeleton.TableRow;
+import xlsx_reader.TableSchema;
+
+public class DuplicatesDetectorTest {
+
+	private static final int ROWS = 300;
+
+	private TableSchema schema;
+
+	@BeforeEach
+	public void init() {
+
+		// the relations configuration of the tables is not needed
+		schema = new TableSchema() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public Collection<Relation> getParentTables() {
+				return new ArrayList<>();
+			}
+		};
+
+		schema.setSheetName("report");
+
+		schema.add(createColumn("country", "true"));
+		schema.add(createColumn("year", "true"));
+		schema.add(createColumn("note", "false"));
+	}
+
+	@Test
+	public void testGroupedPairsWithEmptyNaturalKeysAreTheNestedLoopPairs() {
+
+		List<TableRow> rows = new ArrayList<>();
+
+		for (int i = 0; i < ROWS; ++i) {
+
+			TableRow row = createRow(i);
+
+			// all the combinations, with empty values created in different ways
+			TableCell[] countries = { new TableCell("IT", "Italy"), new TableCell("FR", "France"), new TableCell(),
+					new TableCell(null, null) };
+
+			TableCell[] years = { new TableCell("2019", "2019"), new TableCell("2020", "2020"),
+					new TableCell("", "") };
+
+			row.put("country", countries[i % countries.length]);
+			row.put("year", years[(i / countries.length) % years.length]);
+
+			rows.add(row);
+		}
+
+		// all the rows have a key, the pairs are found by group
+		for (TableRow row : rows)
+			assertNotNull(row.getIdentityKey());
+
+		assertSamePairs(rows);
+	}
+
+	@Test
+	public void testPairsWithNullNaturalKeysAreTheNestedLoopPairs() {
+
+		List<TableRow> rows = new ArrayList<>();
+
+		for (int i = 0; i < ROWS; ++i) {
+
+			TableRow row = createRow(i);
+
+			// one row out of three has not a value for the country
+			if (i % 3 == 0)
+				row.put("country", new TableCell("IT", "Italy"));
+			else if (i % 3 == 1)
+				row.put("country", new TableCell("FR", "France"));
+
+			TableCell[] years = { new TableCell("2019", "2019"), new TableCell("2020", "2020"), new TableCell() };
+
+			row.put("year", years[(i / 3) % years.length]);
+
+			rows.add(row);
+		}
+
+		// at least a row has not a key, all the pairs are compared
+		assertNull(rows.get(findRowWithoutCountry(rows)).getIdentityKey());
+
+		assertSamePairs(rows);
+	}
+
+	/**
+	 * Check that the pairs found (sequentially and in parallel) are the ones
+	 * found comparing all the pairs of rows with a nested loop
+	 *
+	 * @param rows
+	 */
+	private static void assertSamePairs(List<TableRow> rows) {
+
+		List<String> expected = new ArrayList<>();
+
+		for (int i = 0; i < rows.size() - 1; ++i) {
+			for (int j = i + 1; j < rows.size(); ++j) {
+				if (rows.get(i).sameAs(rows.get(j)))
+					expected.add(i + "-" + j);
+			}
+		}
+
+		assertFalse(expected.isEmpty());
+
+		assertEquals(expected, toStrings(DuplicatesDetector.detectPairs(rows, false)));
+		assertEquals(expected, toStrings(DuplicatesDetector.detectPairs(rows, true)));
+	}
+
+	private static List<String> toStrings(List<int[]> pairs) {
+
+		List<String> out = new ArrayList<>();
+
+		for (int[] pair : pairs)
+			out.add(pair[0] + "-" + pair[1]);
+
+		return out;
+	}
+
+	private static int findRowWithoutCountry(List<TableRow> rows) {
+
+		for (int i = 0; i < rows.size(); ++i) {
+			if (rows.get(i).get("country") == null)
+				return i;
+		}
+
+		return -1;
+	}
+
+	private TableRow createRow(int index) {
+
+		TableRow row = new TableRow(schema);
+
+		// the columns out of the natural key are not compared
+		row.put("note", new TableCell("note" + index, ""));
+
+		return row;
+	}
+
+	private static TableColumn createColumn(String id, String naturalKey) {
+		return new TableColumnBuilder().setId(id).setCode(id).setLabel(id).setType(ColumnType.STRING)
+				.setNaturalKey(naturalKey).build();
+	}
+}
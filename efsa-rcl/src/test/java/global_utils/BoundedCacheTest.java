@@ -0,0 +1,132 @@
+package global_utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+public class BoundedCacheTest {
+
+	@Test
+	public void testLeastRecentlyUsedEntryIsEvicted() {
+
+		BoundedCache<String, Integer> cache = new BoundedCache<>(2, 0);
+
+		cache.put("a", 1);
+		cache.put("b", 2);
+
+		// a is now the most recently used
+		assertEquals(Integer.valueOf(1), cache.get("a"));
+
+		cache.put("c", 3);
+
+		assertEquals(2, cache.size());
+		assertNull(cache.get("b"));
+		assertEquals(Integer.valueOf(1), cache.get("a"));
+		assertEquals(Integer.valueOf(3), cache.get("c"));
+	}
+
+	@Test
+	public void testPutOfCachedKeyDoesNotEvict() {
+
+		BoundedCache<String, Integer> cache = new BoundedCache<>(2, 0);
+
+		cache.put("a", 1);
+		cache.put("b", 2);
+		cache.put("a", 10);
+
+		assertEquals(2, cache.size());
+		assertEquals(Integer.valueOf(10), cache.get("a"));
+		assertEquals(Integer.valueOf(2), cache.get("b"));
+	}
+
+	@Test
+	public void testExpiredEntryIsMissed() throws InterruptedException {
+
+		BoundedCache<String, Integer> cache = new BoundedCache<>(10, 50);
+
+		cache.put("a", 1);
+
+		assertEquals(Integer.valueOf(1), cache.get("a"));
+
+		Thread.sleep(200);
+
+		assertNull(cache.get("a"));
+
+		// the expired entry is removed
+		assertEquals(0, cache.size());
+
+		// a new value is valid again
+		cache.put("a", 2);
+		assertEquals(Integer.valueOf(2), cache.get("a"));
+	}
+
+	@Test
+	public void testEntriesDoNotExpireWithoutTtl() throws InterruptedException {
+
+		BoundedCache<String, Integer> cache = new BoundedCache<>(10, 0);
+
+		cache.put("a", 1);
+
+		Thread.sleep(100);
+
+		assertEquals(Integer.valueOf(1), cache.get("a"));
+	}
+
+	@Test
+	public void testInvalidation() {
+
+		BoundedCache<String, Integer> cache = new BoundedCache<>(10, 0);
+
+		cache.put("a1", 1);
+		cache.put("a2", 2);
+		cache.put("b1", 3);
+		cache.put("b2", 4);
+
+		cache.remove("a1");
+		assertNull(cache.get("a1"));
+		assertEquals(3, cache.size());
+
+		cache.removeIf(new BoundedCache.KeyFilter<String>() {
+			@Override
+			public boolean accept(String key) {
+				return key.startsWith("b");
+			}
+		});
+
+		assertNull(cache.get("b1"));
+		assertNull(cache.get("b2"));
+		assertEquals(Integer.valueOf(2), cache.get("a2"));
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertNull(cache.get("a2"));
+	}
+
+	@Test
+	public void testReplaceOnlyCachedKeys() {
+
+		BoundedCache<String, Integer> cache = new BoundedCache<>(10, 0);
+
+		cache.replace("a", 1);
+		assertNull(cache.get("a"));
+
+		cache.put("a", 1);
+		cache.replace("a", 2);
+		assertEquals(Integer.valueOf(2), cache.get("a"));
+	}
+
+	@Test
+	public void testHitsAndMisses() {
+
+		BoundedCache<String, Integer> cache = new BoundedCache<>(10, 0);
+
+		cache.get("a");
+		cache.put("a", 1);
+		cache.get("a");
+		cache.get("a");
+
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+}
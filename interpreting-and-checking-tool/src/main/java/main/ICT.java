@@ -1,20 +1,28 @@
 package main;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.FileReader;
-import java.io.PrintStream;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import business_rules.CheckResult;
 import business_rules.TermRules;
+import business_rules.TermRulesModel;
 import catalogue.Catalogue;
 import catalogue_browser_dao.CatalogueDAO;
 import dcf_manager.Dcf.DcfType;
@@ -32,8 +40,16 @@ public class ICT extends TermRules {
 	
 	private static final Logger LOGGER = LogManager.getLogger(ICT.class);
 
+	// number of codes checked by a single task
+	private static final int CHUNK_SIZE = 500;
+
+	// number of chunks which can be queued for each worker
+	private static final int CHUNKS_PER_THREAD = 4;
+
 	/**
-	 * Start the program by command line used from ICT
+	 * Start the program by command line used from ICT. The optional sixth
+	 * argument is the number of threads used to check the codes (default is the
+	 * number of available processors).
 	 * 
 	 * @param argv
 	 * @throws InterruptedException
@@ -43,8 +59,9 @@ public class ICT extends TermRules {
 		try {
 
 			// argument checks
-			if (args.length != 5) {
-				LOGGER.error("ERROR!\n Wrong number of parameters passed to app.jar. Expected 5, found" + args.length);
+			if (args.length != 5 && args.length != 6) {
+				LOGGER.error("ERROR!\n Wrong number of parameters passed to app.jar. Expected 5 or 6, found "
+						+ args.length);
 
 				// wait before close
 				Thread.sleep(2000);
@@ -60,48 +77,29 @@ public class ICT extends TermRules {
 			String mtxCode = args[3];
 			boolean local = getBoolean(args[4]);
 
+			int threads = Runtime.getRuntime().availableProcessors();
+			if (args.length == 6)
+				threads = Math.max(1, Integer.parseInt(args[5]));
+
 			// start the warning utils with the mtx catalogue
 			ICT warnUtil = new ICT(mtxCode, local);
 
-			// output file (it will capture all the standard output)
-			PrintStream out = new PrintStream(new FileOutputStream(args[1]));
-			System.setOut(out); // redirect standard output to the file
-
-			// read the codes from the input file
-			FileReader reader = new FileReader(input);
-			BufferedReader buffReader = new BufferedReader(reader);
-
-			int lineCount = 0;
-
 			LOGGER.error("\n+++++++++++++++++++ ANALYZING FOODEX2 CODES +++++++++++++++++++\n");
 
-			// read the number of lines for the progress bar
-			Path path = Paths.get(input.getAbsolutePath());
-			long totLines = Files.lines(path, StandardCharsets.ISO_8859_1).count();
-
-			// try-with-resource block
-			try (ProgressBar pb = new ProgressBar("Analysing", totLines, ProgressBarStyle.ASCII)) {
-				String line;
-				// for each code perform the warning checks
-				while ((line = buffReader.readLine()) != null) {
-
-					// add a separator among the warnings related to different codes
-					if (lineCount != 0)
-						LOGGER.info("\n");
-
-					// perform the warnings checks for the current code
-					warnUtil.performWarningChecks(line, true, true);
-					lineCount++;
-					// print progress bar
-					pb.step();
-				}
+			long start = System.currentTimeMillis();
+
+			// read the codes from the input file and write the warnings in the output file
+			long codes;
+			try (BufferedReader reader = new BufferedReader(new FileReader(input));
+					BufferedWriter writer = new BufferedWriter(new FileWriter(args[1]));) {
+				codes = warnUtil.performBatchChecks(reader, writer, input.length(), threads);
 			}
 
-			// close the input file
-			buffReader.close();
-			// close the output file
-			out.close();
+			long elapsed = Math.max(1, System.currentTimeMillis() - start);
+
 			LOGGER.error("\nAll the FoodEx2 codes has been analysed!");
+			LOGGER.error(codes + " codes analysed in " + elapsed + " ms with " + threads + " threads ("
+					+ String.format("%.1f", codes * 1000.0 / elapsed) + " codes/sec)");
 
 		} catch (Exception e) {
 			LOGGER.error("\nERROR in Main!\n" + e.getMessage());
@@ -113,7 +111,141 @@ public class ICT extends TermRules {
 
 	}
 
+	/**
+	 * Check all the codes of the reader (one code for each line). The codes are
+	 * split in chunks which are checked in parallel by a pool of workers sharing
+	 * the loaded catalogue. The warnings are written in the same order of the
+	 * codes.
+	 * 
+	 * @param reader  input codes
+	 * @param writer  output warnings
+	 * @param size    size of the input in bytes, used for the progress bar
+	 * @param threads number of workers
+	 * @return the number of checked codes
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public long performBatchChecks(BufferedReader reader, Writer writer, long size, int threads)
+			throws IOException, InterruptedException {
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+		// chunks submitted and not written yet (in input order)
+		Deque<Future<Chunk>> pending = new ArrayDeque<>();
+
+		long codes = 0;
+
+		try (ProgressBar pb = new ProgressBar("Analysing", size, ProgressBarStyle.ASCII)) {
+
+			List<String> lines = new ArrayList<>(CHUNK_SIZE);
+			long bytes = 0;
+			String line;
+
+			while ((line = reader.readLine()) != null) {
+
+				lines.add(line);
+				bytes += line.length() + 1;
+
+				if (lines.size() == CHUNK_SIZE) {
+
+					pending.add(submit(pool, lines, bytes, codes == 0));
+
+					codes += lines.size();
+					lines = new ArrayList<>(CHUNK_SIZE);
+					bytes = 0;
+
+					// limit the memory used by the queued chunks
+					if (pending.size() >= threads * CHUNKS_PER_THREAD)
+						write(pending.poll(), writer, pb);
+				}
+			}
+
+			if (!lines.isEmpty()) {
+				pending.add(submit(pool, lines, bytes, codes == 0));
+				codes += lines.size();
+			}
+
+			while (!pending.isEmpty())
+				write(pending.poll(), writer, pb);
+
+			pb.stepTo(size);
+
+		} finally {
+			pool.shutdownNow();
+		}
+
+		return codes;
+	}
+
+	/**
+	 * Submit a chunk of codes to the workers
+	 */
+	private Future<Chunk> submit(ExecutorService pool, final List<String> lines, final long bytes,
+			final boolean first) {
+
+		return pool.submit(() -> {
+
+			StringBuilder sb = new StringBuilder();
+
+			for (int i = 0; i < lines.size(); i++) {
+
+				// add a separator among the warnings related to different codes
+				if (i != 0 || !first)
+					sb.append(System.lineSeparator()).append(System.lineSeparator());
+
+				print(check(lines.get(i), true), sb);
+			}
+
+			return new Chunk(sb.toString(), bytes);
+		});
+	}
+
+	/**
+	 * Write the warnings of a chunk, waiting for its checks to be completed
+	 */
+	private static void write(Future<Chunk> future, Writer writer, ProgressBar pb)
+			throws IOException, InterruptedException {
+
+		Chunk chunk;
+
+		try {
+			chunk = future.get();
+		} catch (ExecutionException e) {
+			throw new IOException("Cannot check the FoodEx2 codes", e.getCause());
+		}
+
+		writer.write(chunk.text);
+		pb.stepBy(chunk.bytes);
+	}
+
+	/**
+	 * Warnings of a chunk of codes
+	 */
+	private static class Chunk {
+
+		private final String text;
+		private final long bytes;
+
+		private Chunk(String text, long bytes) {
+			this.text = text;
+			this.bytes = bytes;
+		}
+	}
+
 	public ICT(String mtxCode, boolean local) throws ICT.MtxNotFoundException, InterruptedException {
+		super(loadModel(mtxCode, local));
+	}
+
+	/**
+	 * Load the last version of the mtx catalogue and the rules data
+	 * 
+	 * @param mtxCode
+	 * @param local
+	 * @return
+	 * @throws ICT.MtxNotFoundException
+	 */
+	private static TermRulesModel loadModel(String mtxCode, boolean local) throws ICT.MtxNotFoundException {
+
 		CatalogueDAO catDao = new CatalogueDAO();
 		DcfType type = local ? DcfType.LOCAL : DcfType.PRODUCTION;
 
@@ -122,16 +254,15 @@ public class ICT extends TermRules {
 		if (mtx == null) {
 			throw new MtxNotFoundException(mtxCode, type);
 		}
-		currentCat = mtx;
 
 		LOGGER.error("Loading catalogue data into RAM...");
 
-		currentCat.loadData();
+		mtx.loadData();
 
-		loadFileData();
+		return TermRulesModel.load(mtx);
 	}
 
-	public class MtxNotFoundException extends FileNotFoundException {
+	public static class MtxNotFoundException extends FileNotFoundException {
 		/**
 		 * 
 		 */
@@ -142,42 +273,27 @@ public class ICT extends TermRules {
 		}
 	}
 
-	private void loadFileData() throws InterruptedException {
-
-		forbiddenProcesses = loadForbiddenProcesses(GlobalUtil.getBRData());
-		warningMessages = loadWarningMessages(GlobalUtil.getBRMessages());
-	}
-
 	/**
-	 * Print the warning messages
+	 * Print the warnings of a code
 	 * 
-	 * @param event
-	 * @param postMessageString
-	 * @param attachDatetime
-	 * @param stdOut
+	 * @param result the warnings of the code
+	 * @param out    where the warnings are printed
 	 */
-	protected void printWarning(WarningEvent event, String postMessageString, boolean attachDatetime, boolean stdOut) {
+	private static void print(CheckResult result, StringBuilder out) {
 
-		// create the warning message to be printed
-		String message = createMessage(event, postMessageString, attachDatetime);
+		for (CheckResult.Warning warning : result.getWarnings()) {
 
-		// get the warning levels for making colours
-		WarningLevel semaphoreLevel = getSemaphoreLevel(event);
-		WarningLevel textWarningLevel = getTextLevel(event);
+			// do not print the base term successfully added warning
+			if (warning.getEvent() == WarningEvent.BR22)
+				continue;
 
-		// do not print the base term successfully added warning if in stdout
-		if (stdOut && event != WarningEvent.BR22) {
-
-			StringBuilder sb = new StringBuilder();
-			sb.append(message);
-			sb.append(";");
-			sb.append(semaphoreLevel.toString());
-			sb.append(";");
-			sb.append(textWarningLevel.toString());
-
-			// print the line
-			LOGGER.info(sb.toString() + "|");
-			return;
+			out.append(warning.getMessage());
+			out.append(";");
+			out.append(warning.getSemaphoreLevel().toString());
+			out.append(";");
+			out.append(warning.getTextLevel().toString());
+			out.append("|");
+			out.append(System.lineSeparator());
 		}
 	}
 
@@ -193,10 +309,4 @@ public class ICT extends TermRules {
 		else
 			return false;
 	}
-
-	@Override
-	protected boolean highWarningsPresent() {
-		// TODO Auto-generated method stub
-		return false;
-	}
 }
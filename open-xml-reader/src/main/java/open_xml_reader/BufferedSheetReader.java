@@ -1,6 +1,7 @@
 package open_xml_reader;
 
 import java.io.InputStream;
+import java.util.Arrays;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
@@ -21,6 +22,13 @@ import org.apache.poi.xssf.usermodel.XSSFRichTextString;
  * Parser which can be used to parse a huge file in
  * a buffered way, without maintaining all the information
  * in ram memory.
+ * 
+ * Some {@link ResultDataSet} are used in turn (two by default,
+ * see {@link #setBuffersCount(int)}): while the caller reads the batch
+ * returned by {@link #next()}, the following call to {@link #next()}
+ * fills another one. Therefore a returned batch remains valid until
+ * {@link #next()} is called as many times as the buffers count, and
+ * it can be read while the next batches are parsed without copying it.
  * @author avonva
  *
  */
@@ -28,10 +36,17 @@ public class BufferedSheetReader {
 	
 	private static final Logger LOGGER = LogManager.getLogger(BufferedSheetReader.class);
 
+	private static final QName ROW_NUM_ATTR = new QName("r");
+	private static final QName CELL_TYPE_ATTR = new QName("t");
+	private static final QName REF_ATTR = new QName("ref");
+
 	// shared string table related to the sheet
 	// we are reading
 	private SharedStringsTable sharedStrings;
 	
+	// shared strings already converted, by index
+	private String[] sharedStringsCache;
+	
 	// the size of a single batch operation,
 	// i.e., the number of rows processed
 	// before waiting next()
@@ -43,8 +58,10 @@ public class BufferedSheetReader {
 	// happening
 	private int	currentRow;       // the row number in the worksheet
 	private String cellType;      // given a row and a column, this is the celltype of the cell
-	private String currentCol;    // current excel column name (as A1, G5, AA4...)
-	private ResultDataSet resultSet;  // object which contains the read data
+	private int currentCol;       // index of the current excel column (0 for A, -1 if not set)
+	private ResultDataSet resultSet;  // object which is filled with the read data
+	private ResultDataSet[] buffers;  // objects used in turn to read the batches
+	private int nextBuffer;           // index of the buffer used by the next batch
 	
 	private InputStream input;
 	
@@ -56,8 +73,11 @@ public class BufferedSheetReader {
 
 		this.sharedStrings = sharedStrings;
 		this.resultSet = new ResultDataSet();
+		this.buffers = new ResultDataSet[] { resultSet, resultSet.createBuffer() };
+		this.nextBuffer = 0;
 		this.batchSize = -1;
 		this.currentRow = -1;
+		this.currentCol = -1;
 		this.processedBatches = 0;
 		this.input = input;
 		
@@ -77,16 +97,37 @@ public class BufferedSheetReader {
 		return batchSize;
 	}
 	
+	/**
+	 * Set the number of {@link ResultDataSet} used in turn
+	 * by {@link #next()}. Call it before reading the first batch.
+	 * @param count at least 2
+	 */
+	public void setBuffersCount(int count) {
+		
+		int oldCount = buffers.length;
+		
+		buffers = Arrays.copyOf(buffers, Math.max(count, 2));
+		
+		for (int i = oldCount; i < buffers.length; ++i)
+			buffers[i] = buffers[0].createBuffer();
+		
+		nextBuffer = nextBuffer % buffers.length;
+	}
+	
 	/**
 	 * Clear the data of the parser
 	 */
 	public void clear() {
 		
-		if (resultSet != null)
-			resultSet.clear();
+		if (buffers != null) {
+			for (ResultDataSet buffer : buffers)
+				buffer.clear();
+		}
 		
 		sharedStrings = null;
+		sharedStringsCache = null;
 		resultSet = null;
+		buffers = null;
 		
 	}
 	
@@ -193,11 +234,92 @@ public class BufferedSheetReader {
 		return rowNum - 1;
 	}
 	
+	/**
+	 * Get the number of rows of the sheet declared in its dimension
+	 * element (e.g. {@code <dimension ref="A1:AB1234"/>}). Only the
+	 * first nodes of the sheet are parsed, since the dimension is placed
+	 * before the sheet data.
+	 * @param input the input stream which contains the sheet
+	 * @return the number of rows without the headers, -1 if the
+	 * dimension is not available or if it refers to a single cell (which
+	 * is written by some tools without the real size of the sheet)
+	 * @throws XMLStreamException
+	 */
+	public static int getRowCountFromDimension(InputStream input) throws XMLStreamException {
+		
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		
+		XMLEventReader reader = factory.createXMLEventReader(input);
+		
+		int rowCount = -1;
+		
+		try {
+			
+			while (reader.hasNext()) {
+				
+				XMLEvent event = reader.nextEvent();
+				
+				if (!event.isStartElement())
+					continue;
+				
+				StartElement element = event.asStartElement();
+				String qName = element.getName().getLocalPart();
+				
+				// the data started, no dimension
+				if (qName.equals("sheetData"))
+					break;
+				
+				if (qName.equals("dimension")) {
+					
+					Attribute ref = element.getAttributeByName(REF_ATTR);
+					
+					if (ref != null)
+						rowCount = getRowCount(ref.getValue());
+					
+					break;
+				}
+			}
+		}
+		finally {
+			reader.close();
+		}
+		
+		return rowCount;
+	}
+	
+	/**
+	 * Get the number of rows from a range (as A1:AB1234)
+	 * @param range
+	 * @return the number of rows without the headers, -1 if
+	 * the range is not valid or if it is a single cell
+	 */
+	private static int getRowCount(String range) {
+		
+		String[] cells = range.split(":");
+		
+		if (cells.length != 2)
+			return -1;
+		
+		try {
+			int first = Integer.parseInt(cells[0].replaceAll("[^0-9]", ""));
+			int last = Integer.parseInt(cells[1].replaceAll("[^0-9]", ""));
+			
+			// remove the headers count
+			return Math.max(last - first, 0);
+		}
+		catch (NumberFormatException e) {
+			LOGGER.error("Cannot parse the sheet dimension " + range, e);
+			return -1;
+		}
+	}
+	
 	/**
 	 * Get the next result set. If {@link #setBatchSize(int)}
 	 * was called, only the next {@link #batchSize} rows will be processed
 	 * and returned into the {@link ResultDataSet}, otherwise
-	 * all the rows will be processed.
+	 * all the rows will be processed. The returned result set is
+	 * reused (and cleared) when all the other buffers have been
+	 * used (see {@link #setBuffersCount(int)}).
 	 * @return
 	 * @throws XMLStreamException
 	 */
@@ -206,11 +328,10 @@ public class BufferedSheetReader {
 		// next => start from 0 processed rows
 		processedRows = 0;
 		
-		// clear the result set content but maintain
-		// the headers
-		if (!resultSet.isEmpty()) {
-			resultSet.clear();
-		}
+		// clear the content of the buffer we are going to fill
+		// but maintain the headers
+		resultSet = buffers[nextBuffer];
+		resultSet.clear();
 
 		// for each node of the xml
 		while (eventReader.hasNext() && canParse()) {
@@ -241,6 +362,9 @@ public class BufferedSheetReader {
 		// count the processed batches
 		processedBatches++;
 		
+		// the next batch will be read in the following buffer
+		nextBuffer = (nextBuffer + 1) % buffers.length;
+		
 		// return the result set parsed in this step
 		return resultSet;
 	}
@@ -257,15 +381,15 @@ public class BufferedSheetReader {
 		
 		// if excel row
 		if (qName.equals("row")) {
-			Attribute rowNumAttr = startElement.getAttributeByName(new QName("r"));
+			Attribute rowNumAttr = startElement.getAttributeByName(ROW_NUM_ATTR);
 			currentRow = Integer.valueOf(rowNumAttr.getValue());
 		} 
 		
 		// if excel cell
 		if (qName.equals("c")) {
 
-			Attribute cellTypeAttr = startElement.getAttributeByName(new QName("t"));
-			Attribute colNumAttr = startElement.getAttributeByName(new QName("r"));
+			Attribute cellTypeAttr = startElement.getAttributeByName(CELL_TYPE_ATTR);
+			Attribute colNumAttr = startElement.getAttributeByName(ROW_NUM_ATTR);
 
 			// get the cell type
 			if (cellTypeAttr != null)
@@ -273,11 +397,11 @@ public class BufferedSheetReader {
 			else
 				cellType = null;
 
-			// get the current column (as A1, B4...)
+			// get the current column from its name (as A1, B4...)
 			if (colNumAttr != null)
-				currentCol = colNumAttr.getValue();
+				currentCol = ResultDataSet.getColumnIndexFromLetter(colNumAttr.getValue());
 			else
-				currentCol = null;
+				currentCol = -1;
 		}
 	}
 	
@@ -290,23 +414,20 @@ public class BufferedSheetReader {
 		// get the xml node value
 		String contents = event.asCharacters().getData();
 
-		if (contents == null || currentRow == -1 || currentCol == null)
+		if (contents == null || currentRow == -1 || currentCol == -1)
 			return;
 		
-		// get the cell letter from the currentCol and row
-		String colLetter = getColLetter(currentCol, currentRow);
-		
 		// if we have a cell type (we have a string)
 		if (cellType != null) {
 			
 			contents = processString(cellType, contents);
 
 			if (contents != null)
-				addToResultSet (colLetter, contents);
+				addToResultSet (currentCol, contents);
 		}
 		else {
 			if (isIntegerContent (contents))
-				addToResultSet(colLetter, contents);
+				addToResultSet(currentCol, contents);
 		}
 	}
 	
@@ -316,7 +437,7 @@ public class BufferedSheetReader {
 	 */
 	private void end(XMLEvent event) {
 		
-		if (currentCol == null || currentRow == -1)
+		if (currentCol == -1 || currentRow == -1)
 			return;
 		
 		// get the xml node
@@ -369,8 +490,7 @@ public class BufferedSheetReader {
 			
 			// try to convert, if error => we have a string and we use it directly
 			try {
-				int idx = Integer.parseInt(contents);
-				value = new XSSFRichTextString(sharedStrings.getItemAt(idx).getString()).toString();
+				value = getSharedString(Integer.parseInt(contents));
 			} catch (NumberFormatException e) {
 				LOGGER.error("Problem on converting cell value to string for cellType " + cellType + "and contents " + contents);
 				e.printStackTrace();
@@ -390,19 +510,44 @@ public class BufferedSheetReader {
 		return value;
 	}
 	
+	/**
+	 * Get a string of the shared strings table. Each string
+	 * is converted only once, since the same strings are usually
+	 * repeated in a lot of cells.
+	 * @param idx
+	 * @return
+	 */
+	private String getSharedString(int idx) {
+		
+		if (sharedStringsCache == null)
+			sharedStringsCache = new String[Math.max(sharedStrings.getUniqueCount(), 0)];
+		
+		if (idx >= sharedStringsCache.length)
+			return new XSSFRichTextString(sharedStrings.getItemAt(idx).getString()).toString();
+		
+		String value = sharedStringsCache[idx];
+		
+		if (value == null) {
+			value = new XSSFRichTextString(sharedStrings.getItemAt(idx).getString()).toString();
+			sharedStringsCache[idx] = value;
+		}
+		
+		return value;
+	}
+	
 	/**
 	 * Add the value to the current row in the chosen column
-	 * @param colLetter the column where we want to add the value
+	 * @param column the column where we want to add the value
 	 * @param value the value we want to add
 	 */
-	private void addToResultSet(String colLetter, String value) {
+	private void addToResultSet(int column, String value) {
 
 		// header
 		if (currentRow == 1) {
-			resultSet.setHeader(value.trim().toUpperCase(), colLetter);
+			resultSet.setHeader(value.trim().toUpperCase(), column);
 		}
 		else  // data 
-			resultSet.setElem(colLetter.trim(), value);
+			resultSet.setElem(column, value);
 	}
 	
 	/**
@@ -424,16 +569,5 @@ public class BufferedSheetReader {
 		}
 		
 		return isInt;
-	}
-	
-	/**
-	 * Get the column letter starting from the 
-	 * column letter plus the row number.
-	 * @param string
-	 * @param i
-	 * @return
-	 */
-	private String getColLetter(String column , int i) {
-		return column.replace(String.valueOf(i), "").trim().toUpperCase();
-	}
+		}
 }
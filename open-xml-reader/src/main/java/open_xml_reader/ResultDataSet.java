@@ -19,11 +19,12 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -32,65 +33,88 @@ import org.apache.poi.ss.usermodel.DateUtil;
 /**
  * This class provides an interface for data set from Parsing raw excel data.
  * The interface is like resultset of sql data.
- * 
+ *
+ * The values are stored by column (one array of values for each excel column,
+ * indexed by row) and the arrays are reused when the data set is cleared, so
+ * that reading a new batch of rows does not allocate a map for each row. The
+ * headers are shared among the data sets created with {@link #createView()}
+ * and among the buffers used by the {@link BufferedSheetReader}.
+ *
  * @author thomm
- * 
+ *
  */
 public class ResultDataSet implements ResultSet, Cloneable {
-	
+
 	private static final Logger LOGGER = LogManager.getLogger(ResultDataSet.class);
 
-	HashMap< String, String > headers;
-	ArrayList< HashMap< String, String >> dataRecords;
-	HashMap< String, String > currentDataRow;
+	// initial number of rows of each column
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final Header header;
+
+	// values of each column (by column index) and row
+	String[][] columns;
+	int rowsCount;
 	Integer cursorPosition = -1;
 
+	// a view shares the data of another data set and it has only its cursor
+	private final boolean view;
+
 	public ResultDataSet() {
-		headers = new HashMap<>();
-		dataRecords = new ArrayList< HashMap< String, String >>();
-		currentDataRow = new HashMap< String, String >();
+		this(new Header(), new String[0][], 0, false);
 	}
-	
+
+	private ResultDataSet(Header header, String[][] columns, int rowsCount, boolean view) {
+		this.header = header;
+		this.columns = columns;
+		this.rowsCount = rowsCount;
+		this.view = view;
+	}
+
 	@Override
 	public Object clone() throws CloneNotSupportedException {
 
-		ResultDataSet cloned = new ResultDataSet();
-		
-		// copy headers
-		cloned.setHeaders (headers);
-		
 		// copy data
-		for (HashMap<String,String> row : dataRecords) {
-			
-			HashMap<String,String> newRow = new HashMap<>();
-			
-			for (String key : row.keySet()) {
-				newRow.put(key, row.get(key));
-			}
-			cloned.addRow (newRow);
-		}
-		
+		String[][] copy = new String[columns.length][];
+		for (int i = 0; i < columns.length; ++i)
+			copy[i] = Arrays.copyOf(columns[i], columns[i].length);
+
+		ResultDataSet cloned = new ResultDataSet(header, copy, rowsCount, false);
+
 		cloned.initScan();
 
 		return cloned;
 	}
-	
-	private void setHeaders(HashMap< String, String > headers) {
-		this.headers = headers;
+
+	/**
+	 * Create a data set which reads the same rows of this data set
+	 * without copying them. The view has its own cursor, therefore
+	 * it can be used to scan the rows in parallel with this data set.
+	 * Closing the view does not clear the data. Note that the view
+	 * becomes invalid as soon as the data of this data set are changed.
+	 * @return
+	 */
+	public ResultDataSet createView() {
+		return new ResultDataSet(header, columns, rowsCount, true);
 	}
-	
-	private void addRow(HashMap< String, String > row) {
-		dataRecords.add(row);
+
+	/**
+	 * Create an empty data set which shares the headers with
+	 * this data set
+	 * @return
+	 */
+	ResultDataSet createBuffer() {
+		return new ResultDataSet(header, new String[0][], 0, false);
 	}
-	
+
 	/**
 	 * Get the currently processed row
-	 * @return
+	 * @return a new map column letter => value
 	 */
 	public HashMap<String, String> getCurrentRow() {
-		return currentDataRow;
+		return getData(cursorPosition);
 	}
-	
+
 	/**
 	 * Get the current position of the cursor (read-only)
 	 * @return
@@ -100,32 +124,33 @@ public class ResultDataSet implements ResultSet, Cloneable {
 	}
 
 	/**
-	 * Move the cursor to the -1 position. 
+	 * Move the cursor to the -1 position.
 	 * Calling {@link #next()} after this method
 	 * will return the first data record.
 	 */
 	private void initScan () {
 		cursorPosition = -1;
 	}
-	
+
 	/**
-	 * Clear all the data (not headers)
+	 * Clear all the data (not headers). The memory used
+	 * by the columns is kept to be reused by the next rows.
 	 */
 	public void clear() {
-		
-		// clear all the hashmap data
-		for (HashMap<String,String> map : dataRecords) {
-			map.clear();
+
+		if (!view) {
+
+			// remove the values of the rows (also the row not completed yet)
+			for (String[] column : columns) {
+				Arrays.fill(column, 0, Math.min(rowsCount + 1, column.length), null);
+			}
 		}
-		
-		// clear the array list
-		dataRecords.clear();
-		
-		currentDataRow.clear();
-		
+
+		rowsCount = 0;
+
 		initScan();
 	}
-	
+
 	/**
 	 * Print the first {@code numRows} of rows
 	 * of the dataset
@@ -133,76 +158,68 @@ public class ResultDataSet implements ResultSet, Cloneable {
 	 */
 	@Deprecated
 	public void printRows (int numRows) {
-		
-		int counter = 0;
-		
+
 		String printHeaders = "";
-		for (String value : headers.values())
+		for (String value : getHeaders().values())
 			printHeaders = printHeaders + "h" + value + ";";
-		
+
 		LOGGER.info("Headers: ", printHeaders);
 		System.out.println(printHeaders);
-		
-		for (HashMap<String,String> map : dataRecords) {
-			System.out.println(map);
-			counter++;
-
-			if (counter >= numRows)
-				break;
 
+		for (int i = 0; i < rowsCount && i < numRows; ++i) {
+			System.out.println(getData(i));
 		}
 	}
-	
+
 	/**
 	 * Is the result set empty?
 	 * @return
 	 */
 	public boolean isEmpty() {
-		return dataRecords.isEmpty();
+		return rowsCount == 0;
 	}
-	
+
 	/**
 	 * Get the number of rows contained in the
 	 * sheet
 	 * @return
 	 */
 	public int getRowsCount() {
-		return dataRecords.size();
+		return rowsCount;
 	}
-	
+
 	/**
 	 * Get the progress between 0 and 100
 	 * of the rows we are processing
 	 * @return
 	 */
 	public double getProgress() {
-		return 100 * (double) cursorPosition / dataRecords.size();
+		return 100 * (double) cursorPosition / rowsCount;
 	}
 
 
 	/**
 	 * This method confirm that collection of data has next.
-	 * 
+	 *
 	 * @return
 	 */
 	public boolean hasNext () {
-		return cursorPosition < dataRecords.size() - 1;
+		return cursorPosition < rowsCount - 1;
 	}
-	
+
 	/**
 	 * Move the cursor to the next row. Return true if
-	 * it exists also another row after the 
+	 * it exists also another row after the
 	 * returned one.
 	 * @return
 	 */
 	public boolean next () {
-		
+
 		if (!hasNext())
 			return false;
-		
+
 		cursorPosition++;
-		currentDataRow = dataRecords.get(cursorPosition);
-		
+
 		return true;
 	}
 
@@ -213,26 +230,18 @@ public class ResultDataSet implements ResultSet, Cloneable {
 	 * @return
 	 */
 	public String getString (String header) {
-		
-		// get the excel column letter from the column header
-		String key = getColumnLetter (header);
 
-		// if the header is not found return default value
-		if (key == null) {
-			return "";
-		}
-		
-		// return the value inside the cell identified by the column letter
-		// and by the current row
-		String value = currentDataRow.get(key.toUpperCase());
+		// return the value inside the cell identified by the column
+		// of the header and by the current row
+		String value = getValue(getColumnIndex(header));
 
 		// if no value found, return the default
 		if (value == null)
 			return "";
-	
+
 		return value;
 	}
-	
+
 	/**
 	 * Get a boolean value
 	 * @param header
@@ -240,31 +249,25 @@ public class ResultDataSet implements ResultSet, Cloneable {
 	 * @return
 	 */
 	public boolean getBoolean (String header, boolean defaultVal) {
-		
-		// get the excel column letter from the column header
-		String key = getColumnLetter (header);
-		
-		if (key == null)
-			return defaultVal;
-				
-		// return the value inside the cell identified by the column letter
-		// and by the current row
-		String value = currentDataRow.get(key.toUpperCase());
-		
+
+		// return the value inside the cell identified by the column
+		// of the header and by the current row
+		String value = getValue(getColumnIndex(header));
+
 		// if no value found, return the default
 		if (value == null || value.trim().isEmpty())
 			return defaultVal;
-		
+
 		// if integer values for booleans
 		if (value.equals("1"))
 			value = "true";
 		else if (value.equals ("0"))
 			value = "false";
-		
+
 		return Boolean.parseBoolean(value);
 	}
-	
-	
+
+
 	/**
 	 * Get a integer value
 	 * @param header
@@ -272,24 +275,18 @@ public class ResultDataSet implements ResultSet, Cloneable {
 	 * @return
 	 */
 	public Integer getInt (String header, Integer defaultVal) {
-		
-		// get the excel column letter from the column header
-		String key = getColumnLetter (header);
-				
-		if (key == null)
-			return defaultVal;
 
-		// return the value inside the cell identified by the column letter
-		// and by the current row
-		String value = currentDataRow.get(key.toUpperCase());
-		
+		// return the value inside the cell identified by the column
+		// of the header and by the current row
+		String value = getValue(getColumnIndex(header));
+
 		// if no value found, return the default
 		if (value == null || value.isEmpty())
 			return defaultVal;
-		
+
 		return Integer.parseInt(value);
 	}
-	
+
 	/**
 	 * Get a long value
 	 * @param header
@@ -297,35 +294,29 @@ public class ResultDataSet implements ResultSet, Cloneable {
 	 * @return
 	 */
 	public long getLong (String header, long defaultVal) {
-		
-		// get the excel column letter from the column header
-		String key = getColumnLetter (header);
-				
-		if (key == null)
-			return defaultVal;
-		
-		// return the value inside the cell identified by the column letter
-		// and by the current row
-		String value = currentDataRow.get(key.toUpperCase());
-		
+
+		// return the value inside the cell identified by the column
+		// of the header and by the current row
+		String value = getValue(getColumnIndex(header));
+
 		// if no value found, return the default
 		if (value == null || value.isEmpty())
 			return defaultVal;
-		
+
 		return Long.parseLong(value);
 	}
-	
-	
+
+
 	/**
 	 * Get a timestamp from the result set (we try to get it from either a long or a string)
 	 * @param header
 	 * @return
 	 */
-	
+
 	public Timestamp getTimestamp (String columnLabel) {
 		return getTimestamp (columnLabel, false);
 	}
-	
+
 	/**
 	 * Get timestamp from long or string field, set excelDate to true to parse a long
 	 * field which is formatted as excel date (i.e. the long represents a date starting
@@ -335,28 +326,22 @@ public class ResultDataSet implements ResultSet, Cloneable {
 	 * @return
 	 */
 	public Timestamp getTimestamp (String header, boolean excelDate) {
-		
-		// get the excel column letter from the column header
-		String key = getColumnLetter (header);
-				
-		if (key == null)
-			return null;
-		
-		// return the value inside the cell identified by the column letter
-		// and by the current row
-		String value = currentDataRow.get(key.toUpperCase());
-		
+
+		// return the value inside the cell identified by the column
+		// of the header and by the current row
+		String value = getValue(getColumnIndex(header));
+
 		// if no value found, return the default
 		if (value == null || value.isEmpty())
 			return null;
-		
-		
+
+
 		Timestamp ts = null;
 		try {
-			
+
 			// get the date in long format
 			long date = Long.parseLong(value);
-			
+
 			// if we need to convert from an excel date, we convert it
 			if (excelDate)
 				ts = toSQLTimestamp(DateUtil.getJavaDate(date));
@@ -367,9 +352,9 @@ public class ResultDataSet implements ResultSet, Cloneable {
 			LOGGER.error("Problem on converting value " +  value);
 			// it was a string! => format as simple string
 			try {
-				
+
 				ts = getTimestampFromString(value, "yyyy/MM/dd");
-				
+
 			} catch (ParseException e1) {
 				LOGGER.error("Problem on parsing value " +  value);
 				e1.printStackTrace();
@@ -377,7 +362,7 @@ public class ResultDataSet implements ResultSet, Cloneable {
 		}
 		return ts;
 	}
-	
+
 	/**
 	 * Convert a java.util.date in a java.sql.timestamp, in order to store the information
 	 * in a jdbc database
@@ -385,14 +370,14 @@ public class ResultDataSet implements ResultSet, Cloneable {
 	 * @return
 	 */
 	public static java.sql.Timestamp toSQLTimestamp (Date date) {
-		
+
 		// get the timestamp from the date
 		java.sql.Timestamp timestamp = new java.sql.Timestamp(date.getTime());
-		
+
 		// return the timestamp
-		return timestamp; 
+		return timestamp;
 	}
-	
+
 	/**
 	 * Trasform a date string into a timestamp
 	 * @param dateString
@@ -400,25 +385,56 @@ public class ResultDataSet implements ResultSet, Cloneable {
 	 * @return
 	 * @throws ParseException
 	 */
-	public static java.sql.Timestamp getTimestampFromString (String dateString, 
+	public static java.sql.Timestamp getTimestampFromString (String dateString,
 			String dateFormat) throws ParseException {
-		
+
 		SimpleDateFormat format = new SimpleDateFormat(dateFormat);
 	    Date parsedDate = format.parse(dateString);
 	    return new java.sql.Timestamp(parsedDate.getTime());
 	}
-	
-	
+
+
 	/**
-	 * Get the excel column letter from the column header
+	 * Get the index of the excel column from the column header. The
+	 * index of each header is computed once and then reused.
 	 * @param colHeader
-	 * @return
+	 * @return the index, -1 if the header is not present
 	 */
-	private String getColumnLetter (String colHeader) {
-		
-		String excelColLetter = headers.get(colHeader.toUpperCase());
-		
-		return excelColLetter;
+	private int getColumnIndex (String colHeader) {
+
+		Integer index = header.indexes.get(colHeader);
+
+		if (index == null) {
+
+			index = header.columns.get(colHeader.toUpperCase());
+
+			// headers not found are not cached since they could be read later
+			if (index == null)
+				return -1;
+
+			header.indexes.put(colHeader, index);
+		}
+
+		return index;
+	}
+
+	/**
+	 * Get the value of the current row in the selected column
+	 * @param column
+	 * @return the value or null if not present
+	 */
+	private String getValue (int column) {
+
+		if (column < 0 || column >= columns.length
+				|| cursorPosition < 0 || cursorPosition >= rowsCount)
+			return null;
+
+		String[] values = columns[column];
+
+		if (cursorPosition >= values.length)
+			return null;
+
+		return values[cursorPosition];
 	}
 
 	/**
@@ -426,47 +442,168 @@ public class ResultDataSet implements ResultSet, Cloneable {
 	 */
 	public void close () {
 		clear();
-		currentDataRow.clear();
-		cursorPosition = -1;
 	}
 
 	/**
 	 * Set an header of the data table
 	 * @param key
-	 * @param value
+	 * @param value the excel column letter
 	 */
 	public void setHeader (String key , String value) {
-		headers.put(key.trim(), value.trim());
+		setHeader(key, getColumnIndexFromLetter(value.trim()));
 	}
 
 	/**
-	 * Set an element of the current data row
+	 * Set an header of the data table
 	 * @param key
+	 * @param column the index of the excel column (0 for A)
+	 */
+	public void setHeader (String key , int column) {
+		header.columns.put(key.trim(), column);
+		header.indexes.clear();
+	}
+
+	/**
+	 * Set an element of the current data row
+	 * @param key the excel column letter
 	 * @param value
 	 */
 	public void setElem (String key , String value) {
-		currentDataRow.put(key, value);
+		setElem(getColumnIndexFromLetter(key.trim().toUpperCase()), value);
+	}
+
+	/**
+	 * Set an element of the current data row
+	 * @param column the index of the excel column (0 for A)
+	 * @param value
+	 */
+	public void setElem (int column , String value) {
+
+		if (column < 0)
+			return;
+
+		// add the missing columns
+		if (column >= columns.length) {
+
+			int oldLength = columns.length;
+			columns = Arrays.copyOf(columns, column + 1);
+
+			for (int i = oldLength; i < columns.length; ++i)
+				columns[i] = new String[Math.max(INITIAL_CAPACITY, rowsCount + 1)];
+		}
+
+		String[] values = columns[column];
+
+		// enlarge the column if needed
+		if (rowsCount >= values.length) {
+			values = Arrays.copyOf(values, Math.max(values.length * 2, rowsCount + 1));
+			columns[column] = values;
+		}
+
+		values[rowsCount] = value;
 	}
 
+	/**
+	 * Complete the current data row
+	 */
 	public void setRow () {
-		dataRecords.add(currentDataRow);
-		currentDataRow = new HashMap< String, String >();
+		rowsCount++;
 	}
 
 	public String size () {
-		return new String(Integer.toString(dataRecords.size()));
+		return new String(Integer.toString(rowsCount));
 	}
 
+	/**
+	 * Get a row of the data set
+	 * @param i
+	 * @return a new map column letter => value
+	 */
 	public HashMap< String, String > getData (Integer i) {
-		return dataRecords.get(i);
+
+		HashMap< String, String > row = new HashMap<>();
+
+		if (i < 0 || i >= rowsCount)
+			return row;
+
+		for (int col = 0; col < columns.length; ++col) {
+
+			if (i < columns[col].length && columns[col][i] != null)
+				row.put(getColumnLetter(col), columns[col][i]);
+		}
+
+		return row;
 	}
 
+	/**
+	 * Get the headers of the data set
+	 * @return a new map header => column letter
+	 */
 	public HashMap< String, String > getHeaders () {
+
+		HashMap< String, String > headers = new HashMap<>();
+
+		for (Map.Entry<String, Integer> entry : header.columns.entrySet())
+			headers.put(entry.getKey(), getColumnLetter(entry.getValue()));
+
 		return headers;
 	}
 
 	public boolean contains (String string) {
-		return currentDataRow.containsKey(headers.get(string.toUpperCase()));
+		return getValue(getColumnIndex(string)) != null;
+	}
+
+	/**
+	 * Get the index of an excel column from its letters
+	 * (0 for A, 25 for Z, 26 for AA...)
+	 * @param letter the letters of the column, any other
+	 * character (e.g. the row number) is ignored
+	 * @return the index, -1 if no letter was found
+	 */
+	public static int getColumnIndexFromLetter (String letter) {
+
+		int index = 0;
+
+		for (int i = 0; i < letter.length(); ++i) {
+
+			char c = letter.charAt(i);
+
+			if (c >= 'A' && c <= 'Z')
+				index = index * 26 + (c - 'A' + 1);
+			else if (c >= 'a' && c <= 'z')
+				index = index * 26 + (c - 'a' + 1);
+			else
+				break;
+		}
+
+		return index - 1;
+	}
+
+	/**
+	 * Get the excel column letters from its index
+	 * @param index
+	 * @return
+	 */
+	public static String getColumnLetter (int index) {
+
+		StringBuilder letter = new StringBuilder();
+
+		for (int i = index + 1; i > 0; i = (i - 1) / 26)
+			letter.insert(0, (char) ('A' + (i - 1) % 26));
+
+		return letter.toString();
+	}
+
+	/**
+	 * Headers shared among the data sets which read the same sheet
+	 */
+	private static class Header {
+
+		// header (upper case) => index of the excel column
+		private final Map<String, Integer> columns = new ConcurrentHashMap<>();
+
+		// header as requested by the callers => index of the excel column
+		private final Map<String, Integer> indexes = new ConcurrentHashMap<>();
 	}
 
 	@Override
@@ -519,8 +656,13 @@ public class ResultDataSet implements ResultSet, Cloneable {
 
 	@Override
 	public int findColumn(String columnLabel) throws SQLException {
-		
-		return 0;
+
+		int index = getColumnIndex(columnLabel);
+
+		if (index == -1)
+			throw new SQLException("No column found for the header " + columnLabel);
+
+		return index + 1;
 	}
 
 	@Override
@@ -902,8 +1044,15 @@ public class ResultDataSet implements ResultSet, Cloneable {
 
 	@Override
 	public String getString(int columnIndex) throws SQLException {
-		
-		return null;
+
+		// column indexes start from 1 (see findColumn)
+		String value = getValue(columnIndex - 1);
+
+		// if no value found, return the default
+		if (value == null)
+			return "";
+
+		return value;
 	}
 
 	@Override
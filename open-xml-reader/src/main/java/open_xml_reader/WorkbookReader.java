@@ -13,6 +13,9 @@ import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.openxml4j.opc.ZipPackagePart;
 import org.apache.poi.xssf.eventusermodel.XSSFReader;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
@@ -27,6 +30,10 @@ import org.xml.sax.SAXException;
 public class WorkbookReader implements AutoCloseable {
 	
 	private static final Logger LOGGER = LogManager.getLogger(WorkbookReader.class);
+	
+	// average compressed size of a row, used to estimate the rows of a sheet
+	// when the sheet dimension is not available
+	private static final int COMPRESSED_BYTES_PER_ROW = 100;
 
 	private int rowCount = -1;
 	private BufferedSheetReader sheetParser;
@@ -108,10 +115,47 @@ public class WorkbookReader implements AutoCloseable {
 		sheetParser = new BufferedSheetReader (sheetReader, 
 				reader.getSharedStringsTable());
 		
-		// get the number of rows for the sheet
+		// get the number of rows for the sheet from its dimension (only
+		// the beginning of the sheet is read) or estimate it
 		InputStream input = reader.getSheet(sheetRId);
-		rowCount = BufferedSheetReader.getRowCount(input);
+		rowCount = BufferedSheetReader.getRowCountFromDimension(input);
 		input.close();
+		
+		if (rowCount == -1)
+			rowCount = estimateRowCount(sheetRId);
+		
+		LOGGER.debug("Sheet " + name + " rows count=" + rowCount);
+	}
+	
+	/**
+	 * Estimate the number of rows of a sheet using the compressed
+	 * size of its entry in the workbook package
+	 * @param sheetRId relationship id of the sheet
+	 * @return the estimated rows count, 0 if it cannot be computed
+	 */
+	private int estimateRowCount(String sheetRId) {
+		
+		try {
+			
+			PackagePart wbPart = pkg.getPart(pkg.getRelationshipsByType(
+					PackageRelationshipTypes.CORE_DOCUMENT).getRelationship(0));
+			
+			PackagePart sheetPart = wbPart.getRelatedPart(wbPart.getRelationship(sheetRId));
+			
+			if (!(sheetPart instanceof ZipPackagePart))
+				return 0;
+			
+			long size = ((ZipPackagePart) sheetPart).getZipArchive().getCompressedSize();
+			
+			if (size <= 0)
+				return 0;
+			
+			return (int) Math.min(Integer.MAX_VALUE, size / COMPRESSED_BYTES_PER_ROW);
+		}
+		catch (InvalidFormatException | RuntimeException e) {
+			LOGGER.error("Cannot estimate the rows count of the sheet with id=" + sheetRId, e);
+			return 0;
+		}
 	}
 
 	/**
@@ -129,7 +173,9 @@ public class WorkbookReader implements AutoCloseable {
 	/**
 	 * Get the number of rows for the current sheet
 	 * Note that you must call {@link #processSheetName(String)}
-	 * to have a consistent result.
+	 * to have a consistent result. The number is taken from
+	 * the sheet dimension if present, otherwise it is estimated,
+	 * therefore it should be used only to show the progress.
 	 * @return
 	 */
 	public int getRowCount() {
@@ -152,11 +198,28 @@ public class WorkbookReader implements AutoCloseable {
 
 		sheetParser.setBatchSize(batchSize);
 	}
+	
+	/**
+	 * Set the number of result sets used in turn by
+	 * the current {@link #sheetParser}, see
+	 * {@link BufferedSheetReader#setBuffersCount(int)}
+	 * @param count
+	 */
+	public void setBuffersCount(int count) {
+		
+		if (sheetParser == null)
+			return;
+		
+		sheetParser.setBuffersCount(count);
+	}
+	
 	public BufferedSheetReader getSheetParser() {
 		return sheetParser;
 	}
 	/**
-	 * Get the next batch result set from the parser
+	 * Get the next batch result set from the parser. The result
+	 * set is reused by the parser after the following batches,
+	 * see {@link BufferedSheetReader#next()}.
 	 * @return
 	 * @throws XMLStreamException
 	 */
@@ -165,8 +228,11 @@ public class WorkbookReader implements AutoCloseable {
 		if (sheetParser == null)
 			return null;
 		
-		LOGGER.debug("Next batch result set " + sheetParser.next());
-		return sheetParser.next();
+		ResultDataSet next = sheetParser.next();
+		
+		LOGGER.debug("Next batch result set with rows=" + next.getRowsCount());
+		
+		return next;
 	}
 
 	/**
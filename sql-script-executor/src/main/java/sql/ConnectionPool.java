@@ -0,0 +1,309 @@
+package sql;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Pool of long-lived connections to a single database url. Connections
+ * returned by {@link #getConnection()} can be used exactly as the ones returned
+ * by {@link DriverManager#getConnection(String)}: calling
+ * {@link Connection#close()} gives the connection back to the pool instead of
+ * closing it. Each pooled connection keeps a cache of prepared statements keyed
+ * by their sql text, so that the same query is compiled only once for each
+ * physical connection.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+	private static final Logger LOGGER = LogManager.getLogger(ConnectionPool.class);
+
+	// default number of physical connections kept open
+	public static final int DEFAULT_MAX_SIZE = 8;
+
+	// default number of prepared statements cached for each connection
+	public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+	// how long to wait for a free connection before opening an extra one
+	private static final long WAIT_TIMEOUT_MS = 2000;
+
+	private final String url;
+	private final int maxSize;
+	private final int statementCacheSize;
+
+	// connections which are open but not used by anyone
+	private final Deque<PooledConnection> idle = new ArrayDeque<>();
+
+	// number of physical connections currently open (idle + in use)
+	private int total;
+
+	private boolean closed;
+
+	// counters
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong created = new AtomicLong();
+	private final AtomicLong waits = new AtomicLong();
+	private final AtomicLong statementHits = new AtomicLong();
+	private final AtomicLong statementMisses = new AtomicLong();
+
+	/**
+	 * Create a pool for the database url with default settings
+	 *
+	 * @param url jdbc url of the database
+	 */
+	public ConnectionPool(String url) {
+		this(url, DEFAULT_MAX_SIZE, DEFAULT_STATEMENT_CACHE_SIZE);
+	}
+
+	/**
+	 * Create a pool for the database url
+	 *
+	 * @param url                jdbc url of the database
+	 * @param maxSize            number of physical connections kept open
+	 * @param statementCacheSize number of prepared statements cached for each
+	 *                           connection
+	 */
+	public ConnectionPool(String url, int maxSize, int statementCacheSize) {
+		this.url = url;
+		this.maxSize = Math.max(1, maxSize);
+		this.statementCacheSize = Math.max(0, statementCacheSize);
+	}
+
+	/**
+	 * Get a connection from the pool. If no connection is free and the pool is
+	 * full, the method waits for a connection to be released. If no connection is
+	 * released in time, an extra connection is opened (and closed once released)
+	 * to avoid deadlocks when a thread needs more than one connection at a time.
+	 *
+	 * @return a connection which is given back to the pool when closed
+	 * @throws SQLException
+	 */
+	public Connection getConnection() throws SQLException {
+
+		requests.incrementAndGet();
+
+		PooledConnection pooled = null;
+
+		synchronized (idle) {
+
+			if (closed)
+				throw new SQLException("The connection pool for " + url + " is closed");
+
+			long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+			boolean waited = false;
+
+			while (idle.isEmpty() && total >= maxSize && !closed) {
+
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0)
+					break;
+
+				if (!waited) {
+					waits.incrementAndGet();
+					waited = true;
+				}
+
+				try {
+					idle.wait(remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+
+			// discard the connections closed externally
+			// (e.g. database shutdown)
+			while (!idle.isEmpty() && pooled == null) {
+				PooledConnection candidate = idle.pop();
+				if (candidate.isValid())
+					pooled = candidate;
+				else
+					total--;
+			}
+
+			if (pooled != null)
+				hits.incrementAndGet();
+			else
+				total++; // reserve the slot for the new connection
+		}
+
+		if (pooled == null) {
+			try {
+				pooled = new PooledConnection(this, DriverManager.getConnection(url), statementCacheSize);
+				created.incrementAndGet();
+			} catch (SQLException e) {
+				synchronized (idle) {
+					total--;
+					idle.notifyAll();
+				}
+				throw e;
+			}
+		}
+
+		return pooled.lease();
+	}
+
+	/**
+	 * Give back a connection to the pool
+	 *
+	 * @param pooled
+	 */
+	void release(PooledConnection pooled) {
+
+		boolean reusable = pooled.reset();
+
+		synchronized (idle) {
+
+			// keep the connection only if the pool is not
+			// over its size (extra connections are discarded)
+			if (reusable && !closed && total <= maxSize) {
+				idle.push(pooled);
+				idle.notifyAll();
+				return;
+			}
+
+			total--;
+			idle.notifyAll();
+		}
+
+		pooled.closePhysical();
+	}
+
+	void statementHit() {
+		statementHits.incrementAndGet();
+	}
+
+	void statementMiss() {
+		statementMisses.incrementAndGet();
+	}
+
+	/**
+	 * Close all the idle connections and refuse new requests. Connections which
+	 * are currently in use are closed as soon as they are released.
+	 */
+	@Override
+	public void close() {
+
+		Deque<PooledConnection> toClose;
+
+		synchronized (idle) {
+
+			if (closed)
+				return;
+
+			closed = true;
+			toClose = new ArrayDeque<>(idle);
+			total -= idle.size();
+			idle.clear();
+			idle.notifyAll();
+		}
+
+		for (PooledConnection pooled : toClose)
+			pooled.closePhysical();
+
+		LOGGER.info("Connection pool closed for " + url + " " + this);
+	}
+
+	/**
+	 * Check if the pool was closed
+	 *
+	 * @return
+	 */
+	public boolean isClosed() {
+		synchronized (idle) {
+			return closed;
+		}
+	}
+
+	/**
+	 * Get the url of the database
+	 *
+	 * @return
+	 */
+	public String getUrl() {
+		return url;
+	}
+
+	/**
+	 * Number of connection requests
+	 *
+	 * @return
+	 */
+	public long getRequests() {
+		return requests.get();
+	}
+
+	/**
+	 * Number of requests served with an already open connection
+	 *
+	 * @return
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Number of physical connections opened by the pool
+	 *
+	 * @return
+	 */
+	public long getCreated() {
+		return created.get();
+	}
+
+	/**
+	 * Number of requests which had to wait for a connection to be released
+	 *
+	 * @return
+	 */
+	public long getWaits() {
+		return waits.get();
+	}
+
+	/**
+	 * Number of prepared statements served from the cache
+	 *
+	 * @return
+	 */
+	public long getStatementHits() {
+		return statementHits.get();
+	}
+
+	/**
+	 * Number of prepared statements which had to be compiled
+	 *
+	 * @return
+	 */
+	public long getStatementMisses() {
+		return statementMisses.get();
+	}
+
+	/**
+	 * Ratio between the prepared statements served from the cache and all the
+	 * prepared statements requested
+	 *
+	 * @return a value between 0 and 1
+	 */
+	public double getStatementCacheHitRatio() {
+
+		long hit = statementHits.get();
+		long all = hit + statementMisses.get();
+
+		if (all == 0)
+			return 0;
+
+		return (double) hit / all;
+	}
+
+	@Override
+	public String toString() {
+		return "requests=" + getRequests() + " hits=" + getHits() + " created=" + getCreated() + " waits="
+				+ getWaits() + " statementHitRatio=" + String.format("%.2f", getStatementCacheHitRatio());
+	}
+}
@@ -0,0 +1,358 @@
+package sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Physical connection managed by a {@link ConnectionPool}. Each time the
+ * connection is taken from the pool a new proxy (lease) is created, so that a
+ * connection closed by a user cannot be used anymore even if the physical
+ * connection is given to someone else.
+ */
+class PooledConnection {
+
+	private static final Logger LOGGER = LogManager.getLogger(PooledConnection.class);
+
+	private static final int NO_KEYS = -1;
+
+	private final ConnectionPool pool;
+	private final Connection physical;
+	private final int cacheSize;
+
+	// prepared statements cached by sql text (lru order)
+	private final LinkedHashMap<String, PreparedStatement> statements;
+
+	// cached statements currently used by the lease
+	private final Set<String> inUse = new HashSet<>();
+
+	// statements which are not cached, closed when the lease ends
+	private final List<Statement> uncached = new ArrayList<>();
+
+	PooledConnection(ConnectionPool pool, Connection physical, int cacheSize) {
+		this.pool = pool;
+		this.physical = physical;
+		this.cacheSize = cacheSize;
+		this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+
+				// never evict a statement which is being used
+				if (size() <= PooledConnection.this.cacheSize || inUse.contains(eldest.getKey()))
+					return false;
+
+				closeQuietly(eldest.getValue());
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Create a new lease of the connection
+	 *
+	 * @return
+	 */
+	Connection lease() {
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, new Lease());
+	}
+
+	/**
+	 * Check if the physical connection can still be used
+	 *
+	 * @return
+	 */
+	boolean isValid() {
+		try {
+			return !physical.isClosed();
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Prepare the connection for the next user
+	 *
+	 * @return true if the connection can be reused
+	 */
+	boolean reset() {
+
+		for (Statement stmt : uncached)
+			closeQuietly(stmt);
+
+		uncached.clear();
+
+		// statements not closed by the user are dropped
+		// since they could still have open result sets
+		for (String key : inUse) {
+			PreparedStatement stmt = statements.remove(key);
+			closeQuietly(stmt);
+		}
+
+		inUse.clear();
+
+		try {
+
+			if (physical.isClosed())
+				return false;
+
+			// discard uncommitted changes as a
+			// normal close would have refused them
+			if (!physical.getAutoCommit()) {
+				physical.rollback();
+				physical.setAutoCommit(true);
+			}
+
+			return true;
+
+		} catch (SQLException e) {
+			LOGGER.error("Cannot reset pooled connection", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Close the physical connection and all its statements
+	 */
+	void closePhysical() {
+
+		for (PreparedStatement stmt : statements.values())
+			closeQuietly(stmt);
+
+		statements.clear();
+
+		try {
+			physical.close();
+		} catch (SQLException e) {
+			LOGGER.error("Cannot close pooled connection", e);
+		}
+	}
+
+	/**
+	 * Get a prepared statement from the cache or prepare it
+	 *
+	 * @param proxy    the connection proxy which requested the statement
+	 * @param lease    the lease which requested the statement
+	 * @param sql
+	 * @param autoKeys flag for generated keys or {@link #NO_KEYS}
+	 * @return
+	 * @throws SQLException
+	 */
+	private PreparedStatement prepare(Connection proxy, Lease lease, String sql, int autoKeys) throws SQLException {
+
+		String key = autoKeys + ":" + sql;
+
+		// the same query is already used by the caller
+		// (e.g. nested loops): use a not cached statement
+		if (cacheSize == 0 || inUse.contains(key)) {
+			PreparedStatement stmt = autoKeys == NO_KEYS ? physical.prepareStatement(sql)
+					: physical.prepareStatement(sql, autoKeys);
+			uncached.add(stmt);
+			pool.statementMiss();
+			return stmt;
+		}
+
+		PreparedStatement stmt = statements.get(key);
+
+		if (stmt == null || stmt.isClosed()) {
+			stmt = autoKeys == NO_KEYS ? physical.prepareStatement(sql) : physical.prepareStatement(sql, autoKeys);
+			pool.statementMiss();
+		} else {
+			pool.statementHit();
+		}
+
+		inUse.add(key);
+		statements.put(key, stmt);
+
+		return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+				new Class<?>[] { PreparedStatement.class }, new CachedStatement(proxy, lease, key, stmt));
+	}
+
+	private static void closeQuietly(Statement stmt) {
+
+		if (stmt == null)
+			return;
+
+		try {
+			stmt.close();
+		} catch (SQLException e) {
+			LOGGER.error("Cannot close statement", e);
+		}
+	}
+
+	private static Object call(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Connection given to the user of the pool
+	 */
+	private class Lease implements InvocationHandler {
+
+		private boolean closed;
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+			String name = method.getName();
+
+			switch (name) {
+			case "close":
+				if (!closed) {
+					closed = true;
+					pool.release(PooledConnection.this);
+				}
+				return null;
+			case "isClosed":
+				return closed || physical.isClosed();
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "Pooled " + physical;
+			default:
+				break;
+			}
+
+			if (closed)
+				throw new SQLException("Connection already closed");
+
+			// cache only the plain prepared statements
+			if (name.equals("prepareStatement") && args.length == 1)
+				return prepare((Connection) proxy, this, (String) args[0], NO_KEYS);
+
+			if (name.equals("prepareStatement") && args.length == 2 && args[1] instanceof Integer)
+				return prepare((Connection) proxy, this, (String) args[0], (Integer) args[1]);
+
+			Object result = call(physical, method, args);
+
+			if (result instanceof Statement)
+				uncached.add((Statement) result);
+
+			return result;
+		}
+	}
+
+	/**
+	 * Prepared statement given to the user of the pool. Closing it gives it back
+	 * to the cache.
+	 */
+	private class CachedStatement implements InvocationHandler {
+
+		private final Connection connection;
+		private final Lease lease;
+		private final String key;
+		private final PreparedStatement stmt;
+		private ResultSet lastResult;
+		private boolean closed;
+
+		CachedStatement(Connection connection, Lease lease, String key, PreparedStatement stmt) {
+			this.connection = connection;
+			this.lease = lease;
+			this.key = key;
+			this.stmt = stmt;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+			String name = method.getName();
+
+			switch (name) {
+			case "close":
+				if (!closed) {
+					closed = true;
+
+					// if the connection was already given back
+					// the statement was already cleaned by the pool
+					if (!lease.closed)
+						giveBack();
+				}
+				return null;
+			case "isClosed":
+				return closed || lease.closed || stmt.isClosed();
+			case "getConnection":
+				return connection;
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "Cached " + stmt;
+			default:
+				break;
+			}
+
+			if (closed || lease.closed)
+				throw new SQLException("Statement already closed");
+
+			Object result = call(stmt, method, args);
+
+			// previous result sets are closed by the statement itself
+			if (result instanceof ResultSet)
+				lastResult = (ResultSet) result;
+
+			return result;
+		}
+
+		/**
+		 * Clean the statement and put it back in the cache
+		 */
+		private void giveBack() {
+
+			try {
+
+				if (lastResult != null)
+					lastResult.close();
+
+				stmt.clearParameters();
+				stmt.clearBatch();
+
+				inUse.remove(key);
+
+			} catch (SQLException e) {
+
+				LOGGER.error("Cannot reuse cached statement", e);
+
+				inUse.remove(key);
+				statements.remove(key);
+				closeQuietly(stmt);
+			}
+
+			lastResult = null;
+
+			// evict the statements over the size which were in use
+			Iterator<Map.Entry<String, PreparedStatement>> it = statements.entrySet().iterator();
+			while (statements.size() > cacheSize && it.hasNext()) {
+				Map.Entry<String, PreparedStatement> entry = it.next();
+				if (!inUse.contains(entry.getKey())) {
+					closeQuietly(entry.getValue());
+					it.remove();
+				}
+			}
+		}
+	}
+}
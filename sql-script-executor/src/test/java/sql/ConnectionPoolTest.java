@@ -0,0 +1,210 @@
+package sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConnectionPoolTest {
+
+	private static final String DB = "jdbc:derby:memory:poolTest";
+
+	private static final String SELECT = "select VALUE from ITEMS where ID = ?";
+	private static final String INSERT = "insert into ITEMS (ID, VALUE) values (?, ?)";
+
+	private ConnectionPool pool;
+
+	@BeforeEach
+	public void init() throws SQLException {
+
+		try (Connection con = DriverManager.getConnection(DB + ";create=true");
+				Statement stmt = con.createStatement();) {
+			stmt.executeUpdate("create table ITEMS (ID int primary key, VALUE varchar(20))");
+			stmt.executeUpdate("insert into ITEMS values (1, 'one'), (2, 'two')");
+		}
+
+		pool = new ConnectionPool(DB, 3, 2);
+	}
+
+	@AfterEach
+	public void clean() {
+
+		pool.close();
+
+		// dropping the database always ends with an exception
+		try {
+			DriverManager.getConnection(DB + ";drop=true");
+		} catch (SQLException e) {
+		}
+	}
+
+	@Test
+	public void testLeaseCannotBeUsedAfterClose() throws SQLException {
+
+		Connection con = pool.getConnection();
+		PreparedStatement stmt = con.prepareStatement(SELECT);
+
+		con.close();
+
+		assertTrue(con.isClosed());
+		assertTrue(stmt.isClosed());
+		assertThrows(SQLException.class, () -> con.createStatement());
+		assertThrows(SQLException.class, () -> con.prepareStatement(SELECT));
+		assertThrows(SQLException.class, () -> stmt.executeQuery());
+
+		// the physical connection is given to a new lease, the old one stays closed
+		try (Connection other = pool.getConnection();) {
+
+			assertEquals(1, pool.getCreated());
+			assertFalse(other.isClosed());
+
+			assertThrows(SQLException.class, () -> con.createStatement());
+		}
+	}
+
+	@Test
+	public void testCachedStatementIsCleanedBeforeReuse() throws SQLException {
+
+		try (Connection con = pool.getConnection();) {
+
+			PreparedStatement insert = con.prepareStatement(INSERT);
+			insert.setInt(1, 3);
+			insert.setString(2, "three");
+			insert.addBatch();
+
+			// closed without executing the batch
+			insert.close();
+
+			PreparedStatement select = con.prepareStatement(SELECT);
+			select.setInt(1, 1);
+			ResultSet rs = select.executeQuery();
+			select.close();
+
+			assertTrue(rs.isClosed());
+
+			// the same statements from the cache
+			insert = con.prepareStatement(INSERT);
+
+			assertEquals(1, pool.getStatementHits());
+
+			// batch and parameters were cleared
+			assertEquals(0, insert.executeBatch().length);
+			assertThrows(SQLException.class, insert::executeUpdate);
+			insert.close();
+
+			select = con.prepareStatement(SELECT);
+			select.setInt(1, 2);
+
+			try (ResultSet rs2 = select.executeQuery();) {
+				assertTrue(rs2.next());
+				assertEquals("two", rs2.getString(1));
+			}
+
+			select.close();
+
+			assertEquals(2, pool.getStatementHits());
+			assertEquals(2, pool.getStatementMisses());
+		}
+	}
+
+	@Test
+	public void testLeastRecentlyUsedStatementIsEvicted() throws SQLException {
+
+		try (Connection con = pool.getConnection();) {
+
+			PreparedStatement first = con.prepareStatement(SELECT);
+			PreparedStatement firstPhysical = first.unwrap(PreparedStatement.class);
+			first.close();
+
+			PreparedStatement second = con.prepareStatement(INSERT);
+			PreparedStatement secondPhysical = second.unwrap(PreparedStatement.class);
+			second.close();
+
+			// the cache holds two statements, the first one is evicted
+			con.prepareStatement("select count(*) from ITEMS").close();
+
+			assertTrue(firstPhysical.isClosed());
+			assertFalse(secondPhysical.isClosed());
+
+			// the second statement is used, then the evicted one is prepared again
+			con.prepareStatement(INSERT).close();
+			con.prepareStatement(SELECT).close();
+
+			assertEquals(1, pool.getStatementHits());
+			assertEquals(4, pool.getStatementMisses());
+		}
+	}
+
+	@Test
+	public void testConcurrentBorrowAndReleaseUpToTheMaximum() throws Exception {
+
+		final int threads = 8;
+		final int loops = 20;
+
+		final AtomicInteger leased = new AtomicInteger();
+		final AtomicInteger maxLeased = new AtomicInteger();
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		List<Future<Void>> results = new ArrayList<>();
+
+		for (int i = 0; i < threads; ++i) {
+			results.add(executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+
+					for (int j = 0; j < loops; ++j) {
+
+						try (Connection con = pool.getConnection();
+								PreparedStatement stmt = con.prepareStatement(SELECT);) {
+
+							int current = leased.incrementAndGet();
+							maxLeased.accumulateAndGet(current, Math::max);
+
+							stmt.setInt(1, 1 + j % 2);
+
+							try (ResultSet rs = stmt.executeQuery();) {
+								assertTrue(rs.next());
+							}
+
+							Thread.sleep(1);
+
+							leased.decrementAndGet();
+						}
+					}
+
+					return null;
+				}
+			}));
+		}
+
+		for (Future<Void> result : results)
+			result.get();
+
+		executor.shutdown();
+
+		// the threads waited for the connections instead of opening new ones
+		assertTrue(maxLeased.get() <= 3);
+		assertTrue(pool.getCreated() <= 3);
+		assertEquals(threads * loops, pool.getRequests());
+		assertEquals(pool.getRequests() - pool.getCreated(), pool.getHits());
+	}
+}
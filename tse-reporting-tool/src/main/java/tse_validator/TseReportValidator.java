@@ -9,6 +9,7 @@ import org.apache.logging.log4j.Logger;
 
 import app_config.AppPaths;
 import date_comparator.TseDate;
+import duplicates_detector.DuplicatesDetector;
 import formula.FormulaException;
 import i18n_messages.TSEMessages;
 import providers.ITableDaoService;
@@ -169,36 +170,43 @@ public class TseReportValidator extends ReportValidator {
 	 */
 	public Collection<ReportError> checkDuplicatedSummId(ArrayList<TableRow> reportRecords) {
 		Collection<ReportError> errors = new ArrayList<>();
+
+		// only the summarised information are compared
+		List<TableRow> summRecords = new ArrayList<>();
+		for (TableRow row : reportRecords) {
+			if (TseReportService.getRowType(row) == RowType.SUMM)
+				summRecords.add(row);
+		}
+
 		// the set store the values already analysed
 		Set<Integer> indexComputed = new HashSet<>();
 
-		for (int i = 0; i < reportRecords.size() - 1; i++) {
-			TableRow current = reportRecords.get(i);
-			// if the row is not summ or already computed skip
-			if (TseReportService.getRowType(current) != RowType.SUMM || indexComputed.contains(i))
-				continue;
+		// the records with same values under natural key, grouped by key
+		// the pairs are sorted as in a nested loop on the records
+		int current = -1;
+		boolean skip = false;
+		for (int[] pair : DuplicatesDetector.detectPairs(summRecords, true)) {
 
-			for (int j = i + 1; j < reportRecords.size(); j++) {
-				TableRow next = reportRecords.get(j);
+			// if the current record was already computed skip all its pairs
+			if (pair[0] != current) {
+				current = pair[0];
+				skip = indexComputed.contains(current);
+			}
 
-				// if the row is not summ or already computed or same as the current skip
-				if (TseReportService.getRowType(next) != RowType.SUMM || indexComputed.contains(j))
-					continue;
+			// if the other record was already computed skip
+			if (skip || indexComputed.contains(pair[1]))
+				continue;
 
-				// if the records has same values under natural key
-				if (current.sameAs(next)) {
-					// get their ids
-					String rowId1 = getStackTrace(current);
-					String rowId2 = getStackTrace(next);
+			// get their ids
+			String rowId1 = getStackTrace(summRecords.get(pair[0]));
+			String rowId2 = getStackTrace(summRecords.get(pair[1]));
 
-					// add their indexes to the set
-					indexComputed.add(j);
-					indexComputed.add(i);
+			// add their indexes to the set
+			indexComputed.add(pair[0]);
+			indexComputed.add(pair[1]);
 
-					// add the error to print
-					errors.add(new DuplicatedContextError(rowId1, rowId2));
-				}
-			}
+			// add the error to print
+			errors.add(new DuplicatedContextError(rowId1, rowId2));
 		}
 
 		return errors;